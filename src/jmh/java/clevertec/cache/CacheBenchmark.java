@@ -0,0 +1,89 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.LfuCache;
+import clevertec.cache.impl.LruCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Измеряет стоимость одной операции {@link LruCache} и {@link LfuCache} при размерах кэша
+ * от 1k до 1M элементов. Для O(1) реализации время операции не должно расти вместе с размером.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+
+    private static final int MASK = (1 << 20) - 1;
+
+    @Param({"lru", "lfu"})
+    private String policy;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private Cache<Integer, Integer> cache;
+    private Integer[] hitKeys;
+    private Integer[] missKeys;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = switch (policy) {
+            case "lru" -> new LruCache<>(size);
+            case "lfu" -> new LfuCache<>(size);
+            default -> throw new IllegalArgumentException("Unsupported cache type: " + policy);
+        };
+        hitKeys = new Integer[MASK + 1];
+        missKeys = new Integer[MASK + 1];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < size; i++) {
+            cache.put(i, i);
+        }
+        for (int i = 0; i <= MASK; i++) {
+            hitKeys[i] = random.nextInt(size);
+            missKeys[i] = size + i;
+        }
+    }
+
+    @Benchmark
+    public Optional<Integer> get() {
+        return cache.get(hitKeys[index++ & MASK]);
+    }
+
+    @Benchmark
+    public void putUpdate() {
+        Integer key = hitKeys[index++ & MASK];
+        cache.put(key, key);
+    }
+
+    @Benchmark
+    public void putEvict() {
+        Integer key = missKeys[index++ & MASK];
+        cache.put(key, key);
+    }
+
+    @Benchmark
+    public void deleteAndPut() {
+        Integer key = hitKeys[index++ & MASK];
+        cache.delete(key);
+        cache.put(key, key);
+    }
+}
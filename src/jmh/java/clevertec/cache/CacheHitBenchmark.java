@@ -0,0 +1,92 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.ConcurrentLfuCache;
+import clevertec.cache.impl.ConcurrentLruCache;
+import clevertec.cache.impl.StripedCache;
+import clevertec.cache.impl.TinyLfuCache;
+import clevertec.dao.ProductDao;
+import clevertec.entity.Product;
+import clevertec.proxy.DaoProxyImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Измеряет попадание в кэш продуктов через {@link Cache#get(Object)}, {@link Cache#getIfPresent(Object)}
+ * и {@link DaoProxyImpl#findProductById(UUID)}. Анализ выхода объектов отключен, чтобы
+ * JIT не скрывал выделения памяти. Запуск с профилировщиком памяти:
+ * <pre>
+ * gradle jmh -Pjmh.include=CacheHitBenchmark -Pjmh.args="-prof gc"
+ * </pre>
+ * Для {@code getIfPresent} и {@code findProductById} значение {@code gc.alloc.rate.norm}
+ * должно быть близко к нулю, а для {@code get} — равно размеру {@link Optional}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:-DoEscapeAnalysis")
+public class CacheHitBenchmark {
+
+    private static final int KEYS = 1 << 14;
+    private static final int MASK = KEYS - 1;
+
+    @Param({"lru", "lfu", "tinylfu"})
+    private String policy;
+
+    private Cache<UUID, Product> cache;
+    private DaoProxyImpl daoProxy;
+    private UUID[] keys;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = switch (policy) {
+            case "lru" -> new ConcurrentLruCache<>(KEYS * 2, 4);
+            case "lfu" -> new ConcurrentLfuCache<>(KEYS * 2, 4);
+            case "tinylfu" -> new StripedCache<>(KEYS * 2, 4, TinyLfuCache::new);
+            default -> throw new IllegalArgumentException("Unsupported cache type: " + policy);
+        };
+        ProductDao unusedDao = (ProductDao) Proxy.newProxyInstance(ProductDao.class.getClassLoader(),
+                new Class<?>[]{ProductDao.class}, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException("Benchmark reads must hit the cache");
+                });
+        daoProxy = new DaoProxyImpl(unusedDao, cache);
+        keys = new UUID[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = UUID.randomUUID();
+            cache.put(keys[i], new Product(keys[i], "Product " + i, 1.0, 1.0, LocalDateTime.now()));
+        }
+    }
+
+    @Benchmark
+    public Optional<Product> get() {
+        return cache.get(keys[index++ & MASK]);
+    }
+
+    @Benchmark
+    public Product getIfPresent() {
+        return cache.getIfPresent(keys[index++ & MASK]);
+    }
+
+    @Benchmark
+    public Product findProductById() {
+        return daoProxy.findProductById(keys[index++ & MASK]);
+    }
+}
@@ -0,0 +1,72 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.LfuCache;
+import clevertec.cache.impl.LruCache;
+import clevertec.cache.impl.TinyLfuCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Измеряет стоимость чтения из {@link LruCache}, {@link LfuCache} и {@link TinyLfuCache}
+ * при заданной доле попаданий. Промахи не загружают значение в кэш, поэтому состав кэша
+ * и доля попаданий не меняются во время измерения.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheHitRatioBenchmark {
+
+    private static final int MASK = (1 << 20) - 1;
+
+    @Param({"lru", "lfu", "tinylfu"})
+    private String policy;
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    @Param({"0.5", "0.9", "0.99"})
+    private double hitRatio;
+
+    private Cache<Integer, Integer> cache;
+    private Integer[] keys;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = switch (policy) {
+            case "lru" -> new LruCache<>(size);
+            case "lfu" -> new LfuCache<>(size);
+            case "tinylfu" -> new TinyLfuCache<>(size);
+            default -> throw new IllegalArgumentException("Unsupported cache type: " + policy);
+        };
+        for (int i = 0; i < size; i++) {
+            cache.put(i, i);
+        }
+        keys = new Integer[MASK + 1];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i <= MASK; i++) {
+            keys[i] = random.nextDouble() < hitRatio ? random.nextInt(size) : size + random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public Integer get() {
+        return cache.getIfPresent(keys[index++ & MASK]);
+    }
+}
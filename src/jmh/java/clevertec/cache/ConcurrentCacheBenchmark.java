@@ -0,0 +1,111 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.ConcurrentLfuCache;
+import clevertec.cache.impl.ConcurrentLruCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Измеряет пропускную способность потокобезопасных кэшей при смешанной нагрузке
+ * (90% чтений, 10% записей). Уровень параллелизма 1 соответствует одной глобальной
+ * блокировке и служит базой для сравнения с сегментированным вариантом.
+ * <p>
+ * {@link #main(String[])} последовательно запускает бенчмарк на 1, 2, 4, 8, 16 и 32 потоках
+ * и сохраняет результаты каждого запуска в JSON в {@code build/reports/jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentCacheBenchmark {
+
+    private static final int MASK = (1 << 16) - 1;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32};
+    private static final Path RESULTS_DIRECTORY = Path.of("build", "reports", "jmh");
+
+    @Param({"lru", "lfu"})
+    private String policy;
+
+    @Param({"1", "64"})
+    private int concurrencyLevel;
+
+    @Param({"100000"})
+    private int size;
+
+    private Cache<Integer, Integer> cache;
+    private Integer[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = switch (policy) {
+            case "lru" -> new ConcurrentLruCache<>(size, concurrencyLevel);
+            case "lfu" -> new ConcurrentLfuCache<>(size, concurrencyLevel);
+            default -> throw new IllegalArgumentException("Unsupported cache type: " + policy);
+        };
+        keys = new Integer[MASK + 1];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i <= MASK; i++) {
+            keys[i] = random.nextInt(size * 2);
+        }
+        for (int i = 0; i < size; i++) {
+            cache.put(i, i);
+        }
+    }
+
+    @Benchmark
+    public Optional<Integer> readWrite(ThreadState state) {
+        Integer key = keys[state.index++ & MASK];
+        if ((state.index & 15) < 14) {
+            return cache.get(key);
+        }
+        cache.put(key, key);
+        return Optional.empty();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private int index;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            index = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Files.createDirectories(RESULTS_DIRECTORY);
+        for (int threads : THREAD_COUNTS) {
+            new Runner(new OptionsBuilder()
+                    .include(ConcurrentCacheBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(RESULTS_DIRECTORY.resolve("concurrent-cache-" + threads + "-threads.json").toString())
+                    .build())
+                    .run();
+        }
+    }
+}
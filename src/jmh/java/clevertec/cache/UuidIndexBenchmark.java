@@ -0,0 +1,82 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.LruCache;
+import clevertec.cache.impl.UuidHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает поиск по ключу {@link UUID} в {@link HashMap} и {@link UuidHashMap}, а также
+ * попадание в {@link LruCache}, который индексирует такие ключи в {@link UuidHashMap}.
+ * Запуск с {@code -prof gc} показывает, что попадание не создает объектов.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidIndexBenchmark {
+
+    private static final int MASK = (1 << 20) - 1;
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private HashMap<UUID, Integer> hashMap;
+    private UuidHashMap<Integer> uuidMap;
+    private LruCache<UUID, Integer> cache;
+    private UUID[] hitKeys;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hashMap = new HashMap<>();
+        uuidMap = new UuidHashMap<>();
+        cache = new LruCache<>(size);
+        UUID[] keys = new UUID[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = UUID.randomUUID();
+            hashMap.put(keys[i], i);
+            uuidMap.put(keys[i], i);
+            cache.put(keys[i], i);
+        }
+        hitKeys = new UUID[MASK + 1];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i <= MASK; i++) {
+            UUID key = keys[random.nextInt(size)];
+            hitKeys[i] = new UUID(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        }
+    }
+
+    @Benchmark
+    public Integer hashMapGet() {
+        return hashMap.get(hitKeys[index++ & MASK]);
+    }
+
+    @Benchmark
+    public Integer uuidMapGet() {
+        return uuidMap.get(hitKeys[index++ & MASK]);
+    }
+
+    @Benchmark
+    public Optional<Integer> lruCacheGet() {
+        return cache.get(hitKeys[index++ & MASK]);
+    }
+}
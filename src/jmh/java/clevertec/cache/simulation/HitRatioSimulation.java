@@ -0,0 +1,127 @@
+package clevertec.cache.simulation;
+
+import clevertec.cache.Cache;
+import clevertec.cache.impl.LfuCache;
+import clevertec.cache.impl.LruCache;
+import clevertec.cache.impl.TinyLfuCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Воспроизводит трассу обращений к кэшу и сравнивает долю попаданий политик lru, lfu и tinylfu.
+ * <p>
+ * Аргументы: {@code <capacity> [traceFile]}. Файл трассы содержит по одному ключу на строку
+ * (например, UUID продуктов из журнала запросов). Без файла используется синтетическая трасса:
+ * распределение Ципфа со сменой популярных ключей посередине и периодическими полными
+ * сканированиями, как при вызове {@code getAllProducts}.
+ */
+public class HitRatioSimulation {
+
+    private static final int DEFAULT_CAPACITY = 1_000;
+    private static final String[] POLICIES = {"lru", "lfu", "tinylfu"};
+
+    public static void main(String[] args) throws IOException {
+        int capacity = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CAPACITY;
+        List<String> trace = args.length > 1 ? readTrace(Path.of(args[1])) : syntheticTrace(capacity);
+
+        System.out.printf("Trace: %d accesses, cache capacity: %d%n", trace.size(), capacity);
+        System.out.printf("%-10s %10s%n", "policy", "hit ratio");
+        for (String policy : POLICIES) {
+            System.out.printf("%-10s %9.2f%%%n", policy, 100 * replay(createCache(policy, capacity), trace));
+        }
+    }
+
+    /**
+     * Воспроизводит трассу в режиме "прочитать, при промахе загрузить".
+     *
+     * @param cache кэш
+     * @param trace последовательность ключей
+     * @return доля попаданий
+     */
+    public static double replay(Cache<String, String> cache, List<String> trace) {
+        long hits = 0;
+        for (String key : trace) {
+            if (cache.get(key).isPresent()) {
+                hits++;
+            }
+            else {
+                cache.put(key, key);
+            }
+        }
+        return trace.isEmpty() ? 0 : (double) hits / trace.size();
+    }
+
+    private static Cache<String, String> createCache(String policy, int capacity) {
+        return switch (policy) {
+            case "lru" -> new LruCache<>(capacity);
+            case "lfu" -> new LfuCache<>(capacity);
+            case "tinylfu" -> new TinyLfuCache<>(capacity);
+            default -> throw new IllegalArgumentException("Unsupported cache type: " + policy);
+        };
+    }
+
+    private static List<String> readTrace(Path path) throws IOException {
+        try (Stream<String> lines = Files.lines(path)) {
+            return lines.map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .toList();
+        }
+    }
+
+    private static List<String> syntheticTrace(int capacity) {
+        int universe = capacity * 100;
+        int phaseLength = capacity * 500;
+        int scanEvery = capacity * 50;
+        int scanLength = capacity * 5;
+        double[] cdf = zipfCdf(universe, 0.9);
+        SplittableRandom random = new SplittableRandom(42);
+        List<String> trace = new ArrayList<>(2 * phaseLength + 2 * phaseLength / scanEvery * scanLength);
+        int scanKey = 0;
+        for (int phase = 0; phase < 2; phase++) {
+            for (int i = 0; i < phaseLength; i++) {
+                if (i % scanEvery == 0) {
+                    for (int j = 0; j < scanLength; j++) {
+                        trace.add("scan-" + scanKey++);
+                    }
+                }
+                int rank = sample(cdf, random.nextDouble());
+                trace.add("p" + phase + "-" + rank);
+            }
+        }
+        return trace;
+    }
+
+    private static double[] zipfCdf(int size, double exponent) {
+        double[] cdf = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, double value) {
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cdf[mid] < value) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,84 @@
+package clevertec.config.dbConnection;
+
+import clevertec.config.ConfigurationLoader;
+import clevertec.dao.impl.ProductDaoImpl;
+import clevertec.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает задержку и пропускную способность {@link ProductDaoImpl#findById(UUID)}
+ * при открытии нового соединения на каждый запрос (поведение до появления пула)
+ * и при использовании {@link ConnectionPool}.
+ * <p>
+ * Требует запущенной базы данных из {@code docker-compose.yml}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    private static final UUID PRODUCT_ID = UUID.fromString("dcce95ba-46ea-4739-887b-1de051755ac7");
+
+    @Param({"unpooled", "pooled"})
+    private String mode;
+
+    private DatabaseConnectionManager connectionManager;
+    private ProductDaoImpl productDao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Map<String, Object> dbProperties = (Map<String, Object>) ConfigurationLoader.loadConfig().get("db");
+        String url = (String) dbProperties.get("dbUrl");
+        String username = (String) dbProperties.get("dbUsername");
+        String password = (String) dbProperties.get("dbPassword");
+        connectionManager = switch (mode) {
+            case "unpooled" -> new DatabaseConnectionManager() {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return DriverManager.getConnection(url, username, password);
+                }
+            };
+            case "pooled" -> new DatabaseConnectionManager(new ConnectionPool(
+                    () -> DriverManager.getConnection(url, username, password),
+                    PoolConfig.fromProperties((Map<String, Object>) dbProperties.get("pool"))));
+            default -> throw new IllegalArgumentException("Unsupported mode: " + mode);
+        };
+        productDao = new ProductDaoImpl(connectionManager);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionManager.close();
+    }
+
+    @Benchmark
+    public Optional<Product> findById() {
+        return productDao.findById(PRODUCT_ID);
+    }
+}
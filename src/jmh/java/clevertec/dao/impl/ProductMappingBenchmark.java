@@ -0,0 +1,70 @@
+package clevertec.dao.impl;
+
+import clevertec.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Измеряет преобразование строки результата запроса в {@link Product} методом
+ * {@link ProductDaoImpl#buildProduct(ResultSet)} без базы данных.
+ * <p>
+ * Строка отдается заглушкой {@link ResultSet} на основе {@link Proxy}. Бенчмарк
+ * {@link #readColumns(Blackhole)} читает те же столбцы без создания продукта, поэтому
+ * разница между двумя результатами — стоимость самого отображения.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    private ResultSet resultSet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UUID id = UUID.randomUUID();
+        Timestamp created = Timestamp.valueOf(LocalDateTime.of(2023, 10, 15, 12, 0));
+        resultSet = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getObject" -> id;
+                    case "getString" -> "Молоко";
+                    case "getDouble" -> "price".equals(args[0]) ? 2.5 : 1.0;
+                    case "getTimestamp" -> created;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Benchmark
+    public Product buildProduct() throws SQLException {
+        return ProductDaoImpl.buildProduct(resultSet);
+    }
+
+    @Benchmark
+    public void readColumns(Blackhole blackhole) throws SQLException {
+        blackhole.consume(resultSet.getObject("id"));
+        blackhole.consume(resultSet.getString("name"));
+        blackhole.consume(resultSet.getDouble("price"));
+        blackhole.consume(resultSet.getDouble("weight"));
+        blackhole.consume(resultSet.getTimestamp("creation_date"));
+    }
+}
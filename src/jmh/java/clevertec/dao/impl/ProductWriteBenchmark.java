@@ -0,0 +1,117 @@
+package clevertec.dao.impl;
+
+import clevertec.config.dbConnection.DatabaseConnectionManager;
+import clevertec.entity.Product;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает скорость массовой записи продуктов: по одному INSERT на продукт,
+ * пакетная вставка {@link ProductDaoImpl#saveAll} и {@code COPY} через {@link ProductDaoImpl#copyAll}.
+ * Счетчик {@code rows} выводится JMH как количество строк в секунду.
+ * <p>
+ * Требует запущенной базы данных из {@code docker-compose.yml}. Созданные строки
+ * удаляются после каждой итерации.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductWriteBenchmark {
+
+    private static final String NAME_PREFIX = "Benchmark";
+
+    @Param({"single", "batch", "copy"})
+    private String mode;
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private DatabaseConnectionManager connectionManager;
+    private ProductDaoImpl productDao;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        connectionManager = new DatabaseConnectionManager();
+        productDao = new ProductDaoImpl(connectionManager);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInsertedRows() throws SQLException {
+        try (Connection connection = connectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(
+                     "DELETE FROM products WHERE name LIKE ?")) {
+            preparedStatement.setString(1, NAME_PREFIX + "%");
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionManager.close();
+    }
+
+    @Benchmark
+    public void write(RowCounter counter) {
+        List<Product> products = generate(rows);
+        switch (mode) {
+            case "single" -> products.forEach(productDao::save);
+            case "batch" -> productDao.saveAll(products);
+            case "copy" -> productDao.copyAll(products);
+            default -> throw new IllegalArgumentException("Unsupported mode: " + mode);
+        }
+        counter.rows += rows;
+    }
+
+    private List<Product> generate(int count) {
+        LocalDateTime created = LocalDateTime.now();
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(Product.builder()
+                    .id(UUID.randomUUID())
+                    .name(NAME_PREFIX + i)
+                    .price(10.0 + i % 100)
+                    .weight(1.0 + i % 10)
+                    .created(created)
+                    .build());
+        }
+        return products;
+    }
+
+    /**
+     * Счетчик записанных строк, который JMH нормирует на время измерения.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RowCounter {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+}
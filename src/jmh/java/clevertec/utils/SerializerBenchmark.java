@@ -0,0 +1,76 @@
+package clevertec.utils;
+
+import clevertec.dto.InfoProductDto;
+import clevertec.utils.pdfserializer.PdfSerializer;
+import clevertec.utils.xmlserializer.XmlSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Измеряет сериализацию списка {@link InfoProductDto} в XML и PDF.
+ * PDF записывается в память, а не в файл, чтобы не измерять файловую систему.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int products;
+
+    private final XmlSerializer xmlSerializer = new XmlSerializer();
+    private final PdfSerializer pdfSerializer = new PdfSerializer();
+    private ProductList productList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<InfoProductDto> dtos = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            dtos.add(new InfoProductDto(UUID.randomUUID(), "Product " + i, 10.0 + i, 1.0 + i));
+        }
+        productList = new ProductList(dtos);
+    }
+
+    @Benchmark
+    public String xml() {
+        return xmlSerializer.serialize(productList);
+    }
+
+    @Benchmark
+    public int pdf() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfSerializer.serializeObjectToPdf(productList, outputStream);
+        return outputStream.size();
+    }
+
+    /**
+     * Корневой объект для сериализации: сериализаторы обходят поля объекта,
+     * а поля коллекций JDK недоступны для рефлексии.
+     */
+    public static class ProductList {
+        private final List<InfoProductDto> products;
+
+        public ProductList(List<InfoProductDto> products) {
+            this.products = products;
+        }
+    }
+}
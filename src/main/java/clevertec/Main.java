@@ -4,21 +4,56 @@ import clevertec.config.dbConnection.DatabaseConnectionManager;
 import clevertec.dao.impl.ProductDaoImpl;
 import clevertec.dto.InfoProductDto;
 import clevertec.mapper.ProductMapperImpl;
+import clevertec.proxy.CacheInvalidationListener;
+import clevertec.proxy.CacheWarmer;
 import clevertec.proxy.DaoProxyImpl;
 import clevertec.service.ProductService;
+import clevertec.service.impl.AsyncProductServiceImpl;
 import clevertec.service.impl.ProductServiceImpl;
 import clevertec.utils.pdfserializer.PdfSerializer;
 
 import java.io.IOException;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public class Main {
     public static void main(String[] args) {
-        ProductService service = new ProductServiceImpl(new DaoProxyImpl(new ProductDaoImpl(new DatabaseConnectionManager())), new ProductMapperImpl());
-        InfoProductDto infoProductDto = service.get(UUID.fromString("dcce95ba-46ea-4739-887b-1de051755ac7"));
+        DatabaseConnectionManager connectionManager = new DatabaseConnectionManager();
+        ProductDaoImpl productDao = new ProductDaoImpl(connectionManager);
+        DaoProxyImpl daoProxy = new DaoProxyImpl(productDao);
+        CacheInvalidationListener invalidationListener = CacheInvalidationListener.fromConfig(daoProxy, connectionManager);
+        CacheWarmer cacheWarmer = new CacheWarmer(daoProxy, productDao);
+        cacheWarmer.warmUp();
+        ProductService service = new ProductServiceImpl(daoProxy, new ProductMapperImpl());
+        AsyncProductServiceImpl asyncService = AsyncProductServiceImpl.fromConfig(service);
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> shutdown(cacheWarmer, asyncService, invalidationListener, daoProxy), "application-shutdown"));
+        InfoProductDto infoProductDto = asyncService.get(UUID.fromString("dcce95ba-46ea-4739-887b-1de051755ac7"))
+                .join();
         System.out.println(infoProductDto);
         PdfSerializer pdfSerializer = new PdfSerializer();
         pdfSerializer.serializeObjectToPdf(infoProductDto);
-        service.getAllProducts().forEach(System.out::println);
+        try (Stream<InfoProductDto> products = service.streamAllProducts()) {
+            products.forEach(System.out::println);
+        }
+    }
+
+    /**
+     * Останавливает компоненты в порядке зависимостей: снимок кэша сохраняется, пока кэш открыт,
+     * затем завершаются асинхронные операции и инвалидация, и последним прокси записывает очередь
+     * отложенной записи и закрывает кэши. JVM запускает отдельные shutdown hook одновременно,
+     * поэтому все шаги выполняются в одном.
+     */
+    private static void shutdown(CacheWarmer cacheWarmer, AsyncProductServiceImpl asyncService,
+                                 CacheInvalidationListener invalidationListener, DaoProxyImpl daoProxy) {
+        try {
+            cacheWarmer.saveSnapshot();
+            asyncService.close();
+            if (invalidationListener != null) {
+                invalidationListener.close();
+            }
+        } finally {
+            daoProxy.close();
+        }
     }
 }
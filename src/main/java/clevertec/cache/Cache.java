@@ -1,5 +1,8 @@
 package clevertec.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 public interface Cache<K, V> {
@@ -8,4 +11,96 @@ public interface Cache<K, V> {
     Optional<V> get(K key);
 
     void delete(K key);
+
+    /**
+     * Удаляет из кэша все значения. В отличие от обхода {@link #hotKeys(int)} затрагивает
+     * все уровни и разделы кэша, в том числе элементы, популярность которых не отслеживается.
+     */
+    void invalidateAll();
+
+    /**
+     * Возвращает значение по ключу или {@code null}, если его нет в кэше.
+     * <p>
+     * В отличие от {@link #get(Object)} результат не оборачивается в {@link Optional},
+     * поэтому в реализациях, хранящих значения в куче, попадание не создает объектов.
+     * Реализация по умолчанию делегирует {@link #get(Object)}.
+     *
+     * @param key ключ
+     * @return значение или {@code null}
+     */
+    default V getIfPresent(K key) {
+        return get(key).orElse(null);
+    }
+
+    /**
+     * Возвращает значения, присутствующие в кэше, для указанных ключей.
+     * Отсутствующие ключи в результат не попадают.
+     *
+     * @param keys ключи
+     * @return карта найденных значений в порядке перебора ключей
+     */
+    default Map<K, V> getAll(Collection<? extends K> keys) {
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = getIfPresent(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Вставляет или обновляет значения для всех ключей карты.
+     *
+     * @param entries значения по ключам
+     */
+    default void putAll(Map<? extends K, ? extends V> entries) {
+        entries.forEach(this::put);
+    }
+
+    /**
+     * Удаляет из кэша значения для всех указанных ключей.
+     *
+     * @param keys ключи
+     */
+    default void deleteAll(Collection<? extends K> keys) {
+        for (K key : keys) {
+            delete(key);
+        }
+    }
+
+    /**
+     * Возвращает самые популярные ключи кэша вместе с оценкой частоты обращений,
+     * начиная с самого популярного. Используется для сохранения снимка кэша.
+     * Реализация по умолчанию не отслеживает популярность и возвращает пустую карту.
+     *
+     * @param limit максимальное количество ключей
+     * @return карта частот по ключам в порядке убывания популярности
+     */
+    default Map<K, Integer> hotKeys(int limit) {
+        return Map.of();
+    }
+
+    /**
+     * Восстанавливает частоту обращений к ключу, сохраненную в снимке кэша через
+     * {@link #hotKeys(int)}. Вызывается при прогреве после вставки значения, чтобы политика
+     * вытеснения сразу учитывала популярность ключа. Частота не уменьшается, а отсутствующий
+     * ключ пропускается. Реализация по умолчанию частоты не отслеживает и ничего не делает.
+     *
+     * @param key       ключ
+     * @param frequency сохраненная частота обращений
+     */
+    default void restoreFrequency(K key, int frequency) {
+    }
+
+    /**
+     * Возвращает снимок статистики обращений к кэшу.
+     * Реализация по умолчанию статистику не собирает и возвращает {@link CacheStats#empty()}.
+     *
+     * @return статистика кэша
+     */
+    default CacheStats stats() {
+        return CacheStats.empty();
+    }
 }
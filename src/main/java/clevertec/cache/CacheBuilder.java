@@ -0,0 +1,433 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.AsyncEvictionListener;
+import clevertec.cache.impl.ConcurrentLfuCache;
+import clevertec.cache.impl.ConcurrentLruCache;
+import clevertec.cache.impl.ExpiringCache;
+import clevertec.cache.impl.MappedFileCache;
+import clevertec.cache.impl.OffHeapProductCache;
+import clevertec.cache.impl.RefreshAheadCache;
+import clevertec.cache.impl.StatsCache;
+import clevertec.cache.impl.StripedCache;
+import clevertec.cache.impl.TieredCache;
+import clevertec.cache.impl.TinyLfuCache;
+import clevertec.entity.Product;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Построитель потокобезопасного кэша с политикой вытеснения {@code lru}, {@code lfu},
+ * {@code tinylfu} или {@code offheap}.
+ * <p>
+ * Кэш ограничивается либо количеством элементов ({@link #maximumSize(int)}), либо суммарным
+ * весом элементов ({@link #maximumWeight(long)} вместе с {@link #weigher(Weigher)}).
+ * Получатель вытеснения по умолчанию вызывается в потоке вставки; если задан
+ * {@link #evictionListenerExecutor(Executor)}, он вызывается в потоке исполнителя.
+ * <p>
+ * Поверх политики построитель добавляет слои в фиксированном порядке: второй уровень
+ * ({@link TieredCache}), затем срок жизни ({@link ExpiringCache}), затем перезагрузку
+ * ({@link RefreshAheadCache}) и снаружи сбор статистики ({@link StatsCache}). Перезагрузка
+ * лежит над сроком жизни, поэтому перезагруженное значение заново отсчитывает срок, а значение,
+ * удаленное из источника, удаляется вместе со своим таймером. Политика
+ * {@code offheap} и второй уровень из конфигурации хранят только продукты с ключами {@link UUID}.
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+public final class CacheBuilder<K, V> {
+
+    private String policy = "lru";
+    private int concurrencyLevel = 1;
+    private int maximumSize;
+    private long maximumWeight;
+    private Weigher<? super K, ? super V> weigher;
+    private EvictionListener<K, V> evictionListener = EvictionListener.none();
+    private Executor evictionListenerExecutor;
+    private Duration expireAfterWrite = Duration.ZERO;
+    private Duration expireAfterAccess = Duration.ZERO;
+    private Duration refreshAfterWrite = Duration.ZERO;
+    private Function<? super K, Optional<V>> refreshLoader;
+    private int refreshThreads = 2;
+    private int refreshQueueSize = 100;
+    private Supplier<Cache<K, V>> secondLevel;
+    private StatsCounter statsCounter;
+
+    private CacheBuilder() {
+    }
+
+    /**
+     * Создает построитель кэша.
+     *
+     * @param <K> тип ключей
+     * @param <V> тип значений
+     * @return новый построитель
+     */
+    public static <K, V> CacheBuilder<K, V> newBuilder() {
+        return new CacheBuilder<>();
+    }
+
+    /**
+     * Создает построитель, настроенный разделом конфигурации кэша: {@code type}, {@code capacity},
+     * {@code maxWeightBytes}, {@code concurrencyLevel}, {@code expireAfterWriteSeconds},
+     * {@code expireAfterAccessSeconds}, {@code refreshAfterWriteSeconds}, {@code refreshThreads},
+     * {@code refreshQueueSize}, {@code stats.enabled} и {@code secondLevel}.
+     * <p>
+     * Поведение, которое нельзя описать в конфигурации, задает вызывающий: весовщик для
+     * {@code maxWeightBytes} и функцию загрузки для {@code refreshAfterWriteSeconds}.
+     * Раздел {@code secondLevel} создает файл второго уровня для продуктов с ключами {@link UUID}.
+     *
+     * @param config раздел конфигурации кэша
+     * @param <K>    тип ключей
+     * @param <V>    тип значений
+     * @return настроенный построитель
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> CacheBuilder<K, V> fromConfig(Map<String, Object> config) {
+        CacheBuilder<K, V> builder = new CacheBuilder<K, V>()
+                .policy((String) config.getOrDefault("type", "lru"))
+                .concurrencyLevel((Integer) config.getOrDefault("concurrencyLevel", 1))
+                .expireAfterWrite(Duration.ofSeconds((Integer) config.getOrDefault("expireAfterWriteSeconds", 0)))
+                .expireAfterAccess(Duration.ofSeconds((Integer) config.getOrDefault("expireAfterAccessSeconds", 0)));
+        long maxWeightBytes = ((Number) config.getOrDefault("maxWeightBytes", 0)).longValue();
+        if (maxWeightBytes > 0) {
+            builder.maximumWeight(maxWeightBytes);
+        } else {
+            builder.maximumSize((Integer) config.getOrDefault("capacity", 0));
+        }
+        int refreshAfterWrite = (Integer) config.getOrDefault("refreshAfterWriteSeconds", 0);
+        builder.refreshAfterWrite = Duration.ofSeconds(refreshAfterWrite);
+        builder.refreshThreads = (Integer) config.getOrDefault("refreshThreads", 2);
+        builder.refreshQueueSize = (Integer) config.getOrDefault("refreshQueueSize", 100);
+        Map<String, Object> statsConfig = (Map<String, Object>) config.get("stats");
+        if (statsConfig != null && Boolean.TRUE.equals(statsConfig.get("enabled"))) {
+            builder.recordStats();
+        }
+        Map<String, Object> secondLevelConfig = (Map<String, Object>) config.get("secondLevel");
+        if (secondLevelConfig != null && Boolean.TRUE.equals(secondLevelConfig.get("enabled"))) {
+            Path file = Path.of((String) secondLevelConfig.getOrDefault("file", "cache-l2.bin"));
+            int capacity = (Integer) secondLevelConfig.getOrDefault("capacity", 100_000);
+            int maxNameBytes = (Integer) secondLevelConfig.getOrDefault("maxNameBytes",
+                    OffHeapProductCache.DEFAULT_MAX_NAME_BYTES);
+            Duration expireAfterWrite = builder.expireAfterWrite;
+            builder.secondLevel = () -> (Cache<K, V>) (Cache<?, ?>) new MappedFileCache(file, capacity, maxNameBytes,
+                    expireAfterWrite);
+        }
+        return builder;
+    }
+
+    /**
+     * Задает политику вытеснения: {@code lru} (по умолчанию), {@code lfu} или {@code tinylfu}.
+     *
+     * @param policy имя политики
+     * @return этот построитель
+     */
+    public CacheBuilder<K, V> policy(String policy) {
+        this.policy = policy;
+        return this;
+    }
+
+    /**
+     * Задает желаемое количество независимо блокируемых сегментов, по умолчанию 1.
+     *
+     * @param concurrencyLevel желаемое количество сегментов
+     * @return этот построитель
+     */
+    public CacheBuilder<K, V> concurrencyLevel(int concurrencyLevel) {
+        this.concurrencyLevel = concurrencyLevel;
+        return this;
+    }
+
+    /**
+     * Ограничивает кэш количеством элементов.
+     *
+     * @param maximumSize максимальное количество элементов
+     * @return этот построитель
+     */
+    public CacheBuilder<K, V> maximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+        return this;
+    }
+
+    /**
+     * Ограничивает кэш суммарным весом элементов, который считает {@link #weigher(Weigher)}.
+     *
+     * @param maximumWeight максимальный суммарный вес
+     * @return этот построитель
+     */
+    public CacheBuilder<K, V> maximumWeight(long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+        return this;
+    }
+
+    /**
+     * Задает весовщик элементов для ограничения {@link #maximumWeight(long)}.
+     * Без максимального веса весовщик не используется.
+     *
+     * @param weigher весовщик элементов
+     * @return этот построитель
+     */
+    public CacheBuilder<K, V> weigher(Weigher<? super K, ? super V> weigher) {
+        this.weigher = weigher;
+        return this;
+    }
+
+    /**
+     * Задает получателя элементов, вытесненных из-за нехватки места.
+     *
+     * @param evictionListener получатель вытесненных элементов
+     * @return этот построитель
+     */
+    public CacheBuilder<K, V> evictionListener(EvictionListener<K, V> evictionListener) {
+        this.evictionListener = evictionListener;
+        return this;
+    }
+
+    /**
+     * Задает исполнителя, в потоке которого вызывается получатель вытеснения.
+     *
+     * @param executor исполнитель доставки вытесненных элементов
+     * @return этот построитель
+     * @see AsyncEvictionListener
+     */
+    public CacheBuilder<K, V> evictionListenerExecutor(Executor executor) {
+        this.evictionListenerExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Задает время жизни элемента после записи, {@link Duration#ZERO} — без ограничения.
+     *
+     * @param expireAfterWrite время жизни после записи
+     * @return этот построитель
+     */
+    public CacheBuilder<K, V> expireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+        return this;
+    }
+
+    /**
+     * Задает время жизни элемента после последнего обращения, {@link Duration#ZERO} — без ограничения.
+     *
+     * @param expireAfterAccess время жизни после обращения
+     * @return этот построитель
+     */
+    public CacheBuilder<K, V> expireAfterAccess(Duration expireAfterAccess) {
+        this.expireAfterAccess = expireAfterAccess;
+        return this;
+    }
+
+    /**
+     * Включает фоновую перезагрузку элементов старше {@code refreshAfterWrite}.
+     *
+     * @param refreshAfterWrite возраст элемента, после которого чтение запускает перезагрузку
+     * @return этот построитель
+     */
+    public CacheBuilder<K, V> refreshAfterWrite(Duration refreshAfterWrite) {
+        this.refreshAfterWrite = refreshAfterWrite;
+        return this;
+    }
+
+    /**
+     * Задает функцию загрузки для перезагрузки. Без {@link #refreshAfterWrite(Duration)} не используется.
+     *
+     * @param refreshLoader функция загрузки актуального значения по ключу
+     * @return этот построитель
+     */
+    public CacheBuilder<K, V> refreshLoader(Function<? super K, Optional<V>> refreshLoader) {
+        this.refreshLoader = refreshLoader;
+        return this;
+    }
+
+    /**
+     * Задает второй уровень, в который переносятся вытесненные элементы.
+     *
+     * @param secondLevel кэш второго уровня
+     * @return этот построитель
+     */
+    public CacheBuilder<K, V> secondLevel(Cache<K, V> secondLevel) {
+        this.secondLevel = () -> secondLevel;
+        return this;
+    }
+
+    /**
+     * Включает сбор статистики попаданий, промахов, вытеснений и истечений.
+     *
+     * @return этот построитель
+     */
+    public CacheBuilder<K, V> recordStats() {
+        this.statsCounter = new StatsCounter();
+        return this;
+    }
+
+    /**
+     * Проверяет, включен ли сбор статистики.
+     *
+     * @return {@code true}, если кэш будет собирать статистику
+     */
+    public boolean isRecordingStats() {
+        return statsCounter != null;
+    }
+
+    /**
+     * Создает кэш по заданным настройкам. Владелец кэша отвечает за закрытие слоев,
+     * которые держат потоки или файлы; см. {@link CacheRegistry}.
+     *
+     * @return новый кэш
+     * @throws IllegalArgumentException если ограничение не задано, задано дважды или настройки несовместимы
+     */
+    public Cache<K, V> build() {
+        return build(resource -> {
+        });
+    }
+
+    /**
+     * Создает кэш и передает получателю каждый созданный слой, который нужно закрыть,
+     * начиная с внутреннего.
+     *
+     * @param resources получатель закрываемых слоев
+     * @return новый кэш
+     */
+    Cache<K, V> build(Consumer<AutoCloseable> resources) {
+        boolean weighted = maximumWeight > 0;
+        if (weighted == (maximumSize > 0)) {
+            throw new IllegalArgumentException("Exactly one of maximum size or maximum weight must be set");
+        }
+        if (weighted && weigher == null) {
+            throw new IllegalArgumentException("Maximum weight requires a weigher");
+        }
+        boolean refresh = refreshAfterWrite.compareTo(Duration.ZERO) > 0;
+        if (refresh && refreshLoader == null) {
+            throw new IllegalArgumentException("Refresh-ahead requires a loader");
+        }
+        if (refresh && ("offheap".equals(policy) || secondLevel != null)) {
+            throw new IllegalArgumentException("Refresh-ahead is not supported by the off-heap or tiered cache");
+        }
+
+        EvictionListener<K, V> listener = evictionListenerExecutor == null ? evictionListener
+                : new AsyncEvictionListener<>(evictionListener, evictionListenerExecutor);
+        StatsCounter stats = statsCounter;
+        if (stats != null) {
+            listener = CacheBuilder.<K, V>recording(stats, RemovalCause.SIZE).andThen(listener);
+        }
+
+        AtomicReference<ExpiringCache<K, ?>> expiringLayer = new AtomicReference<>();
+
+        Cache<K, V> cache;
+        if (refresh) {
+            EvictionListener<K, V> valueListener = listener;
+            Cache<K, RefreshAheadCache.Entry<V>> entries = policyCache(
+                    weigher == null ? null : (key, entry) -> weigher.weigh(key, entry.value()),
+                    CacheBuilder.<K, RefreshAheadCache.Entry<V>>descheduling(expiringLayer)
+                            .andThen((key, entry) -> valueListener.onEviction(key, entry.value())));
+            RefreshAheadCache<K, V> refreshAhead = new RefreshAheadCache<>(
+                    withExpiration(entries, expiringLayer, stats, resources), refreshAfterWrite, refreshLoader,
+                    refreshThreads, refreshQueueSize);
+            resources.accept(refreshAhead);
+            cache = refreshAhead;
+        } else if (secondLevel != null) {
+            Cache<K, V> secondLevelCache = secondLevel.get();
+            EvictionListener<K, V> spill = spill(secondLevelCache, expiringLayer);
+            TieredCache<K, V> tiered = new TieredCache<>(policyCache(weigher, listener.andThen(spill)),
+                    secondLevelCache, spill);
+            resources.accept(tiered);
+            cache = withExpiration(tiered, expiringLayer, stats, resources);
+        } else {
+            cache = withExpiration(policyCache(weigher, CacheBuilder.<K, V>descheduling(expiringLayer).andThen(listener)),
+                    expiringLayer, stats, resources);
+        }
+        if (stats != null) {
+            cache = new StatsCache<>(cache, stats);
+        }
+        return cache;
+    }
+
+    /**
+     * Добавляет слой срока жизни, если он настроен, иначе возвращает кэш без изменений.
+     */
+    private <W> Cache<K, W> withExpiration(Cache<K, W> cache, AtomicReference<ExpiringCache<K, ?>> expiringLayer,
+                                           StatsCounter stats, Consumer<AutoCloseable> resources) {
+        if (expireAfterWrite.compareTo(Duration.ZERO) <= 0 && expireAfterAccess.compareTo(Duration.ZERO) <= 0) {
+            return cache;
+        }
+        ExpiringCache<K, W> expiring = new ExpiringCache<>(cache, expireAfterWrite, expireAfterAccess,
+                stats == null ? EvictionListener.none() : recording(stats, RemovalCause.EXPIRED));
+        expiringLayer.set(expiring);
+        resources.accept(expiring);
+        return expiring;
+    }
+
+    /**
+     * Возвращает получателя вытеснения, отменяющего таймер вытесненного элемента в слое срока
+     * жизни. Слой создается после политики, поэтому передается через ссылку и может отсутствовать.
+     */
+    private static <K, W> EvictionListener<K, W> descheduling(AtomicReference<ExpiringCache<K, ?>> expiringLayer) {
+        return (key, value) -> {
+            ExpiringCache<K, ?> expiring = expiringLayer.get();
+            if (expiring != null) {
+                expiring.evicted(key);
+            }
+        };
+    }
+
+    /**
+     * Возвращает перенос вытесненного элемента во второй уровень. {@link MappedFileCache} получает
+     * время исходной записи элемента, чтобы срок жизни во втором уровне отсчитывался от нее,
+     * а не от момента вытеснения.
+     */
+    private static <K, V> EvictionListener<K, V> spill(Cache<K, V> secondLevel,
+                                                      AtomicReference<ExpiringCache<K, ?>> expiringLayer) {
+        if (!(secondLevel instanceof MappedFileCache mapped)) {
+            return secondLevel::put;
+        }
+        return (key, value) -> {
+            ExpiringCache<K, ?> expiring = expiringLayer.get();
+            Duration age = expiring == null ? Duration.ZERO : expiring.age(key);
+            mapped.put((UUID) key, (Product) value, Instant.now().minus(age));
+        };
+    }
+
+    private static <K, V> EvictionListener<K, V> recording(StatsCounter stats, RemovalCause cause) {
+        return (key, value) -> stats.recordEviction(cause);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <W> Cache<K, W> policyCache(Weigher<? super K, ? super W> valueWeigher, EvictionListener<K, W> listener) {
+        boolean weighted = maximumWeight > 0;
+        return switch (policy) {
+            case "lru" -> weighted ? new ConcurrentLruCache<>(maximumWeight, concurrencyLevel, valueWeigher, listener)
+                    : new ConcurrentLruCache<>(maximumSize, concurrencyLevel, listener);
+            case "lfu" -> weighted ? new ConcurrentLfuCache<>(maximumWeight, concurrencyLevel, valueWeigher, listener)
+                    : new ConcurrentLfuCache<>(maximumSize, concurrencyLevel, listener);
+            case "tinylfu" -> {
+                if (weighted) {
+                    throw new IllegalArgumentException("Weighted eviction is not supported by the tinylfu policy");
+                }
+                yield new StripedCache<>(maximumSize, concurrencyLevel,
+                        segmentCapacity -> new TinyLfuCache<>(segmentCapacity, listener));
+            }
+            case "offheap" -> {
+                if (weighted) {
+                    throw new IllegalArgumentException("Weighted eviction is not supported by the off-heap cache");
+                }
+                EvictionListener<UUID, Product> productListener =
+                        (EvictionListener<UUID, Product>) (EvictionListener<?, ?>) listener;
+                Cache<UUID, Product> offHeap = new StripedCache<>(maximumSize, concurrencyLevel,
+                        segmentCapacity -> new OffHeapProductCache(segmentCapacity,
+                                OffHeapProductCache.DEFAULT_MAX_NAME_BYTES, productListener));
+                Cache<K, W> cache = (Cache<K, W>) (Cache<?, ?>) offHeap;
+                yield cache;
+            }
+            default -> throw new IllegalArgumentException("Unsupported cache type: " + policy);
+        };
+    }
+}
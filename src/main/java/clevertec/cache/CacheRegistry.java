@@ -0,0 +1,178 @@
+package clevertec.cache;
+
+import clevertec.cache.metrics.CacheMetrics;
+import clevertec.cache.metrics.LoggingMetricsReporter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр именованных кэшей, настроенных из раздела {@code cache} конфигурации.
+ * <p>
+ * Кэш с именем {@code name} настраивается разделом {@code cache.caches.name}. Основной кэш
+ * {@link #DEFAULT_CACHE} настраивается самим разделом {@code cache}, если отдельного раздела
+ * для него нет. Каждый кэш получает свои вместимость, политику, срок жизни и статистику;
+ * при включенной статистике реестр публикует ее через {@link CacheMetrics} под именем кэша.
+ * <p>
+ * Реестр владеет слоями кэшей, которые держат потоки или файлы, и метриками:
+ * {@link #close()} закрывает их в порядке, обратном созданию.
+ */
+@Slf4j
+public class CacheRegistry implements AutoCloseable {
+
+    public static final String DEFAULT_CACHE = "products";
+
+    private final Map<String, Object> cacheConfig;
+    private final Map<String, Cache<?, ?>> caches = new ConcurrentHashMap<>();
+    private final Deque<AutoCloseable> resources = new ArrayDeque<>();
+
+    /**
+     * Конструктор реестра.
+     *
+     * @param cacheConfig раздел {@code cache} конфигурации
+     */
+    public CacheRegistry(Map<String, Object> cacheConfig) {
+        this.cacheConfig = cacheConfig;
+    }
+
+    /**
+     * Проверяет, есть ли в конфигурации раздел для кэша.
+     *
+     * @param name имя кэша
+     * @return {@code true}, если кэш настроен
+     */
+    public boolean isConfigured(String name) {
+        return section(name) != null;
+    }
+
+    /**
+     * Проверяет, зарегистрирован ли кэш.
+     *
+     * @param name имя кэша
+     * @return {@code true}, если кэш зарегистрирован
+     */
+    public boolean isRegistered(String name) {
+        return caches.containsKey(name);
+    }
+
+    /**
+     * Возвращает построитель, настроенный разделом конфигурации кэша.
+     *
+     * @param name имя кэша
+     * @param <K>  тип ключей
+     * @param <V>  тип значений
+     * @return построитель кэша
+     * @throws IllegalArgumentException если раздела для кэша нет
+     */
+    public <K, V> CacheBuilder<K, V> builder(String name) {
+        Map<String, Object> section = section(name);
+        if (section == null) {
+            throw new IllegalArgumentException("Cache is not configured: " + name);
+        }
+        return CacheBuilder.fromConfig(section);
+    }
+
+    /**
+     * Создает кэш и регистрирует его под указанным именем. Если кэш собирает статистику,
+     * она публикуется по настройкам {@code stats} его раздела.
+     *
+     * @param name    имя кэша
+     * @param builder построитель кэша
+     * @param <K>     тип ключей
+     * @param <V>     тип значений
+     * @return созданный кэш
+     * @throws IllegalArgumentException если кэш с таким именем уже зарегистрирован
+     */
+    public synchronized <K, V> Cache<K, V> register(String name, CacheBuilder<K, V> builder) {
+        if (caches.containsKey(name)) {
+            throw new IllegalArgumentException("Cache is already registered: " + name);
+        }
+        Cache<K, V> cache = builder.build(resources::push);
+        if (builder.isRecordingStats()) {
+            resources.push(metrics(name, cache));
+        }
+        caches.put(name, cache);
+        log.info("Cache registered: {}", name);
+        return cache;
+    }
+
+    /**
+     * Возвращает зарегистрированный кэш.
+     *
+     * @param name имя кэша
+     * @param <K>  тип ключей
+     * @param <V>  тип значений
+     * @return кэш
+     * @throws IllegalArgumentException если кэш не зарегистрирован
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> Cache<K, V> cache(String name) {
+        Cache<?, ?> cache = caches.get(name);
+        if (cache == null) {
+            throw new IllegalArgumentException("Unknown cache: " + name);
+        }
+        return (Cache<K, V>) cache;
+    }
+
+    /**
+     * Возвращает имена зарегистрированных кэшей.
+     *
+     * @return имена кэшей
+     */
+    public Set<String> names() {
+        return Set.copyOf(caches.keySet());
+    }
+
+    /**
+     * Останавливает метрики и закрывает слои кэшей. Повторный вызов ничего не делает.
+     */
+    @Override
+    public synchronized void close() {
+        while (!resources.isEmpty()) {
+            AutoCloseable resource = resources.pop();
+            try {
+                resource.close();
+            } catch (Exception e) {
+                log.warn("Failed to close cache resource {}", resource, e);
+            }
+        }
+        caches.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> section(String name) {
+        Map<String, Object> named = (Map<String, Object>) cacheConfig.get("caches");
+        if (named != null && named.containsKey(name)) {
+            return (Map<String, Object>) named.get(name);
+        }
+        return DEFAULT_CACHE.equals(name) ? cacheConfig : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheMetrics metrics(String name, Cache<?, ?> cache) {
+        CacheMetrics metrics = new CacheMetrics(name, cache);
+        Map<String, Object> section = section(name);
+        Map<String, Object> statsConfig = section == null ? null : (Map<String, Object>) section.get("stats");
+        if (statsConfig == null || !Boolean.TRUE.equals(statsConfig.get("enabled"))) {
+            return metrics;
+        }
+        if (Boolean.TRUE.equals(statsConfig.getOrDefault("jmx", true))) {
+            metrics.registerMBean();
+        }
+        int reportIntervalSeconds = (Integer) statsConfig.getOrDefault("reportIntervalSeconds", 0);
+        if (reportIntervalSeconds > 0) {
+            String reporter = (String) statsConfig.getOrDefault("reporter", "log");
+            metrics.addReporter(switch (reporter) {
+                case "log" -> new LoggingMetricsReporter();
+                default -> throw new IllegalArgumentException("Unsupported metrics reporter: " + reporter);
+            });
+            metrics.startReporting(Duration.ofSeconds(reportIntervalSeconds));
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,87 @@
+package clevertec.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Компактный двоичный снимок ключей кэша с идентификаторами {@link UUID} и частотами
+ * обращений к ним в порядке убывания популярности.
+ * <p>
+ * Формат: магическое число {@code CSNP}, версия формата, количество записей и затем
+ * по 20 байт на запись — старшие и младшие 64 бита идентификатора и частота обращений.
+ * Снимок записывается во временный файл и атомарно заменяет предыдущий, поэтому
+ * прерванная запись не портит уже сохраненный снимок.
+ */
+public final class CacheSnapshot {
+
+    private static final int MAGIC = 0x43534E50;
+    private static final int VERSION = 1;
+
+    private CacheSnapshot() {
+    }
+
+    /**
+     * Записывает ключи и их частоты в файл снимка.
+     *
+     * @param file    файл снимка
+     * @param hotKeys частоты по ключам в порядке убывания популярности
+     * @throws IOException если запись невозможна
+     */
+    public static void write(Path file, Map<UUID, Integer> hotKeys) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(hotKeys.size());
+                for (Map.Entry<UUID, Integer> entry : hotKeys.entrySet()) {
+                    out.writeLong(entry.getKey().getMostSignificantBits());
+                    out.writeLong(entry.getKey().getLeastSignificantBits());
+                    out.writeInt(entry.getValue());
+                }
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Читает ключи и их частоты из файла снимка.
+     *
+     * @param file файл снимка
+     * @return частоты по ключам в порядке записи
+     * @throws IOException если файл невозможно прочитать или он не является снимком кэша
+     */
+    public static Map<UUID, Integer> read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a cache snapshot: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported cache snapshot version: " + version);
+            }
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Corrupted cache snapshot: " + file);
+            }
+            Map<UUID, Integer> hotKeys = new LinkedHashMap<>(Math.min(count, 1 << 16));
+            for (int i = 0; i < count; i++) {
+                hotKeys.put(new UUID(in.readLong(), in.readLong()), in.readInt());
+            }
+            return hotKeys;
+        }
+    }
+}
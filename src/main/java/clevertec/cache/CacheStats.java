@@ -0,0 +1,158 @@
+package clevertec.cache;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Неизменяемый снимок статистики кэша, собранной {@link StatsCounter}.
+ * <p>
+ * Время загрузки хранится гистограммой с корзинами по степеням двойки наносекунд:
+ * корзина {@code i} содержит загрузки длительностью от {@code 2^(i-1)} до {@code 2^i - 1} нс.
+ * Поэтому процентили оцениваются с точностью до двукратной границы корзины.
+ */
+public final class CacheStats {
+
+    private static final CacheStats EMPTY = new CacheStats(0, 0, new EnumMap<>(RemovalCause.class), 0, 0, 0,
+            new long[StatsCounter.HISTOGRAM_BUCKETS]);
+
+    private final long hitCount;
+    private final long missCount;
+    private final Map<RemovalCause, Long> evictionCounts;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTimeNanos;
+    private final long[] loadTimeHistogram;
+
+    CacheStats(long hitCount, long missCount, Map<RemovalCause, Long> evictionCounts, long loadSuccessCount,
+               long loadFailureCount, long totalLoadTimeNanos, long[] loadTimeHistogram) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCounts = evictionCounts;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.loadTimeHistogram = loadTimeHistogram;
+    }
+
+    /**
+     * Возвращает пустую статистику для кэшей, которые ее не собирают.
+     *
+     * @return пустая статистика
+     */
+    public static CacheStats empty() {
+        return EMPTY;
+    }
+
+    public long hitCount() {
+        return hitCount;
+    }
+
+    public long missCount() {
+        return missCount;
+    }
+
+    public long requestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * Возвращает долю попаданий среди всех обращений.
+     *
+     * @return доля попаданий от 0 до 1 или 1, если обращений не было
+     */
+    public double hitRate() {
+        long requests = requestCount();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    /**
+     * Возвращает количество элементов, удаленных кэшем по любой причине.
+     *
+     * @return количество вытеснений
+     */
+    public long evictionCount() {
+        long total = 0;
+        for (long count : evictionCounts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Возвращает количество элементов, удаленных кэшем по указанной причине.
+     *
+     * @param cause причина удаления
+     * @return количество вытеснений
+     */
+    public long evictionCount(RemovalCause cause) {
+        return evictionCounts.getOrDefault(cause, 0L);
+    }
+
+    public long loadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    public long loadFailureCount() {
+        return loadFailureCount;
+    }
+
+    public long loadCount() {
+        return loadSuccessCount + loadFailureCount;
+    }
+
+    public long totalLoadTimeNanos() {
+        return totalLoadTimeNanos;
+    }
+
+    /**
+     * Возвращает среднее время загрузки.
+     *
+     * @return среднее время загрузки в наносекундах или 0, если загрузок не было
+     */
+    public double averageLoadPenaltyNanos() {
+        long loads = loadCount();
+        return loads == 0 ? 0.0 : (double) totalLoadTimeNanos / loads;
+    }
+
+    /**
+     * Оценивает процентиль времени загрузки по гистограмме.
+     *
+     * @param percentile процентиль от 0 до 100
+     * @return верхняя граница корзины, в которую попадает процентиль, в наносекундах,
+     * или 0, если загрузок не было
+     */
+    public long loadTimePercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        long loads = 0;
+        for (long count : loadTimeHistogram) {
+            loads += count;
+        }
+        if (loads == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(loads * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < loadTimeHistogram.length; bucket++) {
+            seen += loadTimeHistogram[bucket];
+            if (seen >= rank) {
+                return StatsCounter.bucketUpperBound(bucket);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hits=" + hitCount
+                + ", misses=" + missCount
+                + ", hitRate=" + String.format("%.4f", hitRate())
+                + ", evictions=" + evictionCounts
+                + ", loadSuccesses=" + loadSuccessCount
+                + ", loadFailures=" + loadFailureCount
+                + ", averageLoadNanos=" + Math.round(averageLoadPenaltyNanos())
+                + ", p99LoadNanos=" + loadTimePercentileNanos(99)
+                + '}';
+    }
+}
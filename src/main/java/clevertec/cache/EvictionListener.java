@@ -0,0 +1,47 @@
+package clevertec.cache;
+
+/**
+ * Получатель элементов, вытесненных из кэша из-за нехватки места.
+ * Явное удаление через {@link Cache#delete(Object)} вытеснением не считается.
+ * Чтобы не замедлять вставку, медленного получателя оборачивают в
+ * {@link clevertec.cache.impl.AsyncEvictionListener}.
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+@FunctionalInterface
+public interface EvictionListener<K, V> {
+
+    /**
+     * Вызывается после вытеснения элемента в потоке, выполнившем вставку.
+     *
+     * @param key   ключ вытесненного элемента
+     * @param value значение вытесненного элемента
+     */
+    void onEviction(K key, V value);
+
+    /**
+     * Возвращает получателя, который вызывает этого получателя, а затем указанного.
+     *
+     * @param next получатель, вызываемый вторым
+     * @return составной получатель
+     */
+    default EvictionListener<K, V> andThen(EvictionListener<? super K, ? super V> next) {
+        return (key, value) -> {
+            onEviction(key, value);
+            next.onEviction(key, value);
+        };
+    }
+
+    /**
+     * Возвращает получателя, который ничего не делает.
+     *
+     * @param <K> тип ключей
+     * @param <V> тип значений
+     * @return пустой получатель
+     */
+    static <K, V> EvictionListener<K, V> none() {
+        return (key, value) -> {
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package clevertec.cache;
+
+/**
+ * Причина, по которой кэш сам удалил элемент.
+ */
+public enum RemovalCause {
+
+    /**
+     * Элемент вытеснен политикой кэша из-за нехватки места.
+     */
+    SIZE,
+
+    /**
+     * Истек срок жизни элемента.
+     */
+    EXPIRED
+}
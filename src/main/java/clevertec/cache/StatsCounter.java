@@ -0,0 +1,103 @@
+package clevertec.cache;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Потокобезопасный накопитель статистики кэша.
+ * <p>
+ * Все счетчики — {@link LongAdder}, поэтому запись не берет блокировок и не создает
+ * объектов: при конкуренции потоки обновляют разные ячейки, которые суммируются только
+ * при построении снимка {@link #snapshot()}.
+ */
+public final class StatsCounter {
+
+    static final int HISTOGRAM_BUCKETS = Long.SIZE;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder[] evictionCounts = newAdders(RemovalCause.values().length);
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder[] loadTimeHistogram = newAdders(HISTOGRAM_BUCKETS);
+
+    public void recordHit() {
+        hitCount.increment();
+    }
+
+    public void recordMiss() {
+        missCount.increment();
+    }
+
+    public void recordHits(int count) {
+        hitCount.add(count);
+    }
+
+    public void recordMisses(int count) {
+        missCount.add(count);
+    }
+
+    public void recordEviction(RemovalCause cause) {
+        evictionCounts[cause.ordinal()].increment();
+    }
+
+    /**
+     * Учитывает успешную загрузку значения, в том числе загрузку, которая ничего не нашла.
+     *
+     * @param loadTimeNanos время загрузки в наносекундах
+     */
+    public void recordLoadSuccess(long loadTimeNanos) {
+        loadSuccessCount.increment();
+        recordLoadTime(loadTimeNanos);
+    }
+
+    /**
+     * Учитывает загрузку, завершившуюся исключением.
+     *
+     * @param loadTimeNanos время загрузки в наносекундах
+     */
+    public void recordLoadFailure(long loadTimeNanos) {
+        loadFailureCount.increment();
+        recordLoadTime(loadTimeNanos);
+    }
+
+    /**
+     * Возвращает снимок накопленной статистики. Счетчики читаются по отдельности,
+     * поэтому при конкурентной записи снимок может быть не полностью согласованным.
+     *
+     * @return снимок статистики
+     */
+    public CacheStats snapshot() {
+        Map<RemovalCause, Long> evictions = new EnumMap<>(RemovalCause.class);
+        for (RemovalCause cause : RemovalCause.values()) {
+            evictions.put(cause, evictionCounts[cause.ordinal()].sum());
+        }
+        long[] histogram = new long[HISTOGRAM_BUCKETS];
+        for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++) {
+            histogram[bucket] = loadTimeHistogram[bucket].sum();
+        }
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictions, loadSuccessCount.sum(),
+                loadFailureCount.sum(), totalLoadTime.sum(), histogram);
+    }
+
+    static long bucketUpperBound(int bucket) {
+        return bucket == HISTOGRAM_BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    private void recordLoadTime(long loadTimeNanos) {
+        long nanos = Math.max(0, loadTimeNanos);
+        totalLoadTime.add(nanos);
+        int bucket = Math.min(HISTOGRAM_BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(nanos));
+        loadTimeHistogram[bucket].increment();
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
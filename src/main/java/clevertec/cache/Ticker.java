@@ -0,0 +1,25 @@
+package clevertec.cache;
+
+/**
+ * Источник времени для кэшей с ограниченным сроком жизни элементов.
+ * Позволяет подменять системное время в тестах.
+ */
+@FunctionalInterface
+public interface Ticker {
+
+    /**
+     * Возвращает текущее время в наносекундах относительно произвольной точки отсчета.
+     *
+     * @return время в наносекундах
+     */
+    long read();
+
+    /**
+     * Возвращает источник времени на основе {@link System#nanoTime()}.
+     *
+     * @return системный источник времени
+     */
+    static Ticker system() {
+        return System::nanoTime;
+    }
+}
@@ -0,0 +1,34 @@
+package clevertec.cache;
+
+/**
+ * Оценивает вес элемента кэша, например, занимаемую им память в байтах.
+ * Кэш с ограничением по весу вытесняет элементы, пока суммарный вес превышает максимальный.
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    /**
+     * Возвращает вес элемента. Вес вычисляется один раз при вставке или обновлении
+     * и не пересчитывается, пока элемент находится в кэше.
+     *
+     * @param key   ключ элемента
+     * @param value значение элемента
+     * @return неотрицательный вес элемента
+     */
+    int weigh(K key, V value);
+
+    /**
+     * Возвращает весовщик, который присваивает каждому элементу вес 1, то есть
+     * ограничение по весу становится ограничением по количеству элементов.
+     *
+     * @param <K> тип ключей
+     * @param <V> тип значений
+     * @return единичный весовщик
+     */
+    static <K, V> Weigher<K, V> singleton() {
+        return (key, value) -> 1;
+    }
+}
@@ -0,0 +1,242 @@
+package clevertec.cache.cluster;
+
+import clevertec.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Клиент одного удаленного узла распределенного кэша.
+ * <p>
+ * Держит не больше {@code maxIdleConnections} свободных соединений: запрос берет свободное
+ * соединение или открывает новое, а после ответа возвращает его обратно. Соединение, на котором
+ * произошла ошибка, закрывается, чтобы не прочитать чужой ответ. Таймаут ограничивает и
+ * подключение, и ожидание ответа, поэтому зависший узел задерживает запрос не дольше него.
+ * <p>
+ * После ошибки подключения или обмена клиент на {@code failureBackoff} перестает обращаться
+ * к узлу и сразу завершает запросы с {@link IOException}, чтобы каждый промах {@code nearCache}
+ * не ждал таймаута недоступного узла. Первый запрос после этого окна снова обращается к узлу.
+ */
+@Slf4j
+public class CacheNodeClient implements AutoCloseable {
+
+    private static final Duration DEFAULT_FAILURE_BACKOFF = Duration.ofSeconds(1);
+
+    private final InetSocketAddress address;
+    private final int timeoutMillis;
+    private final long failureBackoffNanos;
+    private final BlockingQueue<NodeConnection> idle;
+    private volatile long unavailableUntilNanos;
+    private volatile boolean unavailable;
+    private volatile boolean closed;
+
+    /**
+     * Конструктор клиента с паузой в одну секунду после ошибки. Соединения открываются
+     * при первых запросах.
+     *
+     * @param address            адрес узла
+     * @param maxIdleConnections количество свободных соединений, которые держит клиент
+     * @param timeout            таймаут подключения и ожидания ответа
+     */
+    public CacheNodeClient(InetSocketAddress address, int maxIdleConnections, Duration timeout) {
+        this(address, maxIdleConnections, timeout, DEFAULT_FAILURE_BACKOFF);
+    }
+
+    /**
+     * Конструктор клиента. Соединения открываются при первых запросах.
+     *
+     * @param address            адрес узла
+     * @param maxIdleConnections количество свободных соединений, которые держит клиент
+     * @param timeout            таймаут подключения и ожидания ответа
+     * @param failureBackoff     время после ошибки, в течение которого запросы к узлу не отправляются,
+     *                           или {@link Duration#ZERO}, чтобы обращаться к узлу всегда
+     */
+    public CacheNodeClient(InetSocketAddress address, int maxIdleConnections, Duration timeout,
+                           Duration failureBackoff) {
+        if (maxIdleConnections <= 0) {
+            throw new IllegalArgumentException("Connection count must be positive: " + maxIdleConnections);
+        }
+        if (failureBackoff.isNegative()) {
+            throw new IllegalArgumentException("Failure backoff cannot be negative: " + failureBackoff);
+        }
+        this.address = address;
+        this.timeoutMillis = Math.toIntExact(timeout.toMillis());
+        this.failureBackoffNanos = failureBackoff.toNanos();
+        this.idle = new ArrayBlockingQueue<>(maxIdleConnections);
+    }
+
+    /**
+     * Запрашивает продукт у узла.
+     *
+     * @param key идентификатор продукта
+     * @return продукт или {@code null}, если у узла его нет
+     * @throws IOException если узел недоступен или вернул ошибку
+     */
+    public Product get(UUID key) throws IOException {
+        ByteBuffer response = call(CacheProtocol.GET, key, null);
+        byte status = response.get();
+        return switch (status) {
+            case CacheProtocol.HIT -> ProductWireCodec.decode(response);
+            case CacheProtocol.MISS -> null;
+            default -> throw new IOException("Cache node " + address + " failed with status " + status);
+        };
+    }
+
+    /**
+     * Сохраняет продукт на узле.
+     *
+     * @param key     идентификатор продукта
+     * @param product продукт
+     * @throws IOException если узел недоступен или вернул ошибку
+     */
+    public void put(UUID key, Product product) throws IOException {
+        expectOk(call(CacheProtocol.PUT, key, ProductWireCodec.encode(product)));
+    }
+
+    /**
+     * Удаляет продукт на узле.
+     *
+     * @param key идентификатор продукта
+     * @throws IOException если узел недоступен или вернул ошибку
+     */
+    public void delete(UUID key) throws IOException {
+        expectOk(call(CacheProtocol.DELETE, key, null));
+    }
+
+    /**
+     * Возвращает адрес узла.
+     *
+     * @return адрес узла
+     */
+    public InetSocketAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Закрывает свободные соединения. Соединения, занятые запросами, закрываются по их завершении.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        NodeConnection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private ByteBuffer call(byte operation, UUID key, byte[] payload) throws IOException {
+        if (closed) {
+            throw new IOException("Cache node client is closed: " + address);
+        }
+        if (unavailable && System.nanoTime() - unavailableUntilNanos < 0) {
+            throw new IOException("Cache node " + address + " is unavailable after a recent failure");
+        }
+        NodeConnection connection = idle.poll();
+        ByteBuffer response;
+        try {
+            if (connection == null) {
+                connection = new NodeConnection(address, timeoutMillis);
+            }
+            response = connection.call(operation, key, payload);
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.close();
+            }
+            markUnavailable();
+            throw e;
+        } catch (RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        unavailable = false;
+        if (closed || !idle.offer(connection)) {
+            connection.close();
+        }
+        return response;
+    }
+
+    /**
+     * Открывает окно, в течение которого запросы к узлу завершаются сразу. Свободные соединения
+     * закрываются: после ошибки они, скорее всего, тоже разорваны.
+     */
+    private void markUnavailable() {
+        if (failureBackoffNanos == 0) {
+            return;
+        }
+        unavailableUntilNanos = System.nanoTime() + failureBackoffNanos;
+        unavailable = true;
+        NodeConnection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+        log.debug("Cache node {} marked unavailable for {} ms", address, failureBackoffNanos / 1_000_000);
+    }
+
+    private void expectOk(ByteBuffer response) throws IOException {
+        byte status = response.get();
+        if (status != CacheProtocol.OK) {
+            throw new IOException("Cache node " + address + " failed with status " + status);
+        }
+    }
+
+    /**
+     * Блокирующее соединение с узлом.
+     */
+    private static final class NodeConnection {
+
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        private NodeConnection(InetSocketAddress address, int timeoutMillis) throws IOException {
+            this.socket = new Socket();
+            try {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(timeoutMillis);
+                socket.connect(address, timeoutMillis);
+                this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private ByteBuffer call(byte operation, UUID key, byte[] payload) throws IOException {
+            out.writeInt(CacheProtocol.KEY_BYTES + (payload == null ? 0 : payload.length));
+            out.writeByte(operation);
+            out.writeLong(key.getMostSignificantBits());
+            out.writeLong(key.getLeastSignificantBits());
+            if (payload != null) {
+                out.write(payload);
+            }
+            out.flush();
+            int length = in.readInt();
+            if (length <= 0 || length > CacheProtocol.MAX_FRAME_BYTES) {
+                throw new IOException("Invalid cache frame length: " + length);
+            }
+            byte[] response = new byte[length];
+            in.readFully(response);
+            return ByteBuffer.wrap(response);
+        }
+
+        private void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.debug("Failed to close cache node connection", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package clevertec.cache.cluster;
+
+import clevertec.cache.Cache;
+import clevertec.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сервер узла распределенного кэша: отдает другим узлам продукты из своей части кэша.
+ * <p>
+ * Один поток обслуживает все соединения через {@link Selector}. Операции над локальным
+ * кэшем занимают микросекунды, поэтому выполняются прямо в этом потоке, без очереди задач.
+ * Протокол описан в {@link CacheProtocol}; кадр длиннее {@link CacheProtocol#MAX_FRAME_BYTES}
+ * считается ошибкой клиента, и соединение закрывается.
+ */
+@Slf4j
+public class CacheNodeServer implements AutoCloseable {
+
+    private static final int BUFFER_BYTES = 16 * 1024;
+
+    private final Cache<UUID, Product> store;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final Thread thread;
+    private final LongAdder requestCount = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Конструктор сервера. Порт открывается и поток обработки запускается сразу.
+     *
+     * @param address адрес для приема соединений, порт {@code 0} выбирает свободный порт
+     * @param store   локальная часть кэша, которой владеет узел
+     */
+    public CacheNodeServer(InetSocketAddress address, Cache<UUID, Product> store) {
+        this.store = store;
+        try {
+            this.selector = Selector.open();
+            this.serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(address);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            log.error("Error starting cache node server on {}", address, e);
+            throw new UncheckedIOException("Failed to start cache node server on " + address, e);
+        }
+        this.thread = new Thread(this::run, "cache-node-server");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Cache node server listening on {}", getAddress());
+    }
+
+    /**
+     * Возвращает адрес, на котором сервер принимает соединения.
+     *
+     * @return адрес сервера
+     */
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read cache node server address", e);
+        }
+    }
+
+    /**
+     * Возвращает количество обработанных запросов.
+     *
+     * @return количество запросов
+     */
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * Останавливает прием запросов и закрывает все соединения.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                connection.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.write();
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        log.debug("Closing cache node connection after error", e);
+                        closeQuietly(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("Cache node server stopped after error", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.warn("Failed to close cache node selector", e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key));
+    }
+
+    private void handle(ByteBuffer request, Connection connection) {
+        requestCount.increment();
+        byte operation = request.get();
+        UUID key = new UUID(request.getLong(), request.getLong());
+        try {
+            switch (operation) {
+                case CacheProtocol.GET -> {
+                    Product product = store.getIfPresent(key);
+                    if (product == null) {
+                        connection.respond(CacheProtocol.MISS, null);
+                    } else {
+                        connection.respond(CacheProtocol.HIT, ProductWireCodec.encode(product));
+                    }
+                }
+                case CacheProtocol.PUT -> {
+                    store.put(key, ProductWireCodec.decode(request));
+                    connection.respond(CacheProtocol.OK, null);
+                }
+                case CacheProtocol.DELETE -> {
+                    store.delete(key);
+                    connection.respond(CacheProtocol.OK, null);
+                }
+                default -> throw new IllegalArgumentException("Unknown cache operation: " + operation);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to handle cache operation {} for key {}", operation, key, e);
+            connection.respond(CacheProtocol.ERROR, null);
+        }
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            log.debug("Failed to close cache node channel", e);
+        }
+    }
+
+    /**
+     * Состояние одного соединения: накопленные байты запросов и неотправленные ответы.
+     */
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private ByteBuffer in = ByteBuffer.allocate(BUFFER_BYTES);
+        private ByteBuffer out = ByteBuffer.allocate(BUFFER_BYTES);
+
+        private Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        private void read() throws IOException {
+            if (channel.read(in) < 0) {
+                closeQuietly(key);
+                return;
+            }
+            in.flip();
+            while (in.remaining() >= Integer.BYTES) {
+                int length = in.getInt(in.position());
+                if (length < CacheProtocol.KEY_BYTES || length > CacheProtocol.MAX_FRAME_BYTES) {
+                    throw new IOException("Invalid cache frame length: " + length);
+                }
+                if (in.remaining() < Integer.BYTES + length) {
+                    break;
+                }
+                int end = in.position() + Integer.BYTES + length;
+                ByteBuffer request = in.duplicate();
+                request.position(in.position() + Integer.BYTES).limit(end);
+                handle(request, this);
+                in.position(end);
+            }
+            in.compact();
+            if (!in.hasRemaining()) {
+                in = grow(in, in.capacity() * 2);
+            }
+            write();
+        }
+
+        private void respond(byte status, byte[] payload) {
+            int length = 1 + (payload == null ? 0 : payload.length);
+            if (out.remaining() < Integer.BYTES + length) {
+                out = grow(out, Math.max(out.capacity() * 2, out.position() + Integer.BYTES + length));
+            }
+            out.putInt(length).put(status);
+            if (payload != null) {
+                out.put(payload);
+            }
+        }
+
+        private void write() throws IOException {
+            out.flip();
+            channel.write(out);
+            out.compact();
+            key.interestOps(out.position() > 0
+                    ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+                    : SelectionKey.OP_READ);
+        }
+
+        private ByteBuffer grow(ByteBuffer buffer, int capacity) {
+            ByteBuffer grown = ByteBuffer.allocate(capacity);
+            buffer.flip();
+            grown.put(buffer);
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package clevertec.cache.cluster;
+
+/**
+ * Константы протокола обмена между узлами распределенного кэша.
+ * <p>
+ * Каждое сообщение — кадр {@code int длина} и следом {@code длина} байт тела, все числа
+ * в порядке big-endian. Тело запроса: {@code byte операция}, {@code long} и {@code long}
+ * идентификатора продукта и для {@link #PUT} продукт в формате {@link ProductWireCodec}.
+ * Тело ответа: {@code byte статус} и для {@link #HIT} продукт. На одном соединении запросы
+ * обрабатываются по порядку, ответ приходит на каждый запрос.
+ */
+final class CacheProtocol {
+
+    static final byte GET = 1;
+    static final byte PUT = 2;
+    static final byte DELETE = 3;
+
+    static final byte HIT = 0;
+    static final byte MISS = 1;
+    static final byte OK = 2;
+    static final byte ERROR = 3;
+
+    static final int KEY_BYTES = 1 + 2 * Long.BYTES;
+    static final int MAX_FRAME_BYTES = 1 << 20;
+
+    private CacheProtocol() {
+    }
+}
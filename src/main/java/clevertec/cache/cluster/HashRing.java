@@ -0,0 +1,119 @@
+package clevertec.cache.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Кольцо согласованного хэширования с виртуальными узлами.
+ * <p>
+ * Каждый узел занимает на кольце {@code virtualNodes} точек, полученных из MD5 от
+ * {@code <id узла>#<номер>}. Ключ принадлежит узлу первой точки, следующей за хэшем ключа
+ * по часовой стрелке. Виртуальные узлы выравнивают доли узлов, а при добавлении или удалении
+ * узла переезжает только около {@code 1/N} ключей.
+ * <p>
+ * Точки хранятся в отсортированном массиве {@code long}, поэтому поиск владельца — двоичный
+ * поиск без создания объектов. Кольцо неизменяемо; смена состава узлов означает новое кольцо.
+ */
+public final class HashRing {
+
+    private final long[] points;
+    private final String[] owners;
+    private final List<String> nodes;
+
+    /**
+     * Конструктор кольца.
+     *
+     * @param nodes        идентификаторы узлов
+     * @param virtualNodes количество точек на кольце для каждого узла
+     */
+    public HashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("Ring must contain at least one node");
+        }
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual node count must be positive: " + virtualNodes);
+        }
+        this.nodes = List.copyOf(nodes);
+        int size = this.nodes.size() * virtualNodes;
+        long[] unsortedPoints = new long[size];
+        String[] unsortedOwners = new String[size];
+        MessageDigest md5 = md5();
+        int index = 0;
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                byte[] digest = md5.digest((node + "#" + i).getBytes(StandardCharsets.UTF_8));
+                unsortedPoints[index] = toLong(digest);
+                unsortedOwners[index] = node;
+                index++;
+            }
+        }
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (left, right) -> Long.compare(unsortedPoints[left], unsortedPoints[right]));
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = unsortedPoints[order[i]];
+            owners[i] = unsortedOwners[order[i]];
+        }
+    }
+
+    /**
+     * Возвращает узел-владелец ключа.
+     *
+     * @param key ключ
+     * @return идентификатор узла
+     */
+    public String owner(UUID key) {
+        long hash = hash(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+            if (index == points.length) {
+                index = 0;
+            }
+        }
+        return owners[index];
+    }
+
+    /**
+     * Возвращает идентификаторы узлов кольца.
+     *
+     * @return узлы в порядке добавления
+     */
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    static long hash(long mostSigBits, long leastSigBits) {
+        long h = mostSigBits * 0x9E3779B97F4A7C15L ^ leastSigBits;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ h >>> 33;
+    }
+
+    private static long toLong(byte[] digest) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = value << 8 | digest[i] & 0xFF;
+        }
+        return value;
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
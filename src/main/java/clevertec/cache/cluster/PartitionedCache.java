@@ -0,0 +1,363 @@
+package clevertec.cache.cluster;
+
+import clevertec.cache.Cache;
+import clevertec.cache.CacheBuilder;
+import clevertec.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кэш продуктов, разделенный между узлами сервиса.
+ * <p>
+ * Каждый продукт принадлежит одному узлу, выбранному по {@link HashRing}. Узел хранит в
+ * {@code store} только свою часть продуктов и отдает ее другим узлам через
+ * {@link CacheNodeServer}, поэтому суммарная вместимость кэша растет с количеством узлов.
+ * Продукты, принадлежащие другим узлам, запрашиваются у владельца через
+ * {@link CacheNodeClient} и кладутся в небольшой локальный {@code nearCache}, чтобы самые
+ * частые обращения не уходили в сеть.
+ * <p>
+ * Распределенный кэш — ускоритель, а не источник данных: недоступный владелец приравнивается
+ * к промаху, и продукт загружается из базы данных. Запись и удаление выполняются на владельце,
+ * а копии в {@code nearCache} других узлов живут до истечения его срока жизни, если их не
+ * удалит инвалидация через {@code LISTEN/NOTIFY} ({@link #invalidateLocal(Collection)}).
+ * Состав узлов задается конфигурацией и во время работы не меняется.
+ * <p>
+ * Протокол узлов не проверяет подлинность клиентов: любой, кто может подключиться к порту
+ * узла, может записать или удалить продукт в кэше. Порты узлов должны быть доступны только
+ * из доверенной сети.
+ */
+@Slf4j
+public class PartitionedCache implements Cache<UUID, Product>, AutoCloseable {
+
+    private final String localNode;
+    private final HashRing ring;
+    private final Cache<UUID, Product> store;
+    private final Cache<UUID, Product> nearCache;
+    private final Map<String, CacheNodeClient> peers;
+    private final CacheNodeServer server;
+    private final LongAdder nearHitCount = new LongAdder();
+    private final LongAdder remoteHitCount = new LongAdder();
+    private final LongAdder remoteMissCount = new LongAdder();
+    private final LongAdder remoteFailureCount = new LongAdder();
+
+    /**
+     * Конструктор распределенного кэша.
+     *
+     * @param localNode идентификатор этого узла на кольце
+     * @param ring      кольцо узлов
+     * @param store     часть кэша, которой владеет этот узел
+     * @param nearCache локальные копии продуктов других узлов
+     * @param peers     клиенты остальных узлов кольца по их идентификаторам
+     */
+    public PartitionedCache(String localNode, HashRing ring, Cache<UUID, Product> store,
+                            Cache<UUID, Product> nearCache, Map<String, CacheNodeClient> peers) {
+        this(localNode, ring, store, nearCache, peers, null);
+    }
+
+    private PartitionedCache(String localNode, HashRing ring, Cache<UUID, Product> store,
+                             Cache<UUID, Product> nearCache, Map<String, CacheNodeClient> peers,
+                             CacheNodeServer server) {
+        for (String node : ring.nodes()) {
+            if (!node.equals(localNode) && !peers.containsKey(node)) {
+                throw new IllegalArgumentException("No client for cache node: " + node);
+            }
+        }
+        if (!ring.nodes().contains(localNode)) {
+            throw new IllegalArgumentException("Local node is not on the ring: " + localNode);
+        }
+        this.localNode = localNode;
+        this.ring = ring;
+        this.store = store;
+        this.nearCache = nearCache;
+        this.peers = Map.copyOf(peers);
+        this.server = server;
+    }
+
+    /**
+     * Создает распределенный кэш по разделу {@code cache.partitioned} конфигурации и запускает
+     * сервер узла на адресе, указанном для него в списке {@code members}. Сервер слушает только
+     * этот адрес, а не все сетевые интерфейсы, и адрес должен принадлежать доверенной сети.
+     *
+     * @param partitionedConfig раздел {@code cache.partitioned} конфигурации
+     * @param store             часть кэша, которой владеет этот узел
+     * @return распределенный кэш, владеющий сервером и клиентами узлов
+     */
+    @SuppressWarnings("unchecked")
+    public static PartitionedCache fromConfig(Map<String, Object> partitionedConfig, Cache<UUID, Product> store) {
+        String localNode = (String) partitionedConfig.get("nodeId");
+        Map<String, InetSocketAddress> members = parseMembers((List<String>) partitionedConfig.get("members"));
+        InetSocketAddress localAddress = members.get(localNode);
+        if (localAddress == null) {
+            throw new IllegalArgumentException("Local node is not a member: " + localNode);
+        }
+        Duration timeout = Duration.ofMillis((Integer) partitionedConfig.getOrDefault("timeoutMillis", 200));
+        Duration failureBackoff = Duration.ofMillis(
+                (Integer) partitionedConfig.getOrDefault("failureBackoffMillis", 1_000));
+        int connections = (Integer) partitionedConfig.getOrDefault("connectionsPerNode", 4);
+        Map<String, CacheNodeClient> peers = new HashMap<>();
+        members.forEach((node, address) -> {
+            if (!node.equals(localNode)) {
+                peers.put(node, new CacheNodeClient(address, connections, timeout, failureBackoff));
+            }
+        });
+        Map<String, Object> nearConfig = (Map<String, Object>) partitionedConfig.getOrDefault("nearCache", Map.of());
+        Cache<UUID, Product> nearCache = CacheBuilder.<UUID, Product>newBuilder()
+                .policy("lru")
+                .maximumSize((Integer) nearConfig.getOrDefault("capacity", 1_000))
+                .concurrencyLevel((Integer) nearConfig.getOrDefault("concurrencyLevel", 4))
+                .expireAfterWrite(Duration.ofSeconds((Integer) nearConfig.getOrDefault("expireAfterWriteSeconds", 5)))
+                .build();
+        HashRing ring = new HashRing(members.keySet(), (Integer) partitionedConfig.getOrDefault("virtualNodes", 128));
+        CacheNodeServer server = new CacheNodeServer(localAddress, store);
+        log.info("Partitioned cache node {} joined ring of {} nodes", localNode, members.size());
+        return new PartitionedCache(localNode, ring, store, nearCache, peers, server);
+    }
+
+    /**
+     * Вставляет значение на узле-владельце. Для продукта другого узла копия также кладется
+     * в {@code nearCache}.
+     *
+     * @param key   ключ, с которым связано указанное значение
+     * @param value значение, которое должно быть связано с указанным ключом
+     */
+    @Override
+    public void put(UUID key, Product value) {
+        if (key == null || value == null) {
+            log.warn("Attempt to add null key or value to the cache");
+            return;
+        }
+        String owner = ring.owner(key);
+        if (owner.equals(localNode)) {
+            store.put(key, value);
+            return;
+        }
+        nearCache.put(key, value);
+        try {
+            peers.get(owner).put(key, value);
+        } catch (IOException e) {
+            remoteFailureCount.increment();
+            log.debug("Failed to put key {} to cache node {}", key, owner, e);
+        }
+    }
+
+    /**
+     * Возвращает значение с узла-владельца.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return {@link Optional} значение, связанное с указанным ключом
+     */
+    @Override
+    public Optional<Product> get(UUID key) {
+        return Optional.ofNullable(getIfPresent(key));
+    }
+
+    /**
+     * Возвращает значение из своей части кэша, а для продукта другого узла — из
+     * {@code nearCache} или, при промахе, с узла-владельца.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return значение или {@code null}, если его нет или владелец недоступен
+     */
+    @Override
+    public Product getIfPresent(UUID key) {
+        String owner = ring.owner(key);
+        if (owner.equals(localNode)) {
+            return store.getIfPresent(key);
+        }
+        Product near = nearCache.getIfPresent(key);
+        if (near != null) {
+            nearHitCount.increment();
+            return near;
+        }
+        try {
+            Product remote = peers.get(owner).get(key);
+            if (remote == null) {
+                remoteMissCount.increment();
+                return null;
+            }
+            remoteHitCount.increment();
+            nearCache.put(key, remote);
+            return remote;
+        } catch (IOException e) {
+            remoteFailureCount.increment();
+            log.debug("Failed to get key {} from cache node {}", key, owner, e);
+            return null;
+        }
+    }
+
+    /**
+     * Удаляет значение на узле-владельце и локальную копию.
+     *
+     * @param key ключ, значение которого должно быть удалено из кэша
+     */
+    @Override
+    public void delete(UUID key) {
+        String owner = ring.owner(key);
+        if (owner.equals(localNode)) {
+            store.delete(key);
+            return;
+        }
+        nearCache.delete(key);
+        try {
+            peers.get(owner).delete(key);
+        } catch (IOException e) {
+            remoteFailureCount.increment();
+            log.warn("Failed to delete key {} from cache node {}", key, owner, e);
+        }
+    }
+
+    /**
+     * Удаляет продукты из локальных частей кэша, не обращаясь к другим узлам: копии из
+     * {@code nearCache} и продукты, которыми владеет этот узел. Вызывается при инвалидации через
+     * {@code LISTEN/NOTIFY}, которую получает каждый узел: свою часть каждый узел очищает сам, а
+     * удаление на владельце с каждого узла стоило бы лишних запросов по сети. Так владелец
+     * избавляется и от версии, которую изменивший узел не смог ему передать, и от строк,
+     * измененных в базе в обход сервиса, ценой одной повторной загрузки.
+     *
+     * @param keys идентификаторы измененных продуктов
+     */
+    public void invalidateLocal(Collection<UUID> keys) {
+        nearCache.deleteAll(keys);
+        List<UUID> owned = keys.stream()
+                .filter(key -> ring.owner(key).equals(localNode))
+                .toList();
+        if (!owned.isEmpty()) {
+            store.deleteAll(owned);
+        }
+    }
+
+    /**
+     * Очищает свою часть кэша и {@code nearCache}. Части других узлов не затрагиваются:
+     * каждый узел получает ту же инвалидацию и очищает свою часть сам.
+     */
+    @Override
+    public void invalidateAll() {
+        store.invalidateAll();
+        nearCache.invalidateAll();
+    }
+
+    /**
+     * Возвращает самые популярные ключи своей части кэша и {@code nearCache}.
+     *
+     * @param limit максимальное количество ключей
+     * @return карта частот по ключам
+     */
+    @Override
+    public Map<UUID, Integer> hotKeys(int limit) {
+        Map<UUID, Integer> hotKeys = new LinkedHashMap<>(store.hotKeys(limit));
+        for (Map.Entry<UUID, Integer> entry : nearCache.hotKeys(limit).entrySet()) {
+            if (hotKeys.size() >= limit) {
+                break;
+            }
+            hotKeys.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        return hotKeys;
+    }
+
+    /**
+     * Восстанавливает частоту ключа в своей части кэша или в {@code nearCache}.
+     *
+     * @param key       ключ
+     * @param frequency сохраненная частота обращений
+     */
+    @Override
+    public void restoreFrequency(UUID key, int frequency) {
+        (ring.owner(key).equals(localNode) ? store : nearCache).restoreFrequency(key, frequency);
+    }
+
+    /**
+     * Возвращает узел-владелец ключа.
+     *
+     * @param key ключ
+     * @return идентификатор узла
+     */
+    public String ownerOf(UUID key) {
+        return ring.owner(key);
+    }
+
+    /**
+     * Возвращает количество попаданий в {@code nearCache}.
+     *
+     * @return количество попаданий
+     */
+    public long getNearHitCount() {
+        return nearHitCount.sum();
+    }
+
+    /**
+     * Возвращает количество продуктов, полученных с других узлов.
+     *
+     * @return количество удаленных попаданий
+     */
+    public long getRemoteHitCount() {
+        return remoteHitCount.sum();
+    }
+
+    /**
+     * Возвращает количество запросов к другим узлам, не нашедших продукт.
+     *
+     * @return количество удаленных промахов
+     */
+    public long getRemoteMissCount() {
+        return remoteMissCount.sum();
+    }
+
+    /**
+     * Возвращает количество неудачных обращений к другим узлам.
+     *
+     * @return количество ошибок
+     */
+    public long getRemoteFailureCount() {
+        return remoteFailureCount.sum();
+    }
+
+    /**
+     * Закрывает клиентов узлов. Если кэш создан по конфигурации, также останавливает сервер
+     * узла и {@code nearCache}.
+     */
+    @Override
+    public void close() {
+        if (server != null) {
+            server.close();
+            if (nearCache instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close near cache", e);
+                }
+            }
+        }
+        peers.values().forEach(CacheNodeClient::close);
+    }
+
+    private static Map<String, InetSocketAddress> parseMembers(List<String> members) {
+        if (members == null || members.isEmpty()) {
+            throw new IllegalArgumentException("Partitioned cache requires members");
+        }
+        Map<String, InetSocketAddress> parsed = new LinkedHashMap<>();
+        for (String member : members) {
+            int separator = member.indexOf('=');
+            int portSeparator = member.lastIndexOf(':');
+            if (separator <= 0 || portSeparator < separator) {
+                throw new IllegalArgumentException("Malformed cache member, expected id=host:port: " + member);
+            }
+            String host = member.substring(separator + 1, portSeparator);
+            int port = Integer.parseInt(member.substring(portSeparator + 1));
+            if (parsed.put(member.substring(0, separator), new InetSocketAddress(host, port)) != null) {
+                throw new IllegalArgumentException("Duplicate cache member: " + member);
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,109 @@
+package clevertec.cache.cluster;
+
+import clevertec.entity.Product;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Кодирование {@link Product} для протокола узлов кэша.
+ * <p>
+ * В отличие от {@code ProductCodec} записи имеют переменную длину и не обрезают название.
+ * Формат:
+ * <pre>
+ * byte   флаги присутствующих полей
+ * long   старшие 64 бита идентификатора   (если есть)
+ * long   младшие 64 бита идентификатора   (если есть)
+ * double цена                             (если есть)
+ * double вес                              (если есть)
+ * long   дата создания, секунды в UTC     (если есть)
+ * int    дата создания, наносекунды       (если есть)
+ * int    длина названия в байтах UTF-8    (если есть)
+ * byte[] название                         (если есть)
+ * </pre>
+ */
+final class ProductWireCodec {
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_PRICE = 1 << 1;
+    private static final int HAS_WEIGHT = 1 << 2;
+    private static final int HAS_CREATED = 1 << 3;
+    private static final int HAS_NAME = 1 << 4;
+
+    private ProductWireCodec() {
+    }
+
+    /**
+     * Кодирует продукт в массив байт.
+     *
+     * @param product продукт
+     * @return закодированный продукт
+     */
+    static byte[] encode(Product product) {
+        byte[] name = product.getName() == null ? null : product.getName().getBytes(StandardCharsets.UTF_8);
+        int flags = (product.getId() != null ? HAS_ID : 0)
+                | (product.getPrice() != null ? HAS_PRICE : 0)
+                | (product.getWeight() != null ? HAS_WEIGHT : 0)
+                | (product.getCreated() != null ? HAS_CREATED : 0)
+                | (name != null ? HAS_NAME : 0);
+        int size = 1
+                + ((flags & HAS_ID) != 0 ? 2 * Long.BYTES : 0)
+                + ((flags & HAS_PRICE) != 0 ? Double.BYTES : 0)
+                + ((flags & HAS_WEIGHT) != 0 ? Double.BYTES : 0)
+                + ((flags & HAS_CREATED) != 0 ? Long.BYTES + Integer.BYTES : 0)
+                + (name != null ? Integer.BYTES + name.length : 0);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put((byte) flags);
+        if (product.getId() != null) {
+            buffer.putLong(product.getId().getMostSignificantBits());
+            buffer.putLong(product.getId().getLeastSignificantBits());
+        }
+        if (product.getPrice() != null) {
+            buffer.putDouble(product.getPrice());
+        }
+        if (product.getWeight() != null) {
+            buffer.putDouble(product.getWeight());
+        }
+        if (product.getCreated() != null) {
+            buffer.putLong(product.getCreated().toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(product.getCreated().getNano());
+        }
+        if (name != null) {
+            buffer.putInt(name.length);
+            buffer.put(name);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Читает продукт с текущей позиции буфера.
+     *
+     * @param buffer буфер с закодированным продуктом
+     * @return продукт
+     */
+    static Product decode(ByteBuffer buffer) {
+        int flags = buffer.get();
+        Product product = new Product();
+        if ((flags & HAS_ID) != 0) {
+            product.setId(new UUID(buffer.getLong(), buffer.getLong()));
+        }
+        if ((flags & HAS_PRICE) != 0) {
+            product.setPrice(buffer.getDouble());
+        }
+        if ((flags & HAS_WEIGHT) != 0) {
+            product.setWeight(buffer.getDouble());
+        }
+        if ((flags & HAS_CREATED) != 0) {
+            product.setCreated(LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC));
+        }
+        if ((flags & HAS_NAME) != 0) {
+            byte[] name = new byte[buffer.getInt()];
+            buffer.get(name);
+            product.setName(new String(name, StandardCharsets.UTF_8));
+        }
+        return product;
+    }
+}
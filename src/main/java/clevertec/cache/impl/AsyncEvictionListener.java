@@ -0,0 +1,55 @@
+package clevertec.cache.impl;
+
+import clevertec.cache.EvictionListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Получатель вытеснения, передающий элементы другому получателю в потоке {@link Executor}.
+ * <p>
+ * Политики вызывают получателя под блокировкой сегмента в потоке вставки, поэтому медленный
+ * получатель, например запись в журнал или внешнее хранилище, замедляет {@code put}.
+ * Этот получатель только ставит задачу в очередь исполнителя. Порядок доставки совпадает
+ * с порядком вытеснения, только если исполнитель однопоточный. Если исполнитель отклонил
+ * задачу, элемент не доставляется, а ошибка записывается в журнал; ошибки получателя
+ * также не возвращаются в поток вставки.
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+@Slf4j
+public class AsyncEvictionListener<K, V> implements EvictionListener<K, V> {
+
+    private final EvictionListener<K, V> delegate;
+    private final Executor executor;
+
+    /**
+     * Конструктор асинхронного получателя.
+     *
+     * @param delegate получатель, вызываемый в потоке исполнителя
+     * @param executor исполнитель доставки
+     */
+    public AsyncEvictionListener(EvictionListener<K, V> delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public void onEviction(K key, V value) {
+        try {
+            executor.execute(() -> deliver(key, value));
+        } catch (RejectedExecutionException e) {
+            log.warn("Eviction of key {} was not delivered: executor rejected the task", key);
+        }
+    }
+
+    private void deliver(K key, V value) {
+        try {
+            delegate.onEviction(key, value);
+        } catch (RuntimeException e) {
+            log.warn("Eviction listener failed for key {}", key, e);
+        }
+    }
+}
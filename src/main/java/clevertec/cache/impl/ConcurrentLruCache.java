@@ -0,0 +1,60 @@
+package clevertec.cache.impl;
+
+import clevertec.cache.EvictionListener;
+import clevertec.cache.Weigher;
+
+/**
+ * Потокобезопасная реализация стратегии кэширования "Least Recently Used" (LRU).
+ * Ключи распределяются по сегментам, каждый из которых является {@link LruCache}
+ * со своей блокировкой, поэтому конкурентные обращения к разным ключам не блокируют друг друга.
+ *
+ * @param <K> тип ключей, поддерживаемых этим кэшем
+ * @param <V> тип значений, хранящихся в кэше
+ */
+public class ConcurrentLruCache<K, V> extends StripedCache<K, V> {
+
+    /**
+     * Конструктор для создания кэша с количеством сегментов по числу доступных процессоров.
+     *
+     * @param capacity максимальное количество элементов, которое может хранить кэш
+     */
+    public ConcurrentLruCache(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Конструктор для создания кэша с заданным количеством сегментов.
+     *
+     * @param capacity         максимальное количество элементов, которое может хранить кэш
+     * @param concurrencyLevel желаемое количество сегментов
+     */
+    public ConcurrentLruCache(int capacity, int concurrencyLevel) {
+        this(capacity, concurrencyLevel, EvictionListener.none());
+    }
+
+    /**
+     * Конструктор для создания кэша с заданным количеством сегментов и получателем вытесненных элементов.
+     * Получатель вызывается под блокировкой сегмента, из которого вытеснен элемент.
+     *
+     * @param capacity         максимальное количество элементов, которое может хранить кэш
+     * @param concurrencyLevel желаемое количество сегментов
+     * @param evictionListener получатель вытесненных элементов
+     */
+    public ConcurrentLruCache(int capacity, int concurrencyLevel, EvictionListener<K, V> evictionListener) {
+        super(capacity, concurrencyLevel, segmentCapacity -> new LruCache<>(segmentCapacity, evictionListener));
+    }
+
+    /**
+     * Конструктор для создания кэша, ограниченного суммарным весом элементов.
+     * Максимальный вес делится между сегментами поровну.
+     *
+     * @param maxWeight        максимальный суммарный вес элементов
+     * @param concurrencyLevel желаемое количество сегментов
+     * @param weigher          весовщик элементов
+     * @param evictionListener получатель вытесненных элементов
+     */
+    public ConcurrentLruCache(long maxWeight, int concurrencyLevel, Weigher<? super K, ? super V> weigher,
+                              EvictionListener<K, V> evictionListener) {
+        super(segments(maxWeight, concurrencyLevel, segmentWeight -> new LruCache<>(segmentWeight, weigher, evictionListener)));
+    }
+}
@@ -0,0 +1,412 @@
+package clevertec.cache.impl;
+
+import clevertec.cache.Cache;
+import clevertec.cache.EvictionListener;
+import clevertec.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Декоратор кэша, ограничивающий время жизни элементов.
+ * <p>
+ * Поддерживаются два ограничения: после записи (expire-after-write) и после последнего
+ * обращения (expire-after-access). Сроки элементов отслеживаются в {@link TimerWheel},
+ * поэтому истечение обрабатывается за амортизированное O(1) без обхода всего кэша.
+ * Просроченный элемент удаляется лениво при обращении к нему, а оставшиеся удаляются
+ * фоновой задачей очистки.
+ * <p>
+ * Чтение не берет блокировок: обращение только обновляет время доступа таймера, а колесо
+ * переносит таймер при срабатывании. Запись, удаление и очистка выполняются под общей
+ * блокировкой декоратора.
+ * <p>
+ * Если кэш-делегат ограничен по размеру, его получатель вытеснения должен вызывать
+ * {@link #evicted(Object)}, иначе таймеры вытесненных элементов остаются в колесе до своего срока.
+ * <p>
+ * Значение, найденное в делегате без таймера, например восстановленное персистентным вторым
+ * уровнем после перезапуска, получает таймер при первом чтении. Если второй уровень сам
+ * ограничивает срок от исходной записи, такое значение живет меньше двух сроков.
+ *
+ * @param <K> тип ключей, поддерживаемых этим кэшем
+ * @param <V> тип значений, хранящихся в кэше
+ */
+@Slf4j
+public class ExpiringCache<K, V> implements Cache<K, V>, AutoCloseable {
+
+    private static final long SWEEP_INTERVAL_MILLIS = 1_000;
+
+    private final Cache<K, V> delegate;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final Ticker ticker;
+    private final ConcurrentHashMap<K, TimerWheel.Timer<K>> timers;
+    private final Queue<TimerWheel.Timer<K>> evictedTimers = new ConcurrentLinkedQueue<>();
+    private final TimerWheel<K> wheel;
+    private final ReentrantLock lock;
+    private final ScheduledExecutorService sweeper;
+    private final EvictionListener<K, V> expirationListener;
+
+    /**
+     * Конструктор для создания кэша с системным временем и фоновой очисткой раз в секунду.
+     *
+     * @param delegate          кэш, в котором хранятся элементы
+     * @param expireAfterWrite  время жизни после записи или {@link Duration#ZERO}, если не ограничено
+     * @param expireAfterAccess время жизни после последнего обращения или {@link Duration#ZERO},
+     *                          если не ограничено
+     */
+    public ExpiringCache(Cache<K, V> delegate, Duration expireAfterWrite, Duration expireAfterAccess) {
+        this(delegate, expireAfterWrite, expireAfterAccess, EvictionListener.none());
+    }
+
+    /**
+     * Конструктор для создания кэша с системным временем, фоновой очисткой раз в секунду
+     * и получателем элементов с истекшим сроком жизни.
+     *
+     * @param delegate           кэш, в котором хранятся элементы
+     * @param expireAfterWrite   время жизни после записи или {@link Duration#ZERO}, если не ограничено
+     * @param expireAfterAccess  время жизни после последнего обращения или {@link Duration#ZERO},
+     *                           если не ограничено
+     * @param expirationListener получатель элементов с истекшим сроком жизни
+     */
+    public ExpiringCache(Cache<K, V> delegate, Duration expireAfterWrite, Duration expireAfterAccess,
+                         EvictionListener<K, V> expirationListener) {
+        this(delegate, expireAfterWrite, expireAfterAccess, Ticker.system(), createSweeper(), expirationListener);
+    }
+
+    /**
+     * Конструктор для создания кэша с заданным источником времени и планировщиком очистки.
+     *
+     * @param delegate          кэш, в котором хранятся элементы
+     * @param expireAfterWrite  время жизни после записи или {@link Duration#ZERO}, если не ограничено
+     * @param expireAfterAccess время жизни после последнего обращения или {@link Duration#ZERO},
+     *                          если не ограничено
+     * @param ticker            источник времени
+     * @param sweeper           планировщик фоновой очистки или {@code null}, если очистка
+     *                          выполняется только вызовом {@link #cleanUp()}
+     */
+    public ExpiringCache(Cache<K, V> delegate, Duration expireAfterWrite, Duration expireAfterAccess,
+                         Ticker ticker, ScheduledExecutorService sweeper) {
+        this(delegate, expireAfterWrite, expireAfterAccess, ticker, sweeper, EvictionListener.none());
+    }
+
+    /**
+     * Конструктор для создания кэша с заданным источником времени, планировщиком очистки
+     * и получателем элементов с истекшим сроком жизни. Получатель вызывается под блокировкой
+     * декоратора.
+     *
+     * @param delegate           кэш, в котором хранятся элементы
+     * @param expireAfterWrite   время жизни после записи или {@link Duration#ZERO}, если не ограничено
+     * @param expireAfterAccess  время жизни после последнего обращения или {@link Duration#ZERO},
+     *                           если не ограничено
+     * @param ticker             источник времени
+     * @param sweeper            планировщик фоновой очистки или {@code null}, если очистка
+     *                           выполняется только вызовом {@link #cleanUp()}
+     * @param expirationListener получатель элементов с истекшим сроком жизни
+     */
+    public ExpiringCache(Cache<K, V> delegate, Duration expireAfterWrite, Duration expireAfterAccess,
+                         Ticker ticker, ScheduledExecutorService sweeper, EvictionListener<K, V> expirationListener) {
+        if (expireAfterWrite.isNegative() || expireAfterAccess.isNegative()) {
+            throw new IllegalArgumentException("Expiration durations cannot be negative");
+        }
+        if (expireAfterWrite.isZero() && expireAfterAccess.isZero()) {
+            throw new IllegalArgumentException("At least one expiration duration must be set");
+        }
+        this.delegate = delegate;
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.expireAfterAccessNanos = expireAfterAccess.toNanos();
+        this.ticker = ticker;
+        this.timers = new ConcurrentHashMap<>();
+        this.wheel = new TimerWheel<>(ticker.read());
+        this.lock = new ReentrantLock();
+        this.sweeper = sweeper;
+        this.expirationListener = expirationListener;
+        if (sweeper != null) {
+            sweeper.scheduleWithFixedDelay(this::cleanUp, SWEEP_INTERVAL_MILLIS, SWEEP_INTERVAL_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        }
+        log.info("Expiring cache initialized with expireAfterWrite: {}, expireAfterAccess: {}",
+                expireAfterWrite, expireAfterAccess);
+    }
+
+    /**
+     * Вставляет или обновляет значение и заново отсчитывает время жизни элемента.
+     *
+     * @param key   ключ, с которым связано указанное значение
+     * @param value значение, которое должно быть связано с указанным ключом
+     */
+    @Override
+    public void put(K key, V value) {
+        long now = ticker.read();
+        lock.lock();
+        try {
+            drainEvictedTimers();
+            TimerWheel.Timer<K> timer = timers.computeIfAbsent(key, TimerWheel.Timer::new);
+            timer.writeTime = now;
+            timer.accessTime = now;
+            timer.deadline = deadline(timer);
+            wheel.schedule(timer);
+            try {
+                delegate.put(key, value);
+            } catch (RuntimeException e) {
+                timers.remove(key, timer);
+                wheel.deschedule(timer);
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает {@link Optional} значение, если срок жизни элемента не истек.
+     * Просроченный элемент удаляется из кэша.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return {@link Optional} значение, связанное с указанным ключом
+     */
+    @Override
+    public Optional<V> get(K key) {
+        return Optional.ofNullable(getIfPresent(key));
+    }
+
+    /**
+     * Возвращает значение или {@code null}, если его нет или срок его жизни истек.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return значение или {@code null}
+     */
+    @Override
+    public V getIfPresent(K key) {
+        TimerWheel.Timer<K> timer = timers.get(key);
+        if (timer == null) {
+            V value = delegate.getIfPresent(key);
+            if (value != null) {
+                adopt(key);
+            }
+            return value;
+        }
+        long now = ticker.read();
+        if (deadline(timer) - now <= 0) {
+            expire(key, timer, now);
+            return null;
+        }
+        if (expireAfterAccessNanos > 0) {
+            timer.accessTime = now;
+        }
+        return delegate.getIfPresent(key);
+    }
+
+    /**
+     * Удаляет значение для ключа из кэша и отменяет его таймер.
+     *
+     * @param key ключ, значение которого должно быть удалено из кэша
+     */
+    @Override
+    public void delete(K key) {
+        lock.lock();
+        try {
+            drainEvictedTimers();
+            delegate.delete(key);
+            TimerWheel.Timer<K> timer = timers.remove(key);
+            if (timer != null) {
+                wheel.deschedule(timer);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет все значения из кэша-делегата и отменяет все таймеры.
+     */
+    @Override
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            drainEvictedTimers();
+            delegate.invalidateAll();
+            timers.values().forEach(wheel::deschedule);
+            timers.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает самые популярные ключи кэша-делегата.
+     *
+     * @param limit максимальное количество ключей
+     * @return карта частот по ключам в порядке убывания популярности
+     */
+    @Override
+    public Map<K, Integer> hotKeys(int limit) {
+        return delegate.hotKeys(limit);
+    }
+
+    /**
+     * Восстанавливает частоту ключа в кэше-делегате.
+     *
+     * @param key       ключ
+     * @param frequency сохраненная частота обращений
+     */
+    @Override
+    public void restoreFrequency(K key, int frequency) {
+        delegate.restoreFrequency(key, frequency);
+    }
+
+    /**
+     * Отменяет таймер элемента, который кэш-делегат вытеснил из-за нехватки места.
+     * Метод вызывается из получателя вытеснения делегата, часто под блокировками делегата,
+     * поэтому сам блокировок не берет: таймер сразу удаляется из карты, а из колеса —
+     * при следующей записи, удалении или очистке.
+     *
+     * @param key ключ вытесненного элемента
+     */
+    public void evicted(K key) {
+        TimerWheel.Timer<K> timer = timers.remove(key);
+        if (timer != null) {
+            evictedTimers.add(timer);
+        }
+    }
+
+    /**
+     * Возвращает время, прошедшее с последней записи элемента.
+     *
+     * @param key ключ элемента
+     * @return возраст элемента или {@link Duration#ZERO}, если его срок не отслеживается
+     */
+    public Duration age(K key) {
+        TimerWheel.Timer<K> timer = timers.get(key);
+        return timer == null ? Duration.ZERO : Duration.ofNanos(ticker.read() - timer.writeTime);
+    }
+
+    /**
+     * Возвращает количество элементов, срок жизни которых отслеживается.
+     *
+     * @return количество таймеров
+     */
+    public int timerCount() {
+        return timers.size();
+    }
+
+    /**
+     * Удаляет из кэша все элементы, срок жизни которых истек к текущему моменту.
+     */
+    public void cleanUp() {
+        List<K> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            drainEvictedTimers();
+            wheel.advance(ticker.read(), (timer, now) -> {
+                long deadline = deadline(timer);
+                if (deadline - now > 0) {
+                    timer.deadline = deadline;
+                    return false;
+                }
+                if (timers.remove(timer.key, timer)) {
+                    remove(timer.key);
+                    expired.add(timer.key);
+                }
+                return true;
+            });
+        } catch (RuntimeException e) {
+            log.error("Error while removing expired cache entries", e);
+        } finally {
+            lock.unlock();
+        }
+        if (!expired.isEmpty()) {
+            log.debug("Expired {} keys", expired.size());
+        }
+    }
+
+    /**
+     * Останавливает фоновую очистку.
+     */
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private void expire(K key, TimerWheel.Timer<K> timer, long now) {
+        lock.lock();
+        try {
+            if (timers.get(key) == timer && deadline(timer) - now <= 0) {
+                timers.remove(key);
+                wheel.deschedule(timer);
+                remove(key);
+                log.debug("Expired key: {}", key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Заводит таймер для значения, найденного в делегате без таймера. Под блокировкой
+     * проверяется, что таймер не появился и значение не удалено конкурирующей записью.
+     */
+    private void adopt(K key) {
+        long now = ticker.read();
+        lock.lock();
+        try {
+            if (timers.containsKey(key) || delegate.getIfPresent(key) == null) {
+                return;
+            }
+            TimerWheel.Timer<K> timer = new TimerWheel.Timer<>(key);
+            timer.writeTime = now;
+            timer.accessTime = now;
+            timer.deadline = deadline(timer);
+            timers.put(key, timer);
+            wheel.schedule(timer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drainEvictedTimers() {
+        TimerWheel.Timer<K> timer;
+        while ((timer = evictedTimers.poll()) != null) {
+            wheel.deschedule(timer);
+        }
+    }
+
+    private void remove(K key) {
+        V value = delegate.getIfPresent(key);
+        delegate.delete(key);
+        if (value != null) {
+            expirationListener.onEviction(key, value);
+        }
+    }
+
+    private long deadline(TimerWheel.Timer<K> timer) {
+        long deadline = Long.MAX_VALUE;
+        if (expireAfterWriteNanos > 0) {
+            deadline = timer.writeTime + expireAfterWriteNanos;
+        }
+        if (expireAfterAccessNanos > 0) {
+            deadline = Math.min(deadline, timer.accessTime + expireAfterAccessNanos);
+        }
+        return deadline;
+    }
+
+    private static ScheduledExecutorService createSweeper() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-expiration-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
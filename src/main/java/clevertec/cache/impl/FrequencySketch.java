@@ -0,0 +1,103 @@
+package clevertec.cache.impl;
+
+/**
+ * Вероятностная оценка частоты обращений к ключам (Count-Min Sketch) с 4-битными счетчиками.
+ * <p>
+ * Каждый ключ отображается на четыре счетчика в разных строках, а оценкой частоты служит
+ * минимальный из них. После {@code sampleSize} увеличений все счетчики делятся пополам,
+ * благодаря чему популярность ключей со временем "стареет".
+ *
+ * @param <K> тип ключей
+ */
+final class FrequencySketch<K> {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * Конструктор для создания оценщика частоты под кэш заданной вместимости.
+     *
+     * @param capacity вместимость кэша
+     */
+    FrequencySketch(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(8, capacity - 1) << 1);
+        this.table = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        this.sampleSize = 10 * Math.max(capacity, 1);
+    }
+
+    /**
+     * Возвращает оценку частоты обращений к ключу в диапазоне от 0 до 15.
+     *
+     * @param key ключ
+     * @return оценка частоты
+     */
+    int frequency(K key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Увеличивает оценку частоты ключа. При достижении размера выборки
+     * все счетчики уменьшаются вдвое.
+     *
+     * @param key ключ
+     */
+    void increment(K key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size == sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        int oddCounters = 0;
+        for (int i = 0; i < table.length; i++) {
+            oddCounters += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size - (oddCounters >>> 2)) >>> 1;
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
@@ -0,0 +1,75 @@
+package clevertec.cache.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Индекс узлов кэша по ключу.
+ * <p>
+ * Тип ключей кэша стирается при компиляции, поэтому индекс выбирает реализацию по первому
+ * вставленному ключу: для {@link UUID} используется {@link UuidHashMap}, для остальных
+ * типов — {@link HashMap}. Если в индекс с ключами {@link UUID} попадает ключ другого типа,
+ * содержимое один раз переносится в {@link HashMap}.
+ *
+ * @param <K> тип ключей
+ * @param <N> тип узлов
+ */
+final class KeyIndex<K, N> {
+
+    private UuidHashMap<N> uuids;
+    private Map<K, N> others;
+
+    N get(K key) {
+        if (uuids != null) {
+            return key instanceof UUID uuid ? uuids.get(uuid) : null;
+        }
+        return others == null ? null : others.get(key);
+    }
+
+    void put(K key, N node) {
+        if (uuids == null && others == null) {
+            if (key instanceof UUID) {
+                uuids = new UuidHashMap<>();
+            }
+            else {
+                others = new HashMap<>();
+            }
+        }
+        if (uuids != null) {
+            if (key instanceof UUID uuid) {
+                uuids.put(uuid, node);
+                return;
+            }
+            migrateToHashMap();
+        }
+        others.put(key, node);
+    }
+
+    N remove(K key) {
+        if (uuids != null) {
+            return key instanceof UUID uuid ? uuids.remove(uuid) : null;
+        }
+        return others == null ? null : others.remove(key);
+    }
+
+    void clear() {
+        uuids = null;
+        others = null;
+    }
+
+    int size() {
+        if (uuids != null) {
+            return uuids.size();
+        }
+        return others == null ? 0 : others.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void migrateToHashMap() {
+        Map<K, N> migrated = new HashMap<>();
+        uuids.forEach((key, node) -> migrated.put((K) key, node));
+        others = migrated;
+        uuids = null;
+    }
+}
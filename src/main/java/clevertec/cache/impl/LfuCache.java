@@ -1,17 +1,26 @@
 package clevertec.cache.impl;
 
 import clevertec.cache.Cache;
+import clevertec.cache.EvictionListener;
+import clevertec.cache.Weigher;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.TreeMap;
 
 /**
  * Реализация стратегии кэширования "Least Frequently Used" (LFU).
  * Этот кэш удаляет элементы, которые используются наименее часто.
+ * <p>
+ * Частоты хранятся в двусвязном списке корзин, упорядоченном по возрастанию частоты,
+ * а каждая корзина содержит интрузивный список своих узлов. Первая корзина всегда
+ * соответствует минимальной частоте, поэтому обращение, вставка, удаление и вытеснение
+ * выполняются за O(1). При равной частоте вытесняется элемент, попавший в корзину раньше.
+ * Индекс узлов выбирается по типу ключа, см. {@link KeyIndex}.
+ * <p>
+ * Вместимость задается максимальным суммарным весом элементов, который считает
+ * {@link Weigher}. По умолчанию вес каждого элемента равен 1.
  *
  * @param <K> тип ключей, поддерживаемых этим кэшем
  * @param <V> тип значений, хранящихся в кэше
@@ -19,10 +28,13 @@ import java.util.TreeMap;
 @Slf4j
 public class LfuCache<K, V> implements Cache<K, V> {
 
-    private final int capacity;
-    private final Map<K, V> mainMap;
-    private final Map<K, Integer> freqMap;
-    private final TreeMap<Integer, LinkedList<K>> freqList;
+    private final long maxWeight;
+    private final Weigher<? super K, ? super V> weigher;
+    private final KeyIndex<K, Node<K, V>> mainMap;
+    private final Bucket<K, V> buckets;
+    private final EvictionListener<K, V> evictionListener;
+    private Bucket<K, V> spareBuckets;
+    private long totalWeight;
 
     /**
      * Конструктор для создания кэша LFU с заданной вместимостью.
@@ -30,16 +42,45 @@ public class LfuCache<K, V> implements Cache<K, V> {
      * @param capacity максимальное количество элементов, которое может хранить кэш
      */
     public LfuCache(int capacity) {
-        this.capacity = capacity;
-        this.mainMap = new HashMap<>();
-        this.freqMap = new HashMap<>();
-        this.freqList = new TreeMap<>();
-        log.info("LFU Cache initialized with capacity: {}", capacity);
+        this(capacity, EvictionListener.none());
+    }
+
+    /**
+     * Конструктор для создания кэша LFU с получателем вытесненных элементов.
+     *
+     * @param capacity         максимальное количество элементов, которое может хранить кэш
+     * @param evictionListener получатель вытесненных элементов
+     */
+    public LfuCache(int capacity, EvictionListener<K, V> evictionListener) {
+        this(capacity, Weigher.singleton(), evictionListener);
+    }
+
+    /**
+     * Конструктор для создания кэша LFU, ограниченного суммарным весом элементов.
+     *
+     * @param maxWeight        максимальный суммарный вес элементов
+     * @param weigher          весовщик элементов
+     * @param evictionListener получатель вытесненных элементов
+     */
+    public LfuCache(long maxWeight, Weigher<? super K, ? super V> weigher, EvictionListener<K, V> evictionListener) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.mainMap = new KeyIndex<>();
+        this.buckets = new Bucket<>(0);
+        buckets.prev = buckets;
+        buckets.next = buckets;
+        this.evictionListener = evictionListener;
+        log.info("LFU Cache initialized with max weight: {}", maxWeight);
     }
 
     /**
      * Вставляет или обновляет значение, связанное с указанным ключом.
-     * Если кэш заполнен, удаляется элемент, который используется наименее часто.
+     * Пока суммарный вес превышает максимальный, удаляются элементы, которые используются
+     * наименее часто. Новый элемент не вытесняет сам себя: место под него освобождается до вставки.
+     * Элемент тяжелее всего кэша не сохраняется и сразу передается получателю вытеснения.
      *
      * @param key   ключ, с которым связано указанное значение
      * @param value значение, которое должно быть связано с указанным ключом
@@ -51,18 +92,36 @@ public class LfuCache<K, V> implements Cache<K, V> {
             return;
         }
 
-        if (mainMap.containsKey(key)) {
-            mainMap.put(key, value);
-            updateFrequency(key);
+        int weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        if (weight > maxWeight) {
+            delete(key);
+            log.debug("Value for key {} outweighs the cache: {}", key, weight);
+            evictionListener.onEviction(key, value);
+            return;
+        }
+
+        Node<K, V> node = mainMap.get(key);
+        if (node != null) {
+            totalWeight += weight - node.weight;
+            node.value = value;
+            node.weight = weight;
+            updateFrequency(node);
+            evictUntil(maxWeight, node);
         }
         else {
-            if (mainMap.size() >= capacity) {
-                K leastFreqKey = deleteLeastFrequentKey();
-                log.debug("Removed least frequent key: {}", leastFreqKey);
+            evictUntil(maxWeight - weight, null);
+            node = new Node<>(key, value);
+            node.weight = weight;
+            totalWeight += weight;
+            Bucket<K, V> first = buckets.next;
+            if (first.frequency != 1) {
+                first = insertBucketAfter(buckets, 1);
             }
-            mainMap.put(key, value);
-            freqMap.put(key, 1);
-            freqList.computeIfAbsent(1, k -> new LinkedList<>()).add(key);
+            first.append(node);
+            mainMap.put(key, node);
         }
         log.debug("Key added or updated: {}", key);
     }
@@ -82,21 +141,31 @@ public class LfuCache<K, V> implements Cache<K, V> {
      */
     @Override
     public Optional<V> get(K key) {
+        return Optional.ofNullable(getIfPresent(key));
+    }
+
+    /**
+     * Возвращает значение, связанное с указанным ключом, или {@code null}.
+     * Попадание переносит узел в корзину следующей частоты. Опустевшие корзины
+     * используются повторно, поэтому попадание не создает объектов.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return значение или {@code null}, если ключ является null или не найден
+     */
+    @Override
+    public V getIfPresent(K key) {
         if (key == null) {
             log.debug("Key is null");
-            return Optional.empty();
+            return null;
         }
 
-        V value = mainMap.get(key);
-        if (value != null) {
-            updateFrequency(key);
-            log.debug("Value retrieved for key {}", key);
-            return Optional.of(value);
-        }
-        else {
+        Node<K, V> node = mainMap.get(key);
+        if (node == null) {
             log.debug("Key not found: {}", key);
-            return Optional.empty();
+            return null;
         }
+        updateFrequency(node);
+        return node.value;
     }
 
     /**
@@ -106,36 +175,204 @@ public class LfuCache<K, V> implements Cache<K, V> {
      */
     @Override
     public void delete(K key) {
-        if (key != null && mainMap.containsKey(key)) {
-            Integer freq = freqMap.remove(key);
-            mainMap.remove(key);
-            LinkedList<K> keys = freqList.get(freq);
-            keys.remove(key);
-            if (keys.isEmpty()) {
-                freqList.remove(freq);
-            }
+        if (key == null) {
+            return;
+        }
+        Node<K, V> node = mainMap.remove(key);
+        if (node != null) {
+            detach(node);
+            totalWeight -= node.weight;
             log.debug("Key deleted: {}", key);
         }
     }
 
-    private void updateFrequency(K key) {
-        Integer freq = freqMap.get(key);
-        freqList.get(freq).remove(key);
-        if (freqList.get(freq).isEmpty()) {
-            freqList.remove(freq);
+    /**
+     * Удаляет все элементы без вызова получателя вытеснения.
+     */
+    @Override
+    public void invalidateAll() {
+        mainMap.clear();
+        buckets.prev = buckets;
+        buckets.next = buckets;
+        totalWeight = 0;
+    }
+
+    /**
+     * Возвращает текущее количество элементов в кэше.
+     *
+     * @return количество элементов
+     */
+    public int size() {
+        return mainMap.size();
+    }
+
+    /**
+     * Возвращает текущий суммарный вес элементов в кэше.
+     *
+     * @return суммарный вес
+     */
+    public long weight() {
+        return totalWeight;
+    }
+
+    /**
+     * Возвращает частоту обращений к ключу.
+     *
+     * @param key ключ
+     * @return частота обращений или 0, если ключ отсутствует в кэше
+     */
+    public int frequency(K key) {
+        Node<K, V> node = mainMap.get(key);
+        return node == null ? 0 : node.bucket.frequency;
+    }
+
+    /**
+     * Возвращает ключи с наибольшей частотой обращений. При равной частоте первым идет
+     * ключ, который попал в корзину частоты позже.
+     *
+     * @param limit максимальное количество ключей
+     * @return карта частот по ключам в порядке убывания частоты
+     */
+    @Override
+    public Map<K, Integer> hotKeys(int limit) {
+        Map<K, Integer> keys = new LinkedHashMap<>();
+        for (Bucket<K, V> bucket = buckets.prev; bucket != buckets && keys.size() < limit; bucket = bucket.prev) {
+            for (Node<K, V> node = bucket.head.prev; node != bucket.head && keys.size() < limit; node = node.prev) {
+                keys.put(node.key, bucket.frequency);
+            }
         }
-        freqMap.put(key, freq + 1);
-        freqList.computeIfAbsent(freq + 1, k -> new LinkedList<>()).add(key);
+        return keys;
     }
 
-    private K deleteLeastFrequentKey() {
-        Integer leastFreq = freqList.firstKey();
-        K key = freqList.get(leastFreq).removeFirst();
-        if (freqList.get(leastFreq).isEmpty()) {
-            freqList.remove(leastFreq);
+    /**
+     * Переносит ключ в корзину сохраненной частоты, пропуская промежуточные корзины.
+     *
+     * @param key       ключ
+     * @param frequency сохраненная частота обращений
+     */
+    @Override
+    public void restoreFrequency(K key, int frequency) {
+        Node<K, V> node = key == null ? null : mainMap.get(key);
+        if (node == null || frequency <= node.bucket.frequency) {
+            return;
+        }
+        Bucket<K, V> target = node.bucket;
+        while (target.next != buckets && target.next.frequency <= frequency) {
+            target = target.next;
+        }
+        if (target.frequency != frequency) {
+            target = insertBucketAfter(target, frequency);
+        }
+        detach(node);
+        target.append(node);
+    }
+
+    private void updateFrequency(Node<K, V> node) {
+        Bucket<K, V> current = node.bucket;
+        Bucket<K, V> next = current.next;
+        int frequency = current.frequency + 1;
+        if (next.frequency != frequency) {
+            next = insertBucketAfter(current, frequency);
+        }
+        detach(node);
+        next.append(node);
+    }
+
+    private void evictUntil(long limit, Node<K, V> retained) {
+        while (totalWeight > limit) {
+            Node<K, V> node = leastFrequentNode(retained);
+            detach(node);
+            mainMap.remove(node.key);
+            totalWeight -= node.weight;
+            log.debug("Removed least frequent key: {}", node.key);
+            evictionListener.onEviction(node.key, node.value);
+        }
+    }
+
+    private Node<K, V> leastFrequentNode(Node<K, V> retained) {
+        for (Bucket<K, V> bucket = buckets.next; bucket != buckets; bucket = bucket.next) {
+            for (Node<K, V> node = bucket.head.next; node != bucket.head; node = node.next) {
+                if (node != retained) {
+                    return node;
+                }
+            }
+        }
+        throw new IllegalStateException("No entry to evict");
+    }
+
+    private void detach(Node<K, V> node) {
+        Bucket<K, V> bucket = node.bucket;
+        bucket.remove(node);
+        if (bucket.isEmpty()) {
+            bucket.prev.next = bucket.next;
+            bucket.next.prev = bucket.prev;
+            bucket.prev = null;
+            bucket.next = spareBuckets;
+            spareBuckets = bucket;
+        }
+    }
+
+    private Bucket<K, V> insertBucketAfter(Bucket<K, V> bucket, int frequency) {
+        Bucket<K, V> created = spareBuckets;
+        if (created != null) {
+            spareBuckets = created.next;
+            created.frequency = frequency;
+        }
+        else {
+            created = new Bucket<>(frequency);
+        }
+        created.prev = bucket;
+        created.next = bucket.next;
+        bucket.next.prev = created;
+        bucket.next = created;
+        return created;
+    }
+
+    private static final class Bucket<K, V> {
+        private int frequency;
+        private final Node<K, V> head;
+        private Bucket<K, V> prev;
+        private Bucket<K, V> next;
+
+        private Bucket(int frequency) {
+            this.frequency = frequency;
+            this.head = new Node<>(null, null);
+            head.prev = head;
+            head.next = head;
+        }
+
+        private void append(Node<K, V> node) {
+            node.bucket = this;
+            node.next = head;
+            node.prev = head.prev;
+            head.prev.next = node;
+            head.prev = node;
+        }
+
+        private void remove(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            node.bucket = null;
+        }
+
+        private boolean isEmpty() {
+            return head.next == head;
+        }
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private V value;
+        private int weight;
+        private Bucket<K, V> bucket;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
         }
-        mainMap.remove(key);
-        freqMap.remove(key);
-        return key;
     }
 }
@@ -1,59 +1,117 @@
 package clevertec.cache.impl;
 
 import clevertec.cache.Cache;
-import clevertec.config.ConfigurationLoader;
+import clevertec.cache.EvictionListener;
+import clevertec.cache.Weigher;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
 /**
  * Реализация кэша, использующего стратегию "Least Recently Used" (LRU).
  * В этой стратегии удаляются элементы, к которым обращались давнее всего.
+ * <p>
+ * Порядок использования хранится в интрузивном двусвязном списке: каждый узел
+ * списка одновременно является значением карты, поэтому get, put, delete и
+ * вытеснение выполняются за O(1) и не создают новых объектов при попадании.
+ * Узлы с ключами {@link java.util.UUID} индексируются в {@link UuidHashMap}, поэтому
+ * поиск сравнивает два long вместо вызова {@code hashCode} и {@code equals} ключа.
+ * <p>
+ * Вместимость задается максимальным суммарным весом элементов, который считает
+ * {@link Weigher}. По умолчанию вес каждого элемента равен 1.
  *
  * @param <K> тип ключей, поддерживаемых этим кэшем
  * @param <V> тип значений, хранящихся в кэше
  */
 @Slf4j
 public class LruCache<K, V> implements Cache<K, V> {
-    private final int capacity;
-    private final Map<K, V> map;
-    private final List<K> linkedList;
+    private final long maxWeight;
+    private final Weigher<? super K, ? super V> weigher;
+    private final KeyIndex<K, Node<K, V>> map;
+    private final Node<K, V> head;
+    private final EvictionListener<K, V> evictionListener;
+    private long totalWeight;
 
     /**
      * Конструктор для создания кэша LRU с заданной вместимостью.
      *
      * @param capacity максимальное количество элементов, которое может хранить кэш
      */
-    public LruCache(int capacity){
-        this.capacity = capacity;
-        this.map = new HashMap<>();
-        this.linkedList = new LinkedList<>();
-        log.info("LRU Cache initialized with capacity: {}", capacity);
+    public LruCache(int capacity) {
+        this(capacity, EvictionListener.none());
+    }
+
+    /**
+     * Конструктор для создания кэша LRU с получателем вытесненных элементов.
+     *
+     * @param capacity         максимальное количество элементов, которое может хранить кэш
+     * @param evictionListener получатель вытесненных элементов
+     */
+    public LruCache(int capacity, EvictionListener<K, V> evictionListener) {
+        this(capacity, Weigher.singleton(), evictionListener);
+    }
+
+    /**
+     * Конструктор для создания кэша LRU, ограниченного суммарным весом элементов.
+     *
+     * @param maxWeight        максимальный суммарный вес элементов
+     * @param weigher          весовщик элементов
+     * @param evictionListener получатель вытесненных элементов
+     */
+    public LruCache(long maxWeight, Weigher<? super K, ? super V> weigher, EvictionListener<K, V> evictionListener) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.map = new KeyIndex<>();
+        this.head = new Node<>(null, null);
+        head.prev = head;
+        head.next = head;
+        this.evictionListener = evictionListener;
+        log.info("LRU Cache initialized with max weight: {}", maxWeight);
     }
 
     /**
      * Вставляет или обновляет значение, связанное с указанным ключом.
-     * Если кэш заполнен, удаляется элемент, который использовался давно.
+     * Пока суммарный вес превышает максимальный, удаляются элементы, которые использовались давно.
+     * Элемент тяжелее всего кэша не сохраняется и сразу передается получателю вытеснения.
      *
      * @param key   ключ, с которым связано указанное значение
      * @param value значение, которое должно быть связано с указанным ключом
      */
     @Override
     public void put(K key, V value) {
-        if (map.containsKey(key)) {
-            linkedList.remove(key);
+        int weight = weigh(key, value);
+        if (weight > maxWeight) {
+            delete(key);
+            log.debug("Value for key {} outweighs the cache: {}", key, weight);
+            evictionListener.onEviction(key, value);
+            return;
         }
-        else if (map.size() == capacity) {
-            K last = linkedList.removeLast();
-            map.remove(last);
+        Node<K, V> node = map.get(key);
+        if (node != null) {
+            totalWeight += weight - node.weight;
+            node.value = value;
+            node.weight = weight;
+            moveToFront(node);
+        }
+        else {
+            node = new Node<>(key, value);
+            node.weight = weight;
+            totalWeight += weight;
+            linkFirst(node);
+            map.put(key, node);
+        }
+        while (totalWeight > maxWeight) {
+            Node<K, V> last = head.prev;
+            unlink(last);
+            map.remove(last.key);
+            totalWeight -= last.weight;
+            evictionListener.onEviction(last.key, last.value);
         }
-        linkedList.addFirst(key);
-        map.put(key, value);
         log.debug("Added new key: {}", key);
     }
 
@@ -66,14 +124,25 @@ public class LruCache<K, V> implements Cache<K, V> {
      */
     @Override
     public Optional<V> get(K key) {
-        if (!map.containsKey(key)) {
+        return Optional.ofNullable(getIfPresent(key));
+    }
+
+    /**
+     * Возвращает значение, связанное с указанным ключом, или {@code null}.
+     * Попадание только перемещает узел в начало списка и не создает объектов.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return значение или {@code null}, если ключ не найден
+     */
+    @Override
+    public V getIfPresent(K key) {
+        Node<K, V> node = map.get(key);
+        if (node == null) {
             log.debug("Key not found: {}", key);
-            return Optional.empty();
+            return null;
         }
-        linkedList.remove(key);
-        linkedList.addFirst(key);
-        log.debug("Retrieved key: {}", key);
-        return Optional.ofNullable(map.get(key));
+        moveToFront(node);
+        return node.value;
     }
 
     /**
@@ -83,10 +152,98 @@ public class LruCache<K, V> implements Cache<K, V> {
      */
     @Override
     public void delete(K key) {
-        if (map.containsKey(key)) {
-            map.remove(key);
-            linkedList.remove(key);
+        Node<K, V> node = map.remove(key);
+        if (node != null) {
+            unlink(node);
+            totalWeight -= node.weight;
             log.debug("Deleted key: {}", key);
         }
     }
+
+    /**
+     * Удаляет все элементы без вызова получателя вытеснения.
+     */
+    @Override
+    public void invalidateAll() {
+        map.clear();
+        head.prev = head;
+        head.next = head;
+        totalWeight = 0;
+    }
+
+    /**
+     * Возвращает текущее количество элементов в кэше.
+     *
+     * @return количество элементов
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Возвращает текущий суммарный вес элементов в кэше.
+     *
+     * @return суммарный вес
+     */
+    public long weight() {
+        return totalWeight;
+    }
+
+    /**
+     * Возвращает ключи, начиная с использованного последним. LRU не считает обращения,
+     * поэтому частота каждого ключа равна 1.
+     *
+     * @param limit максимальное количество ключей
+     * @return карта частот по ключам в порядке убывания давности использования
+     */
+    @Override
+    public Map<K, Integer> hotKeys(int limit) {
+        Map<K, Integer> keys = new LinkedHashMap<>();
+        for (Node<K, V> node = head.next; node != head && keys.size() < limit; node = node.next) {
+            keys.put(node.key, 1);
+        }
+        return keys;
+    }
+
+    private int weigh(K key, V value) {
+        int weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        return weight;
+    }
+
+    private void moveToFront(Node<K, V> node) {
+        if (head.next != node) {
+            unlink(node);
+            linkFirst(node);
+        }
+    }
+
+    private void linkFirst(Node<K, V> node) {
+        node.prev = head;
+        node.next = head.next;
+        head.next.prev = node;
+        head.next = node;
+    }
+
+    private void unlink(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private V value;
+        private int weight;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
 }
@@ -0,0 +1,363 @@
+package clevertec.cache.impl;
+
+import clevertec.cache.Cache;
+import clevertec.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Персистентный кэш продуктов второго уровня в отображаемом в память файле.
+ * <p>
+ * Файл разбит на слоты фиксированного размера: слот либо свободен, либо хранит продукт в формате
+ * {@link ProductCodec} вместе со временем записи и порядковым номером. Новая версия продукта
+ * пишется в свободный слот и только потом освобождает слот старой версии, поэтому запись
+ * и удаление не требуют уплотнения файла и выполняются за O(1). Индекс в куче сопоставляет
+ * идентификатор слоту и упорядочен по времени записи, поэтому при превышении вместимости
+ * вытесняется самый старый элемент.
+ * <p>
+ * При открытии индекс восстанавливается обходом слотов в порядке номеров записи, поэтому
+ * содержимое переживает перезапуск JVM. Если задано время жизни после записи, продукты,
+ * записанные раньше, не возвращаются и не восстанавливаются. Время записи хранится по
+ * настенным часам, чтобы срок продолжал отсчитываться после перезапуска.
+ */
+@Slf4j
+public class MappedFileCache implements Cache<UUID, Product>, AutoCloseable {
+
+    private static final int MAGIC = 0x434C3243;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE_OFFSET = 8;
+    private static final int WRITE_TIME_OFFSET = 8;
+    private static final int SEQUENCE_OFFSET = 16;
+    private static final int RECORD_HEADER_SIZE = 24;
+    private static final byte FREE = 0;
+    private static final byte LIVE = 1;
+
+    private final Path file;
+    private final int capacity;
+    private final ProductCodec codec;
+    private final int recordSize;
+    private final long expireAfterWriteMillis;
+    private final Clock clock;
+    private final LinkedHashMap<UUID, Integer> index = new LinkedHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int[] freeSlots;
+    private int freeCount;
+    private long sequence;
+
+    /**
+     * Открывает или создает файл кэша без ограничения времени жизни.
+     *
+     * @param file         файл кэша
+     * @param capacity     максимальное количество продуктов
+     * @param maxNameBytes максимальная длина названия продукта в байтах UTF-8
+     */
+    public MappedFileCache(Path file, int capacity, int maxNameBytes) {
+        this(file, capacity, maxNameBytes, Duration.ZERO);
+    }
+
+    /**
+     * Открывает или создает файл кэша с временем жизни после записи по системным часам.
+     *
+     * @param file             файл кэша
+     * @param capacity         максимальное количество продуктов
+     * @param maxNameBytes     максимальная длина названия продукта в байтах UTF-8
+     * @param expireAfterWrite время жизни после записи или {@link Duration#ZERO}, если не ограничено
+     */
+    public MappedFileCache(Path file, int capacity, int maxNameBytes, Duration expireAfterWrite) {
+        this(file, capacity, maxNameBytes, expireAfterWrite, Clock.systemUTC());
+    }
+
+    /**
+     * Открывает или создает файл кэша с временем жизни после записи по заданным часам.
+     *
+     * @param file             файл кэша
+     * @param capacity         максимальное количество продуктов
+     * @param maxNameBytes     максимальная длина названия продукта в байтах UTF-8
+     * @param expireAfterWrite время жизни после записи или {@link Duration#ZERO}, если не ограничено
+     * @param clock            часы, по которым отмечается время записи
+     */
+    public MappedFileCache(Path file, int capacity, int maxNameBytes, Duration expireAfterWrite, Clock clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (expireAfterWrite.isNegative()) {
+            throw new IllegalArgumentException("Expiration duration cannot be negative");
+        }
+        this.file = file.toAbsolutePath();
+        this.capacity = capacity;
+        this.codec = new ProductCodec(maxNameBytes);
+        this.recordSize = RECORD_HEADER_SIZE + codec.recordSize();
+        this.expireAfterWriteMillis = expireAfterWrite.toMillis();
+        this.clock = clock;
+        try {
+            Files.createDirectories(this.file.getParent());
+            open();
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open mapped cache file " + file, e);
+        }
+        log.info("Mapped file cache initialized with capacity: {}, entries restored: {}, file: {}",
+                capacity, index.size(), this.file);
+    }
+
+    /**
+     * Записывает продукт с текущим временем. Если кэш заполнен, вытесняется самый старый продукт.
+     *
+     * @param key   идентификатор продукта
+     * @param value продукт с тем же идентификатором
+     */
+    @Override
+    public void put(UUID key, Product value) {
+        put(key, value, clock.instant());
+    }
+
+    /**
+     * Записывает продукт с заданным временем записи, например временем, когда продукт был
+     * загружен в первый уровень. Продукт, срок жизни которого к этому моменту истек, не
+     * записывается, а его прежняя версия удаляется.
+     *
+     * @param key       идентификатор продукта
+     * @param value     продукт с тем же идентификатором
+     * @param writeTime время записи, от которого отсчитывается срок жизни
+     */
+    public void put(UUID key, Product value, Instant writeTime) {
+        if (key == null || value == null || !key.equals(value.getId())) {
+            log.warn("Key must be equal to a non-null product id: {}", key);
+            return;
+        }
+        byte[] name = codec.encodeName(value);
+        long writeTimeMillis = writeTime.toEpochMilli();
+        if (name == null || isExpired(writeTimeMillis)) {
+            delete(key);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer previous = index.remove(key);
+            if (previous == null && index.size() >= capacity) {
+                Iterator<Map.Entry<UUID, Integer>> eldest = index.entrySet().iterator();
+                Map.Entry<UUID, Integer> evicted = eldest.next();
+                release(evicted.getValue());
+                log.debug("Evicted key: {}", evicted.getKey());
+                eldest.remove();
+            }
+            int offset = slotOffset(freeSlots[--freeCount]);
+            buffer.putLong(offset + WRITE_TIME_OFFSET, writeTimeMillis);
+            buffer.putLong(offset + SEQUENCE_OFFSET, sequence++);
+            codec.write(buffer, offset + RECORD_HEADER_SIZE, value, name);
+            buffer.put(offset, LIVE);
+            if (previous != null) {
+                release(previous);
+            }
+            index.put(key, offset);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает продукт, прочитанный из отображенной в память записи, если срок его жизни не истек.
+     *
+     * @param key идентификатор продукта
+     * @return {@link Optional} продукт, связанный с указанным ключом
+     */
+    @Override
+    public Optional<Product> get(UUID key) {
+        lock.readLock().lock();
+        try {
+            Integer offset = index.get(key);
+            if (offset == null || isExpired(buffer.getLong(offset + WRITE_TIME_OFFSET))) {
+                return Optional.empty();
+            }
+            return Optional.of(codec.read(buffer, offset + RECORD_HEADER_SIZE));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет продукт, освобождая его слот.
+     *
+     * @param key идентификатор продукта
+     */
+    @Override
+    public void delete(UUID key) {
+        lock.writeLock().lock();
+        try {
+            Integer offset = index.remove(key);
+            if (offset != null) {
+                release(offset);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет все продукты, освобождая их слоты.
+     */
+    @Override
+    public void invalidateAll() {
+        lock.writeLock().lock();
+        try {
+            index.values().forEach(this::release);
+            index.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает время записи продукта.
+     *
+     * @param key идентификатор продукта
+     * @return {@link Optional} время записи или пустой, если продукта нет
+     */
+    public Optional<Instant> writeTime(UUID key) {
+        lock.readLock().lock();
+        try {
+            Integer offset = index.get(key);
+            return offset == null ? Optional.empty()
+                    : Optional.of(Instant.ofEpochMilli(buffer.getLong(offset + WRITE_TIME_OFFSET)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает текущее количество продуктов, включая еще не удаленные просроченные.
+     *
+     * @return количество продуктов
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Сбрасывает изменения на диск и закрывает файл.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close mapped cache file {}", file, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Отображает файл в память. Слотов на один больше вместимости, чтобы новая версия продукта
+     * всегда находила свободный слот до освобождения старой. Файл, созданный с большей
+     * вместимостью, отображается целиком, и его лишние слоты используются как свободные.
+     */
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long existing = channel.size();
+        boolean compatible = existing >= HEADER_SIZE && hasCompatibleHeader();
+        if (existing > 0 && !compatible) {
+            log.warn("Mapped cache file {} has incompatible format and will be reset", file);
+            channel.truncate(0);
+        }
+        long slots = Math.max(capacity + 1L, compatible ? (existing - HEADER_SIZE) / recordSize : 0);
+        long size = HEADER_SIZE + slots * recordSize;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Mapped cache file cannot exceed 2 GiB: " + size + " bytes");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (!compatible) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(RECORD_SIZE_OFFSET, recordSize);
+        }
+        freeSlots = new int[(int) slots];
+    }
+
+    private boolean hasCompatibleHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        return header.getInt(0) == MAGIC
+                && header.getInt(4) == VERSION
+                && header.getInt(RECORD_SIZE_OFFSET) == recordSize;
+    }
+
+    /**
+     * Восстанавливает индекс из живых слотов в порядке записи. Просроченные продукты, старые версии,
+     * оставшиеся после аварийной остановки, и самые старые продукты сверх вместимости освобождаются.
+     */
+    private void recover() {
+        List<long[]> live = new ArrayList<>();
+        for (int slot = freeSlots.length - 1; slot >= 0; slot--) {
+            int offset = slotOffset(slot);
+            if (buffer.get(offset) != LIVE) {
+                freeSlots[freeCount++] = slot;
+            } else if (isExpired(buffer.getLong(offset + WRITE_TIME_OFFSET))) {
+                release(offset);
+            } else {
+                live.add(new long[]{buffer.getLong(offset + SEQUENCE_OFFSET), offset});
+            }
+        }
+        live.sort(Comparator.comparingLong(record -> record[0]));
+        for (long[] record : live) {
+            int offset = (int) record[1];
+            int data = offset + RECORD_HEADER_SIZE;
+            UUID key = new UUID(buffer.getLong(data + ProductCodec.MSB_OFFSET),
+                    buffer.getLong(data + ProductCodec.LSB_OFFSET));
+            Integer previous = index.remove(key);
+            if (previous != null) {
+                release(previous);
+            }
+            index.put(key, offset);
+            sequence = record[0] + 1;
+        }
+        Iterator<Integer> eldest = index.values().iterator();
+        while (index.size() > capacity) {
+            release(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    private boolean isExpired(long writeTimeMillis) {
+        return expireAfterWriteMillis > 0 && clock.millis() - writeTimeMillis >= expireAfterWriteMillis;
+    }
+
+    private void release(int offset) {
+        buffer.put(offset, FREE);
+        freeSlots[freeCount++] = (offset - HEADER_SIZE) / recordSize;
+    }
+
+    private int slotOffset(int slot) {
+        return HEADER_SIZE + slot * recordSize;
+    }
+}
@@ -0,0 +1,347 @@
+package clevertec.cache.impl;
+
+import clevertec.cache.Cache;
+import clevertec.cache.EvictionListener;
+import clevertec.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Кэш продуктов, хранящий записи вне кучи в прямых (direct) {@link ByteBuffer}.
+ * <p>
+ * Каждый продукт занимает слот фиксированного размера в формате {@link ProductCodec}.
+ * Индекс — таблица с открытой адресацией и линейным пробированием, также расположенная
+ * вне кучи: ячейка хранит номер слота, а ключ сравнивается по двум long идентификатора
+ * прямо в слоте. Удаление выполняется обратным сдвигом, без "надгробий". При заполнении
+ * вытеснение выполняется по алгоритму CLOCK: обращение выставляет бит в слоте, а стрелка
+ * освобождает первый слот со сброшенным битом.
+ * <p>
+ * Объем кучи не зависит от количества элементов: в куче живут только объекты самого кэша,
+ * а продукт создается заново при каждом чтении. Продукты с названием длиннее
+ * {@code maxNameBytes} байт UTF-8 не кэшируются. Реализация не потокобезопасна;
+ * для конкурентного доступа используется {@link StripedCache}.
+ */
+@Slf4j
+public class OffHeapProductCache implements Cache<UUID, Product> {
+
+    /**
+     * Максимальная длина названия по умолчанию: 255 символов, как у столбца {@code name}
+     * в {@code V1__init.sql}, по 2 байта UTF-8 на символ, чего хватает для латиницы и кириллицы.
+     * Слот занимает 560 байт вместо 1072 при запасе на 4-байтовые символы; более длинные
+     * в байтах названия не кэшируются, и такие продукты читаются из базы.
+     */
+    public static final int DEFAULT_MAX_NAME_BYTES = 255 * 2;
+
+    private static final int EMPTY = -1;
+    private static final int INDEX_ENTRY_BYTES = Integer.BYTES;
+    private static final byte OCCUPIED = 1;
+    private static final byte REFERENCED = 1 << 1;
+
+    private final int capacity;
+    private final ProductCodec codec;
+    private final int slotSize;
+    private final ByteBuffer slots;
+    private final ByteBuffer index;
+    private final int indexMask;
+    private final ByteBuffer freeSlots;
+    private final EvictionListener<UUID, Product> evictionListener;
+    private int freeCount;
+    private int size;
+    private int hand;
+
+    /**
+     * Конструктор для создания кэша с заданной вместимостью и максимальной длиной названия по умолчанию.
+     *
+     * @param capacity максимальное количество элементов, которое может хранить кэш
+     */
+    public OffHeapProductCache(int capacity) {
+        this(capacity, DEFAULT_MAX_NAME_BYTES);
+    }
+
+    /**
+     * Конструктор для создания кэша с заданной вместимостью.
+     *
+     * @param capacity     максимальное количество элементов, которое может хранить кэш
+     * @param maxNameBytes максимальная длина названия продукта в байтах UTF-8
+     */
+    public OffHeapProductCache(int capacity, int maxNameBytes) {
+        this(capacity, maxNameBytes, EvictionListener.none());
+    }
+
+    /**
+     * Конструктор для создания кэша с получателем вытесненных элементов.
+     *
+     * @param capacity         максимальное количество элементов, которое может хранить кэш
+     * @param maxNameBytes     максимальная длина названия продукта в байтах UTF-8
+     * @param evictionListener получатель вытесненных элементов
+     */
+    public OffHeapProductCache(int capacity, int maxNameBytes, EvictionListener<UUID, Product> evictionListener) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.codec = new ProductCodec(maxNameBytes);
+        this.slotSize = codec.recordSize();
+        if ((long) capacity * slotSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap cache segment cannot exceed 2 GiB: " + capacity
+                    + " slots of " + slotSize + " bytes");
+        }
+        int indexSize = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+        this.indexMask = indexSize - 1;
+        this.slots = ByteBuffer.allocateDirect(capacity * slotSize);
+        this.index = ByteBuffer.allocateDirect(indexSize * INDEX_ENTRY_BYTES);
+        this.freeSlots = ByteBuffer.allocateDirect(capacity * Integer.BYTES);
+        this.evictionListener = evictionListener;
+        for (int i = 0; i < indexSize; i++) {
+            index.putInt(i * INDEX_ENTRY_BYTES, EMPTY);
+        }
+        for (int slot = capacity - 1; slot >= 0; slot--) {
+            pushFree(slot);
+        }
+        log.info("Off-heap Cache initialized with capacity: {}, off-heap bytes: {}", capacity, offHeapBytes());
+    }
+
+    /**
+     * Вставляет или обновляет продукт. Если кэш заполнен, освобождается слот по алгоритму CLOCK.
+     *
+     * @param key   идентификатор продукта
+     * @param value продукт с тем же идентификатором
+     */
+    @Override
+    public void put(UUID key, Product value) {
+        if (key == null || value == null) {
+            log.warn("Key or value cannot be null");
+            return;
+        }
+        if (!key.equals(value.getId())) {
+            log.warn("Key {} does not match product id {}", key, value.getId());
+            return;
+        }
+        byte[] name = codec.encodeName(value);
+        if (name == null) {
+            log.debug("Product name is too long for off-heap cache, key: {}", key);
+            delete(key);
+            return;
+        }
+
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        int position = find(msb, lsb);
+        if (position >= 0) {
+            int offset = indexSlot(position) * slotSize;
+            codec.write(slots, offset, value, name);
+            slots.put(offset + ProductCodec.OWNER_BYTE_OFFSET, (byte) (OCCUPIED | REFERENCED));
+        }
+        else {
+            if (freeCount == 0) {
+                evict();
+            }
+            int slot = popFree();
+            int offset = slot * slotSize;
+            codec.write(slots, offset, value, name);
+            slots.put(offset + ProductCodec.OWNER_BYTE_OFFSET, OCCUPIED);
+            setIndexSlot(-find(msb, lsb) - 1, slot);
+            size++;
+        }
+        log.debug("Key added or updated: {}", key);
+    }
+
+    /**
+     * Возвращает {@link Optional} с новой копией продукта, прочитанной из памяти вне кучи.
+     *
+     * @param key идентификатор продукта
+     * @return {@link Optional} продукт, связанный с указанным ключом
+     */
+    @Override
+    public Optional<Product> get(UUID key) {
+        if (key == null) {
+            log.debug("Key is null");
+            return Optional.empty();
+        }
+        int position = find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        if (position < 0) {
+            log.debug("Key not found: {}", key);
+            return Optional.empty();
+        }
+        int offset = indexSlot(position) * slotSize;
+        slots.put(offset + ProductCodec.OWNER_BYTE_OFFSET, (byte) (OCCUPIED | REFERENCED));
+        log.debug("Value retrieved for key {}", key);
+        return Optional.of(codec.read(slots, offset));
+    }
+
+    /**
+     * Удаляет продукт из кэша, если он присутствует.
+     *
+     * @param key идентификатор продукта
+     */
+    @Override
+    public void delete(UUID key) {
+        if (key == null) {
+            return;
+        }
+        int position = find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        if (position >= 0) {
+            int slot = indexSlot(position);
+            removeFromIndex(position);
+            release(slot);
+            log.debug("Key deleted: {}", key);
+        }
+    }
+
+    /**
+     * Удаляет все продукты без вызова получателя вытеснения и возвращает все слоты в список свободных.
+     */
+    @Override
+    public void invalidateAll() {
+        for (int i = 0; i <= indexMask; i++) {
+            index.putInt(i * INDEX_ENTRY_BYTES, EMPTY);
+        }
+        freeCount = 0;
+        for (int slot = capacity - 1; slot >= 0; slot--) {
+            slots.put(slot * slotSize + ProductCodec.OWNER_BYTE_OFFSET, (byte) 0);
+            pushFree(slot);
+        }
+        size = 0;
+        hand = 0;
+    }
+
+    /**
+     * Возвращает ключи, к которым обращались с момента последнего прохода стрелки CLOCK.
+     * CLOCK хранит только бит обращения, поэтому частота такого ключа равна 2, а остальных — 1.
+     *
+     * @param limit максимальное количество ключей
+     * @return карта частот по ключам в порядке убывания популярности
+     */
+    @Override
+    public Map<UUID, Integer> hotKeys(int limit) {
+        Map<UUID, Integer> referenced = new LinkedHashMap<>();
+        Map<UUID, Integer> others = new LinkedHashMap<>();
+        for (int slot = 0; slot < capacity && referenced.size() < limit; slot++) {
+            int offset = slot * slotSize;
+            byte state = slots.get(offset + ProductCodec.OWNER_BYTE_OFFSET);
+            if ((state & OCCUPIED) != 0) {
+                UUID key = new UUID(slots.getLong(offset + ProductCodec.MSB_OFFSET),
+                        slots.getLong(offset + ProductCodec.LSB_OFFSET));
+                boolean hot = (state & REFERENCED) != 0;
+                (hot ? referenced : others).put(key, hot ? 2 : 1);
+            }
+        }
+        for (Map.Entry<UUID, Integer> entry : others.entrySet()) {
+            if (referenced.size() == limit) {
+                break;
+            }
+            referenced.put(entry.getKey(), entry.getValue());
+        }
+        return referenced;
+    }
+
+    /**
+     * Возвращает текущее количество элементов в кэше.
+     *
+     * @return количество элементов
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает объем памяти вне кучи, занятой кэшем. Не зависит от заполненности кэша.
+     *
+     * @return количество байт
+     */
+    public long offHeapBytes() {
+        return (long) slots.capacity() + index.capacity() + freeSlots.capacity();
+    }
+
+    private void evict() {
+        while (true) {
+            int offset = hand * slotSize;
+            int slot = hand;
+            hand = hand + 1 == capacity ? 0 : hand + 1;
+            byte state = slots.get(offset + ProductCodec.OWNER_BYTE_OFFSET);
+            if ((state & OCCUPIED) == 0) {
+                continue;
+            }
+            if ((state & REFERENCED) != 0) {
+                slots.put(offset + ProductCodec.OWNER_BYTE_OFFSET, OCCUPIED);
+                continue;
+            }
+            long msb = slots.getLong(offset + ProductCodec.MSB_OFFSET);
+            long lsb = slots.getLong(offset + ProductCodec.LSB_OFFSET);
+            Product evicted = codec.read(slots, offset);
+            removeFromIndex(find(msb, lsb));
+            release(slot);
+            evictionListener.onEviction(evicted.getId(), evicted);
+            log.debug("Evicted key: {}", evicted.getId());
+            return;
+        }
+    }
+
+    /**
+     * Ищет ключ в индексе.
+     *
+     * @return позиция ключа в индексе или {@code -(позиция свободной ячейки) - 1}, если ключа нет
+     */
+    private int find(long msb, long lsb) {
+        int position = UuidHashMap.hash(msb, lsb) & indexMask;
+        while (true) {
+            int slot = indexSlot(position);
+            if (slot == EMPTY) {
+                return -position - 1;
+            }
+            int offset = slot * slotSize;
+            if (slots.getLong(offset + ProductCodec.MSB_OFFSET) == msb
+                    && slots.getLong(offset + ProductCodec.LSB_OFFSET) == lsb) {
+                return position;
+            }
+            position = (position + 1) & indexMask;
+        }
+    }
+
+    private void removeFromIndex(int position) {
+        int hole = position;
+        int next = position;
+        while (true) {
+            next = (next + 1) & indexMask;
+            int slot = indexSlot(next);
+            if (slot == EMPTY) {
+                break;
+            }
+            int offset = slot * slotSize;
+            int home = UuidHashMap.hash(slots.getLong(offset + ProductCodec.MSB_OFFSET),
+                    slots.getLong(offset + ProductCodec.LSB_OFFSET)) & indexMask;
+            if (((next - home) & indexMask) >= ((next - hole) & indexMask)) {
+                setIndexSlot(hole, slot);
+                hole = next;
+            }
+        }
+        setIndexSlot(hole, EMPTY);
+    }
+
+    private void release(int slot) {
+        slots.put(slot * slotSize + ProductCodec.OWNER_BYTE_OFFSET, (byte) 0);
+        pushFree(slot);
+        size--;
+    }
+
+    private int indexSlot(int position) {
+        return index.getInt(position * INDEX_ENTRY_BYTES);
+    }
+
+    private void setIndexSlot(int position, int slot) {
+        index.putInt(position * INDEX_ENTRY_BYTES, slot);
+    }
+
+    private void pushFree(int slot) {
+        freeSlots.putInt(freeCount++ * Integer.BYTES, slot);
+    }
+
+    private int popFree() {
+        return freeSlots.getInt(--freeCount * Integer.BYTES);
+    }
+}
@@ -0,0 +1,149 @@
+package clevertec.cache.impl;
+
+import clevertec.entity.Product;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Кодирование {@link Product} в запись фиксированного размера внутри {@link ByteBuffer}.
+ * <p>
+ * Формат записи:
+ * <pre>
+ *  0  long   старшие 64 бита идентификатора
+ *  8  long   младшие 64 бита идентификатора
+ * 16  double цена
+ * 24  double вес
+ * 32  long   дата создания, секунды от эпохи в UTC
+ * 40  int    дата создания, наносекунды
+ * 44  short  длина названия в байтах UTF-8
+ * 46  byte   флаги отсутствующих полей
+ * 47  byte   служебный байт владельца записи
+ * 48  byte[] название, не длиннее {@code maxNameBytes}
+ * </pre>
+ * Служебный байт не используется кодеком и доступен хранилищу, например для признака обращения.
+ */
+final class ProductCodec {
+
+    static final int MSB_OFFSET = 0;
+    static final int LSB_OFFSET = 8;
+    static final int OWNER_BYTE_OFFSET = 47;
+
+    private static final int PRICE_OFFSET = 16;
+    private static final int WEIGHT_OFFSET = 24;
+    private static final int EPOCH_SECOND_OFFSET = 32;
+    private static final int NANO_OFFSET = 40;
+    private static final int NAME_LENGTH_OFFSET = 44;
+    private static final int FLAGS_OFFSET = 46;
+    private static final int NAME_OFFSET = 48;
+
+    private static final int NO_ID = 1;
+    private static final int NO_NAME = 1 << 1;
+    private static final int NO_PRICE = 1 << 2;
+    private static final int NO_WEIGHT = 1 << 3;
+    private static final int NO_CREATED = 1 << 4;
+
+    private final int maxNameBytes;
+    private final int recordSize;
+
+    /**
+     * @param maxNameBytes максимальная длина названия в байтах UTF-8
+     */
+    ProductCodec(int maxNameBytes) {
+        if (maxNameBytes <= 0 || maxNameBytes > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Max name length must be between 1 and " + Short.MAX_VALUE + ": "
+                    + maxNameBytes);
+        }
+        this.maxNameBytes = maxNameBytes;
+        this.recordSize = (NAME_OFFSET + maxNameBytes + 7) & ~7;
+    }
+
+    /**
+     * @return размер записи в байтах, кратный 8
+     */
+    int recordSize() {
+        return recordSize;
+    }
+
+    /**
+     * Кодирует название продукта, если оно помещается в запись.
+     *
+     * @param product продукт
+     * @return байты названия, пустой массив для отсутствующего названия или {@code null}, если название слишком длинное
+     */
+    byte[] encodeName(Product product) {
+        if (product.getName() == null) {
+            return new byte[0];
+        }
+        byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+        return name.length <= maxNameBytes ? name : null;
+    }
+
+    /**
+     * Записывает продукт в буфер. Служебный байт владельца не изменяется.
+     *
+     * @param buffer буфер
+     * @param offset смещение записи
+     * @param product продукт
+     * @param name байты названия, полученные из {@link #encodeName(Product)}
+     */
+    void write(ByteBuffer buffer, int offset, Product product, byte[] name) {
+        int flags = 0;
+        UUID id = product.getId();
+        if (id == null) {
+            flags |= NO_ID;
+        }
+        buffer.putLong(offset + MSB_OFFSET, id == null ? 0 : id.getMostSignificantBits());
+        buffer.putLong(offset + LSB_OFFSET, id == null ? 0 : id.getLeastSignificantBits());
+        if (product.getPrice() == null) {
+            flags |= NO_PRICE;
+        }
+        buffer.putDouble(offset + PRICE_OFFSET, product.getPrice() == null ? 0 : product.getPrice());
+        if (product.getWeight() == null) {
+            flags |= NO_WEIGHT;
+        }
+        buffer.putDouble(offset + WEIGHT_OFFSET, product.getWeight() == null ? 0 : product.getWeight());
+        LocalDateTime created = product.getCreated();
+        if (created == null) {
+            flags |= NO_CREATED;
+        }
+        buffer.putLong(offset + EPOCH_SECOND_OFFSET, created == null ? 0 : created.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(offset + NANO_OFFSET, created == null ? 0 : created.getNano());
+        if (product.getName() == null) {
+            flags |= NO_NAME;
+        }
+        buffer.putShort(offset + NAME_LENGTH_OFFSET, (short) name.length);
+        buffer.put(offset + FLAGS_OFFSET, (byte) flags);
+        buffer.put(offset + NAME_OFFSET, name);
+    }
+
+    /**
+     * Читает продукт из буфера.
+     *
+     * @param buffer буфер
+     * @param offset смещение записи
+     * @return новый объект продукта
+     */
+    Product read(ByteBuffer buffer, int offset) {
+        int flags = buffer.get(offset + FLAGS_OFFSET);
+        String name = null;
+        if ((flags & NO_NAME) == 0) {
+            byte[] bytes = new byte[buffer.getShort(offset + NAME_LENGTH_OFFSET)];
+            buffer.get(offset + NAME_OFFSET, bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return Product.builder()
+                .id((flags & NO_ID) != 0 ? null
+                        : new UUID(buffer.getLong(offset + MSB_OFFSET), buffer.getLong(offset + LSB_OFFSET)))
+                .name(name)
+                .price((flags & NO_PRICE) != 0 ? null : buffer.getDouble(offset + PRICE_OFFSET))
+                .weight((flags & NO_WEIGHT) != 0 ? null : buffer.getDouble(offset + WEIGHT_OFFSET))
+                .created((flags & NO_CREATED) != 0 ? null
+                        : LocalDateTime.ofEpochSecond(buffer.getLong(offset + EPOCH_SECOND_OFFSET),
+                        buffer.getInt(offset + NANO_OFFSET), ZoneOffset.UTC))
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package clevertec.cache.impl;
+
+import clevertec.cache.Weigher;
+import clevertec.entity.Product;
+
+import java.util.UUID;
+
+/**
+ * Оценивает объем памяти в байтах, удерживаемый продуктом в кэше.
+ * <p>
+ * Оценка рассчитана на 64-битную JVM со сжатыми указателями: заголовок объекта занимает
+ * 12 байт, ссылка — 4 байта, объекты выравниваются по 8 байт. Учитываются идентификатор,
+ * название с массивом символов, цена, вес, дата создания и постоянные накладные расходы
+ * узла кэша и слота индекса. Общие объекты, например интернированные строки, учитываются
+ * как собственные, поэтому оценка сверху.
+ */
+public final class ProductWeigher implements Weigher<UUID, Product> {
+
+    static final int ENTRY_OVERHEAD = 48;
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int PRODUCT = align(OBJECT_HEADER + 5 * 4);
+    private static final int UUID_SIZE = align(OBJECT_HEADER + 2 * Long.BYTES);
+    private static final int STRING = align(OBJECT_HEADER + 4 + 4 + 1 + 1);
+    private static final int DOUBLE = align(OBJECT_HEADER + Double.BYTES);
+    private static final int LOCAL_DATE_TIME = align(OBJECT_HEADER + 2 * 4)
+            + align(OBJECT_HEADER + Integer.BYTES + 2 * Short.BYTES)
+            + align(OBJECT_HEADER + 3 + Integer.BYTES);
+
+    @Override
+    public int weigh(UUID key, Product product) {
+        long bytes = ENTRY_OVERHEAD + UUID_SIZE + PRODUCT;
+        if (product.getId() != null && product.getId() != key) {
+            bytes += UUID_SIZE;
+        }
+        if (product.getName() != null) {
+            bytes += weighString(product.getName());
+        }
+        if (product.getPrice() != null) {
+            bytes += DOUBLE;
+        }
+        if (product.getWeight() != null) {
+            bytes += DOUBLE;
+        }
+        if (product.getCreated() != null) {
+            bytes += LOCAL_DATE_TIME;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long weighString(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return STRING + align(ARRAY_HEADER + (long) value.length() * bytesPerChar);
+    }
+
+    private static int align(long size) {
+        return (int) ((size + 7) & ~7L);
+    }
+}
@@ -0,0 +1,310 @@
+package clevertec.cache.impl;
+
+import clevertec.cache.Cache;
+import clevertec.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Декоратор кэша, заранее обновляющий элементы, которые были записаны слишком давно.
+ * <p>
+ * Если с момента записи элемента прошло больше {@code refreshAfterWrite}, чтение сразу
+ * возвращает текущее значение и ставит асинхронную перезагрузку в ограниченный пул потоков.
+ * Пока перезагрузка ключа выполняется, повторные чтения новых перезагрузок не запускают.
+ * Если пул переполнен, перезагрузка пропускается и будет запрошена следующим чтением.
+ * <p>
+ * Запись или удаление ключа во время перезагрузки имеют приоритет: результат такой
+ * перезагрузки отбрасывается. Если загрузчик не нашел значение, элемент удаляется из кэша.
+ * Перезагруженное значение записывается в кэш-делегат как обычная запись, поэтому делегат
+ * со сроком жизни ({@link ExpiringCache}) заново отсчитывает его срок.
+ *
+ * @param <K> тип ключей, поддерживаемых этим кэшем
+ * @param <V> тип значений, хранящихся в кэше
+ */
+@Slf4j
+public class RefreshAheadCache<K, V> implements Cache<K, V>, AutoCloseable {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Cache<K, Entry<V>> delegate;
+    private final long refreshAfterWriteNanos;
+    private final Function<? super K, Optional<V>> loader;
+    private final Ticker ticker;
+    private final Executor executor;
+    private final ConcurrentHashMap<K, Entry<V>> refreshing = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks;
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder rejectedRefreshCount = new LongAdder();
+
+    /**
+     * Конструктор кэша с собственным ограниченным пулом потоков перезагрузки.
+     *
+     * @param delegate          кэш, в котором хранятся элементы вместе со временем записи
+     * @param refreshAfterWrite возраст элемента, после которого чтение запускает перезагрузку
+     * @param loader            функция загрузки актуального значения по ключу
+     * @param threads           количество потоков перезагрузки
+     * @param queueSize         максимальное количество ожидающих перезагрузок
+     */
+    public RefreshAheadCache(Cache<K, Entry<V>> delegate, Duration refreshAfterWrite,
+                             Function<? super K, Optional<V>> loader, int threads, int queueSize) {
+        this(delegate, refreshAfterWrite, loader, Ticker.system(), createExecutor(threads, queueSize));
+    }
+
+    /**
+     * Конструктор кэша с заданным источником времени и исполнителем перезагрузок.
+     *
+     * @param delegate          кэш, в котором хранятся элементы вместе со временем записи
+     * @param refreshAfterWrite возраст элемента, после которого чтение запускает перезагрузку
+     * @param loader            функция загрузки актуального значения по ключу
+     * @param ticker            источник времени
+     * @param executor          исполнитель перезагрузок; может отклонять задачи при перегрузке
+     */
+    public RefreshAheadCache(Cache<K, Entry<V>> delegate, Duration refreshAfterWrite,
+                             Function<? super K, Optional<V>> loader, Ticker ticker, Executor executor) {
+        if (refreshAfterWrite.isNegative() || refreshAfterWrite.isZero()) {
+            throw new IllegalArgumentException("Refresh interval must be positive: " + refreshAfterWrite);
+        }
+        this.delegate = delegate;
+        this.refreshAfterWriteNanos = refreshAfterWrite.toNanos();
+        this.loader = loader;
+        this.ticker = ticker;
+        this.executor = executor;
+        this.locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        log.info("Refresh-ahead cache initialized with refreshAfterWrite: {}", refreshAfterWrite);
+    }
+
+    /**
+     * Вставляет или обновляет значение и отменяет результат выполняющейся перезагрузки ключа.
+     *
+     * @param key   ключ, с которым связано указанное значение
+     * @param value значение, которое должно быть связано с указанным ключом
+     */
+    @Override
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            log.warn("Key or value cannot be null");
+            return;
+        }
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            refreshing.remove(key);
+            delegate.put(key, new Entry<>(value, ticker.read()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает {@link Optional} значение и запускает его перезагрузку, если оно устарело.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return {@link Optional} значение, связанное с указанным ключом
+     */
+    @Override
+    public Optional<V> get(K key) {
+        return Optional.ofNullable(getIfPresent(key));
+    }
+
+    /**
+     * Возвращает значение или {@code null} и запускает перезагрузку, если значение устарело.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return значение или {@code null}
+     */
+    @Override
+    public V getIfPresent(K key) {
+        Entry<V> entry = delegate.getIfPresent(key);
+        return entry == null ? null : refreshIfStale(key, entry);
+    }
+
+    /**
+     * Удаляет значение для ключа и отменяет результат выполняющейся перезагрузки.
+     *
+     * @param key ключ, значение которого должно быть удалено из кэша
+     */
+    @Override
+    public void delete(K key) {
+        if (key == null) {
+            return;
+        }
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            refreshing.remove(key);
+            delegate.delete(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет все значения и отменяет результаты выполняющихся перезагрузок. На время очистки
+     * берутся блокировки всех ключей, чтобы перезагрузка, уже прошедшая проверку, не вернула
+     * значение после очистки.
+     */
+    @Override
+    public void invalidateAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            refreshing.clear();
+            delegate.invalidateAll();
+        } finally {
+            for (int i = locks.length - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Возвращает значения для ключей одним обращением к кэшу-делегату и запускает
+     * перезагрузку устаревших значений.
+     *
+     * @param keys ключи
+     * @return карта найденных значений в порядке перебора ключей
+     */
+    @Override
+    public Map<K, V> getAll(Collection<? extends K> keys) {
+        Map<K, V> result = new LinkedHashMap<>();
+        delegate.getAll(keys).forEach((key, entry) -> result.put(key, refreshIfStale(key, entry)));
+        return result;
+    }
+
+    /**
+     * Возвращает самые популярные ключи кэша-делегата.
+     *
+     * @param limit максимальное количество ключей
+     * @return карта частот по ключам в порядке убывания популярности
+     */
+    @Override
+    public Map<K, Integer> hotKeys(int limit) {
+        return delegate.hotKeys(limit);
+    }
+
+    /**
+     * Восстанавливает частоту ключа в кэше-делегате.
+     *
+     * @param key       ключ
+     * @param frequency сохраненная частота обращений
+     */
+    @Override
+    public void restoreFrequency(K key, int frequency) {
+        delegate.restoreFrequency(key, frequency);
+    }
+
+    /**
+     * Возвращает количество запущенных перезагрузок.
+     *
+     * @return количество перезагрузок
+     */
+    public long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    /**
+     * Возвращает количество перезагрузок, отклоненных переполненным пулом.
+     *
+     * @return количество отклоненных перезагрузок
+     */
+    public long getRejectedRefreshCount() {
+        return rejectedRefreshCount.sum();
+    }
+
+    /**
+     * Останавливает пул потоков перезагрузки, если исполнитель является {@link ExecutorService}.
+     */
+    @Override
+    public void close() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private V refreshIfStale(K key, Entry<V> entry) {
+        if (ticker.read() - entry.writeTime() >= refreshAfterWriteNanos
+                && refreshing.putIfAbsent(key, entry) == null) {
+            try {
+                executor.execute(() -> refresh(key, entry));
+                refreshCount.increment();
+            } catch (RejectedExecutionException e) {
+                refreshing.remove(key, entry);
+                rejectedRefreshCount.increment();
+                log.debug("Refresh rejected for key: {}", key);
+            }
+        }
+        return entry.value();
+    }
+
+    private void refresh(K key, Entry<V> stale) {
+        try {
+            Optional<V> loaded = loader.apply(key);
+            ReentrantLock lock = lockFor(key);
+            lock.lock();
+            try {
+                if (refreshing.remove(key, stale)) {
+                    if (loaded.isPresent()) {
+                        delegate.put(key, new Entry<>(loaded.get(), ticker.read()));
+                    } else {
+                        delegate.delete(key);
+                    }
+                    log.debug("Refreshed key: {}", key);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh key: {}", key, e);
+        } finally {
+            // Снимает отметку и при Error из загрузчика, иначе ключ больше не обновлялся бы
+            refreshing.remove(key, stale);
+        }
+    }
+
+    private ReentrantLock lockFor(K key) {
+        int hash = key.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    private static ExecutorService createExecutor(int threads, int queueSize) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Значение кэша вместе со временем его записи.
+     *
+     * @param value     значение
+     * @param writeTime время записи по источнику времени кэша
+     * @param <V>       тип значения
+     */
+    public record Entry<V>(V value, long writeTime) {
+    }
+}
@@ -0,0 +1,122 @@
+package clevertec.cache.impl;
+
+import clevertec.cache.Cache;
+import clevertec.cache.CacheStats;
+import clevertec.cache.StatsCounter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Декоратор кэша, считающий попадания и промахи в {@link StatsCounter}.
+ * <p>
+ * Вытеснения и загрузки декоратор не видит: их учитывают получатели вытеснения политик
+ * и {@link clevertec.proxy.DaoProxyImpl}, записывающие в тот же {@link StatsCounter}.
+ * На пути попадания добавляется один вызов {@link java.util.concurrent.atomic.LongAdder#increment()}.
+ *
+ * @param <K> тип ключей, поддерживаемых этим кэшем
+ * @param <V> тип значений, хранящихся в кэше
+ */
+public class StatsCache<K, V> implements Cache<K, V> {
+
+    private final Cache<K, V> delegate;
+    private final StatsCounter statsCounter;
+
+    /**
+     * Конструктор декоратора.
+     *
+     * @param delegate     кэш, в котором хранятся элементы
+     * @param statsCounter накопитель статистики
+     */
+    public StatsCache(Cache<K, V> delegate, StatsCounter statsCounter) {
+        this.delegate = delegate;
+        this.statsCounter = statsCounter;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public Optional<V> get(K key) {
+        return Optional.ofNullable(getIfPresent(key));
+    }
+
+    /**
+     * Возвращает значение кэша-делегата и учитывает попадание или промах.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return значение или {@code null}
+     */
+    @Override
+    public V getIfPresent(K key) {
+        V value = delegate.getIfPresent(key);
+        if (value != null) {
+            statsCounter.recordHit();
+        }
+        else {
+            statsCounter.recordMiss();
+        }
+        return value;
+    }
+
+    @Override
+    public void delete(K key) {
+        delegate.delete(key);
+    }
+
+    /**
+     * Возвращает значения кэша-делегата и учитывает попадания и промахи по всем ключам.
+     *
+     * @param keys ключи
+     * @return карта найденных значений в порядке перебора ключей
+     */
+    @Override
+    public Map<K, V> getAll(Collection<? extends K> keys) {
+        Map<K, V> found = delegate.getAll(keys);
+        statsCounter.recordHits(found.size());
+        statsCounter.recordMisses(keys.size() - found.size());
+        return found;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        delegate.putAll(entries);
+    }
+
+    @Override
+    public void deleteAll(Collection<? extends K> keys) {
+        delegate.deleteAll(keys);
+    }
+
+    @Override
+    public void invalidateAll() {
+        delegate.invalidateAll();
+    }
+
+    @Override
+    public Map<K, Integer> hotKeys(int limit) {
+        return delegate.hotKeys(limit);
+    }
+
+    @Override
+    public void restoreFrequency(K key, int frequency) {
+        delegate.restoreFrequency(key, frequency);
+    }
+
+    @Override
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    /**
+     * Возвращает накопитель статистики, чтобы загрузчик кэша мог учитывать время загрузок.
+     *
+     * @return накопитель статистики
+     */
+    public StatsCounter getStatsCounter() {
+        return statsCounter;
+    }
+}
@@ -0,0 +1,381 @@
+package clevertec.cache.impl;
+
+import clevertec.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+
+/**
+ * Потокобезопасный кэш, разделенный на независимые сегменты (lock striping).
+ * <p>
+ * Каждый ключ по хэшу попадает в один сегмент со своей блокировкой и собственным
+ * непотокобезопасным кэшем, поэтому потоки, обращающиеся к разным сегментам, не
+ * конкурируют за общий монитор. Вместимость распределяется между сегментами,
+ * а политика вытеснения применяется внутри каждого сегмента отдельно, поэтому кэш делится
+ * на сегменты, только пока на каждый приходится не меньше {@value #MIN_SEGMENT_CAPACITY}
+ * единиц вместимости: в сегменте из нескольких элементов LFU и LRU вырождаются.
+ *
+ * @param <K> тип ключей, поддерживаемых этим кэшем
+ * @param <V> тип значений, хранящихся в кэше
+ */
+@Slf4j
+public class StripedCache<K, V> implements Cache<K, V> {
+
+    static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final Cache<K, V>[] segments;
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /**
+     * Конструктор для создания сегментированного кэша.
+     *
+     * @param capacity         общая вместимость кэша
+     * @param concurrencyLevel желаемое количество сегментов, округляется вверх до степени двойки
+     *                         и ограничивается так, чтобы на сегмент приходилось не меньше
+     *                         {@value #MIN_SEGMENT_CAPACITY} единиц вместимости
+     * @param segmentFactory   фабрика кэша сегмента по его вместимости
+     */
+    public StripedCache(int capacity, int concurrencyLevel, IntFunction<Cache<K, V>> segmentFactory) {
+        this(segments(capacity, concurrencyLevel, segmentCapacity -> segmentFactory.apply((int) segmentCapacity)));
+    }
+
+    /**
+     * Конструктор для создания кэша из готовых сегментов.
+     *
+     * @param segments сегменты кэша, количество которых является степенью двойки
+     */
+    protected StripedCache(Cache<K, V>[] segments) {
+        if (Integer.bitCount(segments.length) != 1) {
+            throw new IllegalArgumentException("Segment count must be a power of two: " + segments.length);
+        }
+        this.segments = segments;
+        this.locks = new ReentrantLock[segments.length];
+        this.mask = segments.length - 1;
+        for (int i = 0; i < segments.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        log.info("Striped cache initialized with {} segments", segments.length);
+    }
+
+    /**
+     * Создает сегментированный кэш, ограниченный суммарным весом элементов. Максимальный вес
+     * делится между сегментами поровну, поэтому элемент тяжелее веса своего сегмента не кэшируется.
+     *
+     * @param maxWeight        общий максимальный вес элементов
+     * @param concurrencyLevel желаемое количество сегментов, округляется вверх до степени двойки
+     *                         и ограничивается максимальным весом
+     * @param segmentFactory   фабрика кэша сегмента по его максимальному весу
+     * @param <K>              тип ключей
+     * @param <V>              тип значений
+     * @return сегментированный кэш
+     */
+    public static <K, V> StripedCache<K, V> weighted(long maxWeight, int concurrencyLevel,
+                                                     LongFunction<Cache<K, V>> segmentFactory) {
+        return new StripedCache<>(segments(maxWeight, concurrencyLevel, segmentFactory));
+    }
+
+    /**
+     * Создает сегменты, разделяя между ними вместимость или максимальный вес.
+     *
+     * @param capacity         общая вместимость или максимальный вес
+     * @param concurrencyLevel желаемое количество сегментов
+     * @param segmentFactory   фабрика кэша сегмента по его доле вместимости
+     * @param <K>              тип ключей
+     * @param <V>              тип значений
+     * @return сегменты кэша
+     */
+    @SuppressWarnings("unchecked")
+    protected static <K, V> Cache<K, V>[] segments(long capacity, int concurrencyLevel,
+                                                   LongFunction<Cache<K, V>> segmentFactory) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be positive: " + concurrencyLevel);
+        }
+        int segmentCount = segmentCount(capacity, concurrencyLevel);
+        Cache<K, V>[] segments = (Cache<K, V>[]) new Cache<?, ?>[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = segmentFactory.apply(capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0));
+        }
+        return segments;
+    }
+
+    /**
+     * Вставляет или обновляет значение в сегменте ключа под блокировкой этого сегмента.
+     *
+     * @param key   ключ, с которым связано указанное значение
+     * @param value значение, которое должно быть связано с указанным ключом
+     */
+    @Override
+    public void put(K key, V value) {
+        int index = segmentIndex(key);
+        ReentrantLock lock = locks[index];
+        lock.lock();
+        try {
+            segments[index].put(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает {@link Optional} значение из сегмента ключа под блокировкой этого сегмента.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return {@link Optional} значение, связанное с указанным ключом
+     */
+    @Override
+    public Optional<V> get(K key) {
+        int index = segmentIndex(key);
+        ReentrantLock lock = locks[index];
+        lock.lock();
+        try {
+            return segments[index].get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает значение из сегмента ключа или {@code null}.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return значение или {@code null}, если ключ не найден
+     */
+    @Override
+    public V getIfPresent(K key) {
+        int index = segmentIndex(key);
+        ReentrantLock lock = locks[index];
+        lock.lock();
+        try {
+            return segments[index].getIfPresent(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет значение для ключа из его сегмента, если оно присутствует.
+     *
+     * @param key ключ, значение которого должно быть удалено из кэша
+     */
+    @Override
+    public void delete(K key) {
+        int index = segmentIndex(key);
+        ReentrantLock lock = locks[index];
+        lock.lock();
+        try {
+            segments[index].delete(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Очищает сегменты по очереди, каждый под своей блокировкой.
+     */
+    @Override
+    public void invalidateAll() {
+        for (int index = 0; index < segments.length; index++) {
+            ReentrantLock lock = locks[index];
+            lock.lock();
+            try {
+                segments[index].invalidateAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Вставляет значения, группируя ключи по сегментам, чтобы блокировка каждого
+     * сегмента бралась один раз на всю пачку.
+     *
+     * @param entries значения по ключам
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        Map<K, V>[] entriesBySegment = (Map<K, V>[]) new Map<?, ?>[segments.length];
+        entries.forEach((key, value) -> {
+            int index = segmentIndex(key);
+            if (entriesBySegment[index] == null) {
+                entriesBySegment[index] = new LinkedHashMap<>();
+            }
+            entriesBySegment[index].put(key, value);
+        });
+        for (int index = 0; index < segments.length; index++) {
+            if (entriesBySegment[index] == null) {
+                continue;
+            }
+            ReentrantLock lock = locks[index];
+            lock.lock();
+            try {
+                segments[index].putAll(entriesBySegment[index]);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Удаляет значения, группируя ключи по сегментам.
+     *
+     * @param keys ключи
+     */
+    @Override
+    public void deleteAll(Collection<? extends K> keys) {
+        List<K>[] keysBySegment = groupBySegment(keys);
+        for (int index = 0; index < segments.length; index++) {
+            if (keysBySegment[index] == null) {
+                continue;
+            }
+            ReentrantLock lock = locks[index];
+            lock.lock();
+            try {
+                segments[index].deleteAll(keysBySegment[index]);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Возвращает значения, присутствующие в кэше, для указанных ключей.
+     * Ключи группируются по сегментам, и блокировка каждого сегмента берется один раз.
+     *
+     * @param keys ключи
+     * @return карта найденных значений в порядке перебора ключей
+     */
+    @Override
+    public Map<K, V> getAll(Collection<? extends K> keys) {
+        List<K>[] keysBySegment = groupBySegment(keys);
+        Map<K, V> found = new LinkedHashMap<>();
+        for (int index = 0; index < segments.length; index++) {
+            if (keysBySegment[index] == null) {
+                continue;
+            }
+            ReentrantLock lock = locks[index];
+            lock.lock();
+            try {
+                found.putAll(segments[index].getAll(keysBySegment[index]));
+            } finally {
+                lock.unlock();
+            }
+        }
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = found.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Восстанавливает частоту ключа в его сегменте под блокировкой этого сегмента.
+     *
+     * @param key       ключ
+     * @param frequency сохраненная частота обращений
+     */
+    @Override
+    public void restoreFrequency(K key, int frequency) {
+        int index = segmentIndex(key);
+        ReentrantLock lock = locks[index];
+        lock.lock();
+        try {
+            segments[index].restoreFrequency(key, frequency);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Объединяет самые популярные ключи всех сегментов. При равной частоте выше стоит ключ,
+     * занимающий более высокое место в своем сегменте, поэтому сегменты без частот
+     * (например, LRU) чередуются по давности обращения, а не следуют друг за другом целиком.
+     *
+     * @param limit максимальное количество ключей
+     * @return карта частот по ключам в порядке убывания частоты
+     */
+    @Override
+    public Map<K, Integer> hotKeys(int limit) {
+        List<HotKey<K>> candidates = new ArrayList<>();
+        for (int index = 0; index < segments.length; index++) {
+            ReentrantLock lock = locks[index];
+            lock.lock();
+            try {
+                int rank = 0;
+                for (Map.Entry<K, Integer> entry : segments[index].hotKeys(limit).entrySet()) {
+                    candidates.add(new HotKey<>(entry.getKey(), entry.getValue(), rank++));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        candidates.sort(Comparator.comparingInt(HotKey<K>::frequency).reversed()
+                .thenComparingInt(HotKey::rank));
+        Map<K, Integer> keys = new LinkedHashMap<>();
+        for (HotKey<K> candidate : candidates) {
+            if (keys.size() == limit) {
+                break;
+            }
+            keys.put(candidate.key(), candidate.frequency());
+        }
+        return keys;
+    }
+
+    /**
+     * Возвращает количество сегментов кэша.
+     *
+     * @return количество сегментов
+     */
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<K>[] groupBySegment(Collection<? extends K> keys) {
+        List<K>[] keysBySegment = (List<K>[]) new List<?>[segments.length];
+        for (K key : keys) {
+            int index = segmentIndex(key);
+            if (keysBySegment[index] == null) {
+                keysBySegment[index] = new ArrayList<>();
+            }
+            keysBySegment[index].add(key);
+        }
+        return keysBySegment;
+    }
+
+    private int segmentIndex(K key) {
+        int h = Objects.hashCode(key);
+        h ^= h >>> 16;
+        h *= 0x45d9f3b;
+        h ^= h >>> 16;
+        return h & mask;
+    }
+
+    private static int segmentCount(long capacity, int concurrencyLevel) {
+        int count = 1;
+        while (count < concurrencyLevel && (long) (count << 1) * MIN_SEGMENT_CAPACITY <= capacity) {
+            count <<= 1;
+        }
+        return count;
+    }
+
+    private record HotKey<K>(K key, int frequency, int rank) {
+    }
+}
@@ -0,0 +1,235 @@
+package clevertec.cache.impl;
+
+import clevertec.cache.Cache;
+import clevertec.cache.EvictionListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Двухуровневый кэш: быстрый первый уровень и вместительный второй, например {@link MappedFileCache}.
+ * <p>
+ * Запись попадает в первый уровень, а устаревшая копия во втором уровне удаляется. Элементы,
+ * вытесненные из первого уровня, переносятся во второй: для этого первый уровень создается
+ * с получателем вытеснения {@code spill}, по умолчанию {@code secondLevel::put}. Промах первого
+ * уровня проверяет второй и при попадании поднимает элемент обратно в первый, оставляя копию
+ * во втором. При закрытии содержимое первого уровня сохраняется во втором через {@code spill}.
+ * <p>
+ * Запись, удаление и подъем ключа выполняются под блокировкой его полосы, а подъем заново
+ * проверяет первый уровень, поэтому устаревшая копия второго уровня не перезаписывает
+ * конкурирующую запись и не возвращает удаленный элемент.
+ *
+ * @param <K> тип ключей, поддерживаемых этим кэшем
+ * @param <V> тип значений, хранящихся в кэше
+ */
+@Slf4j
+public class TieredCache<K, V> implements Cache<K, V>, AutoCloseable {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Cache<K, V> firstLevel;
+    private final Cache<K, V> secondLevel;
+    private final EvictionListener<K, V> spill;
+    private final ReentrantLock[] locks;
+
+    /**
+     * Конструктор двухуровневого кэша, сохраняющего первый уровень при закрытии через {@code secondLevel::put}.
+     *
+     * @param firstLevel  первый уровень, передающий вытесненные элементы во второй
+     * @param secondLevel второй уровень
+     */
+    public TieredCache(Cache<K, V> firstLevel, Cache<K, V> secondLevel) {
+        this(firstLevel, secondLevel, secondLevel::put);
+    }
+
+    /**
+     * Конструктор двухуровневого кэша с заданным переносом элементов во второй уровень.
+     *
+     * @param firstLevel  первый уровень, передающий вытесненные элементы во второй через {@code spill}
+     * @param secondLevel второй уровень
+     * @param spill       перенос элемента во второй уровень, используемый также при закрытии
+     */
+    public TieredCache(Cache<K, V> firstLevel, Cache<K, V> secondLevel, EvictionListener<K, V> spill) {
+        this.firstLevel = firstLevel;
+        this.secondLevel = secondLevel;
+        this.spill = spill;
+        this.locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Вставляет значение в первый уровень и удаляет устаревшую копию из второго.
+     *
+     * @param key   ключ, с которым связано указанное значение
+     * @param value значение, которое должно быть связано с указанным ключом
+     */
+    @Override
+    public void put(K key, V value) {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            firstLevel.put(key, value);
+            secondLevel.delete(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает значение из первого уровня, а при промахе — из второго, поднимая его в первый.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return {@link Optional} значение, связанное с указанным ключом
+     */
+    @Override
+    public Optional<V> get(K key) {
+        return Optional.ofNullable(getIfPresent(key));
+    }
+
+    /**
+     * Возвращает значение из первого уровня, а при промахе — из второго, поднимая его в первый.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return значение или {@code null}
+     */
+    @Override
+    public V getIfPresent(K key) {
+        V value = firstLevel.getIfPresent(key);
+        return value != null ? value : promote(key);
+    }
+
+    /**
+     * Удаляет значение из обоих уровней.
+     *
+     * @param key ключ, значение которого должно быть удалено из кэша
+     */
+    @Override
+    public void delete(K key) {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            firstLevel.delete(key);
+            secondLevel.delete(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет все значения из обоих уровней. На время очистки берутся блокировки всех полос,
+     * чтобы подъем, начатый до очистки, не вернул элемент второго уровня.
+     */
+    @Override
+    public void invalidateAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            firstLevel.invalidateAll();
+            secondLevel.invalidateAll();
+        } finally {
+            for (int i = locks.length - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Возвращает значения первого уровня, дополняя промахи значениями второго.
+     *
+     * @param keys ключи
+     * @return карта найденных значений в порядке перебора ключей
+     */
+    @Override
+    public Map<K, V> getAll(Collection<? extends K> keys) {
+        Map<K, V> found = firstLevel.getAll(keys);
+        if (found.size() == keys.size()) {
+            return found;
+        }
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = found.containsKey(key) ? found.get(key) : promote(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает самые популярные ключи первого уровня.
+     *
+     * @param limit максимальное количество ключей
+     * @return карта частот по ключам в порядке убывания популярности
+     */
+    @Override
+    public Map<K, Integer> hotKeys(int limit) {
+        return firstLevel.hotKeys(limit);
+    }
+
+    /**
+     * Восстанавливает частоту ключа в первом уровне, куда попадают прогретые значения.
+     *
+     * @param key       ключ
+     * @param frequency сохраненная частота обращений
+     */
+    @Override
+    public void restoreFrequency(K key, int frequency) {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            firstLevel.restoreFrequency(key, frequency);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Сохраняет содержимое первого уровня во втором и закрывает второй уровень.
+     */
+    @Override
+    public void close() {
+        firstLevel.getAll(firstLevel.hotKeys(Integer.MAX_VALUE).keySet()).forEach(spill::onEviction);
+        if (secondLevel instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Failed to close second level cache", e);
+            }
+        }
+    }
+
+    /**
+     * Поднимает значение второго уровня в первый под блокировкой полосы ключа, если
+     * конкурирующая запись еще не положила в первый уровень новое значение.
+     */
+    private V promote(K key) {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            V value = firstLevel.getIfPresent(key);
+            if (value != null) {
+                return value;
+            }
+            value = secondLevel.getIfPresent(key);
+            if (value != null) {
+                firstLevel.put(key, value);
+                log.debug("Promoted key from second level: {}", key);
+            }
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(K key) {
+        int hash = key.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+}
@@ -0,0 +1,177 @@
+package clevertec.cache.impl;
+
+/**
+ * Иерархическое колесо таймеров для планирования истечения срока жизни элементов кэша.
+ * <p>
+ * Колесо состоит из нескольких уровней с разной гранулярностью (около секунды, минуты, часа,
+ * суток и недели). Таймер помещается в корзину уровня, соответствующего оставшемуся времени,
+ * а при продвижении времени таймеры верхних уровней каскадно опускаются на нижние.
+ * Планирование, отмена и обработка одного таймера выполняются за амортизированное O(1),
+ * без сканирования всех элементов кэша. Класс не является потокобезопасным.
+ *
+ * @param <K> тип ключей
+ */
+final class TimerWheel<K> {
+
+    private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+    private static final long[] SPANS = {
+            1L << 30, // 1.07 секунды
+            1L << 36, // 1.14 минуты
+            1L << 42, // 1.22 часа
+            1L << 47, // 1.63 суток
+            1L << 49, // 6.5 суток, BUCKETS[3] * SPANS[3]
+            1L << 49
+    };
+    private static final long[] SHIFT = {
+            Long.numberOfTrailingZeros(SPANS[0]),
+            Long.numberOfTrailingZeros(SPANS[1]),
+            Long.numberOfTrailingZeros(SPANS[2]),
+            Long.numberOfTrailingZeros(SPANS[3]),
+            Long.numberOfTrailingZeros(SPANS[4])
+    };
+
+    private final Timer<K>[][] wheel;
+    private long nanos;
+
+    /**
+     * Обработчик сработавшего таймера.
+     *
+     * @param <K> тип ключей
+     */
+    @FunctionalInterface
+    interface ExpirationHandler<K> {
+
+        /**
+         * Вызывается для таймера, срок которого наступил.
+         *
+         * @param timer сработавший таймер
+         * @param now   текущее время в наносекундах
+         * @return {@code true}, если таймер обработан, или {@code false}, если его срок был продлен
+         * и таймер нужно запланировать заново
+         */
+        boolean onExpired(Timer<K> timer, long now);
+    }
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long nanos) {
+        this.nanos = nanos;
+        this.wheel = (Timer<K>[][]) new Timer<?>[BUCKETS.length][];
+        for (int i = 0; i < BUCKETS.length; i++) {
+            wheel[i] = (Timer<K>[]) new Timer<?>[BUCKETS[i]];
+            for (int j = 0; j < BUCKETS[i]; j++) {
+                wheel[i][j] = Timer.sentinel();
+            }
+        }
+    }
+
+    /**
+     * Планирует таймер на момент {@link Timer#deadline}. Если таймер уже запланирован,
+     * он переносится в новую корзину.
+     *
+     * @param timer таймер
+     */
+    void schedule(Timer<K> timer) {
+        deschedule(timer);
+        Timer<K> sentinel = findBucket(Math.max(timer.deadline, nanos));
+        timer.prev = sentinel.prev;
+        timer.next = sentinel;
+        sentinel.prev.next = timer;
+        sentinel.prev = timer;
+    }
+
+    /**
+     * Отменяет таймер, если он запланирован.
+     *
+     * @param timer таймер
+     */
+    void deschedule(Timer<K> timer) {
+        if (timer.next != null) {
+            timer.prev.next = timer.next;
+            timer.next.prev = timer.prev;
+            timer.next = null;
+            timer.prev = null;
+        }
+    }
+
+    /**
+     * Продвигает колесо до указанного времени и передает обработчику все таймеры,
+     * срок которых наступил. Таймеры, срок которых еще не наступил, каскадно
+     * переносятся на более точные уровни.
+     *
+     * @param now     текущее время в наносекундах
+     * @param handler обработчик сработавших таймеров
+     */
+    void advance(long now, ExpirationHandler<K> handler) {
+        long previous = nanos;
+        nanos = now;
+        for (int i = 0; i < SHIFT.length; i++) {
+            long previousTicks = previous >>> SHIFT[i];
+            long currentTicks = now >>> SHIFT[i];
+            if (currentTicks - previousTicks <= 0L) {
+                break;
+            }
+            expire(i, previousTicks, currentTicks - previousTicks, handler);
+        }
+    }
+
+    private void expire(int level, long previousTicks, long delta, ExpirationHandler<K> handler) {
+        Timer<K>[] timerWheel = wheel[level];
+        int mask = timerWheel.length - 1;
+        int steps = (int) Math.min(1 + delta, timerWheel.length);
+        int start = (int) (previousTicks & mask);
+        int end = start + steps;
+        for (int i = start; i < end; i++) {
+            Timer<K> sentinel = timerWheel[i & mask];
+            Timer<K> timer = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            while (timer != sentinel) {
+                Timer<K> next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                if (timer.deadline - nanos > 0 || !handler.onExpired(timer, nanos)) {
+                    schedule(timer);
+                }
+                timer = next;
+            }
+        }
+    }
+
+    private Timer<K> findBucket(long time) {
+        long duration = time - nanos;
+        int length = wheel.length - 1;
+        for (int i = 0; i < length; i++) {
+            if (duration < SPANS[i + 1]) {
+                long ticks = time >>> SHIFT[i];
+                int index = (int) (ticks & (wheel[i].length - 1));
+                return wheel[i][index];
+            }
+        }
+        return wheel[length][0];
+    }
+
+    /**
+     * Таймер элемента кэша, являющийся узлом интрузивного списка корзины колеса.
+     *
+     * @param <K> тип ключей
+     */
+    static final class Timer<K> {
+        final K key;
+        volatile long writeTime;
+        volatile long accessTime;
+        long deadline;
+        private Timer<K> prev;
+        private Timer<K> next;
+
+        Timer(K key) {
+            this.key = key;
+        }
+
+        private static <K> Timer<K> sentinel() {
+            Timer<K> sentinel = new Timer<>(null);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package clevertec.cache.impl;
+
+import clevertec.cache.Cache;
+import clevertec.cache.EvictionListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Реализация стратегии кэширования W-TinyLFU.
+ * <p>
+ * Новые элементы попадают в небольшое LRU-окно (около 1% вместимости). Вытесненный из окна
+ * элемент становится кандидатом в основную область, организованную как сегментированный LRU
+ * (испытательный и защищенный сегменты). Кандидат допускается в основную область, только если
+ * его оценка частоты в {@link FrequencySketch} выше, чем у жертвы из испытательного сегмента.
+ * <p>
+ * Окно защищает от вытеснения только что появившихся "всплесков", фильтр частоты не дает
+ * однократным сканированиям вымыть популярные элементы, а периодическое деление счетчиков
+ * пополам позволяет забывать популярность, которая осталась в прошлом.
+ *
+ * @param <K> тип ключей, поддерживаемых этим кэшем
+ * @param <V> тип значений, хранящихся в кэше
+ */
+@Slf4j
+public class TinyLfuCache<K, V> implements Cache<K, V> {
+
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final int capacity;
+    private final int maxWindow;
+    private final int maxProtected;
+    private final Map<K, Node<K, V>> map;
+    private final FrequencySketch<K> sketch;
+    private final Node<K, V> window;
+    private final Node<K, V> probation;
+    private final Node<K, V> protectedSegment;
+    private final EvictionListener<K, V> evictionListener;
+    private int windowSize;
+    private int protectedSize;
+
+    /**
+     * Конструктор для создания кэша W-TinyLFU с заданной вместимостью.
+     *
+     * @param capacity максимальное количество элементов, которое может хранить кэш
+     */
+    public TinyLfuCache(int capacity) {
+        this(capacity, EvictionListener.none());
+    }
+
+    /**
+     * Конструктор для создания кэша W-TinyLFU с получателем вытесненных элементов.
+     *
+     * @param capacity         максимальное количество элементов, которое может хранить кэш
+     * @param evictionListener получатель вытесненных элементов
+     */
+    public TinyLfuCache(int capacity, EvictionListener<K, V> evictionListener) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.maxWindow = Math.max(1, (int) (capacity * WINDOW_RATIO));
+        this.maxProtected = (int) ((capacity - maxWindow) * PROTECTED_RATIO);
+        this.map = new HashMap<>();
+        this.sketch = new FrequencySketch<>(capacity);
+        this.window = sentinel(Queue.WINDOW);
+        this.probation = sentinel(Queue.PROBATION);
+        this.protectedSegment = sentinel(Queue.PROTECTED);
+        this.evictionListener = evictionListener;
+        log.info("W-TinyLFU Cache initialized with capacity: {}", capacity);
+    }
+
+    /**
+     * Вставляет или обновляет значение, связанное с указанным ключом.
+     * Новый элемент помещается в окно, а при переполнении кэша фильтр частоты
+     * решает, кто будет вытеснен: кандидат из окна или жертва из основной области.
+     *
+     * @param key   ключ, с которым связано указанное значение
+     * @param value значение, которое должно быть связано с указанным ключом
+     */
+    @Override
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            log.warn("Key or value cannot be null");
+            return;
+        }
+
+        sketch.increment(key);
+        Node<K, V> node = map.get(key);
+        if (node != null) {
+            node.value = value;
+            onHit(node);
+        }
+        else {
+            node = new Node<>(key, value);
+            map.put(key, node);
+            linkLast(window, node);
+            windowSize++;
+            evict();
+        }
+        log.debug("Key added or updated: {}", key);
+    }
+
+    /**
+     * Возвращает {@link Optional} значение, связанное с указанным ключом.
+     * Каждое обращение, включая промахи, учитывается в оценке частоты.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return {@link Optional} значение, связанное с указанным ключом
+     */
+    @Override
+    public Optional<V> get(K key) {
+        return Optional.ofNullable(getIfPresent(key));
+    }
+
+    /**
+     * Возвращает значение, связанное с указанным ключом, или {@code null}.
+     * Каждое обращение, включая промахи, учитывается в оценке частоты.
+     *
+     * @param key ключ, значение которого нужно вернуть
+     * @return значение или {@code null}, если ключ является null или не найден
+     */
+    @Override
+    public V getIfPresent(K key) {
+        if (key == null) {
+            log.debug("Key is null");
+            return null;
+        }
+
+        sketch.increment(key);
+        Node<K, V> node = map.get(key);
+        if (node == null) {
+            log.debug("Key not found: {}", key);
+            return null;
+        }
+        onHit(node);
+        return node.value;
+    }
+
+    /**
+     * Удаляет значение для ключа из кэша, если оно присутствует.
+     *
+     * @param key ключ, значение которого должно быть удалено из кэша
+     */
+    @Override
+    public void delete(K key) {
+        if (key == null) {
+            return;
+        }
+        Node<K, V> node = map.remove(key);
+        if (node != null) {
+            unlink(node);
+            if (node.queue == Queue.WINDOW) {
+                windowSize--;
+            }
+            else if (node.queue == Queue.PROTECTED) {
+                protectedSize--;
+            }
+            log.debug("Key deleted: {}", key);
+        }
+    }
+
+    /**
+     * Удаляет все элементы без вызова получателя вытеснения. Оценки частоты в
+     * {@link FrequencySketch} сохраняются: они описывают обращения, а не содержимое кэша.
+     */
+    @Override
+    public void invalidateAll() {
+        map.clear();
+        for (Node<K, V> head : List.of(window, probation, protectedSegment)) {
+            head.prev = head;
+            head.next = head;
+        }
+        windowSize = 0;
+        protectedSize = 0;
+    }
+
+    /**
+     * Возвращает текущее количество элементов в кэше.
+     *
+     * @return количество элементов
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Возвращает ключи с наибольшей оценкой частоты в {@link FrequencySketch}.
+     *
+     * @param limit максимальное количество ключей
+     * @return карта частот по ключам в порядке убывания частоты
+     */
+    @Override
+    public Map<K, Integer> hotKeys(int limit) {
+        Map<K, Integer> keys = new LinkedHashMap<>();
+        map.keySet().stream()
+                .map(key -> Map.entry(key, sketch.frequency(key)))
+                .sorted(Map.Entry.<K, Integer>comparingByValue().reversed())
+                .limit(limit)
+                .forEach(entry -> keys.put(entry.getKey(), entry.getValue()));
+        return keys;
+    }
+
+    /**
+     * Увеличивает оценку частоты ключа в {@link FrequencySketch} до сохраненной частоты,
+     * но не выше предела счетчика.
+     *
+     * @param key       ключ
+     * @param frequency сохраненная частота обращений
+     */
+    @Override
+    public void restoreFrequency(K key, int frequency) {
+        if (key == null || !map.containsKey(key)) {
+            return;
+        }
+        int missing = Math.min(frequency, FrequencySketch.MAX_COUNT) - sketch.frequency(key);
+        for (int i = 0; i < missing; i++) {
+            sketch.increment(key);
+        }
+    }
+
+    private void onHit(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW, PROTECTED -> {
+                Node<K, V> head = node.queue == Queue.WINDOW ? window : protectedSegment;
+                unlink(node);
+                linkLast(head, node);
+            }
+            case PROBATION -> {
+                unlink(node);
+                node.queue = Queue.PROTECTED;
+                linkLast(protectedSegment, node);
+                protectedSize++;
+                if (protectedSize > maxProtected) {
+                    Node<K, V> demoted = protectedSegment.next;
+                    unlink(demoted);
+                    protectedSize--;
+                    demoted.queue = Queue.PROBATION;
+                    linkLast(probation, demoted);
+                }
+            }
+        }
+    }
+
+    private void evict() {
+        while (windowSize > maxWindow) {
+            Node<K, V> candidate = window.next;
+            unlink(candidate);
+            windowSize--;
+            candidate.queue = Queue.PROBATION;
+            linkLast(probation, candidate);
+            if (map.size() > capacity) {
+                evictFromMain(candidate);
+            }
+        }
+    }
+
+    private void evictFromMain(Node<K, V> candidate) {
+        Node<K, V> victim = probation.next != candidate ? probation.next : protectedSegment.next;
+        if (victim == protectedSegment) {
+            victim = candidate;
+        }
+        Node<K, V> evicted = victim == candidate || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)
+                ? candidate
+                : victim;
+        unlink(evicted);
+        if (evicted.queue == Queue.PROTECTED) {
+            protectedSize--;
+        }
+        map.remove(evicted.key);
+        evictionListener.onEviction(evicted.key, evicted.value);
+        log.debug("Evicted key: {}", evicted.key);
+    }
+
+    private Node<K, V> sentinel(Queue queue) {
+        Node<K, V> head = new Node<>(null, null);
+        head.queue = queue;
+        head.prev = head;
+        head.next = head;
+        return head;
+    }
+
+    private void linkLast(Node<K, V> head, Node<K, V> node) {
+        node.next = head;
+        node.prev = head.prev;
+        head.prev.next = node;
+        head.prev = node;
+    }
+
+    private void unlink(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    private enum Queue {
+        WINDOW, PROBATION, PROTECTED
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private V value;
+        private Queue queue = Queue.WINDOW;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package clevertec.cache.impl;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Хеш-таблица с ключами {@link UUID} и открытой адресацией.
+ * <p>
+ * Ключ хранится не ссылкой на объект, а двумя числами в параллельных массивах {@code long[]},
+ * поэтому поиск сравнивает примитивы в соседних ячейках памяти, не вызывает
+ * {@link UUID#hashCode()} и {@link UUID#equals(Object)} и ничего не создает.
+ * Коллизии разрешаются линейным пробированием, удаление выполняется обратным сдвигом
+ * без "надгробий". Таблица заполняется не более чем наполовину и удваивается при росте.
+ * Значения {@code null} не поддерживаются: пустая ячейка определяется отсутствием значения.
+ * Реализация не потокобезопасна.
+ *
+ * @param <V> тип значений
+ */
+public final class UuidHashMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] mostSigBits;
+    private long[] leastSigBits;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Создает пустую таблицу.
+     */
+    public UuidHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Создает пустую таблицу, вмещающую заданное количество элементов без расширения.
+     *
+     * @param expectedSize ожидаемое количество элементов
+     */
+    public UuidHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Возвращает значение, связанное с ключом.
+     *
+     * @param key ключ
+     * @return значение или {@code null}, если ключ отсутствует
+     */
+    public V get(UUID key) {
+        return get(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    /**
+     * Возвращает значение, связанное с ключом, заданным двумя половинами идентификатора.
+     *
+     * @param msb старшие 64 бита идентификатора
+     * @param lsb младшие 64 бита идентификатора
+     * @return значение или {@code null}, если ключ отсутствует
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long msb, long lsb) {
+        int position = hash(msb, lsb) & mask;
+        while (true) {
+            Object value = values[position];
+            if (value == null) {
+                return null;
+            }
+            if (mostSigBits[position] == msb && leastSigBits[position] == lsb) {
+                return (V) value;
+            }
+            position = (position + 1) & mask;
+        }
+    }
+
+    /**
+     * Связывает значение с ключом.
+     *
+     * @param key   ключ
+     * @param value значение, не {@code null}
+     * @return предыдущее значение или {@code null}, если ключа не было
+     */
+    @SuppressWarnings("unchecked")
+    public V put(UUID key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        int position = hash(msb, lsb) & mask;
+        while (true) {
+            Object current = values[position];
+            if (current == null) {
+                break;
+            }
+            if (mostSigBits[position] == msb && leastSigBits[position] == lsb) {
+                values[position] = value;
+                return (V) current;
+            }
+            position = (position + 1) & mask;
+        }
+        if ((size + 1) * 2 > values.length) {
+            resize();
+            position = freePosition(msb, lsb);
+        }
+        mostSigBits[position] = msb;
+        leastSigBits[position] = lsb;
+        values[position] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * Удаляет ключ из таблицы.
+     *
+     * @param key ключ
+     * @return удаленное значение или {@code null}, если ключа не было
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(UUID key) {
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        int position = hash(msb, lsb) & mask;
+        while (true) {
+            Object value = values[position];
+            if (value == null) {
+                return null;
+            }
+            if (mostSigBits[position] == msb && leastSigBits[position] == lsb) {
+                shiftBackward(position);
+                size--;
+                return (V) value;
+            }
+            position = (position + 1) & mask;
+        }
+    }
+
+    /**
+     * Возвращает количество элементов.
+     *
+     * @return количество элементов
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет все элементы, сохраняя размер таблицы.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Выполняет действие для каждой пары ключ-значение в порядке расположения в таблице.
+     *
+     * @param action действие
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<UUID, ? super V> action) {
+        for (int position = 0; position < values.length; position++) {
+            if (values[position] != null) {
+                action.accept(new UUID(mostSigBits[position], leastSigBits[position]), (V) values[position]);
+            }
+        }
+    }
+
+    /**
+     * Перемешивает биты идентификатора. Младшие биты случайного {@link UUID} содержат
+     * фиксированные поля версии и варианта, поэтому в хеш попадают обе половины.
+     *
+     * @param msb старшие 64 бита идентификатора
+     * @param lsb младшие 64 бита идентификатора
+     * @return хеш
+     */
+    static int hash(long msb, long lsb) {
+        long hash = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private int freePosition(long msb, long lsb) {
+        int position = hash(msb, lsb) & mask;
+        while (values[position] != null) {
+            position = (position + 1) & mask;
+        }
+        return position;
+    }
+
+    private void shiftBackward(int position) {
+        int hole = position;
+        int next = position;
+        while (true) {
+            next = (next + 1) & mask;
+            if (values[next] == null) {
+                break;
+            }
+            int home = hash(mostSigBits[next], leastSigBits[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                mostSigBits[hole] = mostSigBits[next];
+                leastSigBits[hole] = leastSigBits[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        values[hole] = null;
+    }
+
+    private void resize() {
+        long[] oldMostSigBits = mostSigBits;
+        long[] oldLeastSigBits = leastSigBits;
+        Object[] oldValues = values;
+        allocate(oldValues.length * 2);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int position = freePosition(oldMostSigBits[i], oldLeastSigBits[i]);
+                mostSigBits[position] = oldMostSigBits[i];
+                leastSigBits[position] = oldLeastSigBits[i];
+                values[position] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        mostSigBits = new long[tableSize];
+        leastSigBits = new long[tableSize];
+        values = new Object[tableSize];
+        mask = tableSize - 1;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long required = Math.max(2L, (long) expectedSize * 2);
+        if (required > 1 << 30) {
+            throw new IllegalArgumentException("Expected size is too large: " + expectedSize);
+        }
+        return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit((int) required - 1) << 1);
+    }
+}
@@ -0,0 +1,181 @@
+package clevertec.cache.metrics;
+
+import clevertec.cache.Cache;
+import clevertec.cache.CacheStats;
+import clevertec.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Публикует статистику кэша через JMX и подключаемые {@link MetricsReporter}.
+ * <p>
+ * MBean регистрируется под именем {@code clevertec.cache:type=CacheStats,name=<имя кэша>}.
+ * Отчеты строятся в отдельном потоке-демоне и не влияют на обращения к кэшу.
+ */
+@Slf4j
+public class CacheMetrics implements CacheStatsMXBean, AutoCloseable {
+
+    private final String cacheName;
+    private final Cache<?, ?> cache;
+    private final List<MetricsReporter> reporters = new CopyOnWriteArrayList<>();
+    private ObjectName objectName;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Конструктор публикатора статистики.
+     *
+     * @param cacheName имя кэша в JMX и отчетах
+     * @param cache     кэш, статистика которого публикуется
+     */
+    public CacheMetrics(String cacheName, Cache<?, ?> cache) {
+        this.cacheName = cacheName;
+        this.cache = cache;
+    }
+
+    /**
+     * Регистрирует MBean в платформенном {@link MBeanServer}. Если MBean с таким именем
+     * уже зарегистрирован, он заменяется.
+     */
+    public synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("clevertec.cache:type=CacheStats,name=" + ObjectName.quote(cacheName));
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+            objectName = name;
+            log.info("Cache stats MBean registered: {}", name);
+        } catch (JMException e) {
+            throw new RuntimeException("Failed to register cache stats MBean for " + cacheName, e);
+        }
+    }
+
+    /**
+     * Добавляет получателя периодических отчетов.
+     *
+     * @param reporter получатель отчетов
+     */
+    public void addReporter(MetricsReporter reporter) {
+        reporters.add(reporter);
+    }
+
+    /**
+     * Запускает периодическую публикацию статистики всем добавленным получателям.
+     *
+     * @param interval интервал между отчетами
+     */
+    public synchronized void startReporting(Duration interval) {
+        if (interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("Report interval must be positive: " + interval);
+        }
+        if (scheduler != null) {
+            throw new IllegalStateException("Reporting is already started for cache " + cacheName);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-metrics-" + cacheName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::report, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Публикует текущую статистику всем добавленным получателям. Ошибка одного
+     * получателя не мешает остальным.
+     */
+    public void report() {
+        CacheStats stats = cache.stats();
+        for (MetricsReporter reporter : reporters) {
+            try {
+                reporter.report(cacheName, stats);
+            } catch (RuntimeException e) {
+                log.warn("Metrics reporter failed for cache {}", cacheName, e);
+            }
+        }
+    }
+
+    /**
+     * Останавливает отчеты и снимает регистрацию MBean.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                log.warn("Failed to unregister cache stats MBean {}", objectName, e);
+            }
+            objectName = null;
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    @Override
+    public double getHitRate() {
+        return cache.stats().hitRate();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    @Override
+    public long getSizeEvictionCount() {
+        return cache.stats().evictionCount(RemovalCause.SIZE);
+    }
+
+    @Override
+    public long getExpiredEvictionCount() {
+        return cache.stats().evictionCount(RemovalCause.EXPIRED);
+    }
+
+    @Override
+    public long getLoadSuccessCount() {
+        return cache.stats().loadSuccessCount();
+    }
+
+    @Override
+    public long getLoadFailureCount() {
+        return cache.stats().loadFailureCount();
+    }
+
+    @Override
+    public double getAverageLoadPenaltyNanos() {
+        return cache.stats().averageLoadPenaltyNanos();
+    }
+
+    @Override
+    public long getLoadTimeP50Nanos() {
+        return cache.stats().loadTimePercentileNanos(50);
+    }
+
+    @Override
+    public long getLoadTimeP99Nanos() {
+        return cache.stats().loadTimePercentileNanos(99);
+    }
+}
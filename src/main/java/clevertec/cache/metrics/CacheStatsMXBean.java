@@ -0,0 +1,29 @@
+package clevertec.cache.metrics;
+
+/**
+ * Атрибуты JMX со статистикой кэша. Каждое чтение атрибута строит новый снимок статистики.
+ */
+public interface CacheStatsMXBean {
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    long getEvictionCount();
+
+    long getSizeEvictionCount();
+
+    long getExpiredEvictionCount();
+
+    long getLoadSuccessCount();
+
+    long getLoadFailureCount();
+
+    double getAverageLoadPenaltyNanos();
+
+    long getLoadTimeP50Nanos();
+
+    long getLoadTimeP99Nanos();
+}
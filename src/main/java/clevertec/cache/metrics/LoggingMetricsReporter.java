@@ -0,0 +1,16 @@
+package clevertec.cache.metrics;
+
+import clevertec.cache.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Публикует статистику кэша в журнал приложения.
+ */
+@Slf4j
+public class LoggingMetricsReporter implements MetricsReporter {
+
+    @Override
+    public void report(String cacheName, CacheStats stats) {
+        log.info("Cache {} stats: {}", cacheName, stats);
+    }
+}
@@ -0,0 +1,19 @@
+package clevertec.cache.metrics;
+
+import clevertec.cache.CacheStats;
+
+/**
+ * Получатель статистики кэша, которую {@link CacheMetrics} периодически публикует,
+ * например в журнал или во внешнюю систему мониторинга.
+ */
+@FunctionalInterface
+public interface MetricsReporter {
+
+    /**
+     * Публикует снимок статистики.
+     *
+     * @param cacheName имя кэша
+     * @param stats     снимок статистики
+     */
+    void report(String cacheName, CacheStats stats);
+}
@@ -0,0 +1,432 @@
+package clevertec.config.dbConnection;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный пул соединений с базой данных.
+ * <p>
+ * Выдает соединения-обертки, метод {@code close()} которых возвращает физическое соединение
+ * в пул вместо его закрытия. Количество одновременно выданных соединений ограничено
+ * {@link PoolConfig#getMaxSize()}, а ожидание свободного соединения - {@link PoolConfig#getAcquireTimeoutMillis()}.
+ * Перед выдачей простаивавшее соединение проверяется через {@link Connection#isValid(int)}, кроме
+ * соединений, возвращенных не раньше {@link PoolConfig#getAliveBypassWindowMillis()} назад: при
+ * частых коротких запросах такая проверка удвоила бы количество обращений к серверу.
+ * Фоновая задача закрывает соединения, простаивающие дольше {@link PoolConfig#getIdleTimeoutMillis()},
+ * поддерживает не менее {@link PoolConfig#getMinSize()} соединений и сообщает о соединениях,
+ * которые удерживаются дольше {@link PoolConfig#getLeakDetectionThresholdMillis()}. Обнаружение
+ * утечек по умолчанию выключено: для него каждая выдача соединения запоминает стек вызова.
+ * <p>
+ * Каждое физическое соединение хранит до {@link PoolConfig#getStatementCacheSize()} подготовленных
+ * выражений, поэтому {@code prepareStatement(sql)} для часто выполняемых запросов не приводит
+ * к повторному разбору и планированию на сервере. Выражения, не закрытые вызывающим кодом,
+ * закрываются при возврате соединения, поэтому они не достаются следующему владельцу.
+ */
+@Slf4j
+public class ConnectionPool implements AutoCloseable {
+
+    private final ConnectionFactory connectionFactory;
+    private final PoolConfig config;
+    private final LinkedBlockingDeque<PooledConnection> idle;
+    private final Set<PooledConnection> borrowed;
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections;
+    private final LongAdder statementCacheHits;
+    private final LongAdder statementCacheMisses;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    /**
+     * Фабрика физических соединений.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+
+        /**
+         * Открывает новое физическое соединение.
+         *
+         * @return соединение
+         * @throws SQLException если соединение невозможно установить
+         */
+        Connection create() throws SQLException;
+    }
+
+    /**
+     * Конструктор пула соединений. Сразу открывает {@link PoolConfig#getMinSize()} соединений
+     * и запускает фоновое обслуживание.
+     *
+     * @param connectionFactory фабрика физических соединений
+     * @param config            настройки пула
+     */
+    public ConnectionPool(ConnectionFactory connectionFactory, PoolConfig config) {
+        if (config.getMaxSize() <= 0 || config.getMinSize() < 0 || config.getMinSize() > config.getMaxSize()) {
+            throw new IllegalArgumentException("Invalid pool size configuration: " + config);
+        }
+        this.connectionFactory = connectionFactory;
+        this.config = config;
+        this.idle = new LinkedBlockingDeque<>();
+        this.borrowed = ConcurrentHashMap.newKeySet();
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.totalConnections = new AtomicInteger();
+        this.statementCacheHits = new LongAdder();
+        this.statementCacheMisses = new LongAdder();
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fillToMinimum();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, config.getHousekeepingIntervalMillis(),
+                config.getHousekeepingIntervalMillis(), TimeUnit.MILLISECONDS);
+        log.info("Connection pool initialized: {}", config);
+    }
+
+    /**
+     * Выдает соединение из пула, при необходимости открывая новое.
+     * Соединение должно быть закрыто вызывающим кодом, что вернет его в пул.
+     *
+     * @return соединение
+     * @throws SQLTimeoutException если свободное соединение не появилось за время ожидания
+     * @throws SQLException        если пул закрыт или соединение невозможно установить
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(config.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Timed out after " + config.getAcquireTimeoutMillis()
+                        + " ms waiting for a connection, pool size: " + config.getMaxSize());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = open();
+            }
+            pooled.lend(config.getLeakDetectionThresholdMillis() > 0);
+            borrowed.add(pooled);
+            return pooled.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Возвращает общее количество открытых физических соединений.
+     *
+     * @return количество соединений
+     */
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    /**
+     * Возвращает количество соединений, ожидающих в пуле.
+     *
+     * @return количество простаивающих соединений
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * Возвращает количество соединений, выданных и еще не возвращенных в пул.
+     *
+     * @return количество выданных соединений
+     */
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    /**
+     * Возвращает количество подготовок выражений, обслуженных кэшем выражений.
+     *
+     * @return количество попаданий
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits.sum();
+    }
+
+    /**
+     * Возвращает количество подготовок выражений, потребовавших обращения к драйверу.
+     *
+     * @return количество промахов
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.sum();
+    }
+
+    /**
+     * Возвращает долю подготовок выражений, обслуженных кэшем выражений.
+     *
+     * @return доля попаданий от 0 до 1
+     */
+    public double getStatementCacheHitRate() {
+        long hits = statementCacheHits.sum();
+        long total = hits + statementCacheMisses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Закрывает простаивающие соединения и останавливает обслуживание пула.
+     * Выданные соединения закрываются при возврате.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closeQuietly(pooled);
+        }
+        log.info("Connection pool closed");
+    }
+
+    void housekeep() {
+        try {
+            evictIdle();
+            fillToMinimum();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            log.error("Connection pool housekeeping failed", e);
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        long bypassNanos = TimeUnit.MILLISECONDS.toNanos(config.getAliveBypassWindowMillis());
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (System.nanoTime() - pooled.lastReleasedNanos < bypassNanos || isValid(pooled)) {
+                return pooled;
+            }
+            log.warn("Discarding connection that failed validation");
+            closeQuietly(pooled);
+        }
+        return null;
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection connection = connectionFactory.create();
+        totalConnections.incrementAndGet();
+        return new PooledConnection(connection);
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            if (closed || !resetState(pooled.connection)) {
+                closeQuietly(pooled);
+            }
+            else {
+                pooled.lastReleasedNanos = System.nanoTime();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean resetState(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            connection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            log.warn("Failed to reset connection state, connection will be closed", e);
+            return false;
+        }
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.connection.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void evictIdle() {
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+        long now = System.nanoTime();
+        Iterator<PooledConnection> iterator = idle.descendingIterator();
+        while (iterator.hasNext() && totalConnections.get() > config.getMinSize()) {
+            PooledConnection pooled = iterator.next();
+            if (now - pooled.lastReleasedNanos > idleTimeoutNanos && idle.remove(pooled)) {
+                log.debug("Closing idle connection");
+                closeQuietly(pooled);
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && totalConnections.get() < config.getMinSize() && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = open();
+                pooled.lastReleasedNanos = System.nanoTime();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                log.warn("Unable to open connection to keep the pool minimum size", e);
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long threshold = config.getLeakDetectionThresholdMillis();
+        if (threshold <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (PooledConnection pooled : borrowed) {
+            if (!pooled.leakReported && now - pooled.borrowedNanos > TimeUnit.MILLISECONDS.toNanos(threshold)) {
+                pooled.leakReported = true;
+                log.warn("Connection leak detected: connection held for more than {} ms", threshold, pooled.borrowTrace);
+            }
+        }
+    }
+
+    private void closeQuietly(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        try {
+            pooled.connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close connection", e);
+        }
+    }
+
+    /**
+     * Физическое соединение пула и текущая выданная обертка над ним.
+     */
+    private final class PooledConnection {
+        private final Connection connection;
+        private final StatementCache statementCache;
+        private volatile Connection proxy;
+        private volatile long borrowedNanos;
+        private volatile long lastReleasedNanos;
+        private volatile boolean leakReported;
+        private volatile Exception borrowTrace;
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+            this.statementCache = config.getStatementCacheSize() > 0
+                    ? new StatementCache(config.getStatementCacheSize(), statementCacheHits, statementCacheMisses)
+                    : null;
+        }
+
+        private void lend(boolean traceBorrower) {
+            borrowedNanos = System.nanoTime();
+            leakReported = false;
+            borrowTrace = traceBorrower ? new Exception("Connection borrowed here") : null;
+            proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Lease(this));
+        }
+    }
+
+    /**
+     * Обработчик вызовов выданной обертки. Одна аренда соответствует одной выдаче соединения,
+     * поэтому повторное закрытие или использование обертки после возврата не затрагивает
+     * следующего владельца физического соединения. Выражения, созданные за время аренды,
+     * закрываются при ее завершении.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final List<Statement> statements = new ArrayList<>();
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (released.compareAndSet(false, true)) {
+                        closeStatements();
+                        release(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return released.get() || pooled.connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + pooled.connection + (released.get() ? ", released]" : "]");
+                }
+                default -> {
+                    if (released.get()) {
+                        throw new SQLException("Connection has been returned to the pool");
+                    }
+                    Object result;
+                    if (pooled.statementCache != null && "prepareStatement".equals(method.getName())
+                            && args.length == 1) {
+                        result = pooled.statementCache.prepare(pooled.connection, (Connection) proxy, (String) args[0]);
+                    }
+                    else {
+                        try {
+                            result = method.invoke(pooled.connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                    if (result instanceof Statement statement) {
+                        statements.add(statement);
+                    }
+                    return result;
+                }
+            }
+        }
+
+        private void closeStatements() {
+            for (Statement statement : statements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    log.debug("Failed to close statement left open on returned connection", e);
+                }
+            }
+            statements.clear();
+        }
+    }
+}
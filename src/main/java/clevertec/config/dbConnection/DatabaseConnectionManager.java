@@ -7,34 +7,125 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
 
 /**
  * Менеджер соединений с базой данных, обеспечивающий создание и поддержку соединений.
+ * Соединения выдаются из {@link ConnectionPool}, настроенного разделом {@code db.pool}
+ * файла {@code application.yml}. Параметры драйвера, например {@code prepareThreshold},
+ * задаются в разделе {@code db.properties}.
+ * <p>
+ * Каждое соединение получает имя приложения {@link #APPLICATION_NAME}, уникальное для
+ * экземпляра сервиса. Триггеры базы передают его в уведомлениях об изменениях, чтобы
+ * экземпляр мог отличить собственные изменения от изменений других узлов.
  */
-public class DatabaseConnectionManager {
-    private Connection connection;
+public class DatabaseConnectionManager implements AutoCloseable {
 
     /**
-     * Получает соединение с базой данных. Если текущее соединение отсутствует или закрыто,
-     * метод создает новое соединение.
+     * Имя приложения в соединениях этого экземпляра сервиса.
+     */
+    public static final String APPLICATION_NAME = "clever-servlet-" + UUID.randomUUID().toString().substring(0, 8);
+
+    private volatile ConnectionPool pool;
+
+    /**
+     * Конструктор менеджера, создающего пул по конфигурации при первом запросе соединения.
+     */
+    public DatabaseConnectionManager() {
+    }
+
+    /**
+     * Конструктор менеджера с заранее созданным пулом соединений.
+     *
+     * @param pool пул соединений
+     */
+    public DatabaseConnectionManager(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Получает соединение с базой данных из пула. Закрытие соединения возвращает его в пул.
      *
      * @return Активное соединение с базой данных
      * @throws SQLException если происходит ошибка SQL или соединение невозможно установить
      */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                Map<String, Object> config = ConfigurationLoader.loadConfig();
-                Map<String, Object> dbProperties = (Map<String, Object>) config.get("db");
-                String url = (String) dbProperties.get("dbUrl");
-                String username = (String) dbProperties.get("dbUsername");
-                String password = (String) dbProperties.get("dbPassword");
-                connection = DriverManager.getConnection(url, username, password);
-            } catch (IOException e) {
-                e.printStackTrace();
-                throw new SQLException("Unable to read application.yml file.");
+        return getPool().getConnection();
+    }
+
+    /**
+     * Открывает отдельное соединение в обход пула, например для {@code LISTEN}, которое
+     * удерживает соединение все время работы. Соединение закрывает вызывающий.
+     *
+     * @return Новое соединение с базой данных
+     * @throws SQLException если соединение невозможно установить
+     */
+    public Connection openConnection() throws SQLException {
+        return connectionFactory(dbConfig()).create();
+    }
+
+    /**
+     * Возвращает пул соединений, создавая его при первом обращении.
+     *
+     * @return пул соединений
+     * @throws SQLException если невозможно прочитать конфигурацию
+     */
+    public ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (this) {
+                current = pool;
+                if (current == null) {
+                    current = createPool();
+                    pool = current;
+                }
             }
         }
-        return connection;
+        return current;
+    }
+
+    /**
+     * Закрывает пул соединений.
+     */
+    @Override
+    public void close() {
+        ConnectionPool current = pool;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConnectionPool createPool() throws SQLException {
+        Map<String, Object> dbProperties = dbConfig();
+        PoolConfig poolConfig = PoolConfig.fromProperties((Map<String, Object>) dbProperties.get("pool"));
+        return new ConnectionPool(connectionFactory(dbProperties), poolConfig);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConnectionPool.ConnectionFactory connectionFactory(Map<String, Object> dbProperties) {
+        String url = (String) dbProperties.get("dbUrl");
+        String username = (String) dbProperties.get("dbUsername");
+        String password = (String) dbProperties.get("dbPassword");
+        Properties connectionProperties = new Properties();
+        Map<String, Object> driverProperties = (Map<String, Object>) dbProperties.get("properties");
+        if (driverProperties != null) {
+            driverProperties.forEach((key, value) -> connectionProperties.setProperty(key, String.valueOf(value)));
+        }
+        connectionProperties.setProperty("user", username);
+        connectionProperties.setProperty("password", password);
+        connectionProperties.setProperty("ApplicationName", APPLICATION_NAME);
+        return () -> DriverManager.getConnection(url, connectionProperties);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> dbConfig() throws SQLException {
+        try {
+            return (Map<String, Object>) ConfigurationLoader.loadConfig().get("db");
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new SQLException("Unable to read application.yml file.");
+        }
     }
 }
@@ -0,0 +1,84 @@
+package clevertec.config.dbConnection;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * Настройки пула соединений, задаваемые в разделе {@code db.pool} файла {@code application.yml}.
+ */
+@Getter
+@Builder
+@ToString
+public class PoolConfig {
+
+    @Builder.Default
+    private int minSize = 2;
+
+    @Builder.Default
+    private int maxSize = 10;
+
+    @Builder.Default
+    private long acquireTimeoutMillis = 5_000;
+
+    @Builder.Default
+    private long idleTimeoutMillis = 600_000;
+
+    @Builder.Default
+    private int validationTimeoutSeconds = 2;
+
+    @Builder.Default
+    private long aliveBypassWindowMillis = 500;
+
+    @Builder.Default
+    private long leakDetectionThresholdMillis = 0;
+
+    @Builder.Default
+    private long housekeepingIntervalMillis = 30_000;
+
+    @Builder.Default
+    private int statementCacheSize = 32;
+
+    /**
+     * Создает настройки из раздела конфигурации. Отсутствующие параметры получают значения по умолчанию.
+     *
+     * @param properties параметры раздела {@code db.pool} или {@code null}
+     * @return настройки пула
+     */
+    public static PoolConfig fromProperties(Map<String, Object> properties) {
+        PoolConfigBuilder builder = PoolConfig.builder();
+        if (properties == null) {
+            return builder.build();
+        }
+        if (properties.containsKey("minSize")) {
+            builder.minSize(((Number) properties.get("minSize")).intValue());
+        }
+        if (properties.containsKey("maxSize")) {
+            builder.maxSize(((Number) properties.get("maxSize")).intValue());
+        }
+        if (properties.containsKey("acquireTimeoutMillis")) {
+            builder.acquireTimeoutMillis(((Number) properties.get("acquireTimeoutMillis")).longValue());
+        }
+        if (properties.containsKey("idleTimeoutMillis")) {
+            builder.idleTimeoutMillis(((Number) properties.get("idleTimeoutMillis")).longValue());
+        }
+        if (properties.containsKey("validationTimeoutSeconds")) {
+            builder.validationTimeoutSeconds(((Number) properties.get("validationTimeoutSeconds")).intValue());
+        }
+        if (properties.containsKey("aliveBypassWindowMillis")) {
+            builder.aliveBypassWindowMillis(((Number) properties.get("aliveBypassWindowMillis")).longValue());
+        }
+        if (properties.containsKey("leakDetectionThresholdMillis")) {
+            builder.leakDetectionThresholdMillis(((Number) properties.get("leakDetectionThresholdMillis")).longValue());
+        }
+        if (properties.containsKey("housekeepingIntervalMillis")) {
+            builder.housekeepingIntervalMillis(((Number) properties.get("housekeepingIntervalMillis")).longValue());
+        }
+        if (properties.containsKey("statementCacheSize")) {
+            builder.statementCacheSize(((Number) properties.get("statementCacheSize")).intValue());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,182 @@
+package clevertec.config.dbConnection;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU-кэш подготовленных выражений одного физического соединения.
+ * <p>
+ * Вызывающий код получает обертку над {@link PreparedStatement}, метод {@code close()} которой
+ * сбрасывает параметры и накопленную пачку и возвращает выражение в кэш. Повторная подготовка того же SQL на этом
+ * соединении возвращает уже разобранное выражение, а драйвер после порога
+ * {@code prepareThreshold} выполняет его как серверное подготовленное выражение.
+ * Если выражение с таким SQL уже используется, создается некэшируемое выражение.
+ * Вытесненные выражения закрываются. Класс не является потокобезопасным, так как соединение
+ * в каждый момент времени используется одним потоком.
+ */
+@Slf4j
+final class StatementCache {
+
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    StatementCache(int maxSize, LongAdder hits, LongAdder misses) {
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Возвращает подготовленное выражение из кэша или подготавливает новое.
+     *
+     * @param physical физическое соединение
+     * @param logical  выданная вызывающему коду обертка соединения
+     * @param sql      текст запроса
+     * @return обертка над подготовленным выражением
+     * @throws SQLException если выражение невозможно подготовить
+     */
+    PreparedStatement prepare(Connection physical, Connection logical, String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && !cached.inUse) {
+            hits.increment();
+        }
+        else {
+            misses.increment();
+            PreparedStatement statement = physical.prepareStatement(sql);
+            if (cached != null) {
+                return statement;
+            }
+            cached = new CachedStatement(statement);
+            statements.put(sql, cached);
+        }
+        cached.inUse = true;
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new StatementLease(cached, logical));
+    }
+
+    /**
+     * Возвращает количество выражений в кэше.
+     *
+     * @return количество выражений
+     */
+    int size() {
+        return statements.size();
+    }
+
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void giveBack() {
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.setFetchSize(0);
+                statement.setMaxRows(0);
+            } catch (SQLException e) {
+                log.debug("Failed to reset cached statement", e);
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                log.debug("Failed to close cached statement", e);
+            }
+        }
+    }
+
+    /**
+     * Обработчик вызовов выданной обертки выражения.
+     */
+    private static final class StatementLease implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection logical;
+        private boolean closed;
+
+        private StatementLease(CachedStatement cached, Connection logical) {
+            this.cached = cached;
+            this.logical = logical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        cached.giveBack();
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || cached.statement.isClosed();
+                }
+                case "getConnection" -> {
+                    return logical;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return cached.statement.toString();
+                }
+                default -> {
+                    if (closed) {
+                        throw new SQLException("Statement is closed");
+                    }
+                    try {
+                        return method.invoke(cached.statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+}
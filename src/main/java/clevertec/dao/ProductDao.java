@@ -2,14 +2,22 @@ package clevertec.dao;
 
 import clevertec.entity.Product;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ProductDao {
     Optional<Product> findById(UUID uuid);
+    List<Product> findAllByIds(Collection<UUID> uuids);
     List<Product> findALL();
+    List<Product> findPage(UUID afterId, int limit);
+    Stream<Product> streamAll();
     Product save(Product product);
     Product update(Product product);
+    List<Product> saveAll(Collection<Product> products);
+    List<Product> updateAll(Collection<Product> products);
+    long copyAll(Collection<Product> products);
     void delete(UUID uuid);
 }
@@ -5,16 +5,27 @@ import clevertec.dao.ProductDao;
 import clevertec.entity.Product;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Реализация DAO (Data Access Object) для работы с продуктами в базе данных.
@@ -23,6 +34,10 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ProductDaoImpl implements ProductDao {
 
+    private static final int STREAM_FETCH_SIZE = 1_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COPY_CHUNK_ROWS = 1_000;
+
     private final DatabaseConnectionManager databaseConnectionManager;
 
     /**
@@ -54,6 +69,42 @@ public class ProductDaoImpl implements ProductDao {
         return Optional.empty();
     }
 
+    /**
+     * Ищет продукты по набору идентификаторов одним запросом.
+     *
+     * @param uuids Идентификаторы продуктов
+     * @return Список найденных продуктов в произвольном порядке
+     */
+    @Override
+    public List<Product> findAllByIds(Collection<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return List.of();
+        }
+        List<Product> productList = new ArrayList<>(uuids.size());
+        String query = """
+                SELECT *
+                FROM products
+                WHERE id = ANY(?)
+                """;
+        try (Connection connection = databaseConnectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            Array ids = connection.createArrayOf("uuid", uuids.toArray());
+            preparedStatement.setArray(1, ids);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    productList.add(buildProduct(resultSet));
+                }
+            } finally {
+                ids.free();
+            }
+        } catch (SQLException e) {
+            log.error("SQL exception in findAllByIds", e);
+            throw new RuntimeException("SQL exception occurred while finding products by ids", e);
+        }
+        return productList;
+    }
+
     /**
      * Получает список всех продуктов.
      *
@@ -81,6 +132,106 @@ public class ProductDaoImpl implements ProductDao {
         return productList;
     }
 
+    /**
+     * Получает страницу продуктов, упорядоченных по идентификатору (keyset-пагинация).
+     * Следующая страница запрашивается по идентификатору последнего продукта текущей,
+     * поэтому стоимость запроса не зависит от номера страницы.
+     *
+     * @param afterId Идентификатор последнего продукта предыдущей страницы или null для первой страницы
+     * @param limit   Максимальный размер страницы
+     * @return Список продуктов страницы
+     */
+    @Override
+    public List<Product> findPage(UUID afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive: " + limit);
+        }
+        String firstPageQuery = """
+                SELECT *
+                FROM products
+                ORDER BY id
+                LIMIT ?
+                """;
+        String nextPageQuery = """
+                SELECT *
+                FROM products
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+                """;
+        List<Product> productList = new ArrayList<>(limit);
+        try (Connection connection = databaseConnectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(
+                     afterId == null ? firstPageQuery : nextPageQuery)) {
+            int index = 1;
+            if (afterId != null) {
+                preparedStatement.setObject(index++, afterId);
+            }
+            preparedStatement.setInt(index, limit);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    productList.add(buildProduct(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            log.error("SQL exception in findPage", e);
+            throw new RuntimeException("SQL exception occurred while finding products page", e);
+        }
+        return productList;
+    }
+
+    /**
+     * Возвращает ленивый поток всех продуктов, читаемых серверным курсором порциями
+     * по {@value #STREAM_FETCH_SIZE} строк. Расход памяти не зависит от размера таблицы.
+     * Поток удерживает соединение до закрытия, поэтому его необходимо закрыть,
+     * например в try-with-resources.
+     *
+     * @return Поток продуктов
+     */
+    @Override
+    public Stream<Product> streamAll() {
+        String query = """
+                SELECT *
+                FROM products
+                """;
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = databaseConnectionManager.getConnection();
+            connection.setAutoCommit(false);
+            preparedStatement = connection.prepareStatement(query);
+            preparedStatement.setFetchSize(STREAM_FETCH_SIZE);
+            resultSet = preparedStatement.executeQuery();
+        } catch (SQLException e) {
+            closeAll(resultSet, preparedStatement, connection);
+            log.error("SQL exception in streamAll", e);
+            throw new RuntimeException("SQL exception occurred while streaming products", e);
+        }
+
+        ResultSet rows = resultSet;
+        PreparedStatement statement = preparedStatement;
+        Connection streamConnection = connection;
+        Spliterator<Product> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Product> action) {
+                try {
+                    if (!rows.next()) {
+                        return false;
+                    }
+                    action.accept(buildProduct(rows));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("SQL exception occurred while streaming products", e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> closeAll(rows, statement, streamConnection));
+    }
+
     /**
      * Сохраняет продукт в базе данных.
      *
@@ -136,6 +287,109 @@ public class ProductDaoImpl implements ProductDao {
         return product;
     }
 
+    /**
+     * Сохраняет продукты пачками через {@link PreparedStatement#addBatch()} в одной транзакции.
+     * При включенном параметре драйвера {@code reWriteBatchedInserts} каждая пачка
+     * отправляется одним многострочным INSERT.
+     *
+     * @param products Продукты для сохранения
+     * @return Сохраненные продукты
+     */
+    @Override
+    public List<Product> saveAll(Collection<Product> products) {
+        String query = """
+                INSERT INTO products (id, name, price, weight, creation_date)
+                VALUES (?, ?, ?, ?, ?);
+                """;
+        executeBatch(query, products, (preparedStatement, product) -> {
+            preparedStatement.setObject(1, product.getId());
+            preparedStatement.setString(2, product.getName());
+            preparedStatement.setDouble(3, product.getPrice());
+            preparedStatement.setDouble(4, product.getWeight());
+            preparedStatement.setTimestamp(5, Timestamp.valueOf(product.getCreated()));
+        });
+        return List.copyOf(products);
+    }
+
+    /**
+     * Обновляет продукты пачками в одной транзакции. Продукты, для которых UPDATE не нашел
+     * строку, в результат не попадают.
+     *
+     * @param products Продукты для обновления
+     * @return Продукты, строки которых были обновлены
+     */
+    @Override
+    public List<Product> updateAll(Collection<Product> products) {
+        String query = """
+                UPDATE products
+                SET name = ?, price = ?, weight = ?, creation_date = ?
+                WHERE id = ?;\
+                """;
+        int[] updateCounts = executeBatch(query, products, (preparedStatement, product) -> {
+            preparedStatement.setString(1, product.getName());
+            preparedStatement.setDouble(2, product.getPrice());
+            preparedStatement.setDouble(3, product.getWeight());
+            preparedStatement.setTimestamp(4, Timestamp.valueOf(product.getCreated()));
+            preparedStatement.setObject(5, product.getId());
+        });
+        List<Product> updated = new ArrayList<>(products.size());
+        int index = 0;
+        for (Product product : products) {
+            int count = updateCounts[index++];
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                updated.add(product);
+            }
+        }
+        if (updated.size() < products.size()) {
+            log.warn("{} of {} products were not updated because they do not exist",
+                    products.size() - updated.size(), products.size());
+        }
+        return updated;
+    }
+
+    /**
+     * Загружает продукты командой {@code COPY ... FROM STDIN} через {@link org.postgresql.copy.CopyManager}.
+     * Это самый быстрый способ массовой вставки: строки передаются потоком в формате CSV
+     * без разбора отдельных INSERT на сервере.
+     *
+     * @param products Продукты для загрузки
+     * @return Количество загруженных строк
+     */
+    @Override
+    public long copyAll(Collection<Product> products) {
+        if (products.isEmpty()) {
+            return 0;
+        }
+        String query = """
+                COPY products (id, name, price, weight, creation_date)
+                FROM STDIN (FORMAT csv)
+                """;
+        try (Connection connection = databaseConnectionManager.getConnection()) {
+            CopyIn copyIn = connection.unwrap(PGConnection.class)
+                    .getCopyAPI()
+                    .copyIn(query);
+            try {
+                StringBuilder chunk = new StringBuilder();
+                int rows = 0;
+                for (Product product : products) {
+                    appendCsvRow(chunk, product);
+                    if (++rows % COPY_CHUNK_ROWS == 0) {
+                        writeToCopy(copyIn, chunk);
+                    }
+                }
+                writeToCopy(copyIn, chunk);
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        } catch (SQLException e) {
+            log.error("SQL exception in copyAll", e);
+            throw new RuntimeException("Failed to copy products", e);
+        }
+    }
+
     /**
      * Удаляет продукт из базы данных по его идентификатору.
      *
@@ -161,7 +415,114 @@ public class ProductDaoImpl implements ProductDao {
         }
     }
 
-    private Product buildProduct(ResultSet resultSet) throws SQLException {
+    /**
+     * Выполняет запрос пачками по {@link #BATCH_SIZE} строк в одной транзакции. При любой ошибке,
+     * в том числе при связывании параметров, накопленная пачка сбрасывается, а транзакция
+     * откатывается. Ошибки сброса и отката не заменяют исходную ошибку, а добавляются к ней
+     * как подавленные.
+     *
+     * @return количество измененных строк для каждого продукта в порядке обхода
+     */
+    private int[] executeBatch(String query, Collection<Product> products, StatementBinder binder) {
+        if (products.isEmpty()) {
+            return new int[0];
+        }
+        try (Connection connection = databaseConnectionManager.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            connection.setAutoCommit(false);
+            try {
+                int[] updateCounts = new int[products.size()];
+                int executed = 0;
+                int pending = 0;
+                for (Product product : products) {
+                    binder.bind(preparedStatement, product);
+                    preparedStatement.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        executed = copyCounts(preparedStatement.executeBatch(), updateCounts, executed);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    copyCounts(preparedStatement.executeBatch(), updateCounts, executed);
+                }
+                connection.commit();
+                return updateCounts;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    preparedStatement.clearBatch();
+                } catch (SQLException | RuntimeException cleanupError) {
+                    e.addSuppressed(cleanupError);
+                }
+                try {
+                    connection.rollback();
+                } catch (SQLException | RuntimeException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            }
+        } catch (SQLException e) {
+            log.error("SQL exception in batch write", e);
+            throw new RuntimeException("Failed to write products in batch", e);
+        }
+    }
+
+    private int copyCounts(int[] batchCounts, int[] updateCounts, int offset) {
+        System.arraycopy(batchCounts, 0, updateCounts, offset, batchCounts.length);
+        return offset + batchCounts.length;
+    }
+
+    private void writeToCopy(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    /**
+     * Добавляет строку CSV для {@code COPY}. Отсутствующие значения записываются пустым полем без
+     * кавычек, которое {@code COPY} в формате CSV читает как {@code NULL}, а пустая строка в
+     * кавычках остается пустой строкой.
+     */
+    private void appendCsvRow(StringBuilder row, Product product) {
+        row.append(product.getId()).append(',');
+        if (product.getName() != null) {
+            row.append('"').append(product.getName().replace("\"", "\"\"")).append('"');
+        }
+        row.append(',');
+        if (product.getPrice() != null) {
+            row.append(product.getPrice());
+        }
+        row.append(',');
+        if (product.getWeight() != null) {
+            row.append(product.getWeight());
+        }
+        row.append(',');
+        if (product.getCreated() != null) {
+            row.append(Timestamp.valueOf(product.getCreated()));
+        }
+        row.append('\n');
+    }
+
+    private void closeAll(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource != null) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close JDBC resource", e);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(PreparedStatement preparedStatement, Product product) throws SQLException;
+    }
+
+    static Product buildProduct(ResultSet resultSet) throws SQLException {
         return Product.builder()
                 .id((UUID) resultSet.getObject("id"))
                 .name(resultSet.getString("name"))
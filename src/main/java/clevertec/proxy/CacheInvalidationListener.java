@@ -0,0 +1,240 @@
+package clevertec.proxy;
+
+import clevertec.config.ConfigurationLoader;
+import clevertec.config.dbConnection.ConnectionPool;
+import clevertec.config.dbConnection.DatabaseConnectionManager;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Получает от PostgreSQL уведомления об изменениях продуктов и удаляет измененные продукты
+ * из локального кэша {@link DaoProxyImpl}.
+ * <p>
+ * Триггеры таблицы {@code products} (миграция {@code V3__product_invalidation.sql}) после
+ * каждого оператора отправляют в канал {@link #CHANNEL} уведомления вида
+ * {@code <application_name>:<id>,<id>,...}. Слушатель держит отдельное соединение с
+ * {@code LISTEN}, накапливает идентификаторы не дольше {@code maxDelay} или до
+ * {@code batchSize} штук и передает их в {@link DaoProxyImpl#invalidate} одной пачкой.
+ * Уведомления о собственных изменениях узла пропускаются: прокси уже обновил свой кэш.
+ * <p>
+ * Пока соединение разорвано, уведомления теряются, поэтому после переподключения кэш
+ * очищается целиком через {@link DaoProxyImpl#invalidateAll()}.
+ */
+@Slf4j
+public class CacheInvalidationListener implements AutoCloseable {
+
+    public static final String CHANNEL = "product_invalidation";
+
+    private static final int POLL_MILLIS = 1_000;
+
+    private final ConnectionPool.ConnectionFactory connectionFactory;
+    private final String origin;
+    private final DaoProxyImpl daoProxy;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final Duration reconnectDelay;
+    private final LongAdder invalidatedCount = new LongAdder();
+    private final LongAdder resyncCount = new LongAdder();
+    private final Thread thread;
+    private volatile Connection connection;
+    private volatile boolean closed;
+
+    /**
+     * Конструктор слушателя. Поток приема уведомлений запускается сразу.
+     *
+     * @param connectionFactory фабрика отдельных соединений для {@code LISTEN}
+     * @param origin            имя приложения этого узла, уведомления с ним пропускаются
+     * @param daoProxy          прокси, кэш которого очищается
+     * @param batchSize         количество идентификаторов, при котором пачка передается немедленно
+     * @param maxDelay          максимальная задержка между уведомлением и очисткой кэша
+     * @param reconnectDelay    пауза перед повторным подключением после ошибки
+     */
+    public CacheInvalidationListener(ConnectionPool.ConnectionFactory connectionFactory, String origin,
+                                     DaoProxyImpl daoProxy, int batchSize, Duration maxDelay, Duration reconnectDelay) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        if (maxDelay.isNegative() || maxDelay.isZero()) {
+            throw new IllegalArgumentException("Max delay must be positive: " + maxDelay);
+        }
+        this.connectionFactory = connectionFactory;
+        this.origin = origin;
+        this.daoProxy = daoProxy;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.reconnectDelay = reconnectDelay;
+        this.thread = new Thread(this::run, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Cache invalidation listener started for {} with batchSize: {}, maxDelay: {}",
+                origin, batchSize, maxDelay);
+    }
+
+    /**
+     * Создает слушателя по разделу {@code cache.invalidation} конфигурации. Соединение для
+     * {@code LISTEN} открывается в обход пула, а слушателя останавливает вызывающий методом {@link #close()}.
+     *
+     * @param daoProxy          прокси, кэш которого очищается
+     * @param connectionManager менеджер соединений с базой данных
+     * @return Слушатель или {@code null}, если инвалидация между узлами выключена
+     */
+    @SuppressWarnings("unchecked")
+    public static CacheInvalidationListener fromConfig(DaoProxyImpl daoProxy,
+                                                       DatabaseConnectionManager connectionManager) {
+        try {
+            Map<String, Object> cacheConfig = (Map<String, Object>) ConfigurationLoader.loadConfig().get("cache");
+            Map<String, Object> invalidationConfig = (Map<String, Object>) cacheConfig.get("invalidation");
+            if (invalidationConfig == null || !Boolean.TRUE.equals(invalidationConfig.get("enabled"))) {
+                return null;
+            }
+            CacheInvalidationListener listener = new CacheInvalidationListener(connectionManager::openConnection,
+                    DatabaseConnectionManager.APPLICATION_NAME, daoProxy,
+                    (Integer) invalidationConfig.getOrDefault("batchSize", 500),
+                    Duration.ofMillis((Integer) invalidationConfig.getOrDefault("maxDelayMillis", 50)),
+                    Duration.ofMillis((Integer) invalidationConfig.getOrDefault("reconnectDelayMillis", 5_000)));
+            return listener;
+        } catch (IOException e) {
+            log.error("Error initializing cache invalidation", e);
+            throw new RuntimeException("Failed to initialize cache invalidation", e);
+        }
+    }
+
+    /**
+     * Возвращает количество идентификаторов, переданных в кэш для удаления.
+     *
+     * @return количество инвалидаций
+     */
+    public long getInvalidatedCount() {
+        return invalidatedCount.sum();
+    }
+
+    /**
+     * Возвращает количество полных очисток кэша после переподключения.
+     *
+     * @return количество полных очисток
+     */
+    public long getResyncCount() {
+        return resyncCount.sum();
+    }
+
+    /**
+     * Останавливает прием уведомлений и закрывает соединение.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+        closeConnection();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        boolean connectedBefore = false;
+        while (!closed) {
+            try (Connection listening = connectionFactory.create()) {
+                connection = listening;
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (connectedBefore) {
+                    daoProxy.invalidateAll();
+                    resyncCount.increment();
+                    log.info("Cache invalidated after reconnecting to channel {}", CHANNEL);
+                }
+                connectedBefore = true;
+                receive(listening.unwrap(PGConnection.class));
+            } catch (SQLException | RuntimeException e) {
+                if (closed) {
+                    break;
+                }
+                connectedBefore = true;
+                log.warn("Invalidation listener failed, reconnecting in {}", reconnectDelay, e);
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    break;
+                }
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private void receive(PGConnection listening) throws SQLException {
+        Set<UUID> batch = new LinkedHashSet<>();
+        long deadline = 0;
+        while (!closed) {
+            int timeoutMillis = batch.isEmpty() ? POLL_MILLIS
+                    : (int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+            PGNotification[] notifications = listening.getNotifications(timeoutMillis);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    if (batch.isEmpty()) {
+                        deadline = System.nanoTime() + maxDelayNanos;
+                    }
+                    collect(notification.getParameter(), batch);
+                }
+            }
+            if (!batch.isEmpty() && (batch.size() >= batchSize || System.nanoTime() - deadline >= 0)) {
+                flush(batch);
+                batch = new LinkedHashSet<>();
+            }
+        }
+    }
+
+    private void collect(String payload, Set<UUID> batch) {
+        int separator = payload.lastIndexOf(':');
+        if (separator < 0) {
+            log.warn("Malformed invalidation payload: {}", payload);
+            return;
+        }
+        if (payload.regionMatches(0, origin, 0, separator) && origin.length() == separator) {
+            return;
+        }
+        for (String id : payload.substring(separator + 1).split(",")) {
+            try {
+                batch.add(UUID.fromString(id));
+            } catch (IllegalArgumentException e) {
+                log.warn("Malformed product id in invalidation payload: {}", id);
+            }
+        }
+    }
+
+    private void flush(Set<UUID> batch) {
+        try {
+            daoProxy.invalidate(batch);
+            invalidatedCount.add(batch.size());
+            log.debug("Invalidated {} products changed by other nodes", batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to invalidate {} products", batch.size(), e);
+        }
+    }
+
+    private void closeConnection() {
+        Connection current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.warn("Failed to close invalidation listener connection", e);
+            }
+        }
+    }
+}
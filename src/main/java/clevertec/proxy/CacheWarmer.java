@@ -0,0 +1,243 @@
+package clevertec.proxy;
+
+import clevertec.cache.CacheSnapshot;
+import clevertec.config.ConfigurationLoader;
+import clevertec.dao.ProductDao;
+import clevertec.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Прогрев кэша {@link DaoProxyImpl} при старте приложения.
+ * <p>
+ * Если есть снимок, сохраненный при предыдущей остановке, из базы загружаются продукты из
+ * снимка: параллельными пачками через {@link ProductDao#findAllByIds}, начиная с самых
+ * популярных. В кэш продукты помещаются от менее популярных к более популярным, чтобы при
+ * нехватке места вытеснялись именно они, а сохраненные частоты обращений передаются политике
+ * вытеснения через {@link DaoProxyImpl#preload(List, Map)}. Без снимка популярность продуктов
+ * неизвестна, и в кэш загружаются первые {@code firstProducts} продуктов каталога в порядке
+ * идентификаторов.
+ * <p>
+ * Кэш не обязателен для работы сервиса, поэтому ошибка базы данных при прогреве не прерывает
+ * запуск: загруженные пачки остаются в кэше, и сервис стартует с частично прогретым кэшем.
+ * <p>
+ * Настраивается разделом {@code cache.warmup} файла {@code application.yml}.
+ */
+@Slf4j
+public class CacheWarmer {
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final DaoProxyImpl daoProxy;
+    private final ProductDao productDao;
+    private final boolean enabled;
+    private final Path snapshotFile;
+    private final int limit;
+    private final int firstProducts;
+    private final int batchSize;
+    private final int parallelism;
+
+    /**
+     * Конструктор прогрева по настройкам из конфигурации.
+     *
+     * @param daoProxy   прокси, кэш которого прогревается
+     * @param productDao DAO для загрузки продуктов
+     */
+    @SuppressWarnings("unchecked")
+    public CacheWarmer(DaoProxyImpl daoProxy, ProductDao productDao) {
+        try {
+            Map<String, Object> cacheConfig = (Map<String, Object>) ConfigurationLoader.loadConfig().get("cache");
+            Map<String, Object> warmupConfig = (Map<String, Object>) cacheConfig.getOrDefault("warmup", Map.of());
+            this.daoProxy = daoProxy;
+            this.productDao = productDao;
+            this.enabled = Boolean.TRUE.equals(warmupConfig.get("enabled"));
+            this.snapshotFile = Path.of((String) warmupConfig.getOrDefault("snapshotFile", "cache-snapshot.bin"));
+            this.limit = (Integer) warmupConfig.getOrDefault("limit", cacheConfig.get("capacity"));
+            this.firstProducts = (Integer) warmupConfig.getOrDefault("firstProducts", limit);
+            this.batchSize = (Integer) warmupConfig.getOrDefault("batchSize", 500);
+            this.parallelism = (Integer) warmupConfig.getOrDefault("parallelism", 4);
+        } catch (IOException e) {
+            log.error("Error initializing cache warm-up", e);
+            throw new RuntimeException("Failed to initialize cache warm-up", e);
+        }
+    }
+
+    /**
+     * Конструктор прогрева с явными параметрами. Без снимка загружается {@code limit} первых
+     * продуктов каталога.
+     *
+     * @param daoProxy     прокси, кэш которого прогревается
+     * @param productDao   DAO для загрузки продуктов
+     * @param snapshotFile файл снимка кэша
+     * @param limit        максимальное количество продуктов для прогрева и сохранения в снимок
+     * @param batchSize    количество продуктов в одном запросе к базе
+     * @param parallelism  количество параллельных запросов к базе
+     */
+    public CacheWarmer(DaoProxyImpl daoProxy, ProductDao productDao, Path snapshotFile,
+                       int limit, int batchSize, int parallelism) {
+        this(daoProxy, productDao, snapshotFile, limit, limit, batchSize, parallelism);
+    }
+
+    /**
+     * Конструктор прогрева с явными параметрами.
+     *
+     * @param daoProxy      прокси, кэш которого прогревается
+     * @param productDao    DAO для загрузки продуктов
+     * @param snapshotFile  файл снимка кэша
+     * @param limit         максимальное количество продуктов для прогрева и сохранения в снимок
+     * @param firstProducts количество первых продуктов каталога, загружаемых без снимка
+     * @param batchSize     количество продуктов в одном запросе к базе
+     * @param parallelism   количество параллельных запросов к базе
+     */
+    public CacheWarmer(DaoProxyImpl daoProxy, ProductDao productDao, Path snapshotFile,
+                       int limit, int firstProducts, int batchSize, int parallelism) {
+        if (limit < 0 || firstProducts < 0 || batchSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Warm-up limit, batch size and parallelism must be positive");
+        }
+        this.daoProxy = daoProxy;
+        this.productDao = productDao;
+        this.enabled = true;
+        this.snapshotFile = snapshotFile;
+        this.limit = limit;
+        this.firstProducts = firstProducts;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Прогревает кэш из снимка, а если снимка нет или он поврежден — первыми продуктами каталога.
+     *
+     * @return количество загруженных в кэш продуктов
+     */
+    public int warmUp() {
+        if (!enabled) {
+            return 0;
+        }
+        if (Files.exists(snapshotFile)) {
+            try {
+                return warmUpFromSnapshot();
+            } catch (IOException e) {
+                log.warn("Failed to read cache snapshot {}, warming up from database", snapshotFile, e);
+            }
+        }
+        return warmUpFromFirstPages();
+    }
+
+    /**
+     * Загружает в кэш продукты из снимка, начиная с самых популярных.
+     *
+     * @return количество загруженных в кэш продуктов
+     * @throws IOException если снимок невозможно прочитать
+     */
+    public int warmUpFromSnapshot() throws IOException {
+        Map<UUID, Integer> frequencies = CacheSnapshot.read(snapshotFile);
+        List<UUID> ids = frequencies.keySet().stream()
+                .limit(limit)
+                .toList();
+        Map<UUID, Product> loaded = loadInParallel(ids);
+        List<Product> coldestFirst = new ArrayList<>(loaded.size());
+        for (int i = ids.size() - 1; i >= 0; i--) {
+            Product product = loaded.get(ids.get(i));
+            if (product != null) {
+                coldestFirst.add(product);
+            }
+        }
+        daoProxy.preload(coldestFirst, frequencies);
+        log.info("Cache warmed up with {} of {} products from snapshot {}", coldestFirst.size(), ids.size(), snapshotFile);
+        return coldestFirst.size();
+    }
+
+    /**
+     * Загружает в кэш первые {@code firstProducts} продуктов каталога в порядке идентификаторов
+     * постраничным чтением. Это не самые популярные продукты: без снимка их популярность
+     * неизвестна. Если страница не загрузилась, в кэше остаются уже загруженные страницы.
+     *
+     * @return количество загруженных в кэш продуктов
+     */
+    public int warmUpFromFirstPages() {
+        List<Product> products = new ArrayList<>();
+        UUID afterId = null;
+        while (products.size() < firstProducts) {
+            List<Product> page;
+            try {
+                page = productDao.findPage(afterId, Math.min(batchSize, firstProducts - products.size()));
+            } catch (RuntimeException e) {
+                log.warn("Failed to load products page for cache warm-up, keeping {} loaded products",
+                        products.size(), e);
+                break;
+            }
+            if (page.isEmpty()) {
+                break;
+            }
+            products.addAll(page);
+            afterId = page.get(page.size() - 1).getId();
+        }
+        daoProxy.preload(products);
+        log.info("Cache warmed up with first {} products of the catalog", products.size());
+        return products.size();
+    }
+
+    /**
+     * Сохраняет самые популярные ключи кэша в снимок.
+     *
+     * @return количество сохраненных ключей
+     */
+    public int saveSnapshot() {
+        if (!enabled) {
+            return 0;
+        }
+        Map<UUID, Integer> hotKeys = daoProxy.hotKeys(limit);
+        try {
+            CacheSnapshot.write(snapshotFile, hotKeys);
+            log.info("Saved {} cache keys to snapshot {}", hotKeys.size(), snapshotFile);
+            return hotKeys.size();
+        } catch (IOException e) {
+            log.error("Failed to save cache snapshot {}", snapshotFile, e);
+            return 0;
+        }
+    }
+
+    private Map<UUID, Product> loadInParallel(List<UUID> ids) {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<List<Product>>> batches = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<UUID> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                batches.add(CompletableFuture.supplyAsync(() -> productDao.findAllByIds(batch), executor));
+            }
+            Map<UUID, Product> loaded = new HashMap<>();
+            int failed = 0;
+            for (CompletableFuture<List<Product>> batch : batches) {
+                try {
+                    batch.join().forEach(product -> loaded.put(product.getId(), product));
+                } catch (CompletionException e) {
+                    failed++;
+                    log.warn("Failed to load cache warm-up batch", e.getCause());
+                }
+            }
+            if (failed > 0) {
+                log.warn("Cache warm-up loaded {} of {} batches", batches.size() - failed, batches.size());
+            }
+            return loaded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
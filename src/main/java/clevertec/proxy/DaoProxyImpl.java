@@ -1,27 +1,69 @@
 package clevertec.proxy;
 
 import clevertec.cache.Cache;
-import clevertec.cache.impl.LfuCache;
-import clevertec.cache.impl.LruCache;
+import clevertec.cache.CacheRegistry;
+import clevertec.cache.CacheStats;
+import clevertec.cache.StatsCounter;
+import clevertec.cache.cluster.PartitionedCache;
+import clevertec.cache.impl.ProductWeigher;
+import clevertec.cache.impl.StatsCache;
 import clevertec.config.ConfigurationLoader;
 import clevertec.dao.ProductDao;
 import clevertec.entity.Product;
-import clevertec.exception.ProductNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Прокси-класс для доступа к данным продуктов, инкапсулирующий логику кэширования.
+ * <p>
+ * По умолчанию запись сквозная (write-through): вызывающий ждет записи в базу. Если задан
+ * {@link WriteBehindFlusher}, сохранение и обновление одного продукта попадают в кэш и очередь
+ * отложенной записи и возвращают управление сразу. Чтение по идентификатору видит еще не
+ * записанные версии, а списки и страницы продуктов читаются из базы и отражают изменения
+ * только после сброса очереди.
  */
 @Slf4j
-public class DaoProxyImpl {
+public class DaoProxyImpl implements AutoCloseable {
+
+    /**
+     * Имя кэша страниц продуктов в {@link CacheRegistry}.
+     */
+    public static final String PRODUCT_PAGES_CACHE = "productPages";
+
+    private static final int EPOCH_STRIPES = 64;
+
     private final ProductDao productDao;
     private final Cache<UUID, Product> cache;
+    private final Cache<PageKey, List<Product>> pageCache;
+    private final AtomicLong pageGeneration = new AtomicLong();
+    private final AtomicLongArray invalidationEpochs = new AtomicLongArray(EPOCH_STRIPES);
+    private final WriteBehindFlusher writeBehind;
+    private final StatsCounter statsCounter;
+    private final CacheRegistry cacheRegistry;
+    private final ConcurrentMap<UUID, CompletableFuture<Optional<Product>>> inFlightLoads = new ConcurrentHashMap<>();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder coalescedLoadCount = new LongAdder();
 
     /**
      * Конструктор DaoProxy.
@@ -29,8 +71,31 @@ public class DaoProxyImpl {
      * @param productDao DAO для работы с продуктами
      */
     public DaoProxyImpl(ProductDao productDao) {
+        Map<String, Object> cacheConfig = loadCacheConfig();
+        this.productDao = productDao;
+        this.writeBehind = writeBehindInit(productDao, cacheConfig);
+        this.cacheRegistry = cacheRegistryInit(cacheConfig);
+        Cache<UUID, Product> store = cacheRegistry.cache(CacheRegistry.DEFAULT_CACHE);
+        this.cache = partitionedInit(cacheConfig, store);
+        this.pageCache = pageCacheOf(cacheRegistry);
+        this.statsCounter = statsCounterOf(store);
+    }
+
+    /**
+     * Конструктор DaoProxy с кэшами из реестра. Кэш продуктов берется под именем
+     * {@link CacheRegistry#DEFAULT_CACHE}, кэш страниц — под именем {@link #PRODUCT_PAGES_CACHE},
+     * если он зарегистрирован. Реестр закрывается вместе с DaoProxy.
+     *
+     * @param productDao    DAO для работы с продуктами
+     * @param cacheRegistry реестр кэшей
+     */
+    public DaoProxyImpl(ProductDao productDao, CacheRegistry cacheRegistry) {
         this.productDao = productDao;
-        this.cache = cacheInit();
+        this.writeBehind = null;
+        this.cacheRegistry = cacheRegistry;
+        this.cache = cacheRegistry.cache(CacheRegistry.DEFAULT_CACHE);
+        this.pageCache = pageCacheOf(cacheRegistry);
+        this.statsCounter = statsCounterOf(cache);
     }
 
     /**
@@ -40,51 +105,369 @@ public class DaoProxyImpl {
      * @param cache кэш для работы с продуктами
      */
     public DaoProxyImpl(ProductDao productDao, Cache<UUID, Product> cache) {
+        this(productDao, cache, null);
+    }
+
+    /**
+     * Конструктор DaoProxy с отложенной записью.
+     *
+     * @param productDao  DAO для работы с продуктами
+     * @param cache       кэш для работы с продуктами
+     * @param writeBehind очередь отложенной записи или {@code null} для сквозной записи
+     */
+    public DaoProxyImpl(ProductDao productDao, Cache<UUID, Product> cache, WriteBehindFlusher writeBehind) {
         this.productDao = productDao;
         this.cache = cache;
+        this.pageCache = null;
+        this.writeBehind = writeBehind;
+        this.statsCounter = statsCounterOf(cache);
+        this.cacheRegistry = null;
     }
 
     /**
-     * Инициализирует кэш на основе конфигурации.
+     * Читает раздел {@code cache} конфигурации один раз для всех настроек прокси.
      *
-     * @return Инстанс кэша
+     * @return Раздел конфигурации кэша
      */
-    private Cache<UUID, Product> cacheInit() {
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> loadCacheConfig() {
         try {
-            Map<String, Object> objectMap = ConfigurationLoader.loadConfig();
-            Map<String, Object> cacheConfig = (Map<String, Object>) objectMap.get("cache");
-            int capacity = (Integer) cacheConfig.get("capacity");
-            String cacheType = (String) cacheConfig.get("type");
-            return createCache(cacheType, capacity);
+            return (Map<String, Object>) ConfigurationLoader.loadConfig().get("cache");
         } catch (IOException e) {
-            log.error("Error initializing cache", e);
-            throw new RuntimeException("Failed to initialize cache", e);
+            log.error("Error loading cache configuration", e);
+            throw new RuntimeException("Failed to load cache configuration", e);
+        }
+    }
+
+    /**
+     * Создает реестр кэшей: кэш продуктов и, если он настроен, кэш страниц продуктов.
+     * Поведение, которое нельзя описать в конфигурации, задается здесь: вес продукта
+     * для {@code maxWeightBytes} и загрузка для {@code refreshAfterWriteSeconds}.
+     *
+     * @param cacheConfig Раздел конфигурации кэша
+     * @return Реестр кэшей
+     */
+    private CacheRegistry cacheRegistryInit(Map<String, Object> cacheConfig) {
+        CacheRegistry registry = new CacheRegistry(cacheConfig);
+        try {
+            ProductWeigher weigher = new ProductWeigher();
+            registry.register(CacheRegistry.DEFAULT_CACHE, registry.<UUID, Product>builder(CacheRegistry.DEFAULT_CACHE)
+                    .weigher(weigher)
+                    .refreshLoader(this::reload));
+            if (registry.isConfigured(PRODUCT_PAGES_CACHE)) {
+                registry.register(PRODUCT_PAGES_CACHE, registry.<PageKey, List<Product>>builder(PRODUCT_PAGES_CACHE)
+                        .weigher((key, page) -> weighPage(weigher, page)));
+            }
+        } catch (RuntimeException e) {
+            registry.close();
+            throw e;
+        }
+        return registry;
+    }
+
+    /**
+     * Если в разделе {@code cache.partitioned} включен распределенный кэш, оборачивает кэш
+     * продуктов в {@link PartitionedCache}: этот узел хранит только свою часть продуктов,
+     * а остальные запрашивает у других узлов. Сервер узла останавливается в {@link #close()}.
+     *
+     * @param cacheConfig Раздел конфигурации кэша
+     * @param store       Кэш продуктов из реестра
+     * @return Распределенный кэш или {@code store}, если распределение выключено
+     */
+    @SuppressWarnings("unchecked")
+    private Cache<UUID, Product> partitionedInit(Map<String, Object> cacheConfig, Cache<UUID, Product> store) {
+        Map<String, Object> partitionedConfig = (Map<String, Object>) cacheConfig.get("partitioned");
+        if (partitionedConfig == null || !Boolean.TRUE.equals(partitionedConfig.get("enabled"))) {
+            return store;
+        }
+        PartitionedCache partitioned;
+        try {
+            partitioned = PartitionedCache.fromConfig(partitionedConfig, store);
+        } catch (RuntimeException e) {
+            cacheRegistry.close();
+            throw e;
+        }
+        return partitioned;
+    }
+
+    private static int weighPage(ProductWeigher weigher, List<Product> page) {
+        long weight = 0;
+        for (Product product : page) {
+            weight += weigher.weigh(product.getId(), product);
         }
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    private static Cache<PageKey, List<Product>> pageCacheOf(CacheRegistry registry) {
+        return registry.isRegistered(PRODUCT_PAGES_CACHE) ? registry.cache(PRODUCT_PAGES_CACHE) : null;
     }
 
-    private Cache<UUID, Product> createCache(String cacheType, int capacity) {
-        return switch (cacheType) {
-            case "lru" -> new LruCache<>(capacity);
-            case "lfu" -> new LfuCache<>(capacity);
-            default -> throw new IllegalArgumentException("Unsupported cache type: " + cacheType);
-        };
+    private static StatsCounter statsCounterOf(Cache<UUID, Product> cache) {
+        return cache instanceof StatsCache<UUID, Product> statsCache ? statsCache.getStatsCounter() : null;
+    }
+
+    /**
+     * Создает очередь отложенной записи, если она включена в разделе {@code cache.writeBehind}.
+     * Оставшиеся изменения записываются в базу в {@link #close()}.
+     *
+     * @param productDao  DAO для записи продуктов
+     * @param cacheConfig Раздел конфигурации кэша
+     * @return Очередь отложенной записи или {@code null}, если используется сквозная запись
+     */
+    @SuppressWarnings("unchecked")
+    private WriteBehindFlusher writeBehindInit(ProductDao productDao, Map<String, Object> cacheConfig) {
+        Map<String, Object> writeBehindConfig = (Map<String, Object>) cacheConfig.get("writeBehind");
+        if (writeBehindConfig == null || !Boolean.TRUE.equals(writeBehindConfig.get("enabled"))) {
+            return null;
+        }
+        int maxDelayMillis = (Integer) writeBehindConfig.getOrDefault("maxDelayMillis", 500);
+        int batchSize = (Integer) writeBehindConfig.getOrDefault("batchSize", 500);
+        WriteBehindFlusher flusher = new WriteBehindFlusher(productDao, Duration.ofMillis(maxDelayMillis), batchSize);
+        return flusher;
     }
 
     /**
      * Получает продукт по его идентификатору. Сначала проверяет наличие продукта в кэше.
      * Если продукт не найден в кэше, загружает его из DAO и помещает в кэш.
+     * Конкурентные промахи по одному идентификатору объединяются в одну загрузку.
      * Возвращает Optional<Product>.
      *
      * @param id Идентификатор продукта
      * @return Optional<Product>, содержащий продукт, если он найден, иначе пустой Optional
      */
     public Optional<Product> getProductById(UUID id) {
-        Optional<Product> product = cache.get(id);
-        if (product.isEmpty()) {
-            product = productDao.findById(id);
-            product.ifPresent(p -> cache.put(id, p));
+        Product product = cache.getIfPresent(id);
+        return product != null ? Optional.of(product) : loadCoalesced(id);
+    }
+
+    /**
+     * Получает продукт по его идентификатору так же, как {@link #getProductById(UUID)},
+     * но без обертки {@link Optional}: при попадании в кэш объекты не создаются.
+     *
+     * @param id Идентификатор продукта
+     * @return продукт или {@code null}, если он не найден
+     */
+    public Product findProductById(UUID id) {
+        Product product = cache.getIfPresent(id);
+        return product != null ? product : loadCoalesced(id).orElse(null);
+    }
+
+    /**
+     * Получает продукты по набору идентификаторов. Найденные в кэше продукты возвращаются
+     * из кэша, а все промахи загружаются из DAO одним запросом и помещаются в кэш.
+     *
+     * @param ids Идентификаторы продуктов
+     * @return Список найденных продуктов в порядке идентификаторов, без повторов и отсутствующих продуктов
+     */
+    public List<Product> getProductsByIds(Collection<UUID> ids) {
+        Set<UUID> uniqueIds = new LinkedHashSet<>(ids);
+        Map<UUID, Product> found = new HashMap<>(cache.getAll(uniqueIds));
+        if (found.size() < uniqueIds.size()) {
+            List<UUID> misses = new ArrayList<>(uniqueIds.size() - found.size());
+            for (UUID id : uniqueIds) {
+                if (!found.containsKey(id)) {
+                    misses.add(id);
+                }
+            }
+            if (writeBehind != null) {
+                misses.removeIf(id -> {
+                    Optional<Product> pending = writeBehind.pending(id);
+                    pending.ifPresent(product -> found.put(id, product));
+                    return pending.isPresent();
+                });
+            }
+            if (!misses.isEmpty()) {
+                loadCount.increment();
+                long[] epochs = epochs();
+                for (Product product : timedLoad(() -> productDao.findAllByIds(misses))) {
+                    cacheLoaded(product.getId(), product, epochs[epochStripe(product.getId())]);
+                    found.put(product.getId(), product);
+                }
+            }
+        }
+        List<Product> products = new ArrayList<>(found.size());
+        for (UUID id : uniqueIds) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Помещает продукты в кэш в указанном порядке, не обращаясь к DAO.
+     * Используется для прогрева кэша.
+     *
+     * @param products Продукты для кэширования
+     */
+    public void preload(List<Product> products) {
+        cache.putAll(byId(products));
+    }
+
+    /**
+     * Помещает продукты в кэш в указанном порядке и восстанавливает сохраненные частоты
+     * обращений к ним, чтобы политика вытеснения сразу учитывала их популярность.
+     *
+     * @param products    Продукты для кэширования
+     * @param frequencies Частоты обращений по идентификаторам продуктов
+     */
+    public void preload(List<Product> products, Map<UUID, Integer> frequencies) {
+        preload(products);
+        for (Product product : products) {
+            Integer frequency = frequencies.get(product.getId());
+            if (frequency != null) {
+                cache.restoreFrequency(product.getId(), frequency);
+            }
         }
-        return product;
+    }
+
+    /**
+     * Возвращает самые популярные идентификаторы продуктов в кэше вместе с их частотами.
+     *
+     * @param limit Максимальное количество идентификаторов
+     * @return Частоты по идентификаторам в порядке убывания популярности
+     */
+    public Map<UUID, Integer> hotKeys(int limit) {
+        return cache.hotKeys(limit);
+    }
+
+    /**
+     * Удаляет из кэша продукты, измененные другим узлом, и делает недействительными кэшированные
+     * страницы. Загрузки, начатые до вызова, не вернут в кэш устаревшие версии. В распределенном
+     * кэше каждый узел очищает только свои части, не обращаясь по сети к другим узлам.
+     *
+     * @param ids Идентификаторы измененных продуктов
+     */
+    public void invalidate(Collection<UUID> ids) {
+        ids.forEach(this::advanceEpoch);
+        if (cache instanceof PartitionedCache partitioned) {
+            partitioned.invalidateLocal(ids);
+        } else {
+            cache.deleteAll(ids);
+        }
+        pageGeneration.incrementAndGet();
+    }
+
+    /**
+     * Удаляет из кэша все продукты и страницы на всех уровнях кэша, а не только ключи, популярность
+     * которых он отслеживает. Используется, когда инвалидации могли быть потеряны, например после
+     * переподключения к базе.
+     */
+    public void invalidateAll() {
+        for (int stripe = 0; stripe < EPOCH_STRIPES; stripe++) {
+            invalidationEpochs.incrementAndGet(stripe);
+        }
+        cache.invalidateAll();
+        pageGeneration.incrementAndGet();
+        if (pageCache != null) {
+            pageCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Возвращает статистику кэша продуктов: попадания, промахи, вытеснения и загрузки из DAO.
+     *
+     * @return Снимок статистики или пустая статистика, если ее сбор отключен
+     */
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Возвращает количество загрузок продуктов из DAO после промаха кэша.
+     *
+     * @return количество выполненных загрузок
+     */
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    /**
+     * Возвращает количество промахов, которые не обращались к DAO, а дождались
+     * уже выполняющейся загрузки того же продукта.
+     *
+     * @return количество объединенных загрузок
+     */
+    public long getCoalescedLoadCount() {
+        return coalescedLoadCount.sum();
+    }
+
+    private Optional<Product> loadCoalesced(UUID id) {
+        CompletableFuture<Optional<Product>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<Product>> inFlight = inFlightLoads.putIfAbsent(id, load);
+        if (inFlight != null) {
+            coalescedLoadCount.increment();
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            long epoch = epoch(id);
+            Optional<Product> product = writeBehind == null ? Optional.empty() : writeBehind.pending(id);
+            if (product.isEmpty()) {
+                loadCount.increment();
+                product = timedLoad(() -> productDao.findById(id));
+            }
+            product.ifPresent(p -> cacheLoaded(id, p, epoch));
+            load.complete(product);
+            return product;
+        } catch (Throwable e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(id, load);
+        }
+    }
+
+    /**
+     * Помещает загруженный продукт в кэш. Если во время загрузки этот узел записал или удалил
+     * продукт либо пришла инвалидация от другого узла, загруженная версия могла быть прочитана
+     * до изменения, поэтому она удаляется из кэша. Эпохи ведутся по полосам идентификаторов,
+     * поэтому изменение одного продукта затрагивает только загрузки продуктов его полосы.
+     * Проверка после вставки закрывает гонку с записью, которая сначала увеличивает эпоху,
+     * а затем обновляет кэш.
+     *
+     * @param id      Идентификатор продукта
+     * @param product Загруженный продукт
+     * @param epoch   Эпоха инвалидаций полосы продукта на момент начала загрузки
+     */
+    private void cacheLoaded(UUID id, Product product, long epoch) {
+        cache.put(id, product);
+        if (epoch(id) != epoch) {
+            cache.delete(id);
+        }
+    }
+
+    /**
+     * Загружает актуальную версию продукта для фоновой перезагрузки кэша. Версия, ожидающая
+     * отложенной записи, новее версии в базе, поэтому имеет приоритет. Как и в
+     * {@link #cacheLoaded(UUID, Product, long)}, если во время чтения из базы сменилась эпоха
+     * инвалидаций, прочитанная версия могла устареть: перезагрузка сообщает об отсутствии
+     * продукта, и он удаляется из кэша до следующего чтения.
+     *
+     * @param id Идентификатор продукта
+     * @return Optional<Product>, содержащий продукт, если он найден и не был изменен во время чтения
+     */
+    private Optional<Product> reload(UUID id) {
+        if (writeBehind != null) {
+            Optional<Product> pending = writeBehind.pending(id);
+            if (pending.isPresent()) {
+                return pending;
+            }
+        }
+        long epoch = epoch(id);
+        Optional<Product> product = timedLoad(() -> productDao.findById(id));
+        return epoch(id) == epoch ? product : Optional.empty();
     }
 
     /**
@@ -96,37 +479,251 @@ public class DaoProxyImpl {
         return productDao.findALL();
     }
 
+    /**
+     * Получает страницу продуктов, упорядоченных по идентификатору.
+     * Страницы не помещаются в кэш продуктов, чтобы полный обход каталога не вытеснял популярные
+     * продукты. Если настроен кэш {@link #PRODUCT_PAGES_CACHE}, страница целиком кэшируется в нем.
+     * Любая запись через прокси делает закэшированные страницы недействительными; при отложенной
+     * записи страница, прочитанная до сброса очереди, может устареть до истечения ее срока жизни.
+     *
+     * @param afterId Идентификатор последнего продукта предыдущей страницы или null для первой страницы
+     * @param limit   Максимальный размер страницы
+     * @return Список продуктов страницы
+     */
+    public List<Product> getProductPage(UUID afterId, int limit) {
+        if (pageCache == null) {
+            return productDao.findPage(afterId, limit);
+        }
+        PageKey key = new PageKey(pageGeneration.get(), afterId, limit);
+        List<Product> page = pageCache.getIfPresent(key);
+        if (page == null) {
+            page = List.copyOf(productDao.findPage(afterId, limit));
+            pageCache.put(key, page);
+        }
+        return page;
+    }
+
+    /**
+     * Возвращает ленивый поток всех продуктов. Поток необходимо закрыть после использования.
+     *
+     * @return Поток продуктов
+     */
+    public Stream<Product> streamAllProducts() {
+        return productDao.streamAll();
+    }
+
     /**
      * Сохраняет продукт, используя DAO, и добавляет его в кэш.
+     * При отложенной записи продукт ставится в очередь и записывается в базу позже.
      *
      * @param product Продукт для сохранения
      * @return Сохраненный продукт
      */
     public Product saveProduct(Product product) {
+        if (writeBehind != null) {
+            writeBehind.save(product);
+            advanceEpoch(product.getId());
+            cache.put(product.getId(), product);
+            invalidatePages();
+            return product;
+        }
         Product save = productDao.save(product);
+        advanceEpoch(product.getId());
         cache.put(product.getId(), save);
+        invalidatePages();
         return save;
     }
 
     /**
      * Обновляет продукт с помощью DAO и обновляет его в кэше.
+     * При отложенной записи повторные обновления продукта до сброса объединяются в одно.
      *
      * @param product Продукт для обновления
      * @return Обновленный продукт
      */
     public Product update(Product product) {
+        if (writeBehind != null) {
+            writeBehind.update(product);
+            advanceEpoch(product.getId());
+            cache.put(product.getId(), product);
+            invalidatePages();
+            return product;
+        }
         Product update = productDao.update(product);
+        advanceEpoch(product.getId());
         cache.put(product.getId(), update);
+        invalidatePages();
         return update;
     }
 
+    /**
+     * Сохраняет продукты пакетной вставкой и добавляет их в кэш одной операцией.
+     *
+     * @param products Продукты для сохранения
+     * @return Сохраненные продукты
+     */
+    public List<Product> saveProducts(Collection<Product> products) {
+        List<Product> saved = productDao.saveAll(products);
+        advanceEpochs(products);
+        cache.putAll(byId(saved));
+        invalidatePages();
+        return saved;
+    }
+
+    /**
+     * Обновляет продукты пакетно и обновляет их в кэше одной операцией. Продукты, которых нет
+     * в базе, в кэш не попадают, а их прежние копии удаляются из него.
+     *
+     * @param products Продукты для обновления
+     * @return Обновленные продукты
+     */
+    public List<Product> updateProducts(Collection<Product> products) {
+        List<Product> updated = productDao.updateAll(products);
+        advanceEpochs(products);
+        Map<UUID, Product> updatedById = byId(updated);
+        cache.putAll(updatedById);
+        if (updatedById.size() < products.size()) {
+            cache.deleteAll(products.stream()
+                    .map(Product::getId)
+                    .filter(id -> !updatedById.containsKey(id))
+                    .toList());
+        }
+        invalidatePages();
+        return updated;
+    }
+
+    /**
+     * Загружает продукты через {@code COPY} и удаляет их ключи из кэша.
+     * Массовый импорт не заполняет кэш, чтобы не вытеснять популярные продукты.
+     *
+     * @param products Продукты для загрузки
+     * @return Количество загруженных строк
+     */
+    public long importProducts(Collection<Product> products) {
+        long copied = productDao.copyAll(products);
+        advanceEpochs(products);
+        cache.deleteAll(products.stream()
+                .map(Product::getId)
+                .toList());
+        invalidatePages();
+        return copied;
+    }
+
     /**
      * Удаляет продукт по его идентификатору с помощью DAO и удаляет его из кэша.
      *
      * @param id Идентификатор продукта для удаления
      */
     public void deleteProductById(UUID id) {
+        if (writeBehind != null && writeBehind.cancel(id)) {
+            advanceEpoch(id);
+            cache.delete(id);
+            invalidatePages();
+            return;
+        }
         productDao.delete(id);
+        advanceEpoch(id);
         cache.delete(id);
+        invalidatePages();
+    }
+
+    /**
+     * Записывает в базу изменения, ожидающие в очереди отложенной записи, и останавливает ее.
+     * Останавливает узел распределенного кэша и закрывает реестр кэшей, если прокси создал
+     * их или получил в конструкторе.
+     */
+    @Override
+    public void close() {
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
+        if (cacheRegistry != null && cache instanceof PartitionedCache partitioned) {
+            partitioned.close();
+        }
+        if (cacheRegistry != null) {
+            cacheRegistry.close();
+        }
+    }
+
+    /**
+     * Отмечает изменение продукта в базе или очереди отложенной записи. Вызывается после
+     * изменения и до обновления кэша: загрузка продукта, начатая раньше, увидит новую эпоху
+     * его полосы и не оставит в кэше прочитанную до изменения версию. Загрузки продуктов
+     * других полос изменение не затрагивает.
+     *
+     * @param id Идентификатор измененного продукта
+     */
+    private void advanceEpoch(UUID id) {
+        invalidationEpochs.incrementAndGet(epochStripe(id));
+    }
+
+    private void advanceEpochs(Collection<Product> products) {
+        for (Product product : products) {
+            advanceEpoch(product.getId());
+        }
+    }
+
+    private long epoch(UUID id) {
+        return invalidationEpochs.get(epochStripe(id));
+    }
+
+    /**
+     * Возвращает эпохи всех полос для пакетной загрузки, которая проверяет каждый продукт
+     * по эпохе его полосы.
+     */
+    private long[] epochs() {
+        long[] epochs = new long[EPOCH_STRIPES];
+        for (int stripe = 0; stripe < EPOCH_STRIPES; stripe++) {
+            epochs[stripe] = invalidationEpochs.get(stripe);
+        }
+        return epochs;
+    }
+
+    private static int epochStripe(UUID id) {
+        int hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & (EPOCH_STRIPES - 1);
+    }
+
+    /**
+     * Делает недействительными все закэшированные страницы после записи: новые запросы используют
+     * ключи следующего поколения, а страницы прошлых поколений вытесняются политикой кэша страниц.
+     */
+    private void invalidatePages() {
+        if (pageCache != null) {
+            pageGeneration.incrementAndGet();
+        }
+    }
+
+    private <T> T timedLoad(Supplier<T> loader) {
+        if (statsCounter == null) {
+            return loader.get();
+        }
+        long start = System.nanoTime();
+        try {
+            T result = loader.get();
+            statsCounter.recordLoadSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            statsCounter.recordLoadFailure(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private Map<UUID, Product> byId(List<Product> products) {
+        Map<UUID, Product> entries = new LinkedHashMap<>();
+        for (Product product : products) {
+            entries.put(product.getId(), product);
+        }
+        return entries;
+    }
+
+    /**
+     * Ключ страницы продуктов в кэше {@link #PRODUCT_PAGES_CACHE}.
+     *
+     * @param generation поколение страниц, увеличивается при каждой записи через прокси
+     * @param afterId    идентификатор последнего продукта предыдущей страницы или null
+     * @param limit      максимальный размер страницы
+     */
+    public record PageKey(long generation, UUID afterId, int limit) {
     }
 }
@@ -0,0 +1,443 @@
+package clevertec.proxy;
+
+import clevertec.dao.ProductDao;
+import clevertec.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Отложенная запись (write-behind) изменений продуктов в базу данных.
+ * <p>
+ * Изменения попадают в набор "грязных" продуктов и сразу возвращают управление. Повторные
+ * изменения одного продукта до сброса объединяются: в базу записывается только последняя версия.
+ * Фоновая задача сбрасывает набор пачками через {@link ProductDao#saveAll} и
+ * {@link ProductDao#updateAll} не реже, чем раз в {@code maxDelay}, а при накоплении
+ * {@code batchSize} изменений — немедленно. При закрытии все накопленные изменения
+ * записываются в базу.
+ * <p>
+ * Если запись пачки завершилась ошибкой, ее строки записываются по одной. Строки, которые
+ * не удалось записать и по одной, при том что остальные записались, откладываются в сторону
+ * ({@link #getRejected()}), чтобы одна некорректная строка не блокировала всю очередь. Если
+ * не записалась ни одна строка, изменения возвращаются в набор и повторяются при следующем
+ * сбросе, не затирая более новые версии продуктов. Без ограничения повторяются только ошибки
+ * соединения с базой (например, база недоступна); после {@value #MAX_WRITE_ATTEMPTS} других
+ * ошибок подряд изменение тоже откладывается в сторону. При закрытии сброс повторяется
+ * ограниченное количество раз, а количество так и не записанных изменений попадает в лог.
+ */
+@Slf4j
+public class WriteBehindFlusher implements AutoCloseable {
+
+    private static final int CLOSE_FLUSH_ATTEMPTS = 3;
+    private static final long CLOSE_RETRY_DELAY_MILLIS = 500;
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private final ProductDao productDao;
+    private final int batchSize;
+    private final ConcurrentHashMap<UUID, PendingWrite> dirty = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, PendingWrite> flushing = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, PendingWrite> rejected = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final LongAdder writeCount = new LongAdder();
+    private final LongAdder flushedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    /**
+     * Конструктор отложенной записи с фоновым сбросом.
+     *
+     * @param productDao DAO для записи продуктов
+     * @param maxDelay   максимальная задержка между изменением и его записью в базу
+     * @param batchSize  количество изменений, при котором сброс запускается немедленно
+     */
+    public WriteBehindFlusher(ProductDao productDao, Duration maxDelay, int batchSize) {
+        if (maxDelay.isNegative() || maxDelay.isZero()) {
+            throw new IllegalArgumentException("Max delay must be positive: " + maxDelay);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.productDao = productDao;
+        this.batchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-behind-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long delayMillis = maxDelay.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, delayMillis, delayMillis, TimeUnit.MILLISECONDS);
+        log.info("Write-behind initialized with maxDelay: {}, batchSize: {}", maxDelay, batchSize);
+    }
+
+    /**
+     * Ставит новый продукт в очередь на вставку.
+     *
+     * @param product продукт для сохранения
+     */
+    public void save(Product product) {
+        enqueue(new PendingWrite(product, true));
+    }
+
+    /**
+     * Ставит измененный продукт в очередь на обновление.
+     *
+     * @param product продукт для обновления
+     */
+    public void update(Product product) {
+        enqueue(new PendingWrite(product, false));
+    }
+
+    /**
+     * Возвращает последнюю еще не записанную в базу версию продукта, в том числе отложенную
+     * в сторону из-за ошибки записи.
+     *
+     * @param id идентификатор продукта
+     * @return {@link Optional} версия продукта, ожидающая записи
+     */
+    public Optional<Product> pending(UUID id) {
+        PendingWrite write = dirty.get(id);
+        if (write == null) {
+            write = flushing.get(id);
+        }
+        if (write == null) {
+            write = rejected.get(id);
+        }
+        return write == null ? Optional.empty() : Optional.of(write.product());
+    }
+
+    /**
+     * Отменяет ожидающую или отложенную в сторону запись продукта. Дожидается завершения
+     * текущего сброса, чтобы после возврата продукт не мог появиться в базе из этой очереди.
+     *
+     * @param id идентификатор продукта
+     * @return {@code true}, если отменена вставка продукта, который еще не был записан в базу
+     */
+    public boolean cancel(UUID id) {
+        flushLock.lock();
+        try {
+            PendingWrite write = dirty.remove(id);
+            PendingWrite rejectedWrite = rejected.remove(id);
+            return write != null && write.insert() || rejectedWrite != null && rejectedWrite.insert();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Записывает в базу все накопленные на момент вызова изменения.
+     *
+     * @throws RuntimeException если запись пачки завершилась ошибкой; изменения остаются в очереди
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            int remaining = dirty.size();
+            while (remaining > 0) {
+                int flushed = flushBatch();
+                if (flushed == 0) {
+                    break;
+                }
+                remaining -= flushed;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество изменений, принятых очередью.
+     *
+     * @return количество изменений
+     */
+    public long getWriteCount() {
+        return writeCount.sum();
+    }
+
+    /**
+     * Возвращает количество продуктов, записанных в базу. Разница с {@link #getWriteCount()}
+     * показывает, сколько изменений было объединено.
+     *
+     * @return количество записанных продуктов
+     */
+    public long getFlushedCount() {
+        return flushedCount.sum();
+    }
+
+    /**
+     * Возвращает количество изменений, отложенных в сторону из-за ошибки записи строки.
+     *
+     * @return количество отложенных изменений
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * Возвращает последние версии продуктов, отложенных в сторону из-за ошибки записи строки.
+     * Новое изменение такого продукта снова ставит его в очередь.
+     *
+     * @return отложенные продукты
+     */
+    public List<Product> getRejected() {
+        return rejected.values().stream()
+                .map(PendingWrite::product)
+                .toList();
+    }
+
+    /**
+     * Возвращает количество изменений, ожидающих записи.
+     *
+     * @return количество продуктов в очереди
+     */
+    public int getPendingCount() {
+        return dirty.size();
+    }
+
+    /**
+     * Останавливает фоновый сброс и записывает в базу все оставшиеся изменения. Неудавшийся
+     * сброс повторяется до {@value #CLOSE_FLUSH_ATTEMPTS} раз, после чего оставшиеся изменения
+     * теряются, а их количество записывается в лог.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Write-behind flusher did not stop in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (int attempt = 1; attempt <= CLOSE_FLUSH_ATTEMPTS; attempt++) {
+            try {
+                flush();
+                break;
+            } catch (RuntimeException e) {
+                log.warn("Write-behind flush on close failed, attempt {} of {}", attempt, CLOSE_FLUSH_ATTEMPTS, e);
+                if (attempt < CLOSE_FLUSH_ATTEMPTS && !sleepBeforeRetry()) {
+                    break;
+                }
+            }
+        }
+        int dropped = dirty.size();
+        if (dropped > 0 || !rejected.isEmpty()) {
+            log.error("Write-behind closed with {} unflushed writes dropped and {} rejected writes: {}",
+                    dropped, rejected.size(), rejected.keySet());
+        }
+        log.info("Write-behind drained, flushed {} of {} writes", getFlushedCount(), getWriteCount());
+    }
+
+    private boolean sleepBeforeRetry() {
+        try {
+            Thread.sleep(CLOSE_RETRY_DELAY_MILLIS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void enqueue(PendingWrite write) {
+        if (closed) {
+            throw new IllegalStateException("Write-behind flusher is closed");
+        }
+        writeCount.increment();
+        PendingWrite previouslyRejected = rejected.remove(write.product().getId());
+        if (previouslyRejected != null) {
+            write = previouslyRejected.coalesce(write);
+        }
+        dirty.merge(write.product().getId(), write, PendingWrite::coalesce);
+        if (dirty.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::flushQuietly);
+            } catch (RuntimeException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush failed, changes will be retried", e);
+        }
+    }
+
+    private int flushBatch() {
+        Map<UUID, PendingWrite> batch = new HashMap<>();
+        Iterator<Map.Entry<UUID, PendingWrite>> iterator = dirty.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            Map.Entry<UUID, PendingWrite> entry = iterator.next();
+            // Сначала в flushing, потом из dirty: иначе pending() на мгновение не видит изменения
+            flushing.put(entry.getKey(), entry.getValue());
+            if (dirty.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            } else {
+                flushing.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        List<PendingWrite> inserts = new ArrayList<>();
+        List<PendingWrite> updates = new ArrayList<>();
+        batch.values().forEach(write -> (write.insert() ? inserts : updates).add(write));
+        try {
+            try {
+                write(inserts, productDao::saveAll);
+            } catch (RuntimeException e) {
+                requeue(updates);
+                throw e;
+            }
+            write(updates, productDao::updateAll);
+            log.debug("Flushed {} inserts and {} updates", inserts.size(), updates.size());
+        } finally {
+            batch.keySet().forEach(flushing::remove);
+        }
+        return batch.size();
+    }
+
+    /**
+     * Записывает изменения одной пачкой, а если она не записалась — по одной строке.
+     *
+     * @throws RuntimeException если не записалась ни одна строка и хотя бы одно изменение
+     *                          возвращено в набор для повтора
+     */
+    private void write(List<PendingWrite> writes, Function<List<Product>, List<Product>> writer) {
+        if (writes.isEmpty()) {
+            return;
+        }
+        Map<PendingWrite, RuntimeException> failed = new LinkedHashMap<>();
+        try {
+            writer.apply(writes.stream()
+                    .map(PendingWrite::product)
+                    .toList());
+            flushedCount.add(writes.size());
+            return;
+        } catch (RuntimeException e) {
+            if (writes.size() == 1) {
+                failed.put(writes.get(0), e);
+            } else {
+                log.warn("Write-behind batch of {} products failed, retrying row by row", writes.size(), e);
+            }
+        }
+        if (failed.isEmpty()) {
+            for (PendingWrite write : writes) {
+                try {
+                    writer.apply(List.of(write.product()));
+                    flushedCount.increment();
+                } catch (RuntimeException e) {
+                    failed.put(write, e);
+                }
+            }
+        }
+        if (failed.size() < writes.size()) {
+            failed.forEach(this::reject);
+            return;
+        }
+        RuntimeException retried = null;
+        for (Map.Entry<PendingWrite, RuntimeException> entry : failed.entrySet()) {
+            PendingWrite write = entry.getKey();
+            RuntimeException e = entry.getValue();
+            if (!isConnectionFailure(e)) {
+                write = write.failed();
+                if (write.attempts() >= MAX_WRITE_ATTEMPTS) {
+                    reject(write, e);
+                    continue;
+                }
+            }
+            requeue(List.of(write));
+            retried = retried == null ? e : retried;
+        }
+        if (retried != null) {
+            throw retried;
+        }
+    }
+
+    private void reject(PendingWrite write, RuntimeException e) {
+        UUID id = write.product().getId();
+        if (dirty.computeIfPresent(id, (key, newer) -> write.coalesce(newer)) != null) {
+            log.warn("Write-behind failed to write product {}, its newer version is still queued", id, e);
+            return;
+        }
+        rejected.merge(id, write, PendingWrite::coalesce);
+        rejectedCount.increment();
+        log.error("Write-behind rejected product {} that cannot be written to the database", id, e);
+    }
+
+    /**
+     * Проверяет, означает ли ошибка потерю соединения или недоступность базы, а не проблему
+     * самой строки: такие ошибки повторяются без ограничения количества попыток.
+     *
+     * @param e ошибка записи
+     * @return {@code true}, если в цепочке причин есть ошибка соединения
+     */
+    private static boolean isConnectionFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException
+                    || cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                String state = sqlException.getSQLState();
+                // 08 — ошибки соединения, 53 — нехватка ресурсов, 57P — остановка сервера
+                if (state.startsWith("08") || state.startsWith("53") || state.startsWith("57P")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void requeue(Collection<PendingWrite> writes) {
+        writes.forEach(failed -> dirty.merge(failed.product().getId(), failed,
+                (current, retry) -> retry.coalesce(current)));
+    }
+
+    /**
+     * Изменение продукта, ожидающее записи.
+     *
+     * @param attempts количество неудачных попыток записи этой версии продукта
+     */
+    private record PendingWrite(Product product, boolean insert, int attempts) {
+
+        private PendingWrite(Product product, boolean insert) {
+            this(product, insert, 0);
+        }
+
+        private PendingWrite coalesce(PendingWrite newer) {
+            return new PendingWrite(newer.product, insert || newer.insert, newer.attempts);
+        }
+
+        private PendingWrite failed() {
+            return new PendingWrite(product, insert, attempts + 1);
+        }
+    }
+}
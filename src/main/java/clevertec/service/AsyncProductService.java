@@ -0,0 +1,24 @@
+package clevertec.service;
+
+import clevertec.dto.InfoProductDto;
+import clevertec.dto.ProductDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Асинхронный вариант {@link ProductService}: методы возвращают управление сразу, а результат
+ * или исключение приходят в {@link CompletableFuture}. Ленивый поток всех продуктов здесь не
+ * предлагается: он держит соединение с базой, пока его читает вызывающий.
+ */
+public interface AsyncProductService {
+    CompletableFuture<InfoProductDto> get(UUID uuid);
+    CompletableFuture<List<InfoProductDto>> getMany(Collection<UUID> uuids);
+    CompletableFuture<List<InfoProductDto>> getAllProducts();
+    CompletableFuture<List<InfoProductDto>> getPage(UUID afterId, int limit);
+    CompletableFuture<UUID> update(UUID uuid, ProductDto productDto);
+    CompletableFuture<UUID> create(ProductDto productDto);
+    CompletableFuture<Void> delete(UUID uuid);
+}
@@ -3,12 +3,17 @@ package clevertec.service;
 import clevertec.dto.InfoProductDto;
 import clevertec.dto.ProductDto;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ProductService {
     InfoProductDto get(UUID uuid);
+    List<InfoProductDto> getMany(Collection<UUID> uuids);
     List<InfoProductDto> getAllProducts();
+    List<InfoProductDto> getPage(UUID afterId, int limit);
+    Stream<InfoProductDto> streamAllProducts();
     UUID update(UUID uuid, ProductDto productDto);
     UUID create(ProductDto productDto);
     void delete(UUID uuid);
@@ -0,0 +1,221 @@
+package clevertec.service.impl;
+
+import clevertec.config.ConfigurationLoader;
+import clevertec.dto.InfoProductDto;
+import clevertec.dto.ProductDto;
+import clevertec.service.AsyncProductService;
+import clevertec.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Выполняет операции {@link ProductService} в отдельных потоках и возвращает результат
+ * в {@link CompletableFuture}.
+ * <p>
+ * На Java 21 и новее каждая операция получает свой виртуальный поток, поэтому тысячи ожидающих
+ * JDBC запросов не занимают потоки платформы. На более старых версиях используется пул из
+ * {@code maxConcurrency} потоков. В обоих случаях одновременно выполняется не больше
+ * {@code maxConcurrency} операций: остальные ждут разрешения {@link Semaphore}, а не соединения
+ * из пула, и не упираются в его таймаут получения.
+ */
+@Slf4j
+public class AsyncProductServiceImpl implements AsyncProductService, AutoCloseable {
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final ProductService productService;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final boolean ownsExecutor;
+
+    /**
+     * Конструктор сервиса с собственным исполнителем: виртуальные потоки, если они доступны,
+     * иначе пул из {@code maxConcurrency} потоков. Исполнитель останавливается в {@link #close()}.
+     *
+     * @param productService синхронный сервис продуктов
+     * @param maxConcurrency максимальное количество одновременно выполняемых операций
+     */
+    public AsyncProductServiceImpl(ProductService productService, int maxConcurrency) {
+        this(productService, defaultExecutor(maxConcurrency), maxConcurrency, true);
+    }
+
+    /**
+     * Конструктор сервиса с внешним исполнителем. Исполнитель не останавливается в {@link #close()}.
+     *
+     * @param productService синхронный сервис продуктов
+     * @param executor       исполнитель операций
+     * @param maxConcurrency максимальное количество одновременно выполняемых операций
+     */
+    public AsyncProductServiceImpl(ProductService productService, ExecutorService executor, int maxConcurrency) {
+        this(productService, executor, maxConcurrency, false);
+    }
+
+    private AsyncProductServiceImpl(ProductService productService, ExecutorService executor, int maxConcurrency,
+                                    boolean ownsExecutor) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive: " + maxConcurrency);
+        }
+        this.productService = productService;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrency);
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Создает сервис, ограничивая количество одновременных операций размером пула соединений
+     * {@code db.pool.maxSize}. Исполнитель останавливается в {@link #close()}.
+     *
+     * @param productService синхронный сервис продуктов
+     * @return асинхронный сервис продуктов
+     */
+    @SuppressWarnings("unchecked")
+    public static AsyncProductServiceImpl fromConfig(ProductService productService) {
+        try {
+            Map<String, Object> dbConfig = (Map<String, Object>) ConfigurationLoader.loadConfig().get("db");
+            Map<String, Object> poolConfig = (Map<String, Object>) dbConfig.getOrDefault("pool", Map.of());
+            return new AsyncProductServiceImpl(productService, (Integer) poolConfig.getOrDefault("maxSize", 10));
+        } catch (IOException e) {
+            log.error("Error initializing async product service", e);
+            throw new RuntimeException("Failed to initialize async product service", e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<InfoProductDto> get(UUID uuid) {
+        return supply(() -> productService.get(uuid));
+    }
+
+    @Override
+    public CompletableFuture<List<InfoProductDto>> getMany(Collection<UUID> uuids) {
+        return supply(() -> productService.getMany(uuids));
+    }
+
+    @Override
+    public CompletableFuture<List<InfoProductDto>> getAllProducts() {
+        return supply(productService::getAllProducts);
+    }
+
+    @Override
+    public CompletableFuture<List<InfoProductDto>> getPage(UUID afterId, int limit) {
+        return supply(() -> productService.getPage(afterId, limit));
+    }
+
+    @Override
+    public CompletableFuture<UUID> update(UUID uuid, ProductDto productDto) {
+        return supply(() -> productService.update(uuid, productDto));
+    }
+
+    @Override
+    public CompletableFuture<UUID> create(ProductDto productDto) {
+        return supply(() -> productService.create(productDto));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(UUID uuid) {
+        return supply(() -> {
+            productService.delete(uuid);
+            return null;
+        });
+    }
+
+    /**
+     * Возвращает количество свободных разрешений на выполнение операций.
+     *
+     * @return количество свободных разрешений
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Останавливает собственный исполнитель, дожидаясь начатых операций не дольше 5 секунд.
+     */
+    @Override
+    public void close() {
+        if (!ownsExecutor) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Async product service did not finish pending operations in time");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> run(operation, future));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private <T> void run(Supplier<T> operation, CompletableFuture<T> future) {
+        if (future.isDone()) {
+            return;
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return;
+        }
+        try {
+            if (!future.isDone()) {
+                future.complete(operation.get());
+            }
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Создает исполнитель с виртуальным потоком на каждую операцию. Проект собирается для Java 17,
+     * поэтому фабрика вызывается через отражение; если ее нет, создается пул из
+     * {@code maxConcurrency} потоков.
+     *
+     * @param maxConcurrency размер пула для Java без виртуальных потоков
+     * @return исполнитель операций
+     */
+    private static ExecutorService defaultExecutor(int maxConcurrency) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            log.info("Async product service uses virtual threads");
+            return executor;
+        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
+            log.info("Virtual threads are not available, async product service uses {} platform threads",
+                    maxConcurrency);
+            return Executors.newFixedThreadPool(Math.max(1, maxConcurrency), runnable -> {
+                Thread thread = new Thread(runnable, "async-product-service-" + THREAD_NUMBER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
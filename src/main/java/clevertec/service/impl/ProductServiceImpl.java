@@ -11,8 +11,10 @@ import lombok.RequiredArgsConstructor;
 
 import javax.validation.Valid;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
@@ -26,6 +28,13 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ProductNotFoundException(uuid));
     }
 
+    @Override
+    public List<InfoProductDto> getMany(Collection<UUID> uuids) {
+        return daoProxy.getProductsByIds(uuids).stream()
+                .map(productMapper::toInfoProductDto)
+                .toList();
+    }
+
     @Override
     public List<InfoProductDto> getAllProducts() {
         return daoProxy.getAllProducts().stream()
@@ -33,6 +42,19 @@ public class ProductServiceImpl implements ProductService {
                 .toList();
     }
 
+    @Override
+    public List<InfoProductDto> getPage(UUID afterId, int limit) {
+        return daoProxy.getProductPage(afterId, limit).stream()
+                .map(productMapper::toInfoProductDto)
+                .toList();
+    }
+
+    @Override
+    public Stream<InfoProductDto> streamAllProducts() {
+        return daoProxy.streamAllProducts()
+                .map(productMapper::toInfoProductDto);
+    }
+
     @Override
     public UUID update(UUID uuid, @Valid ProductDto productDto) {
         Product product = daoProxy.getProductById(uuid)
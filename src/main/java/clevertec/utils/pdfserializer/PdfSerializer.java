@@ -8,8 +8,9 @@ import com.itextpdf.text.pdf.ColumnText;
 import com.itextpdf.text.pdf.PdfWriter;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -17,17 +18,26 @@ import java.time.format.DateTimeFormatter;
 public class PdfSerializer {
 
     public void serializeObjectToPdf(Object classObject) {
+        String pdfFilePath = createPdfFilePath(classObject.getClass().getSimpleName());
+
+        try (OutputStream outputStream = new FileOutputStream(pdfFilePath)) {
+            serializeObjectToPdf(classObject, outputStream);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public void serializeObjectToPdf(Object classObject, OutputStream outputStream) {
         String simpleName = classObject.getClass().getSimpleName();
         Document document = new Document();
-        String pdfFilePath = createPdfFilePath(classObject.getClass().getSimpleName());
 
         try {
-            PdfWriter writer = PdfWriter.getInstance(document, new FileOutputStream(pdfFilePath));
+            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
             document.open();
 
             addTitle(document, simpleName);
             addClassFieldsToPdf(writer, classObject);
-        } catch (DocumentException | FileNotFoundException e) {
+        } catch (DocumentException e) {
             e.printStackTrace();
         } catch (IllegalAccessException e) {
             throw new RuntimeException(e);
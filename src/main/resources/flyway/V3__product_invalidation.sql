@@ -0,0 +1,33 @@
+CREATE OR REPLACE FUNCTION notify_product_invalidation() RETURNS TRIGGER AS $$
+DECLARE
+    origin TEXT := COALESCE(current_setting('application_name', true), '');
+    ids UUID[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(id) INTO ids FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(id) INTO ids FROM old_rows;
+    ELSE
+        SELECT array_agg(id) INTO ids FROM (SELECT id FROM old_rows UNION SELECT id FROM new_rows) changed;
+    END IF;
+    FOR i IN 1 .. COALESCE(array_length(ids, 1), 0) BY 200 LOOP
+        PERFORM pg_notify('product_invalidation', origin || ':' || array_to_string(ids[i:i + 199], ','));
+    END LOOP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER products_invalidation_insert
+    AFTER INSERT ON products
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_product_invalidation();
+
+CREATE TRIGGER products_invalidation_update
+    AFTER UPDATE ON products
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_product_invalidation();
+
+CREATE TRIGGER products_invalidation_delete
+    AFTER DELETE ON products
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_product_invalidation();
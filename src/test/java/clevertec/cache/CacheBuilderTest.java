@@ -0,0 +1,140 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.MappedFileCache;
+import clevertec.cache.impl.ProductWeigher;
+import clevertec.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheBuilderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testProductWeightGrowsWithName() {
+        ProductWeigher weigher = new ProductWeigher();
+        Product shortName = product("a".repeat(10));
+        Product longName = product("a".repeat(1_000));
+        Product cyrillicName = product("я".repeat(1_000));
+
+        int shortWeight = weigher.weigh(shortName.getId(), shortName);
+        int longWeight = weigher.weigh(longName.getId(), longName);
+        int cyrillicWeight = weigher.weigh(cyrillicName.getId(), cyrillicName);
+
+        assertAll("Verify product weights",
+                () -> assertTrue(shortWeight > 200, "Fixed part should include id, boxed numbers and date"),
+                () -> assertEquals(984, longWeight - shortWeight),
+                () -> assertEquals(1_000, cyrillicWeight - longWeight)
+        );
+    }
+
+    @Test
+    void testWeightedCacheEvictsByEstimatedBytes() {
+        ProductWeigher weigher = new ProductWeigher();
+        Product first = product("a".repeat(1_000));
+        Product second = product("b".repeat(1_000));
+        long maxWeight = weigher.weigh(first.getId(), first) + 500;
+        Cache<UUID, Product> cache = CacheBuilder.<UUID, Product>newBuilder()
+                .policy("lru")
+                .maximumWeight(maxWeight)
+                .weigher(weigher)
+                .build();
+
+        cache.put(first.getId(), first);
+        cache.put(second.getId(), second);
+
+        assertAll("Verify weighted eviction",
+                () -> assertEquals(Optional.empty(), cache.get(first.getId())),
+                () -> assertEquals(Optional.of(second), cache.get(second.getId()))
+        );
+    }
+
+    @Test
+    void testSpillKeepsOriginalWriteTimeAndInvalidateAllReachesSecondLevel() throws Exception {
+        Product first = product("Первый");
+        Product second = product("Второй");
+        try (MappedFileCache secondLevel = new MappedFileCache(directory.resolve("l2.bin"), 10, 64,
+                Duration.ofMinutes(10))) {
+            Cache<UUID, Product> cache = CacheBuilder.<UUID, Product>newBuilder()
+                    .policy("lru")
+                    .maximumSize(1)
+                    .expireAfterWrite(Duration.ofMinutes(10))
+                    .secondLevel((Cache<UUID, Product>) (Cache<?, ?>) secondLevel)
+                    .build();
+            cache.put(first.getId(), first);
+            Thread.sleep(20);
+            Instant betweenWrites = Instant.now();
+            Thread.sleep(20);
+            cache.put(second.getId(), second);
+
+            Instant spilledWriteTime = secondLevel.writeTime(first.getId()).orElseThrow();
+            cache.invalidateAll();
+
+            assertAll("Verify second level stamping and invalidation",
+                    () -> assertTrue(spilledWriteTime.isBefore(betweenWrites), "Spill should keep the original write time"),
+                    () -> assertEquals(0, secondLevel.size()),
+                    () -> assertEquals(Optional.empty(), cache.get(first.getId())),
+                    () -> assertEquals(Optional.empty(), cache.get(second.getId()))
+            );
+        }
+    }
+
+    @Test
+    void testEvictionListenerRunsOnExecutorThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CompletableFuture<String> listenerThread = new CompletableFuture<>();
+        Cache<Integer, String> cache = CacheBuilder.<Integer, String>newBuilder()
+                .policy("lfu")
+                .maximumSize(1)
+                .evictionListener((key, value) -> listenerThread.complete(Thread.currentThread().getName()))
+                .evictionListenerExecutor(executor)
+                .build();
+
+        cache.put(1, "One");
+        cache.put(2, "Two");
+
+        try {
+            assertNotEquals(Thread.currentThread().getName(), listenerThread.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidConfigurationIsRejected() {
+        assertAll("Verify builder validation",
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> CacheBuilder.newBuilder().build()),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> CacheBuilder.newBuilder().maximumSize(10).maximumWeight(10).weigher((k, v) -> 1).build()),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> CacheBuilder.newBuilder().maximumWeight(10).build()),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> CacheBuilder.newBuilder().policy("tinylfu").maximumWeight(10).weigher((k, v) -> 1).build()),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> CacheBuilder.newBuilder().policy("fifo").maximumSize(10).build())
+        );
+    }
+
+    private static Product product(String name) {
+        return new Product(UUID.randomUUID(), name, 10.0, 1.5, LocalDateTime.now());
+    }
+}
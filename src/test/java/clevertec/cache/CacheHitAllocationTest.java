@@ -0,0 +1,78 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.ConcurrentLfuCache;
+import clevertec.cache.impl.ConcurrentLruCache;
+import clevertec.cache.impl.LfuCache;
+import clevertec.cache.impl.LruCache;
+import clevertec.cache.impl.StatsCache;
+import clevertec.cache.impl.StripedCache;
+import clevertec.cache.impl.TinyLfuCache;
+import clevertec.data.ProductTestData;
+import clevertec.entity.Product;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Проверяет, что попадание через {@link Cache#getIfPresent(Object)} не создает объектов,
+ * по счетчику выделенной текущим потоком памяти. Единичные выделения самой JVM, например
+ * при компиляции, допускаются: на одно попадание должно приходиться меньше байта,
+ * тогда как {@link java.util.Optional} занимает 16 байт.
+ */
+class CacheHitAllocationTest {
+
+    private static final int KEYS = 64;
+    private static final int HITS = 100_000;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"lru", "lfu", "tinylfu", "concurrent-lru", "concurrent-lfu", "stats"})
+    void testCacheHitDoesNotAllocate(String policy) {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "Allocated bytes counter is not available");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled(),
+                "Allocated bytes counter is disabled");
+        Cache<UUID, Product> cache = switch (policy) {
+            case "lru" -> new LruCache<>(KEYS);
+            case "lfu" -> new LfuCache<>(KEYS);
+            case "tinylfu" -> new StripedCache<>(KEYS, 1, TinyLfuCache::new);
+            case "concurrent-lru" -> new ConcurrentLruCache<>(KEYS * 4, 4);
+            case "concurrent-lfu" -> new ConcurrentLfuCache<>(KEYS * 4, 4);
+            case "stats" -> new StatsCache<>(new ConcurrentLruCache<>(KEYS * 4, 4), new StatsCounter());
+            default -> throw new IllegalArgumentException(policy);
+        };
+        UUID[] keys = new UUID[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            Product product = ProductTestData.builder()
+                    .withId(UUID.randomUUID())
+                    .build()
+                    .buildProduct();
+            keys[i] = product.getId();
+            cache.put(keys[i], product);
+        }
+        int found = readAll(cache, keys);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        found += readAll(cache, keys);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(2 * HITS, found, "Every read should be a hit");
+        assertTrue(allocated < HITS, "Cache hits should not allocate, but " + allocated + " bytes were allocated");
+    }
+
+    private int readAll(Cache<UUID, Product> cache, UUID[] keys) {
+        int found = 0;
+        for (int i = 0; i < HITS; i++) {
+            if (cache.getIfPresent(keys[i % KEYS]) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
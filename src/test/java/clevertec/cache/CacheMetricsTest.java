@@ -0,0 +1,79 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.LruCache;
+import clevertec.cache.impl.StatsCache;
+import clevertec.cache.metrics.CacheMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class CacheMetricsTest {
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    private StatsCache<Integer, String> cache;
+    private CacheMetrics metrics;
+    private ObjectName name;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cache = new StatsCache<>(new LruCache<>(10), new StatsCounter());
+        metrics = new CacheMetrics("metrics-test", cache);
+        name = new ObjectName("clevertec.cache:type=CacheStats,name=\"metrics-test\"");
+    }
+
+    @AfterEach
+    void tearDown() {
+        metrics.close();
+    }
+
+    @Test
+    void testStatsAreExposedViaJmx() throws Exception {
+        metrics.registerMBean();
+        cache.put(1, "One");
+        cache.get(1);
+        cache.get(2);
+
+        assertAll("Verify MBean attributes",
+                () -> assertEquals(1L, server.getAttribute(name, "HitCount")),
+                () -> assertEquals(1L, server.getAttribute(name, "MissCount")),
+                () -> assertEquals(0.5, server.getAttribute(name, "HitRate"))
+        );
+    }
+
+    @Test
+    void testRegisteringTwiceReplacesMBeanAndCloseUnregisters() {
+        metrics.registerMBean();
+        metrics.registerMBean();
+
+        metrics.close();
+
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    void testReportSurvivesFailingReporter() {
+        List<CacheStats> reported = new ArrayList<>();
+        metrics.addReporter((cacheName, stats) -> {
+            throw new IllegalStateException("Reporter is down");
+        });
+        metrics.addReporter((cacheName, stats) -> reported.add(stats));
+        cache.get(1);
+
+        metrics.report();
+
+        assertAll("Verify report delivery",
+                () -> assertEquals(1, reported.size()),
+                () -> assertEquals(1, reported.get(0).missCount())
+        );
+    }
+}
@@ -0,0 +1,86 @@
+package clevertec.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheRegistryTest {
+
+    private final CacheRegistry registry = new CacheRegistry(Map.of(
+            "type", "lfu",
+            "capacity", 2,
+            "caches", Map.of("pages", Map.of(
+                    "type", "lru",
+                    "capacity", 1,
+                    "stats", Map.of("enabled", true, "jmx", true)))));
+
+    @AfterEach
+    void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    void testNamedCachesAreSizedIndependently() {
+        Cache<Integer, String> products = registry.register(CacheRegistry.DEFAULT_CACHE,
+                registry.builder(CacheRegistry.DEFAULT_CACHE));
+        Cache<Integer, String> pages = registry.register("pages", registry.builder("pages"));
+
+        products.put(1, "One");
+        products.put(2, "Two");
+        pages.put(1, "First page");
+        pages.put(2, "Second page");
+
+        assertAll("Verify independent caches",
+                () -> assertEquals(Set.of(CacheRegistry.DEFAULT_CACHE, "pages"), registry.names()),
+                () -> assertEquals(Optional.of("One"), products.get(1)),
+                () -> assertEquals(Optional.of("Two"), products.get(2)),
+                () -> assertEquals(Optional.empty(), pages.get(1)),
+                () -> assertEquals(Optional.of("Second page"), pages.get(2)),
+                () -> assertEquals(1, pages.stats().missCount()),
+                () -> assertEquals(1, pages.stats().evictionCount(RemovalCause.SIZE)),
+                () -> assertEquals(0, products.stats().requestCount())
+        );
+    }
+
+    @Test
+    void testStatsArePublishedPerCacheAndUnregisteredOnClose() throws Exception {
+        ObjectName name = new ObjectName("clevertec.cache:type=CacheStats,name=\"pages\"");
+        registry.register("pages", registry.builder("pages"));
+
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        registry.close();
+        registry.close();
+
+        assertAll("Verify close",
+                () -> assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name)),
+                () -> assertFalse(registry.isRegistered("pages"))
+        );
+    }
+
+    @Test
+    void testInvalidRegistrationsAreRejected() {
+        registry.register("pages", registry.builder("pages"));
+
+        assertAll("Verify registry validation",
+                () -> assertThrows(IllegalArgumentException.class, () -> registry.builder("unknown")),
+                () -> assertThrows(IllegalArgumentException.class, () -> registry.cache("unknown")),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> registry.register("pages", registry.builder("pages"))),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> CacheBuilder.fromConfig(Map.of("capacity", 10, "refreshAfterWriteSeconds", 5)).build()),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> CacheBuilder.fromConfig(Map.of("maxWeightBytes", 1_000)).build())
+        );
+    }
+}
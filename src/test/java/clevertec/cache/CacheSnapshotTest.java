@@ -0,0 +1,75 @@
+package clevertec.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CacheSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSnapshotRoundTripKeepsKeysFrequenciesAndOrder() throws IOException {
+        Map<UUID, Integer> hotKeys = new LinkedHashMap<>();
+        for (int i = 100; i > 0; i--) {
+            hotKeys.put(UUID.randomUUID(), i);
+        }
+        Path file = directory.resolve("snapshot.bin");
+
+        CacheSnapshot.write(file, hotKeys);
+        Map<UUID, Integer> restored = CacheSnapshot.read(file);
+
+        assertAll("Verify snapshot round trip",
+                () -> assertEquals(hotKeys, restored),
+                () -> assertEquals(new ArrayList<>(hotKeys.keySet()), new ArrayList<>(restored.keySet())),
+                () -> assertEquals(12 + 100 * 20, Files.size(file), "Each entry should take 20 bytes")
+        );
+    }
+
+    @Test
+    void testUnknownVersionIsRejected() throws IOException {
+        Path file = directory.resolve("snapshot.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(0x43534E50);
+            out.writeInt(2);
+            out.writeInt(0);
+        }
+
+        assertThrows(IOException.class, () -> CacheSnapshot.read(file));
+    }
+
+    @Test
+    void testRewriteReplacesPreviousSnapshot() throws IOException {
+        Path file = directory.resolve("snapshot.bin");
+        CacheSnapshot.write(file, Map.of(UUID.randomUUID(), 1));
+        Map<UUID, Integer> latest = Map.of(UUID.randomUUID(), 3);
+
+        CacheSnapshot.write(file, latest);
+
+        assertAll("Verify rewrite",
+                () -> assertEquals(latest, CacheSnapshot.read(file)),
+                () -> assertEquals(1, directory.toFile().list().length, "Temporary file should not be left behind")
+        );
+    }
+
+    @Test
+    void testForeignFileIsRejected() throws IOException {
+        Path file = directory.resolve("snapshot.bin");
+        Files.writeString(file, "not a snapshot");
+
+        assertThrows(IOException.class, () -> CacheSnapshot.read(file));
+    }
+}
@@ -0,0 +1,77 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.LruCache;
+import clevertec.cache.impl.StatsCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CacheStatsTest {
+
+    private StatsCounter statsCounter;
+    private StatsCache<Integer, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        statsCounter = new StatsCounter();
+        cache = new StatsCache<>(new LruCache<>(2, (key, value) -> statsCounter.recordEviction(RemovalCause.SIZE)),
+                statsCounter);
+    }
+
+    @Test
+    void testHitsMissesAndEvictionsAreCounted() {
+        cache.put(1, "One");
+        cache.put(2, "Two");
+        cache.get(1);
+        cache.getIfPresent(3);
+        cache.getAll(List.of(1, 2, 4));
+        cache.put(3, "Three");
+
+        CacheStats stats = cache.stats();
+
+        assertAll("Verify request and eviction counters",
+                () -> assertEquals(3, stats.hitCount()),
+                () -> assertEquals(2, stats.missCount()),
+                () -> assertEquals(0.6, stats.hitRate(), 1e-9),
+                () -> assertEquals(1, stats.evictionCount(RemovalCause.SIZE)),
+                () -> assertEquals(0, stats.evictionCount(RemovalCause.EXPIRED)),
+                () -> assertEquals(1, stats.evictionCount())
+        );
+    }
+
+    @Test
+    void testLoadTimesAreAggregated() {
+        statsCounter.recordLoadSuccess(1_000);
+        statsCounter.recordLoadSuccess(3_000);
+        statsCounter.recordLoadFailure(1_000_000);
+
+        CacheStats stats = cache.stats();
+
+        assertAll("Verify load counters and histogram",
+                () -> assertEquals(2, stats.loadSuccessCount()),
+                () -> assertEquals(1, stats.loadFailureCount()),
+                () -> assertEquals(1_004_000, stats.totalLoadTimeNanos()),
+                () -> assertEquals(1_004_000 / 3.0, stats.averageLoadPenaltyNanos(), 1e-9),
+                () -> assertEquals(1_023, stats.loadTimePercentileNanos(0)),
+                () -> assertEquals(4_095, stats.loadTimePercentileNanos(50)),
+                () -> assertEquals(1_048_575, stats.loadTimePercentileNanos(99))
+        );
+    }
+
+    @Test
+    void testEmptyStats() {
+        CacheStats stats = new LruCache<Integer, String>(1).stats();
+
+        assertAll("Verify stats of a cache without recording",
+                () -> assertEquals(0, stats.requestCount()),
+                () -> assertEquals(1.0, stats.hitRate()),
+                () -> assertEquals(0, stats.loadTimePercentileNanos(99)),
+                () -> assertThrows(IllegalArgumentException.class, () -> stats.loadTimePercentileNanos(101))
+        );
+    }
+}
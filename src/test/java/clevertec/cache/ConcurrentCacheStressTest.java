@@ -0,0 +1,169 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.ConcurrentLfuCache;
+import clevertec.cache.impl.ConcurrentLruCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentCacheStressTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 20_000;
+    private static final int KEY_SPACE = 2_000;
+    private static final int CAPACITY = 256;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"lru", "lfu"})
+    void testConcurrentMixedOperationsKeepCacheConsistent(String type) throws Exception {
+        Cache<Integer, Integer> cache = createCache(type, CAPACITY);
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        AtomicInteger corruptedReads = new AtomicInteger();
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                int key = random.nextInt(KEY_SPACE);
+                int operation = random.nextInt(10);
+                if (operation < 7) {
+                    cache.get(key)
+                            .filter(value -> value != key * 31)
+                            .ifPresent(value -> corruptedReads.incrementAndGet());
+                }
+                else if (operation < 9) {
+                    cache.put(key, key * 31);
+                }
+                else {
+                    cache.delete(key);
+                }
+            }
+        }, errors);
+
+        int present = 0;
+        for (int key = 0; key < KEY_SPACE; key++) {
+            if (cache.get(key).isPresent()) {
+                present++;
+            }
+        }
+        int cachedEntries = present;
+        assertAll("Verify cache state after concurrent access",
+                () -> assertTrue(errors.isEmpty(), "No operation should fail: " + errors),
+                () -> assertEquals(0, corruptedReads.get(), "Every read should return the value stored for its key"),
+                () -> assertTrue(cachedEntries <= CAPACITY, "Cache should not exceed its capacity: " + cachedEntries)
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"lru", "lfu"})
+    void testConcurrentPutsAreNotLostWithoutEviction(String type) throws Exception {
+        Cache<Integer, Integer> cache = createCache(type, KEY_SPACE * 2);
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        AtomicInteger nextKey = new AtomicInteger();
+
+        runConcurrently(() -> {
+            int key;
+            while ((key = nextKey.getAndIncrement()) < KEY_SPACE) {
+                cache.put(key, key * 31);
+            }
+        }, errors);
+
+        assertTrue(errors.isEmpty(), "No operation should fail: " + errors);
+        for (int key = 0; key < KEY_SPACE; key++) {
+            assertEquals(Optional.of(key * 31), cache.get(key), "Key " + key + " should be present");
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"lru", "lfu"})
+    void testGetAllCollectsKeysFromAllSegmentsInRequestOrder(String type) {
+        Cache<Integer, Integer> cache = createCache(type, KEY_SPACE);
+        List<Integer> keys = new ArrayList<>();
+        for (int key = 100; key > 0; key--) {
+            cache.put(key, key * 31);
+            keys.add(key);
+        }
+        keys.add(KEY_SPACE + 1);
+
+        Map<Integer, Integer> values = cache.getAll(keys);
+
+        assertEquals(keys.subList(0, 100), new ArrayList<>(values.keySet()), "Keys should keep request order");
+        values.forEach((key, value) -> assertEquals(key * 31, value));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"lru", "lfu"})
+    void testPutAllAndDeleteAllSpanAllSegments(String type) {
+        Cache<Integer, Integer> cache = createCache(type, KEY_SPACE * 2);
+        Map<Integer, Integer> entries = new LinkedHashMap<>();
+        for (int key = 0; key < KEY_SPACE; key++) {
+            entries.put(key, key * 31);
+        }
+
+        cache.putAll(entries);
+        cache.deleteAll(List.of(0, 1, 2));
+
+        for (int key = 0; key < KEY_SPACE; key++) {
+            Optional<Integer> expected = key < 3 ? Optional.empty() : Optional.of(key * 31);
+            assertEquals(expected, cache.get(key), "Unexpected value for key " + key);
+        }
+    }
+
+    @Test
+    void testHotKeysMergeSegmentsByFrequency() {
+        Cache<Integer, Integer> cache = createCache("lfu", KEY_SPACE * 2);
+        for (int key = 0; key < 100; key++) {
+            cache.put(key, key);
+            for (int hit = 0; hit < key % 10; hit++) {
+                cache.get(key);
+            }
+        }
+
+        Map<Integer, Integer> hotKeys = cache.hotKeys(10);
+
+        assertEquals(10, hotKeys.size());
+        hotKeys.forEach((key, frequency) -> assertEquals(10, frequency, "Key " + key + " should be among the hottest"));
+    }
+
+    private Cache<Integer, Integer> createCache(String type, int capacity) {
+        return switch (type) {
+            case "lru" -> new ConcurrentLruCache<>(capacity, 8);
+            case "lfu" -> new ConcurrentLfuCache<>(capacity, 8);
+            default -> throw new IllegalArgumentException("Unsupported cache type: " + type);
+        };
+    }
+
+    private void runConcurrently(Runnable task, List<Throwable> errors) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < THREADS; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES), "Stress run should finish in time");
+    }
+}
@@ -0,0 +1,212 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.ExpiringCache;
+import clevertec.cache.impl.LruCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExpiringCacheTest {
+
+    private final AtomicLong time = new AtomicLong();
+    private final Ticker ticker = time::get;
+    private LruCache<Integer, String> delegate;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new LruCache<>(10);
+    }
+
+    @Test
+    void testEntryExpiresAfterWrite() {
+        ExpiringCache<Integer, String> cache = createCache(Duration.ofMinutes(10), Duration.ZERO);
+        cache.put(1, "One");
+
+        advance(Duration.ofMinutes(9));
+        assertEquals(Optional.of("One"), cache.get(1), "Entry should be present before its deadline");
+
+        advance(Duration.ofMinutes(1));
+        assertAll("Verify lazy expiration on access",
+                () -> assertEquals(Optional.empty(), cache.get(1)),
+                () -> assertEquals(Optional.empty(), delegate.get(1))
+        );
+    }
+
+    @Test
+    void testRewriteRestartsExpireAfterWrite() {
+        ExpiringCache<Integer, String> cache = createCache(Duration.ofSeconds(30), Duration.ZERO);
+        cache.put(1, "One");
+        advance(Duration.ofSeconds(20));
+        cache.put(1, "Updated One");
+        advance(Duration.ofSeconds(20));
+
+        assertEquals(Optional.of("Updated One"), cache.get(1), "Rewritten entry should get a new deadline");
+    }
+
+    @Test
+    void testAccessExtendsExpireAfterAccess() {
+        ExpiringCache<Integer, String> cache = createCache(Duration.ZERO, Duration.ofSeconds(5));
+        cache.put(1, "One");
+        for (int i = 0; i < 10; i++) {
+            advance(Duration.ofSeconds(4));
+            cache.cleanUp();
+            assertEquals(Optional.of("One"), cache.get(1), "Accessed entry should stay alive");
+        }
+
+        advance(Duration.ofSeconds(6));
+        cache.cleanUp();
+        assertEquals(Optional.empty(), delegate.get(1), "Idle entry should be removed by clean up");
+    }
+
+    @Test
+    void testCleanUpRemovesExpiredEntriesWithoutAccess() {
+        ExpiringCache<Integer, String> cache = createCache(Duration.ofSeconds(2), Duration.ZERO);
+        cache.put(1, "One");
+        cache.put(2, "Two");
+        advance(Duration.ofSeconds(1));
+        cache.put(3, "Three");
+
+        advance(Duration.ofMillis(1_500));
+        cache.cleanUp();
+
+        assertAll("Verify background clean up",
+                () -> assertEquals(Optional.empty(), delegate.get(1)),
+                () -> assertEquals(Optional.empty(), delegate.get(2)),
+                () -> assertEquals(Optional.of("Three"), delegate.get(3))
+        );
+    }
+
+    @Test
+    void testLongDurationsCascadeThroughWheelLevels() {
+        ExpiringCache<Integer, String> cache = createCache(Duration.ofHours(30), Duration.ZERO);
+        cache.put(1, "One");
+
+        for (int hour = 0; hour < 29; hour++) {
+            advance(Duration.ofHours(1));
+            cache.cleanUp();
+        }
+        assertEquals(Optional.of("One"), delegate.get(1), "Entry should survive until its deadline");
+
+        advance(Duration.ofHours(1));
+        cache.cleanUp();
+        assertEquals(Optional.empty(), delegate.get(1), "Entry should be removed after its deadline");
+    }
+
+    @Test
+    void testMultiDayDurationExpiresOnTime() {
+        ExpiringCache<Integer, String> cache = createCache(Duration.ofDays(5), Duration.ZERO);
+        cache.put(1, "One");
+
+        for (int hour = 0; hour < 5 * 24 - 1; hour++) {
+            advance(Duration.ofHours(1));
+            cache.cleanUp();
+        }
+        assertEquals(Optional.of("One"), delegate.get(1), "Entry should survive until its deadline");
+
+        advance(Duration.ofHours(1));
+        cache.cleanUp();
+        assertEquals(Optional.empty(), delegate.get(1), "Entry should be removed after its deadline");
+    }
+
+    @Test
+    void testDeleteCancelsExpiration() {
+        ExpiringCache<Integer, String> cache = createCache(Duration.ofSeconds(1), Duration.ZERO);
+        cache.put(1, "One");
+        cache.delete(1);
+        delegate.put(1, "Direct One");
+
+        advance(Duration.ofSeconds(2));
+        cache.cleanUp();
+
+        assertEquals(Optional.of("Direct One"), delegate.get(1), "Deleted timer should not remove newer entries");
+    }
+
+    @Test
+    void testRequiresAtLeastOneDuration() {
+        assertThrows(IllegalArgumentException.class, () -> createCache(Duration.ZERO, Duration.ZERO));
+    }
+
+    @Test
+    void testExpirationListenerReceivesExpiredEntries() {
+        Map<Integer, String> expired = new HashMap<>();
+        ExpiringCache<Integer, String> cache = new ExpiringCache<>(delegate, Duration.ofSeconds(10), Duration.ZERO,
+                ticker, null, expired::put);
+        cache.put(1, "One");
+        cache.put(2, "Two");
+        cache.delete(2);
+
+        advance(Duration.ofSeconds(10));
+        cache.cleanUp();
+
+        assertEquals(Map.of(1, "One"), expired, "Only the expired entry should be reported");
+    }
+
+    @Test
+    void testCapacityEvictionCancelsTimer() {
+        AtomicReference<ExpiringCache<Integer, String>> layer = new AtomicReference<>();
+        ExpiringCache<Integer, String> cache = new ExpiringCache<>(
+                new LruCache<>(2, (key, value) -> layer.get().evicted(key)),
+                Duration.ofSeconds(10), Duration.ZERO, ticker, null);
+        layer.set(cache);
+        cache.put(1, "One");
+        cache.put(2, "Two");
+        cache.put(3, "Three");
+        cache.put(1, "One again");
+
+        assertAll("Verify timers of evicted entries",
+                () -> assertEquals(2, cache.timerCount()),
+                () -> assertEquals(Optional.empty(), cache.get(2)),
+                () -> assertEquals(Optional.of("One again"), cache.get(1))
+        );
+    }
+
+    @Test
+    void testUntimedDelegateValueGetsTimerOnRead() {
+        ExpiringCache<Integer, String> cache = createCache(Duration.ofMinutes(10), Duration.ZERO);
+        delegate.put(1, "Restored");
+
+        Optional<String> restored = cache.get(1);
+        int timers = cache.timerCount();
+        advance(Duration.ofMinutes(10));
+
+        assertAll("Verify adopted timer",
+                () -> assertEquals(Optional.of("Restored"), restored),
+                () -> assertEquals(1, timers),
+                () -> assertEquals(Optional.empty(), cache.get(1)),
+                () -> assertEquals(Optional.empty(), delegate.get(1))
+        );
+    }
+
+    @Test
+    void testInvalidateAllRemovesEntriesAndTimers() {
+        ExpiringCache<Integer, String> cache = createCache(Duration.ofMinutes(10), Duration.ZERO);
+        cache.put(1, "One");
+        cache.put(2, "Two");
+
+        cache.invalidateAll();
+
+        assertAll("Verify invalidation",
+                () -> assertEquals(0, cache.timerCount()),
+                () -> assertEquals(0, delegate.size()),
+                () -> assertEquals(Optional.empty(), cache.get(1))
+        );
+    }
+
+    private ExpiringCache<Integer, String> createCache(Duration expireAfterWrite, Duration expireAfterAccess) {
+        return new ExpiringCache<>(delegate, expireAfterWrite, expireAfterAccess, ticker, null);
+    }
+
+    private void advance(Duration duration) {
+        time.addAndGet(duration.toNanos());
+    }
+}
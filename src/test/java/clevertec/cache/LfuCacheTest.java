@@ -1,9 +1,13 @@
 package clevertec.cache;
 
+import clevertec.cache.impl.ConcurrentLfuCache;
 import clevertec.cache.impl.LfuCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -80,4 +84,179 @@ class LfuCacheTest {
                 () -> assertEquals(Optional.of("Three"), cache.get(3))
         );
     }
+
+    @Test
+    void testEqualFrequencyEvictsOldestEntry() {
+        cache.put(1, "One");
+        cache.put(2, "Two");
+        cache.get(2);
+        cache.get(1);
+        cache.put(3, "Three");
+
+        assertAll("Verify tie-breaking by bucket insertion order",
+                () -> assertEquals(Optional.empty(), cache.get(2)),
+                () -> assertEquals(Optional.of("One"), cache.get(1)),
+                () -> assertEquals(Optional.of("Three"), cache.get(3))
+        );
+    }
+
+    @Test
+    void testFrequencyGrowsOnAccessAndUpdate() {
+        cache.put(1, "One");
+        cache.get(1);
+        cache.put(1, "Updated One");
+
+        assertAll("Verify frequency tracking",
+                () -> assertEquals(3, cache.frequency(1)),
+                () -> assertEquals(0, cache.frequency(2)),
+                () -> assertEquals(Optional.of("Updated One"), cache.get(1))
+        );
+    }
+
+    @Test
+    void testInvalidateAllEmptiesCacheAndKeepsItUsable() {
+        cache.put(1, "One");
+        cache.get(1);
+        cache.put(2, "Two");
+
+        cache.invalidateAll();
+        cache.put(3, "Three");
+
+        assertAll("Verify invalidation",
+                () -> assertEquals(1, cache.size()),
+                () -> assertEquals(Optional.empty(), cache.get(1)),
+                () -> assertEquals(Optional.of("Three"), cache.get(3))
+        );
+    }
+
+    @Test
+    void testRestoredFrequencyProtectsKeyFromEviction() {
+        cache = new LfuCache<>(3);
+        cache.put(1, "One");
+        cache.put(2, "Two");
+        cache.put(3, "Three");
+        cache.get(3);
+        cache.get(3);
+
+        cache.restoreFrequency(1, 7);
+        cache.restoreFrequency(2, 2);
+        cache.restoreFrequency(3, 1);
+        cache.restoreFrequency(4, 9);
+        cache.put(4, "Four");
+
+        assertAll("Verify restored frequencies",
+                () -> assertEquals(7, cache.frequency(1)),
+                () -> assertEquals(3, cache.frequency(3), "Frequency should never decrease"),
+                () -> assertEquals(Optional.empty(), cache.get(2)),
+                () -> assertEquals(List.of(1, 3, 4), new ArrayList<>(cache.hotKeys(3).keySet()))
+        );
+    }
+
+    @Test
+    void testDeleteThenReinsertStartsFromFirstFrequency() {
+        cache.put(1, "One");
+        cache.get(1);
+        cache.delete(1);
+        cache.put(1, "One");
+
+        assertEquals(1, cache.frequency(1), "Reinserted key should start with frequency 1");
+    }
+
+    @Test
+    void testHotKeysAreOrderedByFrequency() {
+        cache = new LfuCache<>(3);
+        cache.put(1, "One");
+        cache.put(2, "Two");
+        cache.put(3, "Three");
+        cache.get(2);
+        cache.get(2);
+        cache.get(3);
+
+        assertAll("Verify hot keys",
+                () -> assertEquals(List.of(2, 3, 1), new ArrayList<>(cache.hotKeys(3).keySet())),
+                () -> assertEquals(Map.of(2, 3, 3, 2), cache.hotKeys(2))
+        );
+    }
+
+    @Test
+    void testGetIfPresentKeepsFrequenciesWhenBucketsAreReused() {
+        cache = new LfuCache<>(3);
+        cache.put(1, "One");
+        cache.put(2, "Two");
+        cache.put(3, "Three");
+        for (int i = 0; i < 5; i++) {
+            cache.getIfPresent(1);
+            cache.getIfPresent(2);
+        }
+        cache.getIfPresent(3);
+
+        assertAll("Verify frequencies after bucket reuse",
+                () -> assertEquals("One", cache.getIfPresent(1)),
+                () -> assertNull(cache.getIfPresent(4)),
+                () -> assertEquals(7, cache.frequency(1)),
+                () -> assertEquals(6, cache.frequency(2)),
+                () -> assertEquals(2, cache.frequency(3)),
+                () -> assertEquals(List.of(1, 2, 3), new ArrayList<>(cache.hotKeys(3).keySet()))
+        );
+    }
+
+    @Test
+    void testWeightedEvictionRemovesLeastFrequentBeforeInsert() {
+        List<Integer> evicted = new ArrayList<>();
+        LfuCache<Integer, String> weighted = new LfuCache<>(10, (key, value) -> value.length(),
+                (key, value) -> evicted.add(key));
+        weighted.put(1, "aaaa");
+        weighted.put(2, "bbbb");
+        weighted.put(3, "cc");
+        weighted.get(1);
+        weighted.get(2);
+        weighted.get(3);
+        weighted.get(3);
+
+        weighted.put(4, "dddddd");
+
+        assertAll("Verify weighted eviction",
+                () -> assertEquals(List.of(1, 2), evicted),
+                () -> assertEquals(8, weighted.weight()),
+                () -> assertEquals(Optional.of("dddddd"), weighted.get(4)),
+                () -> assertEquals(Optional.of("cc"), weighted.get(3))
+        );
+    }
+
+    @Test
+    void testWeightGrowthEvictsOthersButNotUpdatedKey() {
+        LfuCache<Integer, String> weighted = new LfuCache<>(6, (key, value) -> value.length(), EvictionListener.none());
+        weighted.put(1, "a");
+        weighted.put(2, "bb");
+
+        weighted.put(1, "aaaaa");
+
+        assertAll("Verify update eviction",
+                () -> assertEquals(Optional.empty(), weighted.get(2)),
+                () -> assertEquals(Optional.of("aaaaa"), weighted.get(1)),
+                () -> assertEquals(5, weighted.weight())
+        );
+    }
+
+    @Test
+    void testSmallConcurrentCacheIsNotSplitIntoTinySegments() {
+        ConcurrentLfuCache<Integer, String> small = new ConcurrentLfuCache<>(5, 4);
+        ConcurrentLfuCache<Integer, String> large = new ConcurrentLfuCache<>(64, 4);
+        small.put(1, "one");
+        small.put(2, "two");
+        small.get(1);
+        small.get(2);
+        small.put(3, "three");
+        small.put(4, "four");
+        small.put(5, "five");
+
+        small.put(6, "six");
+
+        assertAll("Verify segment sizing",
+                () -> assertEquals(1, small.segmentCount()),
+                () -> assertEquals(4, large.segmentCount()),
+                () -> assertEquals(Optional.of("one"), small.get(1)),
+                () -> assertEquals(Optional.of("two"), small.get(2))
+        );
+    }
 }
@@ -1,13 +1,19 @@
 package clevertec.cache;
 
+import clevertec.cache.impl.ConcurrentLruCache;
 import clevertec.cache.impl.LruCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LruCacheTest {
 
@@ -44,8 +50,99 @@ public class LruCacheTest {
         assertEquals(Optional.empty(), cache.get(1), "Key 1 should be deleted from cache");
     }
 
+    @Test
+    public void testGetRefreshesRecency() {
+        cache.put(1, "One");
+        cache.put(2, "Two");
+        cache.get(1);
+        cache.put(3, "Three");
+        assertEquals(Optional.empty(), cache.get(2), "Key 2 should be evicted as key 1 was accessed more recently");
+        assertEquals(Optional.of("One"), cache.get(1), "Key 1 should survive eviction after being accessed");
+    }
+
+    @Test
+    public void testDeleteFreesCapacity() {
+        cache.put(1, "One");
+        cache.put(2, "Two");
+        cache.delete(1);
+        cache.put(3, "Three");
+        assertEquals(Optional.of("Two"), cache.get(2), "Key 2 should not be evicted after key 1 was deleted");
+        assertEquals(Optional.of("Three"), cache.get(3), "Cache should return 'Three' for key 3");
+    }
+
+    @Test
+    public void testGetAllReturnsOnlyPresentKeys() {
+        cache.put(1, "One");
+        cache.put(2, "Two");
+        assertEquals(Map.of(1, "One", 2, "Two"), cache.getAll(List.of(1, 2, 3)),
+                "Only cached keys should be returned");
+    }
+
     @Test
     public void testNonExistentKey() {
         assertEquals(Optional.empty(), cache.get(99), "Accessing a non-existent key should return empty Optional");
     }
+
+    @Test
+    public void testUuidKeysMixedWithOtherKeys() {
+        LruCache<Object, String> mixed = new LruCache<>(3);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        mixed.put(first, "First");
+        mixed.put(second, "Second");
+
+        mixed.put("third", "Third");
+        mixed.delete(second);
+
+        assertEquals(Optional.of("First"), mixed.get(first), "UUID key should survive switching the index");
+        assertEquals(Optional.of("Third"), mixed.get("third"));
+        assertEquals(Optional.empty(), mixed.get(second));
+        assertEquals(2, mixed.size());
+    }
+
+    @Test
+    public void testWeightedEvictionKeepsTotalWeightWithinMax() {
+        List<Integer> evicted = new ArrayList<>();
+        LruCache<Integer, String> weighted = new LruCache<>(10, (key, value) -> value.length(),
+                (key, value) -> evicted.add(key));
+        weighted.put(1, "aaaa");
+        weighted.put(2, "bbbb");
+        weighted.get(1);
+
+        weighted.put(3, "cccccc");
+
+        assertEquals(List.of(2), evicted, "Least recently used key should be evicted to free weight");
+        assertEquals(10, weighted.weight());
+        assertEquals(Optional.of("aaaa"), weighted.get(1));
+    }
+
+    @Test
+    public void testEntryHeavierThanCacheIsNotStored() {
+        List<Integer> evicted = new ArrayList<>();
+        LruCache<Integer, String> weighted = new LruCache<>(4, (key, value) -> value.length(),
+                (key, value) -> evicted.add(key));
+        weighted.put(1, "a");
+        weighted.put(2, "bb");
+
+        weighted.put(2, "too heavy");
+
+        assertEquals(List.of(2), evicted, "Heavy value should go straight to the listener");
+        assertEquals(Optional.empty(), weighted.get(2), "Stale value should not stay in the cache");
+        assertEquals(Optional.of("a"), weighted.get(1), "Lighter entries should not be evicted");
+        assertEquals(1, weighted.weight());
+    }
+
+    @Test
+    public void testStripedHotKeysInterleaveSegmentsByRecency() {
+        ConcurrentLruCache<Integer, String> striped = new ConcurrentLruCache<>(64, 4);
+        for (int i = 0; i < 40; i++) {
+            striped.put(i, "Value " + i);
+        }
+        striped.get(7);
+
+        Map<Integer, Integer> hotKeys = striped.hotKeys(striped.segmentCount());
+
+        assertEquals(striped.segmentCount(), hotKeys.size());
+        assertTrue(hotKeys.containsKey(7), "Most recently used key should be reported first in its segment");
+    }
 }
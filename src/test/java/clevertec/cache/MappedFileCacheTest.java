@@ -0,0 +1,213 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.MappedFileCache;
+import clevertec.data.ProductTestData;
+import clevertec.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedFileCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testPutAndGetRoundTripsAllFields() {
+        Product product = product(UUID.randomUUID(), "Молоко 3,2%");
+        product.setCreated(LocalDateTime.of(2023, 10, 15, 12, 34, 56, 789_000_000));
+
+        try (MappedFileCache cache = new MappedFileCache(directory.resolve("l2.bin"), 3, 64)) {
+            cache.put(product.getId(), product);
+
+            assertEquals(Optional.of(product), cache.get(product.getId()));
+        }
+    }
+
+    @Test
+    void testEntriesSurviveReopen() {
+        Path file = directory.resolve("l2.bin");
+        Product first = product(UUID.randomUUID(), "One");
+        Product second = product(UUID.randomUUID(), "Two");
+        Product updated = product(second.getId(), "Updated Two");
+        try (MappedFileCache cache = new MappedFileCache(file, 3, 64)) {
+            cache.put(first.getId(), first);
+            cache.put(second.getId(), second);
+            cache.put(second.getId(), updated);
+            cache.delete(first.getId());
+        }
+
+        try (MappedFileCache reopened = new MappedFileCache(file, 3, 64)) {
+            assertAll("Verify state restored from the log",
+                    () -> assertEquals(1, reopened.size()),
+                    () -> assertTrue(reopened.get(first.getId()).isEmpty(), "Deleted key should stay deleted"),
+                    () -> assertEquals(Optional.of(updated), reopened.get(second.getId()))
+            );
+        }
+    }
+
+    @Test
+    void testOldestEntryIsEvictedAtCapacity() {
+        try (MappedFileCache cache = new MappedFileCache(directory.resolve("l2.bin"), 2, 64)) {
+            List<Product> products = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Product product = product(UUID.randomUUID(), "Product " + i);
+                products.add(product);
+                cache.put(product.getId(), product);
+            }
+
+            assertAll("Verify eviction by age",
+                    () -> assertEquals(2, cache.size()),
+                    () -> assertTrue(cache.get(products.get(0).getId()).isEmpty()),
+                    () -> assertEquals(Optional.of(products.get(2)), cache.get(products.get(2).getId()))
+            );
+        }
+    }
+
+    @Test
+    void testRepeatedUpdatesReuseSlots() throws IOException {
+        Path file = directory.resolve("l2.bin");
+        UUID id = UUID.randomUUID();
+        long initialSize;
+        try (MappedFileCache cache = new MappedFileCache(file, 2, 64)) {
+            initialSize = Files.size(file);
+            for (int i = 0; i < 100; i++) {
+                cache.put(id, product(id, "Version " + i));
+            }
+
+            assertEquals("Version 99", cache.get(id).orElseThrow().getName());
+        }
+        try (MappedFileCache reopened = new MappedFileCache(file, 2, 64)) {
+            assertAll("Verify latest version in a fixed-size file",
+                    () -> assertEquals("Version 99", reopened.get(id).orElseThrow().getName()),
+                    () -> assertEquals(initialSize, Files.size(file))
+            );
+        }
+    }
+
+    @Test
+    void testExpiredEntriesAreNeitherReadNorRecovered() {
+        Path file = directory.resolve("l2.bin");
+        Duration ttl = Duration.ofMinutes(10);
+        Product fresh = product(UUID.randomUUID(), "Fresh");
+        Product aging = product(UUID.randomUUID(), "Aging");
+        Product expired = product(UUID.randomUUID(), "Expired");
+        try (MappedFileCache cache = new MappedFileCache(file, 3, 64, ttl)) {
+            cache.put(fresh.getId(), fresh);
+            cache.put(aging.getId(), aging, Instant.now().minus(Duration.ofMinutes(9)));
+            cache.put(expired.getId(), expired, Instant.now().minus(Duration.ofMinutes(11)));
+
+            assertAll("Verify expiration on read",
+                    () -> assertEquals(Optional.of(aging), cache.get(aging.getId())),
+                    () -> assertTrue(cache.get(expired.getId()).isEmpty())
+            );
+        }
+
+        Clock later = Clock.offset(Clock.systemUTC(), Duration.ofMinutes(2));
+        try (MappedFileCache reopened = new MappedFileCache(file, 3, 64, ttl, later)) {
+            assertAll("Verify expiration on recovery",
+                    () -> assertEquals(1, reopened.size()),
+                    () -> assertEquals(Optional.of(fresh), reopened.get(fresh.getId())),
+                    () -> assertTrue(reopened.get(aging.getId()).isEmpty())
+            );
+        }
+    }
+
+    @Test
+    void testInvalidateAllSurvivesReopen() {
+        Path file = directory.resolve("l2.bin");
+        Product first = product(UUID.randomUUID(), "One");
+        Product second = product(UUID.randomUUID(), "Two");
+        try (MappedFileCache cache = new MappedFileCache(file, 2, 64)) {
+            cache.put(first.getId(), first);
+            cache.invalidateAll();
+            cache.put(second.getId(), second);
+        }
+
+        try (MappedFileCache reopened = new MappedFileCache(file, 2, 64)) {
+            assertAll("Verify invalidation is persisted",
+                    () -> assertEquals(1, reopened.size()),
+                    () -> assertTrue(reopened.get(first.getId()).isEmpty()),
+                    () -> assertEquals(Optional.of(second), reopened.get(second.getId()))
+            );
+        }
+    }
+
+    @Test
+    void testReopenWithSmallerCapacityKeepsNewestEntries() {
+        Path file = directory.resolve("l2.bin");
+        List<Product> products = new ArrayList<>();
+        try (MappedFileCache cache = new MappedFileCache(file, 4, 64)) {
+            for (int i = 0; i < 4; i++) {
+                Product product = product(UUID.randomUUID(), "Product " + i);
+                products.add(product);
+                cache.put(product.getId(), product);
+            }
+        }
+
+        try (MappedFileCache reopened = new MappedFileCache(file, 3, 64)) {
+            assertAll("Verify trimming on recovery",
+                    () -> assertEquals(3, reopened.size()),
+                    () -> assertTrue(reopened.get(products.get(0).getId()).isEmpty()),
+                    () -> assertEquals(Optional.of(products.get(3)), reopened.get(products.get(3).getId()))
+            );
+        }
+    }
+
+    @Test
+    void testIncompatibleFileIsReset() throws IOException {
+        Path file = directory.resolve("l2.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+        try (MappedFileCache cache = new MappedFileCache(file, 2, 64)) {
+            Product product = product(UUID.randomUUID(), "One");
+            cache.put(product.getId(), product);
+
+            assertAll("Verify reset file is usable",
+                    () -> assertEquals(1, cache.size()),
+                    () -> assertEquals(Optional.of(product), cache.get(product.getId()))
+            );
+        }
+    }
+
+    @Test
+    void testProductWithLongNameIsNotStored() {
+        try (MappedFileCache cache = new MappedFileCache(directory.resolve("l2.bin"), 2, 8)) {
+            Product product = product(UUID.randomUUID(), "Very long product name");
+            cache.put(product.getId(), product);
+
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    void testNonPositiveCapacityIsRejected() {
+        Path file = directory.resolve("l2.bin");
+
+        assertThrows(IllegalArgumentException.class, () -> new MappedFileCache(file, 0, 64));
+    }
+
+    private Product product(UUID id, String name) {
+        return ProductTestData.builder()
+                .withId(id)
+                .withName(name)
+                .build()
+                .buildProduct();
+    }
+}
@@ -0,0 +1,198 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.OffHeapProductCache;
+import clevertec.data.ProductTestData;
+import clevertec.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapProductCacheTest {
+
+    private OffHeapProductCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OffHeapProductCache(3);
+    }
+
+    @Test
+    void testPutAndGetRoundTripsAllFields() {
+        Product product = product(UUID.randomUUID(), "Молоко 3,2% «Домик»");
+        product.setCreated(LocalDateTime.of(2023, 10, 15, 12, 34, 56, 789_000_000));
+
+        cache.put(product.getId(), product);
+        Optional<Product> cached = cache.get(product.getId());
+
+        assertAll("Verify off-heap round trip",
+                () -> assertEquals(Optional.of(product), cached),
+                () -> assertNotSame(product, cached.get(), "Value should be decoded into a new object")
+        );
+    }
+
+    @Test
+    void testMissingFieldsAreKeptAsNull() {
+        Product product = Product.builder()
+                .id(UUID.randomUUID())
+                .build();
+
+        cache.put(product.getId(), product);
+
+        assertEquals(Optional.of(product), cache.get(product.getId()));
+    }
+
+    @Test
+    void testUpdateAndDelete() {
+        UUID id = UUID.randomUUID();
+        cache.put(id, product(id, "One"));
+        cache.put(id, product(id, "Updated One"));
+
+        assertEquals("Updated One", cache.get(id).map(Product::getName).orElseThrow());
+        assertEquals(1, cache.size());
+
+        cache.delete(id);
+        assertAll("Verify delete",
+                () -> assertEquals(Optional.empty(), cache.get(id)),
+                () -> assertEquals(0, cache.size())
+        );
+    }
+
+    @Test
+    void testInvalidateAllFreesEverySlot() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        cache.put(first, product(first, "One"));
+        cache.put(second, product(second, "Two"));
+
+        cache.invalidateAll();
+        for (int i = 0; i < 3; i++) {
+            UUID id = UUID.randomUUID();
+            cache.put(id, product(id, "Product " + i));
+        }
+
+        assertAll("Verify invalidation",
+                () -> assertEquals(3, cache.size()),
+                () -> assertEquals(Optional.empty(), cache.get(first)),
+                () -> assertEquals(Optional.empty(), cache.get(second)),
+                () -> assertTrue(cache.hotKeys(10).keySet().stream().noneMatch(key -> key.equals(first) || key.equals(second)))
+        );
+    }
+
+    @Test
+    void testClockEvictionKeepsReferencedEntries() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        UUID fourth = UUID.randomUUID();
+        cache.put(first, product(first, "One"));
+        cache.put(second, product(second, "Two"));
+        cache.put(third, product(third, "Three"));
+        cache.get(first);
+
+        cache.put(fourth, product(fourth, "Four"));
+
+        assertAll("Verify CLOCK eviction",
+                () -> assertEquals(Optional.empty(), cache.get(second), "Unreferenced entry should be evicted"),
+                () -> assertTrue(cache.get(first).isPresent(), "Referenced entry should get a second chance"),
+                () -> assertTrue(cache.get(third).isPresent()),
+                () -> assertTrue(cache.get(fourth).isPresent()),
+                () -> assertEquals(3, cache.size())
+        );
+    }
+
+    @Test
+    void testTooLongNameIsNotCached() {
+        cache = new OffHeapProductCache(3, 8);
+        UUID id = UUID.randomUUID();
+        cache.put(id, product(id, "Short"));
+
+        cache.put(id, product(id, "Much longer name"));
+
+        assertEquals(Optional.empty(), cache.get(id), "Stale short-name entry should not survive the update");
+    }
+
+    @Test
+    void testDefaultNameLimitFitsCyrillicColumnMaximum() {
+        cache = new OffHeapProductCache(3);
+        UUID id = UUID.randomUUID();
+        String name = "Я".repeat(255);
+
+        cache.put(id, product(id, name));
+
+        assertEquals(Optional.of(name), cache.get(id).map(Product::getName));
+    }
+
+    @Test
+    void testKeyMustMatchProductId() {
+        UUID id = UUID.randomUUID();
+
+        cache.put(id, product(UUID.randomUUID(), "One"));
+
+        assertEquals(Optional.empty(), cache.get(id));
+    }
+
+    @Test
+    void testRandomOperationsMatchHashMapModel() {
+        cache = new OffHeapProductCache(4_096, 32);
+        Map<UUID, Product> model = new HashMap<>();
+        UUID[] keys = new UUID[2_000];
+        Random random = new Random(42);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new UUID(random.nextInt(64), random.nextLong());
+        }
+
+        for (int operation = 0; operation < 100_000; operation++) {
+            UUID key = keys[random.nextInt(keys.length)];
+            if (random.nextInt(3) == 0) {
+                cache.delete(key);
+                model.remove(key);
+            }
+            else {
+                Product product = product(key, "Product " + operation);
+                cache.put(key, product);
+                model.put(key, product);
+            }
+        }
+
+        assertEquals(model.size(), cache.size());
+        for (UUID key : keys) {
+            assertEquals(Optional.ofNullable(model.get(key)), cache.get(key), "Unexpected value for key " + key);
+        }
+    }
+
+    @Test
+    void testOffHeapFootprintIsFixedAtConstruction() {
+        long footprint = cache.offHeapBytes();
+        for (int i = 0; i < 100; i++) {
+            UUID id = UUID.randomUUID();
+            cache.put(id, product(id, "Product " + i));
+        }
+
+        assertEquals(footprint, cache.offHeapBytes());
+    }
+
+    @Test
+    void testNonPositiveCapacityIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapProductCache(0));
+    }
+
+    private Product product(UUID id, String name) {
+        return ProductTestData.builder()
+                .withId(id)
+                .withName(name)
+                .build()
+                .buildProduct();
+    }
+}
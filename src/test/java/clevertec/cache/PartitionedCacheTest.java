@@ -0,0 +1,238 @@
+package clevertec.cache;
+
+import clevertec.cache.cluster.CacheNodeClient;
+import clevertec.cache.cluster.CacheNodeServer;
+import clevertec.cache.cluster.HashRing;
+import clevertec.cache.cluster.PartitionedCache;
+import clevertec.cache.impl.ConcurrentLruCache;
+import clevertec.entity.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartitionedCacheTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    void testRingSpreadsKeysEvenlyAndMovesFewKeysOnJoin() {
+        HashRing three = new HashRing(List.of("node-1", "node-2", "node-3"), 128);
+        HashRing four = new HashRing(List.of("node-1", "node-2", "node-3", "node-4"), 128);
+        Map<String, Integer> owned = new HashMap<>();
+        int moved = 0;
+        int keys = 30_000;
+        for (int i = 0; i < keys; i++) {
+            UUID key = UUID.randomUUID();
+            owned.merge(three.owner(key), 1, Integer::sum);
+            if (!three.owner(key).equals(four.owner(key))) {
+                moved++;
+                assertEquals("node-4", four.owner(key), "Keys should only move to the new node");
+            }
+        }
+        int movedKeys = moved;
+
+        assertAll("Verify ring distribution",
+                () -> assertEquals(3, owned.size()),
+                () -> owned.values().forEach(count ->
+                        assertTrue(Math.abs(count - keys / 3) < keys / 3 * 0.2, "Unbalanced share: " + count)),
+                () -> assertTrue(movedKeys < keys * 0.35, "Too many keys moved: " + movedKeys)
+        );
+    }
+
+    @Test
+    void testNodesShareCapacityAndServeEachOtherPartitions() {
+        int nodeCount = 3;
+        int capacityPerNode = 150;
+        List<PartitionedCache> nodes = startCluster(nodeCount, capacityPerNode);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < nodeCount * capacityPerNode * 2 / 3; i++) {
+            Product product = product("Продукт " + i);
+            products.add(product);
+            nodes.get(0).put(product.getId(), product);
+        }
+
+        PartitionedCache reader = nodes.get(nodeCount - 1);
+        int found = 0;
+        for (Product product : products) {
+            if (product.equals(reader.getIfPresent(product.getId()))) {
+                found++;
+            }
+        }
+        int foundCount = found;
+
+        assertAll("Verify partitioned capacity",
+                () -> assertEquals(products.size(), foundCount),
+                () -> assertTrue(products.size() > capacityPerNode, "Cluster should hold more than one node"),
+                () -> assertTrue(reader.getRemoteHitCount() > 0),
+                () -> assertEquals(0, reader.getRemoteFailureCount())
+        );
+    }
+
+    @Test
+    void testNearCacheServesRepeatedRemoteReadsAndDeleteReachesOwner() {
+        List<PartitionedCache> nodes = startCluster(2, 100);
+        PartitionedCache local = nodes.get(0);
+        Product product = remoteProduct(local, "node-1");
+        nodes.get(1).put(product.getId(), product);
+
+        Product first = local.getIfPresent(product.getId());
+        Product second = local.getIfPresent(product.getId());
+        local.delete(product.getId());
+
+        assertAll("Verify near cache and delete",
+                () -> assertEquals(product, first),
+                () -> assertEquals(product, second),
+                () -> assertEquals(1, local.getRemoteHitCount()),
+                () -> assertEquals(1, local.getNearHitCount()),
+                () -> assertNull(nodes.get(1).getIfPresent(product.getId())),
+                () -> assertNull(local.getIfPresent(product.getId()))
+        );
+    }
+
+    @Test
+    void testUnavailableOwnerIsTreatedAsMiss() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        HashRing ring = new HashRing(List.of("node-1", "node-2"), 128);
+        CacheNodeClient client = new CacheNodeClient(new InetSocketAddress("localhost", closedPort), 1, TIMEOUT);
+        PartitionedCache cache = new PartitionedCache("node-1", ring, new ConcurrentLruCache<>(10),
+                new ConcurrentLruCache<>(10), Map.of("node-2", client));
+        resources.add(cache);
+        UUID remoteKey = remoteKey(ring, "node-1");
+
+        Product result = cache.getIfPresent(remoteKey);
+
+        assertAll("Verify unavailable owner",
+                () -> assertNull(result),
+                () -> assertEquals(1, cache.getRemoteFailureCount())
+        );
+    }
+
+    @Test
+    void testInvalidateLocalClearsOnlyOwnPartsOfCache() {
+        List<PartitionedCache> nodes = startCluster(2, 100);
+        PartitionedCache local = nodes.get(0);
+        PartitionedCache owner = nodes.get(1);
+        Product product = remoteProduct(local, "node-1");
+        owner.put(product.getId(), product);
+        local.getIfPresent(product.getId());
+
+        local.invalidateLocal(List.of(product.getId()));
+        Product afterNearInvalidation = local.getIfPresent(product.getId());
+        owner.invalidateLocal(List.of(product.getId()));
+
+        assertAll("Verify local invalidation",
+                () -> assertEquals(product, afterNearInvalidation),
+                () -> assertEquals(2, local.getRemoteHitCount()),
+                () -> assertEquals(0, local.getNearHitCount()),
+                () -> assertNull(owner.getIfPresent(product.getId()))
+        );
+    }
+
+    @Test
+    void testClientBacksOffFromFailedNode() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Duration backoff = Duration.ofMillis(300);
+        CacheNodeClient client = new CacheNodeClient(new InetSocketAddress("localhost", port), 1, TIMEOUT, backoff);
+        resources.add(client);
+        UUID key = UUID.randomUUID();
+
+        assertThrows(IOException.class, () -> client.get(key));
+        CacheNodeServer server = new CacheNodeServer(new InetSocketAddress("localhost", port),
+                new ConcurrentLruCache<>(10));
+        resources.add(server);
+        IOException duringBackoff = assertThrows(IOException.class, () -> client.get(key));
+        Thread.sleep(backoff.toMillis() + 100);
+        Product afterBackoff = client.get(key);
+
+        assertAll("Verify failure backoff",
+                () -> assertTrue(duringBackoff.getMessage().contains("unavailable")),
+                () -> assertNull(afterBackoff)
+        );
+    }
+
+    private List<PartitionedCache> startCluster(int nodeCount, int capacityPerNode) {
+        List<String> ids = new ArrayList<>();
+        List<Cache<UUID, Product>> stores = new ArrayList<>();
+        List<CacheNodeServer> servers = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            ids.add("node-" + (i + 1));
+            Cache<UUID, Product> store = new ConcurrentLruCache<>(capacityPerNode, 2);
+            CacheNodeServer server = new CacheNodeServer(new InetSocketAddress("localhost", 0), store);
+            resources.add(server);
+            stores.add(store);
+            servers.add(server);
+        }
+        HashRing ring = new HashRing(ids, 128);
+        List<PartitionedCache> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            Map<String, CacheNodeClient> peers = new HashMap<>();
+            for (int j = 0; j < nodeCount; j++) {
+                if (i != j) {
+                    peers.put(ids.get(j), new CacheNodeClient(servers.get(j).getAddress(), 2, TIMEOUT));
+                }
+            }
+            PartitionedCache node = new PartitionedCache(ids.get(i), ring, stores.get(i),
+                    new ConcurrentLruCache<>(capacityPerNode / 10, 2), peers);
+            resources.add(node);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    private static Product remoteProduct(PartitionedCache cache, String localNode) {
+        Product product = product("Удаленный продукт");
+        while (cache.ownerOf(product.getId()).equals(localNode)) {
+            product = product("Удаленный продукт");
+        }
+        return product;
+    }
+
+    private static UUID remoteKey(HashRing ring, String localNode) {
+        UUID key = UUID.randomUUID();
+        while (ring.owner(key).equals(localNode)) {
+            key = UUID.randomUUID();
+        }
+        return key;
+    }
+
+    private static Product product(String name) {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .price(10.5)
+                .weight(1.25)
+                .created(LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_789))
+                .build();
+    }
+}
@@ -0,0 +1,215 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.ExpiringCache;
+import clevertec.cache.impl.LruCache;
+import clevertec.cache.impl.RefreshAheadCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RefreshAheadCacheTest {
+
+    private static final Duration REFRESH_AFTER_WRITE = Duration.ofMinutes(1);
+
+    private final AtomicLong time = new AtomicLong();
+    private final Ticker ticker = time::get;
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final Executor executor = tasks::add;
+    private final Map<Integer, String> source = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private RefreshAheadCache<Integer, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = createCache(executor);
+    }
+
+    @Test
+    void testFreshEntryIsNotRefreshed() {
+        cache.put(1, "One");
+        advance(REFRESH_AFTER_WRITE.minusSeconds(1));
+
+        assertAll("Verify fresh read",
+                () -> assertEquals(Optional.of("One"), cache.get(1)),
+                () -> assertEquals(0, tasks.size(), "Fresh entry should not schedule a refresh")
+        );
+    }
+
+    @Test
+    void testStaleEntryIsServedAndReloadedInBackground() {
+        cache.put(1, "One");
+        source.put(1, "Repriced One");
+        advance(REFRESH_AFTER_WRITE);
+
+        assertEquals(Optional.of("One"), cache.get(1), "Stale read should return the current value immediately");
+        assertEquals(0, loads.get(), "Reload should not run on the reading thread");
+
+        runTasks();
+        assertAll("Verify refreshed value",
+                () -> assertEquals(Optional.of("Repriced One"), cache.get(1)),
+                () -> assertEquals(1, loads.get()),
+                () -> assertEquals(0, tasks.size(), "Refreshed entry should be fresh again")
+        );
+    }
+
+    @Test
+    void testConcurrentStaleReadsScheduleOneRefresh() {
+        cache.put(1, "One");
+        source.put(1, "One");
+        advance(REFRESH_AFTER_WRITE);
+
+        for (int i = 0; i < 10; i++) {
+            cache.get(1);
+        }
+
+        assertAll("Verify refresh is coalesced",
+                () -> assertEquals(1, tasks.size()),
+                () -> assertEquals(1, cache.getRefreshCount())
+        );
+    }
+
+    @Test
+    void testWriteDuringRefreshWins() {
+        cache.put(1, "One");
+        source.put(1, "Loaded One");
+        advance(REFRESH_AFTER_WRITE);
+        cache.get(1);
+
+        cache.put(1, "Written One");
+        runTasks();
+
+        assertEquals(Optional.of("Written One"), cache.get(1), "Reload result should not overwrite a newer write");
+    }
+
+    @Test
+    void testEntryMissingAtSourceIsRemoved() {
+        cache.put(1, "One");
+        advance(REFRESH_AFTER_WRITE);
+        cache.get(1);
+
+        runTasks();
+
+        assertEquals(Optional.empty(), cache.get(1), "Entry deleted at the source should be removed");
+    }
+
+    @Test
+    void testRejectedRefreshIsRetriedByNextRead() {
+        AtomicInteger rejections = new AtomicInteger(1);
+        cache = createCache(task -> {
+            if (rejections.getAndDecrement() > 0) {
+                throw new RejectedExecutionException("Queue is full");
+            }
+            tasks.add(task);
+        });
+        cache.put(1, "One");
+        source.put(1, "Repriced One");
+        advance(REFRESH_AFTER_WRITE);
+
+        assertEquals(Optional.of("One"), cache.get(1), "Rejected refresh should not fail the read");
+        assertEquals(1, cache.getRejectedRefreshCount());
+
+        cache.get(1);
+        runTasks();
+        assertEquals(Optional.of("Repriced One"), cache.get(1));
+    }
+
+    @Test
+    void testFailedReloadKeepsCurrentValue() {
+        cache = new RefreshAheadCache<>(new LruCache<>(10), REFRESH_AFTER_WRITE, key -> {
+            throw new IllegalStateException("Database unavailable");
+        }, ticker, executor);
+        cache.put(1, "One");
+        advance(REFRESH_AFTER_WRITE);
+        cache.get(1);
+
+        runTasks();
+
+        assertAll("Verify failed reload",
+                () -> assertEquals(Optional.of("One"), cache.get(1)),
+                () -> assertEquals(1, tasks.size(), "Next read should retry the refresh")
+        );
+    }
+
+    @Test
+    void testErrorFromLoaderDoesNotBlockFurtherRefreshes() {
+        AtomicInteger failures = new AtomicInteger(1);
+        cache = new RefreshAheadCache<>(new LruCache<>(10), REFRESH_AFTER_WRITE, key -> {
+            if (failures.getAndDecrement() > 0) {
+                throw new LinkageError("Driver class failed to load");
+            }
+            return Optional.ofNullable(source.get(key));
+        }, ticker, executor);
+        cache.put(1, "One");
+        source.put(1, "Repriced One");
+        advance(REFRESH_AFTER_WRITE);
+        cache.get(1);
+
+        assertThrows(LinkageError.class, this::runTasks);
+        cache.get(1);
+        runTasks();
+
+        assertEquals(Optional.of("Repriced One"), cache.get(1));
+    }
+
+    @Test
+    void testRefreshRestartsExpirationOfTheExpiringDelegate() {
+        ExpiringCache<Integer, RefreshAheadCache.Entry<String>> expiring = new ExpiringCache<>(new LruCache<>(10),
+                REFRESH_AFTER_WRITE.multipliedBy(2), Duration.ZERO, ticker, null);
+        cache = new RefreshAheadCache<>(expiring, REFRESH_AFTER_WRITE,
+                key -> Optional.ofNullable(source.get(key)), ticker, executor);
+        cache.put(1, "One");
+        cache.put(2, "Two");
+        source.put(1, "Repriced One");
+        advance(REFRESH_AFTER_WRITE);
+        cache.get(1);
+        cache.get(2);
+
+        runTasks();
+        advance(REFRESH_AFTER_WRITE.plusSeconds(30));
+
+        assertAll("Verify refresh goes through the expiring layer",
+                () -> assertEquals(Optional.of("Repriced One"), cache.get(1), "Refreshed entry should not expire"),
+                () -> assertEquals(Optional.empty(), cache.get(2)),
+                () -> assertEquals(1, expiring.timerCount(), "Removed entry should not keep its timer")
+        );
+    }
+
+    @Test
+    void testNonPositiveRefreshIntervalIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RefreshAheadCache<Integer, String>(new LruCache<>(10), Duration.ZERO,
+                        key -> Optional.empty(), ticker, executor));
+    }
+
+    private RefreshAheadCache<Integer, String> createCache(Executor refreshExecutor) {
+        return new RefreshAheadCache<>(new LruCache<>(10), REFRESH_AFTER_WRITE, key -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(source.get(key));
+        }, ticker, refreshExecutor);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void advance(Duration duration) {
+        time.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,147 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.LruCache;
+import clevertec.cache.impl.TieredCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TieredCacheTest {
+
+    private LruCache<String, String> firstLevel;
+    private LruCache<String, String> secondLevel;
+    private TieredCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        secondLevel = new LruCache<>(10);
+        firstLevel = new LruCache<>(2, secondLevel::put);
+        cache = new TieredCache<>(firstLevel, secondLevel);
+    }
+
+    @Test
+    void testEvictedEntrySpillsToSecondLevel() {
+        cache.put("1", "One");
+        cache.put("2", "Two");
+        cache.put("3", "Three");
+
+        assertAll("Verify spill on eviction",
+                () -> assertTrue(firstLevel.get("1").isEmpty()),
+                () -> assertEquals(Optional.of("One"), secondLevel.get("1"))
+        );
+    }
+
+    @Test
+    void testSecondLevelHitIsPromoted() {
+        cache.put("1", "One");
+        cache.put("2", "Two");
+        cache.put("3", "Three");
+
+        Optional<String> value = cache.get("1");
+
+        assertAll("Verify promotion",
+                () -> assertEquals(Optional.of("One"), value),
+                () -> assertEquals(Optional.of("One"), firstLevel.get("1")),
+                () -> assertEquals(Optional.of("Two"), secondLevel.get("2"), "Promotion should spill the next victim")
+        );
+    }
+
+    @Test
+    void testPutInvalidatesSecondLevelCopy() {
+        secondLevel.put("1", "Stale");
+
+        cache.put("1", "Fresh");
+
+        assertAll("Verify invalidation",
+                () -> assertTrue(secondLevel.get("1").isEmpty()),
+                () -> assertEquals(Optional.of("Fresh"), cache.get("1"))
+        );
+    }
+
+    @Test
+    void testDeleteRemovesFromBothLevels() {
+        cache.put("1", "One");
+        secondLevel.put("2", "Two");
+
+        cache.delete("1");
+        cache.delete("2");
+
+        assertAll("Verify delete",
+                () -> assertTrue(cache.get("1").isEmpty()),
+                () -> assertTrue(cache.get("2").isEmpty())
+        );
+    }
+
+    @Test
+    void testGetAllCombinesLevels() {
+        cache.put("1", "One");
+        secondLevel.put("2", "Two");
+
+        Map<String, String> values = cache.getAll(List.of("1", "2", "3"));
+
+        assertEquals(Map.of("1", "One", "2", "Two"), values);
+    }
+
+    @Test
+    void testPromotionDoesNotOverwriteConcurrentWrite() throws Exception {
+        AtomicReference<Thread> writer = new AtomicReference<>();
+        LruCache<String, String> racingSecondLevel = new LruCache<>(10) {
+            @Override
+            public String getIfPresent(String key) {
+                String stale = super.getIfPresent(key);
+                Thread thread = new Thread(() -> cache.put(key, "Fresh"));
+                writer.set(thread);
+                thread.start();
+                try {
+                    thread.join(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return stale;
+            }
+        };
+        firstLevel = new LruCache<>(2, racingSecondLevel::put);
+        cache = new TieredCache<>(firstLevel, racingSecondLevel);
+        racingSecondLevel.put("1", "Stale");
+
+        cache.get("1");
+        writer.get().join();
+
+        assertEquals(Optional.of("Fresh"), firstLevel.get("1"), "Concurrent write should win over promotion");
+    }
+
+    @Test
+    void testInvalidateAllClearsBothLevels() {
+        cache.put("1", "One");
+        secondLevel.put("2", "Two");
+
+        cache.invalidateAll();
+
+        assertAll("Verify invalidation",
+                () -> assertEquals(0, firstLevel.size()),
+                () -> assertEquals(0, secondLevel.size()),
+                () -> assertTrue(cache.get("2").isEmpty())
+        );
+    }
+
+    @Test
+    void testCloseSpillsFirstLevel() {
+        cache.put("1", "One");
+        cache.put("2", "Two");
+
+        cache.close();
+
+        assertAll("Verify spill on close",
+                () -> assertEquals(Optional.of("One"), secondLevel.get("1")),
+                () -> assertEquals(Optional.of("Two"), secondLevel.get("2"))
+        );
+    }
+}
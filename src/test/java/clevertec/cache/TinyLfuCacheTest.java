@@ -0,0 +1,137 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.LfuCache;
+import clevertec.cache.impl.LruCache;
+import clevertec.cache.impl.TinyLfuCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TinyLfuCacheTest {
+
+    private TinyLfuCache<Integer, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TinyLfuCache<>(2);
+    }
+
+    @Test
+    void testPutAndGet() {
+        cache.put(1, "One");
+        cache.put(2, "Two");
+
+        assertAll("Verify put and get",
+                () -> assertEquals(Optional.of("One"), cache.get(1)),
+                () -> assertEquals(Optional.of("Two"), cache.get(2))
+        );
+    }
+
+    @Test
+    void testUpdateValue() {
+        cache.put(1, "One");
+        cache.put(1, "Updated One");
+
+        assertEquals(Optional.of("Updated One"), cache.get(1), "Cache should return 'Updated One' for key 1");
+    }
+
+    @Test
+    void testDelete() {
+        cache.put(1, "One");
+        cache.delete(1);
+
+        assertEquals(Optional.empty(), cache.get(1), "Key 1 should be deleted");
+    }
+
+    @Test
+    void testCapacity() {
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, "Value " + i);
+        }
+
+        assertEquals(2, cache.size(), "Cache should not exceed its capacity");
+    }
+
+    @Test
+    void testRestoredFrequencyIsReplayedIntoSketch() {
+        cache.put(1, "One");
+        cache.put(2, "Two");
+
+        cache.restoreFrequency(1, 40);
+        cache.restoreFrequency(3, 40);
+
+        assertAll("Verify restored frequencies",
+                () -> assertEquals(15, cache.hotKeys(1).get(1), "Sketch counters saturate at 15"),
+                () -> assertEquals(List.of(1, 2), new ArrayList<>(cache.hotKeys(2).keySet())),
+                () -> assertEquals(Optional.empty(), cache.get(3))
+        );
+    }
+
+    @Test
+    void testFrequentKeySurvivesOneHitWonders() {
+        cache.put(1, "One");
+        for (int i = 0; i < 5; i++) {
+            cache.get(1);
+        }
+        for (int i = 100; i < 110; i++) {
+            cache.put(i, "Scan " + i);
+        }
+
+        assertEquals(Optional.of("One"), cache.get(1), "Frequently used key should not be evicted by a scan");
+    }
+
+    @Test
+    void testHitRatioBeatsLruAndLfuOnScanPollutedShiftingTrace() {
+        int capacity = 100;
+        List<Integer> trace = scanPollutedTrace(capacity);
+
+        double tinyLfu = replay(new TinyLfuCache<>(capacity), trace);
+        double lru = replay(new LruCache<>(capacity), trace);
+        double lfu = replay(new LfuCache<>(capacity), trace);
+
+        assertAll("Verify W-TinyLFU hit ratio",
+                () -> assertTrue(tinyLfu > lru, "W-TinyLFU " + tinyLfu + " should beat LRU " + lru),
+                () -> assertTrue(tinyLfu > lfu, "W-TinyLFU " + tinyLfu + " should beat LFU " + lfu)
+        );
+    }
+
+    private double replay(Cache<Integer, Integer> cache, List<Integer> trace) {
+        int hits = 0;
+        for (Integer key : trace) {
+            if (cache.get(key).isPresent()) {
+                hits++;
+            }
+            else {
+                cache.put(key, key);
+            }
+        }
+        return (double) hits / trace.size();
+    }
+
+    private List<Integer> scanPollutedTrace(int capacity) {
+        Random random = new Random(42);
+        List<Integer> trace = new ArrayList<>();
+        int scanKey = 1_000_000;
+        for (int phase = 0; phase < 2; phase++) {
+            int offset = phase * 100_000;
+            for (int i = 0; i < 20_000; i++) {
+                if (i % 2_000 == 0) {
+                    for (int j = 0; j < capacity * 2; j++) {
+                        trace.add(scanKey++);
+                    }
+                }
+                int rank = (int) Math.floor(Math.pow(capacity * 20, random.nextDouble()));
+                trace.add(offset + rank);
+            }
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,104 @@
+package clevertec.cache;
+
+import clevertec.cache.impl.UuidHashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UuidHashMapTest {
+
+    private UuidHashMap<String> map;
+
+    @BeforeEach
+    void setUp() {
+        map = new UuidHashMap<>();
+    }
+
+    @Test
+    void testPutGetAndRemove() {
+        UUID id = UUID.randomUUID();
+
+        assertAll("Verify basic operations",
+                () -> assertNull(map.put(id, "One")),
+                () -> assertEquals("One", map.put(id, "Updated One")),
+                () -> assertEquals("Updated One", map.get(id)),
+                () -> assertEquals("Updated One",
+                        map.get(id.getMostSignificantBits(), id.getLeastSignificantBits())),
+                () -> assertEquals(1, map.size()),
+                () -> assertEquals("Updated One", map.remove(id)),
+                () -> assertNull(map.get(id)),
+                () -> assertNull(map.remove(id)),
+                () -> assertEquals(0, map.size())
+        );
+    }
+
+    @Test
+    void testRemovalKeepsOtherKeysReachable() {
+        UUID first = new UUID(0, 1);
+        UUID second = new UUID(1, 0);
+        UUID third = new UUID(0, 1L << 32);
+        map.put(first, "First");
+        map.put(second, "Second");
+        map.put(third, "Third");
+
+        map.remove(first);
+
+        assertAll("Verify probe chain after backward shift",
+                () -> assertNull(map.get(first)),
+                () -> assertEquals("Second", map.get(second)),
+                () -> assertEquals("Third", map.get(third))
+        );
+    }
+
+    @Test
+    void testNullValueIsRejected() {
+        UUID id = UUID.randomUUID();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(id, null));
+    }
+
+    @Test
+    void testForEachVisitsAllEntries() {
+        Map<UUID, String> expected = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            UUID id = UUID.randomUUID();
+            expected.put(id, "Value " + i);
+            map.put(id, "Value " + i);
+        }
+
+        Map<UUID, String> visited = new HashMap<>();
+        map.forEach(visited::put);
+
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void testRandomOperationsMatchHashMap() {
+        Map<UUID, Integer> model = new HashMap<>();
+        UuidHashMap<Integer> uuids = new UuidHashMap<>(4);
+        UUID[] keys = new UUID[500];
+        Random random = new Random(42);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new UUID(random.nextLong(), random.nextInt(8));
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            UUID key = keys[random.nextInt(keys.length)];
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(model.put(key, i), uuids.put(key, i));
+                case 1 -> assertEquals(model.remove(key), uuids.remove(key));
+                default -> assertEquals(model.get(key), uuids.get(key));
+            }
+            assertEquals(model.size(), uuids.size());
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package clevertec.config.dbConnection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectionPoolTest {
+
+    private final List<Connection> created = new ArrayList<>();
+    private final List<PreparedStatement> prepared = new ArrayList<>();
+    private ConnectionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void shouldReuseReturnedConnection() throws SQLException {
+        // Given
+        pool = new ConnectionPool(this::createConnection, config(0, 2));
+
+        // When
+        try (Connection connection = pool.getConnection()) {
+            connection.getAutoCommit();
+        }
+        try (Connection connection = pool.getConnection()) {
+            connection.getAutoCommit();
+        }
+
+        // Then
+        assertAll(() -> assertEquals(1, created.size()),
+                () -> assertEquals(1, pool.getIdleConnections()),
+                () -> assertEquals(0, pool.getActiveConnections()));
+        verify(created.get(0), never()).close();
+    }
+
+    @Test
+    void shouldOpenMinimumConnectionsOnStart() {
+        // When
+        pool = new ConnectionPool(this::createConnection, config(3, 5));
+
+        // Then
+        assertAll(() -> assertEquals(3, created.size()),
+                () -> assertEquals(3, pool.getIdleConnections()));
+    }
+
+    @Test
+    void shouldTimeOutWhenPoolIsExhausted() throws SQLException {
+        // Given
+        pool = new ConnectionPool(this::createConnection, PoolConfig.builder()
+                .minSize(0)
+                .maxSize(1)
+                .acquireTimeoutMillis(50)
+                .build());
+        Connection held = pool.getConnection();
+
+        // When & Then
+        assertThrows(SQLTimeoutException.class, () -> pool.getConnection());
+        held.close();
+        try (Connection connection = pool.getConnection()) {
+            assertEquals(1, pool.getActiveConnections());
+        }
+    }
+
+    @Test
+    void shouldReplaceConnectionThatFailsValidation() throws SQLException {
+        // Given
+        pool = new ConnectionPool(this::createConnection, PoolConfig.builder()
+                .minSize(0)
+                .maxSize(2)
+                .aliveBypassWindowMillis(0)
+                .build());
+        pool.getConnection().close();
+        Connection broken = created.get(0);
+        when(broken.isValid(anyInt())).thenReturn(false);
+
+        // When
+        try (Connection connection = pool.getConnection()) {
+            connection.getAutoCommit();
+        }
+
+        // Then
+        assertEquals(2, created.size());
+        verify(broken).close();
+        assertEquals(1, pool.getTotalConnections());
+    }
+
+    @Test
+    void shouldSkipValidationOfRecentlyReturnedConnection() throws SQLException {
+        // Given
+        pool = new ConnectionPool(this::createConnection, config(0, 2));
+        pool.getConnection().close();
+
+        // When
+        try (Connection connection = pool.getConnection()) {
+            connection.getAutoCommit();
+        }
+
+        // Then
+        verify(created.get(0), never()).isValid(anyInt());
+    }
+
+    @Test
+    void shouldCloseStatementsLeftOpenOnReturn() throws SQLException {
+        // Given
+        pool = new ConnectionPool(this::createConnection, config(0, 1));
+        Connection connection = pool.getConnection();
+        PreparedStatement cached = connection.prepareStatement("SELECT 1");
+        Statement plain = connection.createStatement();
+
+        // When
+        connection.close();
+
+        // Then
+        assertAll(() -> assertTrue(cached.isClosed()),
+                () -> assertThrows(SQLException.class, cached::executeQuery));
+        verify(prepared.get(0)).clearParameters();
+        verify(plain).close();
+    }
+
+    @Test
+    void shouldRejectUseAfterReturnAndIgnoreSecondClose() throws SQLException {
+        // Given
+        pool = new ConnectionPool(this::createConnection, config(0, 2));
+        Connection connection = pool.getConnection();
+
+        // When
+        connection.close();
+        connection.close();
+
+        // Then
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, connection::createStatement);
+        assertEquals(1, pool.getIdleConnections());
+    }
+
+    @Test
+    void shouldRollbackOpenTransactionOnReturn() throws SQLException {
+        // Given
+        pool = new ConnectionPool(this::createConnection, config(0, 2));
+        Connection connection = pool.getConnection();
+        Connection physical = created.get(0);
+        when(physical.getAutoCommit()).thenReturn(false);
+
+        // When
+        connection.close();
+
+        // Then
+        verify(physical).rollback();
+        verify(physical).setAutoCommit(true);
+    }
+
+    @Test
+    void shouldCloseIdleConnectionsAboveMinimum() throws SQLException, InterruptedException {
+        // Given
+        pool = new ConnectionPool(this::createConnection, PoolConfig.builder()
+                .minSize(1)
+                .maxSize(3)
+                .idleTimeoutMillis(1)
+                .build());
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        Connection third = pool.getConnection();
+        assertNotSame(first, second);
+        first.close();
+        second.close();
+        third.close();
+        Thread.sleep(5);
+
+        // When
+        pool.housekeep();
+
+        // Then
+        assertAll(() -> assertEquals(1, pool.getTotalConnections()),
+                () -> assertEquals(1, pool.getIdleConnections()));
+    }
+
+    @Test
+    void shouldReusePreparedStatementAcrossBorrows() throws SQLException {
+        // Given
+        pool = new ConnectionPool(this::createConnection, config(0, 1));
+        String sql = "SELECT * FROM products WHERE id = ?";
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setObject(1, i);
+            }
+        }
+
+        // Then
+        Connection physical = created.get(0);
+        verify(physical, times(1)).prepareStatement(sql);
+        assertAll(() -> assertEquals(3, pool.getStatementCacheHits()),
+                () -> assertEquals(1, pool.getStatementCacheMisses()),
+                () -> assertEquals(0.75, pool.getStatementCacheHitRate()));
+    }
+
+    @Test
+    void shouldClearParametersInsteadOfClosingCachedStatement() throws SQLException {
+        // Given
+        pool = new ConnectionPool(this::createConnection, config(0, 1));
+        PreparedStatement statement;
+
+        // When
+        try (Connection connection = pool.getConnection()) {
+            statement = connection.prepareStatement("DELETE FROM products WHERE id = ?");
+            statement.close();
+        }
+
+        // Then
+        PreparedStatement physical = prepared.get(0);
+        assertTrue(statement.isClosed());
+        verify(physical).clearParameters();
+        verify(physical).clearBatch();
+        verify(physical, never()).close();
+        assertThrows(SQLException.class, statement::executeUpdate);
+    }
+
+    @Test
+    void shouldPrepareSeparateStatementWhenCachedOneIsInUse() throws SQLException {
+        // Given
+        pool = new ConnectionPool(this::createConnection, config(0, 1));
+        String sql = "SELECT * FROM products";
+
+        // When
+        try (Connection connection = pool.getConnection();
+             PreparedStatement outer = connection.prepareStatement(sql);
+             PreparedStatement inner = connection.prepareStatement(sql)) {
+            assertNotSame(outer, inner);
+        }
+
+        // Then
+        verify(created.get(0), times(2)).prepareStatement(sql);
+        assertEquals(2, pool.getStatementCacheMisses());
+    }
+
+    @Test
+    void shouldCloseEvictedStatements() throws SQLException {
+        // Given
+        pool = new ConnectionPool(this::createConnection, PoolConfig.builder()
+                .minSize(0)
+                .maxSize(1)
+                .statementCacheSize(1)
+                .build());
+
+        // When
+        try (Connection connection = pool.getConnection()) {
+            connection.prepareStatement("SELECT 1").close();
+            connection.prepareStatement("SELECT 2").close();
+        }
+
+        // Then
+        verify(prepared.get(0)).close();
+        verify(prepared.get(1), never()).close();
+    }
+
+    private PoolConfig config(int minSize, int maxSize) {
+        return PoolConfig.builder()
+                .minSize(minSize)
+                .maxSize(maxSize)
+                .build();
+    }
+
+    private Connection createConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.createStatement()).thenAnswer(invocation -> mock(Statement.class));
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            PreparedStatement statement = mock(PreparedStatement.class);
+            prepared.add(statement);
+            return statement;
+        });
+        created.add(connection);
+        return connection;
+    }
+}
@@ -0,0 +1,125 @@
+package clevertec.proxy;
+
+import clevertec.cache.Cache;
+import clevertec.dao.ProductDao;
+import clevertec.entity.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CacheInvalidationListenerTest {
+
+    private static final UUID FIRST = UUID.fromString("c249fc5b-4a25-4212-83ca-2c6ec0d57d0b");
+    private static final UUID SECOND = UUID.fromString("dcce95ba-46ea-4739-887b-1de051755ac7");
+    private static final UUID OWN = UUID.fromString("1d9411b4-53cc-42fc-8eeb-ab5d4c3820ba");
+
+    @Mock
+    private ProductDao productDao;
+    @Mock
+    private Cache<UUID, Product> cache;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Statement statement;
+    @Mock
+    private PGConnection pgConnection;
+
+    private CacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(connection.createStatement())
+                .thenReturn(statement);
+        when(connection.unwrap(PGConnection.class))
+                .thenReturn(pgConnection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (listener != null) {
+            listener.close();
+        }
+    }
+
+    @Test
+    void ShouldInvalidateProductsChangedByOtherNodesInOneBatch() throws SQLException {
+        // Given
+        PGNotification[] notifications = {
+                notification("node-b:" + FIRST + "," + SECOND),
+                notification("node-a:" + OWN),
+                notification("node-c:" + FIRST)
+        };
+        AtomicBoolean delivered = new AtomicBoolean();
+        when(pgConnection.getNotifications(anyInt()))
+                .thenAnswer(invocation -> delivered.getAndSet(true) ? idle() : notifications);
+
+        // When
+        listener = new CacheInvalidationListener(() -> connection, "node-a", new DaoProxyImpl(productDao, cache),
+                100, Duration.ofMillis(10), Duration.ofMillis(10));
+
+        // Then
+        verify(cache, timeout(2_000))
+                .deleteAll(Set.of(FIRST, SECOND));
+        verify(statement)
+                .execute("LISTEN " + CacheInvalidationListener.CHANNEL);
+        assertEquals(2, listener.getInvalidatedCount());
+    }
+
+    @Test
+    void ShouldInvalidateWholeCacheAfterReconnect() throws SQLException {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+        when(pgConnection.getNotifications(anyInt()))
+                .thenAnswer(invocation -> idle());
+
+        // When
+        listener = new CacheInvalidationListener(() -> {
+            if (attempts.getAndIncrement() == 0) {
+                throw new SQLException("Connection refused");
+            }
+            return connection;
+        }, "node-a", new DaoProxyImpl(productDao, cache), 100, Duration.ofMillis(10), Duration.ofMillis(10));
+
+        // Then
+        verify(cache, timeout(2_000))
+                .invalidateAll();
+        assertEquals(1, listener.getResyncCount());
+    }
+
+    private static PGNotification notification(String payload) {
+        PGNotification notification = mock(PGNotification.class);
+        when(notification.getParameter())
+                .thenReturn(payload);
+        return notification;
+    }
+
+    private static PGNotification[] idle() throws InterruptedException {
+        Thread.sleep(5);
+        return null;
+    }
+}
@@ -0,0 +1,195 @@
+package clevertec.proxy;
+
+import clevertec.cache.CacheSnapshot;
+import clevertec.cache.impl.LfuCache;
+import clevertec.dao.ProductDao;
+import clevertec.data.ProductTestData;
+import clevertec.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmerTest {
+
+    private static final UUID HOT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID WARM_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID COLD_ID = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ProductDao productDao;
+
+    private LfuCache<UUID, Product> cache;
+    private DaoProxyImpl daoProxy;
+    private Path snapshotFile;
+
+    @BeforeEach
+    void setUp() {
+        cache = new LfuCache<>(2);
+        daoProxy = new DaoProxyImpl(productDao, cache);
+        snapshotFile = directory.resolve("cache-snapshot.bin");
+    }
+
+    @Test
+    void ShouldLoadSnapshotInParallelBatchesAndKeepHottestProducts() throws IOException {
+        // Given
+        CacheSnapshot.write(snapshotFile, snapshot());
+        CacheWarmer warmer = new CacheWarmer(daoProxy, productDao, snapshotFile, 3, 1, 2);
+
+        when(productDao.findAllByIds(anyCollection()))
+                .thenAnswer(invocation -> invocation.<List<UUID>>getArgument(0).stream()
+                        .map(this::product)
+                        .toList());
+
+        // When
+        int loaded = warmer.warmUp();
+
+        // Then
+        assertEquals(3, loaded);
+        verify(productDao, times(3))
+                .findAllByIds(anyCollection());
+        assertTrue(cache.get(HOT_ID).isPresent());
+        assertTrue(cache.get(WARM_ID).isPresent());
+        assertEquals(Optional.empty(), cache.get(COLD_ID));
+        verify(productDao, never())
+                .findById(any());
+    }
+
+    @Test
+    void ShouldRestoreSnapshotFrequenciesIntoCache() throws IOException {
+        // Given
+        cache = new LfuCache<>(3);
+        daoProxy = new DaoProxyImpl(productDao, cache);
+        CacheSnapshot.write(snapshotFile, snapshot());
+        CacheWarmer warmer = new CacheWarmer(daoProxy, productDao, snapshotFile, 3, 3, 1);
+
+        when(productDao.findAllByIds(anyCollection()))
+                .thenAnswer(invocation -> invocation.<List<UUID>>getArgument(0).stream()
+                        .map(this::product)
+                        .toList());
+
+        // When
+        warmer.warmUp();
+
+        // Then
+        assertEquals(snapshot(), cache.hotKeys(3));
+    }
+
+    @Test
+    void ShouldKeepLoadedBatchesWhenOneBatchFails() throws IOException {
+        // Given
+        CacheSnapshot.write(snapshotFile, snapshot());
+        CacheWarmer warmer = new CacheWarmer(daoProxy, productDao, snapshotFile, 3, 1, 1);
+
+        when(productDao.findAllByIds(List.of(HOT_ID)))
+                .thenReturn(List.of(product(HOT_ID)));
+        when(productDao.findAllByIds(List.of(WARM_ID)))
+                .thenThrow(new RuntimeException("Database unavailable"));
+        when(productDao.findAllByIds(List.of(COLD_ID)))
+                .thenReturn(List.of(product(COLD_ID)));
+
+        // When
+        int loaded = warmer.warmUp();
+
+        // Then
+        assertEquals(2, loaded);
+        assertTrue(cache.get(HOT_ID).isPresent());
+        assertEquals(Optional.empty(), cache.get(WARM_ID));
+    }
+
+    @Test
+    void ShouldWarmUpFromFirstPagesWhenSnapshotIsMissing() {
+        // Given
+        CacheWarmer warmer = new CacheWarmer(daoProxy, productDao, snapshotFile, 2, 1, 2);
+        Product first = product(HOT_ID);
+        Product second = product(WARM_ID);
+
+        when(productDao.findPage(null, 1))
+                .thenReturn(List.of(first));
+        when(productDao.findPage(HOT_ID, 1))
+                .thenReturn(List.of(second));
+
+        // When
+        int loaded = warmer.warmUp();
+
+        // Then
+        assertEquals(2, loaded);
+        assertEquals(Optional.of(first), cache.get(HOT_ID));
+        assertEquals(Optional.of(second), cache.get(WARM_ID));
+    }
+
+    @Test
+    void ShouldKeepLoadedPagesWhenDatabaseFails() {
+        // Given
+        CacheWarmer warmer = new CacheWarmer(daoProxy, productDao, snapshotFile, 2, 2, 1, 2);
+        Product first = product(HOT_ID);
+
+        when(productDao.findPage(null, 1))
+                .thenReturn(List.of(first));
+        when(productDao.findPage(HOT_ID, 1))
+                .thenThrow(new RuntimeException("Database unavailable"));
+
+        // When
+        int loaded = warmer.warmUp();
+
+        // Then
+        assertEquals(1, loaded);
+        assertEquals(Optional.of(first), cache.get(HOT_ID));
+    }
+
+    @Test
+    void ShouldSaveHotKeysToSnapshot() throws IOException {
+        // Given
+        CacheWarmer warmer = new CacheWarmer(daoProxy, productDao, snapshotFile, 2, 1, 2);
+        cache.put(HOT_ID, product(HOT_ID));
+        cache.put(WARM_ID, product(WARM_ID));
+        cache.get(HOT_ID);
+
+        // When
+        int saved = warmer.saveSnapshot();
+
+        // Then
+        assertEquals(2, saved);
+        assertTrue(Files.exists(snapshotFile));
+        assertEquals(Map.of(HOT_ID, 2, WARM_ID, 1), CacheSnapshot.read(snapshotFile));
+    }
+
+    private static Map<UUID, Integer> snapshot() {
+        Map<UUID, Integer> snapshot = new LinkedHashMap<>();
+        snapshot.put(HOT_ID, 9);
+        snapshot.put(WARM_ID, 4);
+        snapshot.put(COLD_ID, 2);
+        return snapshot;
+    }
+
+    private Product product(UUID id) {
+        return ProductTestData.builder()
+                .withId(id)
+                .build()
+                .buildProduct();
+    }
+}
@@ -1,6 +1,13 @@
 package clevertec.proxy;
 
 import clevertec.cache.Cache;
+import clevertec.cache.CacheRegistry;
+import clevertec.cache.CacheStats;
+import clevertec.cache.StatsCounter;
+import clevertec.cache.cluster.PartitionedCache;
+import clevertec.cache.impl.LruCache;
+import clevertec.cache.impl.StatsCache;
+import clevertec.cache.impl.TieredCache;
 import clevertec.dao.ProductDao;
 import clevertec.data.ProductTestData;
 import clevertec.entity.Product;
@@ -12,17 +19,30 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,8 +63,8 @@ public class DaoProxyImplTest {
                 .buildProduct();
         UUID id = expectedProduct.getId();
 
-        when(cache.get(id))
-                .thenReturn(Optional.empty());
+        when(cache.getIfPresent(id))
+                .thenReturn(null);
         when(productDao.findById(id))
                 .thenReturn(Optional.of(expectedProduct));
 
@@ -66,8 +86,8 @@ public class DaoProxyImplTest {
                 .buildProduct();
         UUID id = expectedProduct.getId();
 
-        when(cache.get(id))
-                .thenReturn(Optional.of(expectedProduct));
+        when(cache.getIfPresent(id))
+                .thenReturn(expectedProduct);
 
         // when
         Optional<Product> actualProduct = daoProxy.getProductById(id);
@@ -79,6 +99,72 @@ public class DaoProxyImplTest {
                 .findById(id);
     }
 
+    @Test
+    void ShouldReturnCachedProductWithoutOptionalWhenFoundInCache() {
+        // Given
+        Product expectedProduct = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        UUID id = expectedProduct.getId();
+
+        when(cache.getIfPresent(id))
+                .thenReturn(expectedProduct);
+
+        // When
+        Product actualProduct = daoProxy.findProductById(id);
+
+        // Then
+        assertEquals(expectedProduct, actualProduct);
+        verify(productDao, never())
+                .findById(id);
+    }
+
+    @Test
+    void ShouldReturnNullWhenProductIsNeitherCachedNorStored() {
+        // Given
+        UUID id = UUID.randomUUID();
+
+        when(productDao.findById(id))
+                .thenReturn(Optional.empty());
+
+        // When
+        Product actualProduct = daoProxy.findProductById(id);
+
+        // Then
+        assertNull(actualProduct);
+        verify(cache, never())
+                .put(any(), any());
+    }
+
+    @Test
+    void ShouldRecordLoadsInCacheStatsWhenCacheCollectsStats() {
+        // Given
+        Product expectedProduct = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        UUID id = expectedProduct.getId();
+        UUID failingId = UUID.randomUUID();
+        DaoProxyImpl statsProxy = new DaoProxyImpl(productDao,
+                new StatsCache<>(new LruCache<>(10), new StatsCounter()));
+
+        when(productDao.findById(id))
+                .thenReturn(Optional.of(expectedProduct));
+        when(productDao.findById(failingId))
+                .thenThrow(new RuntimeException("Connection refused"));
+
+        // When
+        statsProxy.getProductById(id);
+        statsProxy.getProductById(id);
+        assertThrows(RuntimeException.class, () -> statsProxy.getProductById(failingId));
+        CacheStats stats = statsProxy.getCacheStats();
+
+        // Then
+        assertAll(() -> assertEquals(1, stats.hitCount()),
+                () -> assertEquals(2, stats.missCount()),
+                () -> assertEquals(1, stats.loadSuccessCount()),
+                () -> assertEquals(1, stats.loadFailureCount()));
+    }
+
     @Test
     public void ShouldReturnListOfProductsWhenProductsAreAvailable() {
         // Given
@@ -167,4 +253,489 @@ public class DaoProxyImplTest {
         verify(cache)
                 .delete(productId);
     }
+
+    @Test
+    void ShouldCoalesceConcurrentMissesIntoSingleDaoLoad() throws Exception {
+        // Given
+        int callers = 8;
+        Product expectedProduct = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        UUID id = expectedProduct.getId();
+
+        when(cache.getIfPresent(id))
+                .thenReturn(null);
+        when(productDao.findById(id))
+                .thenAnswer(invocation -> {
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                    while (daoProxy.getCoalescedLoadCount() < callers - 1 && System.nanoTime() < deadline) {
+                        Thread.onSpinWait();
+                    }
+                    return Optional.of(expectedProduct);
+                });
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<CompletableFuture<Optional<Product>>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> daoProxy.getProductById(id), executor));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        for (CompletableFuture<Optional<Product>> result : results) {
+            assertEquals(Optional.of(expectedProduct), result.get());
+        }
+        assertAll(() -> assertEquals(1, daoProxy.getLoadCount()),
+                () -> assertEquals(callers - 1, daoProxy.getCoalescedLoadCount()));
+        verify(productDao, times(1))
+                .findById(id);
+        verify(cache, times(1))
+                .put(id, expectedProduct);
+    }
+
+    @Test
+    void ShouldPropagateDaoFailureAndAllowRetry() {
+        // Given
+        Product expectedProduct = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        UUID id = expectedProduct.getId();
+
+        when(cache.getIfPresent(id))
+                .thenReturn(null);
+        when(productDao.findById(id))
+                .thenThrow(new RuntimeException("Connection refused"))
+                .thenReturn(Optional.of(expectedProduct));
+
+        // When
+        assertThrows(RuntimeException.class, () -> daoProxy.getProductById(id));
+        Optional<Product> actualProduct = daoProxy.getProductById(id);
+
+        // Then
+        assertEquals(Optional.of(expectedProduct), actualProduct);
+        assertEquals(2, daoProxy.getLoadCount());
+    }
+
+    @Test
+    void ShouldServeCachedProductsAndLoadMissesInOneQuery() {
+        // Given
+        Product cached = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        Product missing = ProductTestData.builder()
+                .withId(UUID.fromString("c244567b-4a25-4212-83ca-2c6ec0d57d0b"))
+                .build()
+                .buildProduct();
+        UUID unknownId = UUID.fromString("3ecb77f7-0114-47a7-ada7-3ec685d202a7");
+        List<UUID> ids = List.of(missing.getId(), cached.getId(), unknownId, cached.getId());
+
+        when(cache.getAll(any()))
+                .thenReturn(Map.of(cached.getId(), cached));
+        when(productDao.findAllByIds(List.of(missing.getId(), unknownId)))
+                .thenReturn(List.of(missing));
+
+        // When
+        List<Product> actualProducts = daoProxy.getProductsByIds(ids);
+
+        // Then
+        assertEquals(List.of(missing, cached), actualProducts);
+        verify(cache)
+                .put(missing.getId(), missing);
+        verify(productDao, never())
+                .findById(any());
+    }
+
+    @Test
+    void ShouldNotQueryDaoWhenAllProductsAreCached() {
+        // Given
+        Product cached = ProductTestData.builder()
+                .build()
+                .buildProduct();
+
+        when(cache.getAll(any()))
+                .thenReturn(Map.of(cached.getId(), cached));
+
+        // When
+        List<Product> actualProducts = daoProxy.getProductsByIds(List.of(cached.getId()));
+
+        // Then
+        assertEquals(List.of(cached), actualProducts);
+        verify(productDao, never())
+                .findAllByIds(any());
+    }
+
+    @Test
+    void ShouldReturnPageFromDaoWithoutCachingIt() {
+        // Given
+        Product product = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        UUID afterId = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+        when(productDao.findPage(afterId, 10))
+                .thenReturn(List.of(product));
+
+        // When
+        List<Product> page = daoProxy.getProductPage(afterId, 10);
+
+        // Then
+        assertEquals(List.of(product), page);
+        verify(cache, never())
+                .put(any(), any());
+    }
+
+    @Test
+    void ShouldStreamProductsFromDao() {
+        // Given
+        Product product = ProductTestData.builder()
+                .build()
+                .buildProduct();
+
+        when(productDao.streamAll())
+                .thenReturn(Stream.of(product));
+
+        // When
+        List<Product> actualProducts;
+        try (Stream<Product> products = daoProxy.streamAllProducts()) {
+            actualProducts = products.toList();
+        }
+
+        // Then
+        assertEquals(List.of(product), actualProducts);
+    }
+
+    @Test
+    void ShouldPutSavedProductsIntoCacheInOneOperation() {
+        // Given
+        Product first = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        Product second = ProductTestData.builder()
+                .withId(UUID.fromString("00000000-0000-0000-0000-000000000002"))
+                .build()
+                .buildProduct();
+        List<Product> products = List.of(first, second);
+
+        when(productDao.saveAll(products))
+                .thenReturn(products);
+
+        // When
+        List<Product> saved = daoProxy.saveProducts(products);
+
+        // Then
+        assertEquals(products, saved);
+        verify(cache)
+                .putAll(Map.of(first.getId(), first, second.getId(), second));
+        verify(cache, never())
+                .put(any(), any());
+    }
+
+    @Test
+    void ShouldPutUpdatedProductsIntoCacheInOneOperation() {
+        // Given
+        Product product = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        List<Product> products = List.of(product);
+
+        when(productDao.updateAll(products))
+                .thenReturn(products);
+
+        // When
+        List<Product> updated = daoProxy.updateProducts(products);
+
+        // Then
+        assertEquals(products, updated);
+        verify(cache)
+                .putAll(Map.of(product.getId(), product));
+    }
+
+    @Test
+    void ShouldNotCacheProductsWhoseUpdateMatchedNoRow() {
+        // Given
+        Product existing = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        Product missing = ProductTestData.builder()
+                .withId(UUID.fromString("00000000-0000-0000-0000-000000000002"))
+                .build()
+                .buildProduct();
+        List<Product> products = List.of(existing, missing);
+
+        when(productDao.updateAll(products))
+                .thenReturn(List.of(existing));
+
+        // When
+        List<Product> updated = daoProxy.updateProducts(products);
+
+        // Then
+        assertEquals(List.of(existing), updated);
+        verify(cache)
+                .putAll(Map.of(existing.getId(), existing));
+        verify(cache)
+                .deleteAll(List.of(missing.getId()));
+    }
+
+    @Test
+    void ShouldInvalidateImportedProductsInsteadOfCachingThem() {
+        // Given
+        Product product = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        List<Product> products = List.of(product);
+
+        when(productDao.copyAll(products))
+                .thenReturn(1L);
+
+        // When
+        long copied = daoProxy.importProducts(products);
+
+        // Then
+        assertEquals(1L, copied);
+        verify(cache)
+                .deleteAll(List.of(product.getId()));
+        verify(cache, never())
+                .putAll(any());
+    }
+
+    @Test
+    void ShouldNotQueryDaoWhenAllMissesArePendingWrites() {
+        // Given
+        Product product = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        UUID id = product.getId();
+        WriteBehindFlusher writeBehind = new WriteBehindFlusher(productDao, Duration.ofHours(1), 100);
+        DaoProxyImpl writeBehindProxy = new DaoProxyImpl(productDao, cache, writeBehind);
+
+        when(cache.getAll(any()))
+                .thenReturn(Map.of());
+
+        // When
+        writeBehindProxy.update(product);
+        List<Product> products = writeBehindProxy.getProductsByIds(List.of(id));
+
+        // Then
+        assertEquals(List.of(product), products);
+        assertEquals(0, writeBehindProxy.getLoadCount());
+        verify(productDao, never())
+                .findAllByIds(any());
+
+        writeBehindProxy.close();
+    }
+
+    @Test
+    void ShouldDeferWritesAndServePendingVersionInWriteBehindMode() {
+        // Given
+        Product product = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        UUID id = product.getId();
+        WriteBehindFlusher writeBehind = new WriteBehindFlusher(productDao, Duration.ofHours(1), 100);
+        DaoProxyImpl writeBehindProxy = new DaoProxyImpl(productDao, cache, writeBehind);
+
+        when(cache.getIfPresent(id))
+                .thenReturn(null);
+
+        // When
+        writeBehindProxy.update(product);
+        Optional<Product> pending = writeBehindProxy.getProductById(id);
+
+        // Then
+        assertEquals(Optional.of(product), pending);
+        verify(productDao, never())
+                .update(any());
+        verify(productDao, never())
+                .findById(any());
+
+        writeBehindProxy.close();
+        verify(productDao)
+                .updateAll(List.of(product));
+    }
+
+    @Test
+    void ShouldServeCachedPageUntilWriteInvalidatesIt() {
+        // Given
+        Product product = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        CacheRegistry registry = new CacheRegistry(Map.of(
+                "capacity", 10,
+                "caches", Map.of(DaoProxyImpl.PRODUCT_PAGES_CACHE, Map.of("capacity", 10))));
+        registry.register(CacheRegistry.DEFAULT_CACHE, registry.builder(CacheRegistry.DEFAULT_CACHE));
+        registry.register(DaoProxyImpl.PRODUCT_PAGES_CACHE, registry.builder(DaoProxyImpl.PRODUCT_PAGES_CACHE));
+        DaoProxyImpl pagedProxy = new DaoProxyImpl(productDao, registry);
+
+        when(productDao.findPage(null, 10))
+                .thenReturn(List.of(product));
+        when(productDao.save(product))
+                .thenReturn(product);
+
+        // When
+        List<Product> first = pagedProxy.getProductPage(null, 10);
+        List<Product> cached = pagedProxy.getProductPage(null, 10);
+        pagedProxy.saveProduct(product);
+        List<Product> reloaded = pagedProxy.getProductPage(null, 10);
+
+        // Then
+        assertAll("Verify page caching",
+                () -> assertEquals(List.of(product), first),
+                () -> assertEquals(first, cached),
+                () -> assertEquals(first, reloaded)
+        );
+        verify(productDao, times(2))
+                .findPage(null, 10);
+        pagedProxy.close();
+    }
+
+    @Test
+    void ShouldNotCacheProductLoadedWhileItWasInvalidated() {
+        // Given
+        Product product = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        UUID id = product.getId();
+        LruCache<UUID, Product> lruCache = new LruCache<>(10);
+        DaoProxyImpl invalidatedProxy = new DaoProxyImpl(productDao, lruCache);
+
+        when(productDao.findById(id))
+                .thenAnswer(invocation -> {
+                    invalidatedProxy.invalidate(List.of(id));
+                    return Optional.of(product);
+                });
+
+        // When
+        Optional<Product> loaded = invalidatedProxy.getProductById(id);
+
+        // Then
+        assertEquals(Optional.of(product), loaded);
+        assertEquals(Optional.empty(), lruCache.get(id));
+    }
+
+    @Test
+    void ShouldCacheProductLoadedWhileUnrelatedProductWasInvalidated() {
+        // Given
+        Product product = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        UUID id = product.getId();
+        UUID unrelatedId = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        LruCache<UUID, Product> lruCache = new LruCache<>(10);
+        DaoProxyImpl invalidatedProxy = new DaoProxyImpl(productDao, lruCache);
+
+        when(productDao.findById(id))
+                .thenAnswer(invocation -> {
+                    invalidatedProxy.invalidate(List.of(unrelatedId));
+                    return Optional.of(product);
+                });
+
+        // When
+        invalidatedProxy.getProductById(id);
+
+        // Then
+        assertEquals(Optional.of(product), lruCache.get(id));
+    }
+
+    @Test
+    void ShouldInvalidateBothCacheLevelsOnInvalidateAll() {
+        // Given
+        Product spilled = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        Product recent = ProductTestData.builder()
+                .withId(UUID.randomUUID())
+                .build()
+                .buildProduct();
+        LruCache<UUID, Product> secondLevel = new LruCache<>(10);
+        LruCache<UUID, Product> firstLevel = new LruCache<>(1, secondLevel::put);
+        DaoProxyImpl tieredProxy = new DaoProxyImpl(productDao, new TieredCache<>(firstLevel, secondLevel));
+        tieredProxy.preload(List.of(spilled, recent));
+
+        // When
+        tieredProxy.invalidateAll();
+
+        // Then
+        assertAll("Verify both levels are cleared",
+                () -> assertEquals(0, firstLevel.size()),
+                () -> assertEquals(0, secondLevel.size())
+        );
+    }
+
+    @Test
+    void ShouldInvalidateOnlyNearCopiesOfPartitionedCache() {
+        // Given
+        UUID id = UUID.randomUUID();
+        PartitionedCache partitioned = mock(PartitionedCache.class);
+        DaoProxyImpl partitionedProxy = new DaoProxyImpl(productDao, partitioned);
+
+        // When
+        partitionedProxy.invalidate(List.of(id));
+
+        // Then
+        verify(partitioned).invalidateLocal(List.of(id));
+        verify(partitioned, never()).deleteAll(any());
+    }
+
+    @Test
+    void ShouldNotCacheProductLoadedWhileItWasUpdatedLocally() {
+        // Given
+        Product stale = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        Product updated = ProductTestData.builder()
+                .withName("Updated")
+                .build()
+                .buildProduct();
+        UUID id = stale.getId();
+        LruCache<UUID, Product> lruCache = new LruCache<>(10);
+        DaoProxyImpl updatedProxy = new DaoProxyImpl(productDao, lruCache);
+
+        when(productDao.update(updated))
+                .thenReturn(updated);
+        when(productDao.findById(id))
+                .thenAnswer(invocation -> {
+                    updatedProxy.update(updated);
+                    return Optional.of(stale);
+                });
+
+        // When
+        updatedProxy.getProductById(id);
+
+        // Then
+        assertTrue(lruCache.get(id).filter(stale::equals).isEmpty(), "Stale row should not stay cached");
+    }
+
+    @Test
+    void ShouldReleaseCoalescedWaitersWhenLoadFailsWithError() throws Exception {
+        // Given
+        UUID id = UUID.randomUUID();
+
+        when(cache.getIfPresent(id))
+                .thenReturn(null);
+        when(productDao.findById(id))
+                .thenAnswer(invocation -> {
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                    while (daoProxy.getCoalescedLoadCount() < 1 && System.nanoTime() < deadline) {
+                        Thread.onSpinWait();
+                    }
+                    throw new StackOverflowError("Simulated");
+                });
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<CompletableFuture<Optional<Product>>> results = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> daoProxy.getProductById(id), executor));
+        }
+        executor.shutdown();
+
+        // Then
+        for (CompletableFuture<Optional<Product>> result : results) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> result.get(10, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof StackOverflowError);
+        }
+    }
 }
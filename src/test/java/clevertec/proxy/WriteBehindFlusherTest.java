@@ -0,0 +1,264 @@
+package clevertec.proxy;
+
+import clevertec.dao.ProductDao;
+import clevertec.data.ProductTestData;
+import clevertec.entity.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindFlusherTest {
+
+    private static final UUID ID = UUID.fromString("c249fc5b-4a25-4212-83ca-2c6ec0d57d0b");
+
+    @Mock
+    private ProductDao productDao;
+
+    private WriteBehindFlusher flusher;
+
+    @BeforeEach
+    void setUp() {
+        flusher = new WriteBehindFlusher(productDao, Duration.ofHours(1), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flusher.close();
+    }
+
+    @Test
+    void ShouldCoalesceRepeatedUpdatesIntoOneWrite() {
+        // Given
+        Product first = product(ID, 10.0);
+        Product second = product(ID, 20.0);
+        Product third = product(ID, 30.0);
+
+        // When
+        flusher.update(first);
+        flusher.update(second);
+        flusher.update(third);
+        flusher.flush();
+
+        // Then
+        verify(productDao)
+                .updateAll(List.of(third));
+        assertEquals(3, flusher.getWriteCount());
+        assertEquals(1, flusher.getFlushedCount());
+    }
+
+    @Test
+    void ShouldInsertLatestVersionWhenSavedProductIsUpdatedBeforeFlush() {
+        // Given
+        Product saved = product(ID, 10.0);
+        Product updated = product(ID, 20.0);
+
+        // When
+        flusher.save(saved);
+        flusher.update(updated);
+        flusher.flush();
+
+        // Then
+        verify(productDao)
+                .saveAll(List.of(updated));
+        verify(productDao, never())
+                .updateAll(anyList());
+    }
+
+    @Test
+    void ShouldExposePendingVersionUntilFlushed() {
+        // Given
+        Product product = product(ID, 10.0);
+
+        // When
+        flusher.update(product);
+
+        // Then
+        assertEquals(Optional.of(product), flusher.pending(ID));
+        flusher.flush();
+        assertEquals(Optional.empty(), flusher.pending(ID));
+    }
+
+    @Test
+    void ShouldRetryFailedWritesWithoutOverwritingNewerVersion() {
+        // Given
+        Product failed = product(ID, 10.0);
+        Product newer = product(ID, 20.0);
+        when(productDao.updateAll(anyList()))
+                .thenThrow(new RuntimeException("Database unavailable"))
+                .thenReturn(List.of(newer));
+
+        // When
+        flusher.update(failed);
+        assertThrows(RuntimeException.class, flusher::flush);
+        flusher.update(newer);
+        flusher.flush();
+
+        // Then
+        verify(productDao)
+                .updateAll(List.of(newer));
+        assertEquals(0, flusher.getPendingCount());
+    }
+
+    @Test
+    void ShouldSetAsideRowThatFailsAloneAndWriteTheRest() {
+        // Given
+        Product good = product(ID, 10.0);
+        Product poison = product(UUID.randomUUID(), -1.0);
+        doThrow(new RuntimeException("Check constraint violated"))
+                .when(productDao).updateAll(anyList());
+        doReturn(List.of(good))
+                .when(productDao).updateAll(List.of(good));
+
+        // When
+        flusher.update(good);
+        flusher.update(poison);
+        flusher.flush();
+
+        // Then
+        verify(productDao)
+                .updateAll(List.of(poison));
+        assertAll(() -> assertEquals(1, flusher.getFlushedCount()),
+                () -> assertEquals(1, flusher.getRejectedCount()),
+                () -> assertEquals(List.of(poison), flusher.getRejected()),
+                () -> assertEquals(0, flusher.getPendingCount()));
+    }
+
+    @Test
+    void ShouldSetAsideRowAfterRepeatedFailuresAndKeepServingIt() {
+        // Given
+        Product poison = product(ID, -1.0);
+        when(productDao.updateAll(anyList()))
+                .thenThrow(new RuntimeException("Check constraint violated",
+                        new SQLException("new row violates check constraint", "23514")));
+        flusher.update(poison);
+
+        // When
+        for (int attempt = 1; attempt < 5; attempt++) {
+            assertThrows(RuntimeException.class, flusher::flush);
+        }
+        flusher.flush();
+        flusher.flush();
+
+        // Then
+        verify(productDao, times(5))
+                .updateAll(List.of(poison));
+        assertAll(() -> assertEquals(0, flusher.getPendingCount()),
+                () -> assertEquals(List.of(poison), flusher.getRejected()),
+                () -> assertEquals(Optional.of(poison), flusher.pending(ID)));
+    }
+
+    @Test
+    void ShouldKeepRetryingWhileDatabaseIsUnreachable() {
+        // Given
+        Product product = product(ID, 10.0);
+        when(productDao.updateAll(anyList()))
+                .thenThrow(new RuntimeException("Failed to write products in batch",
+                        new SQLException("Connection refused", "08001")));
+        flusher.update(product);
+
+        // When
+        for (int attempt = 0; attempt < 10; attempt++) {
+            assertThrows(RuntimeException.class, flusher::flush);
+        }
+
+        // Then
+        assertAll(() -> assertEquals(1, flusher.getPendingCount()),
+                () -> assertEquals(0, flusher.getRejectedCount()),
+                () -> assertEquals(Optional.of(product), flusher.pending(ID)));
+    }
+
+    @Test
+    void ShouldStopRetryingOnCloseAndKeepUnflushedWritesCounted() {
+        // Given
+        Product product = product(ID, 10.0);
+        when(productDao.updateAll(anyList()))
+                .thenThrow(new RuntimeException("Database unavailable"));
+        flusher.update(product);
+
+        // When
+        flusher.close();
+
+        // Then
+        verify(productDao, times(3))
+                .updateAll(List.of(product));
+        assertEquals(1, flusher.getPendingCount());
+    }
+
+    @Test
+    void ShouldReportCancelledInsertSoDeleteCanSkipDatabase() {
+        // Given
+        flusher.save(product(ID, 10.0));
+
+        // When
+        boolean cancelled = flusher.cancel(ID);
+
+        // Then
+        assertTrue(cancelled);
+        assertFalse(flusher.cancel(ID));
+        flusher.flush();
+        verify(productDao, never())
+                .saveAll(anyList());
+    }
+
+    @Test
+    void ShouldFlushInBackgroundWhenBatchIsFull() {
+        // Given
+        flusher.close();
+        flusher = new WriteBehindFlusher(productDao, Duration.ofHours(1), 2);
+
+        // When
+        flusher.update(product(ID, 10.0));
+        flusher.update(product(UUID.randomUUID(), 20.0));
+
+        // Then
+        verify(productDao, timeout(5_000))
+                .updateAll(anyList());
+    }
+
+    @Test
+    void ShouldDrainPendingWritesOnClose() {
+        // Given
+        Product product = product(ID, 10.0);
+        flusher.update(product);
+
+        // When
+        flusher.close();
+
+        // Then
+        verify(productDao, times(1))
+                .updateAll(List.of(product));
+        assertThrows(IllegalStateException.class, () -> flusher.update(product));
+    }
+
+    private Product product(UUID id, double price) {
+        return ProductTestData.builder()
+                .withId(id)
+                .withPrice(price)
+                .build()
+                .buildProduct();
+    }
+}
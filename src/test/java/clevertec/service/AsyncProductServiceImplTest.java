@@ -0,0 +1,130 @@
+package clevertec.service;
+
+import clevertec.data.ProductTestData;
+import clevertec.dto.InfoProductDto;
+import clevertec.exception.ProductNotFoundException;
+import clevertec.service.impl.AsyncProductServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncProductServiceImplTest {
+    private static final int MAX_CONCURRENCY = 4;
+
+    @Mock
+    private ProductService productService;
+    private AsyncProductServiceImpl asyncProductService;
+
+    @BeforeEach
+    public void setUp() {
+        asyncProductService = new AsyncProductServiceImpl(productService, MAX_CONCURRENCY);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        asyncProductService.close();
+    }
+
+    @Test
+    public void shouldCompleteWithInfoProductDtoFromProductService() {
+        //Given
+        InfoProductDto expectedDto = ProductTestData.builder()
+                .build()
+                .buildInfoProductDto();
+        UUID id = expectedDto.getId();
+
+        when(productService.get(id))
+                .thenReturn(expectedDto);
+
+        //When
+        InfoProductDto actualDto = asyncProductService.get(id).join();
+
+        //Then
+        verify(productService).get(id);
+        assertEquals(expectedDto, actualDto);
+    }
+
+    @Test
+    public void shouldCompleteExceptionallyWhenProductIsNotFound() {
+        //Given
+        UUID id = UUID.randomUUID();
+
+        when(productService.get(id))
+                .thenThrow(new ProductNotFoundException(id));
+
+        //When
+        CompletableFuture<InfoProductDto> future = asyncProductService.get(id);
+
+        //Then
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(ProductNotFoundException.class, exception.getCause());
+    }
+
+    @Test
+    public void shouldCompleteExceptionallyWhenOperationThrowsError() {
+        //Given
+        UUID id = UUID.randomUUID();
+
+        when(productService.get(id))
+                .thenThrow(new StackOverflowError());
+
+        //When
+        CompletableFuture<InfoProductDto> future = asyncProductService.get(id);
+
+        //Then
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, exception.getCause());
+    }
+
+    @Test
+    public void shouldNotRunMoreOperationsThanMaxConcurrency() throws Exception {
+        //Given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        InfoProductDto dto = ProductTestData.builder()
+                .build()
+                .buildInfoProductDto();
+
+        when(productService.get(any()))
+                .thenAnswer(invocation -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(1);
+                    running.decrementAndGet();
+                    return dto;
+                });
+
+        //When
+        List<CompletableFuture<InfoProductDto>> futures = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            futures.add(asyncProductService.get(UUID.randomUUID()));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        //Then
+        assertTrue(maxRunning.get() <= MAX_CONCURRENCY, "Too many concurrent operations: " + maxRunning.get());
+        assertEquals(MAX_CONCURRENCY, asyncProductService.getAvailablePermits());
+        futures.forEach(future -> assertEquals(dto, future.join()));
+    }
+}
@@ -18,6 +18,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -59,6 +61,31 @@ public class ProductServiceImplTest {
         assertEquals(expectedDto, actualDto);
     }
 
+    @Test
+    public void shouldReturnInfoProductDtosForRequestedIds() {
+        //Given
+        Product product = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        InfoProductDto infoProductDto = ProductTestData.builder()
+                .build()
+                .buildInfoProductDto();
+        List<UUID> ids = List.of(product.getId());
+
+        when(daoProxy.getProductsByIds(ids))
+                .thenReturn(List.of(product));
+        when(productMapper.toInfoProductDto(product))
+                .thenReturn(infoProductDto);
+
+        //When
+        List<InfoProductDto> result = productService.getMany(ids);
+
+        //Then
+        assertEquals(List.of(infoProductDto), result);
+        verify(daoProxy)
+                .getProductsByIds(ids);
+    }
+
     @Test
     public void shouldReturnListOfInfoProductDtoWhenProductsExist() {
         //Given
@@ -88,6 +115,55 @@ public class ProductServiceImplTest {
                 .toInfoProductDto(product);
     }
 
+    @Test
+    public void shouldReturnPageOfInfoProductDtos() {
+        //Given
+        Product product = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        InfoProductDto infoProductDto = ProductTestData.builder()
+                .build()
+                .buildInfoProductDto();
+
+        when(daoProxy.getProductPage(null, 20))
+                .thenReturn(List.of(product));
+        when(productMapper.toInfoProductDto(product))
+                .thenReturn(infoProductDto);
+
+        //When
+        List<InfoProductDto> result = productService.getPage(null, 20);
+
+        //Then
+        assertEquals(List.of(infoProductDto), result);
+    }
+
+    @Test
+    public void shouldStreamInfoProductDtosAndCloseUnderlyingStream() {
+        //Given
+        Product product = ProductTestData.builder()
+                .build()
+                .buildProduct();
+        InfoProductDto infoProductDto = ProductTestData.builder()
+                .build()
+                .buildInfoProductDto();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        when(daoProxy.streamAllProducts())
+                .thenReturn(Stream.of(product).onClose(() -> closed.set(true)));
+        when(productMapper.toInfoProductDto(product))
+                .thenReturn(infoProductDto);
+
+        //When
+        List<InfoProductDto> result;
+        try (Stream<InfoProductDto> stream = productService.streamAllProducts()) {
+            result = stream.toList();
+        }
+
+        //Then
+        assertEquals(List.of(infoProductDto), result);
+        assertTrue(closed.get());
+    }
+
     @Test
     public void shouldReturnEmptyListWhenNoProductsExist() {
         // Given